@@ -0,0 +1,126 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Mesure de la sauvegarde des événements : sérialisation Java (ancien medisyns_data.ser)
+ * contre {@link CodecBinaire} (medisyns_data.bin). Taille du fichier, temps d'écriture et de relecture.
+ *
+ * Ne fait pas partie de l'application : ce dossier {@code bench/} n'est pas compilé par le build.
+ * Les fichiers sont écrits dans un dossier temporaire, supprimé à la fin.
+ *
+ * <pre>
+ * javac -encoding UTF-8 -d /tmp/bench $(find src bench -name '*.java')
+ * java -cp /tmp/bench com.agenda.controller.BenchCodec [nombre d'événements, 100000 par défaut]
+ * </pre>
+ *
+ * Chaque mesure est la médiane de {@value #MESURES} passes, après {@value #CHAUFFE} passes de chauffe.
+ */
+public class BenchCodec {
+
+    private static final int CHAUFFE = 5;
+    private static final int MESURES = 9;
+
+    /**
+     * Écriture ou lecture d'un fichier
+     */
+    private interface Operation {
+        void executer() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int nombre = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ArrayList<Evenement> evenements = genererEvenements(nombre);
+
+        Path dossier = Files.createTempDirectory("bench-codec");
+        Path ser = dossier.resolve("medisyns_data.ser");
+        Path bin = dossier.resolve("medisyns_data.bin");
+        try {
+            long ecritureSer = mediane(() -> {
+                try (ObjectOutputStream oos = new ObjectOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(ser)))) {
+                    oos.writeObject(evenements);
+                }
+            });
+            long lectureSer = mediane(() -> {
+                try (ObjectInputStream ois = new ObjectInputStream(
+                        new BufferedInputStream(Files.newInputStream(ser)))) {
+                    verifier(nombre, (List<?>) ois.readObject());
+                }
+            });
+            long ecritureBin = mediane(() -> Files.write(bin, CodecBinaire.encoderEvenements(evenements)));
+            long lectureBin = mediane(() -> verifier(nombre,
+                CodecBinaire.lireFichier(bin, CodecBinaire::decoderEvenements)));
+
+            System.out.printf("%d événements%n", nombre);
+            System.out.printf("%-20s %8s %12s %12s%n", "", "taille", "écriture", "lecture");
+            System.out.printf("%-20s %6.1f Mo %9d ms %9d ms%n", "sérialisation Java",
+                Files.size(ser) / 1e6, ecritureSer, lectureSer);
+            System.out.printf("%-20s %6.1f Mo %9d ms %9d ms%n", "CodecBinaire",
+                Files.size(bin) / 1e6, ecritureBin, lectureBin);
+        } finally {
+            Files.deleteIfExists(ser);
+            Files.deleteIfExists(bin);
+            Files.deleteIfExists(dossier);
+        }
+    }
+
+    private static long mediane(Operation operation) throws Exception {
+        for (int i = 0; i < CHAUFFE; i++) operation.executer();
+        long[] temps = new long[MESURES];
+        for (int i = 0; i < MESURES; i++) {
+            long debut = System.nanoTime();
+            operation.executer();
+            temps[i] = (System.nanoTime() - debut) / 1_000_000;
+        }
+        Arrays.sort(temps);
+        return temps[MESURES / 2];
+    }
+
+    private static void verifier(int attendus, List<?> relus) {
+        if (relus.size() != attendus) {
+            throw new IllegalStateException(relus.size() + " événements relus sur " + attendus);
+        }
+    }
+
+    /**
+     * Agenda type d'un service : une cinquantaine de soignants, un événement sur vingt répété chaque semaine
+     */
+    private static ArrayList<Evenement> genererEvenements(int nombre) {
+        ArrayList<Evenement> evenements = new ArrayList<>(nombre);
+        LocalDate debut = LocalDate.of(2026, 1, 5);
+        for (int i = 1; i <= nombre; i++) {
+            String responsable = "Dr. Soignant " + (i % 50);
+            Evenement e = new Evenement("Consultation " + i,
+                "Suivi du patient " + i + " : bilan sanguin, tension, renouvellement d'ordonnance",
+                debut.plusDays(i % 365), LocalTime.of(8 + i % 10, (i % 4) * 15), responsable,
+                new ArrayList<>(List.of(responsable, "Infirmier " + (i % 7))), "soignant" + (i % 50));
+            e.setId(i);
+            e.setNotificationBeforeMinutes(15);
+            e.setDureeMinutes(30);
+            if (i % 20 == 0) {
+                Recurrence r = new Recurrence(Recurrence.Frequence.HEBDOMADAIRE, 1);
+                r.setJours(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+                r.setNombre(10);
+                e.setRecurrence(r);
+            }
+            evenements.add(e);
+        }
+        return evenements;
+    }
+}
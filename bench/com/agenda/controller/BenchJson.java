@@ -0,0 +1,389 @@
+package com.agenda.controller;
+
+import com.agenda.controller.JsonManager.EventJson;
+import com.agenda.controller.JsonManager.NotificationJson;
+import com.agenda.controller.JsonManager.UserJson;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Mesure de la lecture des fichiers JSON : lecteur en flux ({@link LecteurJson}, utilisé par
+ * {@link JsonManager}) contre l'ancien découpage par expressions régulières, recopié tel quel
+ * dans {@link ParseurRegex}.
+ *
+ * Ne fait pas partie de l'application : ce dossier {@code bench/} n'est pas compilé par le build.
+ * JsonManager lit et écrit {@code src/json/} relativement au dossier courant, le banc refuse
+ * donc de tourner là où ce dossier existe déjà (il écraserait les vraies données).
+ *
+ * <pre>
+ * javac -encoding UTF-8 -d /tmp/bench $(find src bench -name '*.java')
+ * mkdir /tmp/bench-json &amp;&amp; cd /tmp/bench-json
+ * java -cp /tmp/bench com.agenda.controller.BenchJson [nombre d'enregistrements, 100000 par défaut]
+ * </pre>
+ *
+ * Chaque mesure est la médiane de {@value #MESURES} lectures, après {@value #CHAUFFE} lectures de chauffe.
+ * Côté flux, la date du fichier est changée avant chaque lecture pour contourner le cache de JsonManager.
+ */
+public class BenchJson {
+
+    private static final int CHAUFFE = 3;
+    private static final int MESURES = 5;
+
+    private static final Path USERS = Paths.get("src/json/users.json");
+    private static final Path EVENTS = Paths.get("src/json/events.json");
+    private static final Path NOTIFICATIONS = Paths.get("src/json/notifications.json");
+
+    private static long horloge = System.currentTimeMillis();
+
+    public static void main(String[] args) throws IOException {
+        int nombre = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        if (Files.exists(Paths.get("src/json"))) {
+            System.err.println("❌ src/json existe dans " + Paths.get("").toAbsolutePath()
+                + " : lancer le banc depuis un dossier vide");
+            return;
+        }
+
+        JsonManager.sauvegarderUtilisateurs(genererUtilisateurs(nombre));
+        JsonManager.sauvegarderEvenements(genererEvenements(nombre));
+        JsonManager.sauvegarderNotifications(genererNotifications(nombre));
+
+        System.out.println();
+        System.out.printf("%d enregistrements par fichier (events.json : %d Ko)%n",
+            nombre, Files.size(EVENTS) / 1024);
+        comparer("events.json",
+            () -> ParseurRegex.lireEvenements(EVENTS).size(),
+            () -> { invalider(EVENTS); return JsonManager.lireEvenements().size(); });
+        comparer("users.json",
+            () -> ParseurRegex.lireUtilisateurs(USERS).size(),
+            () -> { invalider(USERS); return JsonManager.lireUtilisateurs().size(); });
+        comparer("notifications.json",
+            () -> ParseurRegex.lireNotifications(NOTIFICATIONS).size(),
+            () -> { invalider(NOTIFICATIONS); return JsonManager.lireNotifications().size(); });
+        comparer("events lecture+écriture",
+            () -> {
+                List<EventJson> events = ParseurRegex.lireEvenements(EVENTS);
+                ParseurRegex.sauvegarderEvenements(EVENTS, events);
+                return events.size();
+            },
+            () -> {
+                invalider(EVENTS);
+                List<EventJson> events = JsonManager.lireEvenements();
+                JsonManager.sauvegarderEvenements(events);
+                return events.size();
+            });
+    }
+
+    private static void comparer(String nom, Supplier<Integer> regex, Supplier<Integer> flux) {
+        long[] tempsRegex = mesurer(regex);
+        long[] tempsFlux = mesurer(flux);
+        int lusRegex = regex.get();
+        int lusFlux = flux.get();
+        System.out.printf("%-24s regex %6d ms   flux %6d ms   (%d / %d lus)%n",
+            nom, mediane(tempsRegex), mediane(tempsFlux), lusRegex, lusFlux);
+    }
+
+    private static long[] mesurer(Supplier<Integer> lecture) {
+        for (int i = 0; i < CHAUFFE; i++) lecture.get();
+        long[] temps = new long[MESURES];
+        for (int i = 0; i < MESURES; i++) {
+            long debut = System.nanoTime();
+            lecture.get();
+            temps[i] = (System.nanoTime() - debut) / 1_000_000;
+        }
+        return temps;
+    }
+
+    private static long mediane(long[] temps) {
+        long[] tries = temps.clone();
+        Arrays.sort(tries);
+        return tries[tries.length / 2];
+    }
+
+    /**
+     * Change la date du fichier : le prochain accès de JsonManager le relira
+     */
+    private static void invalider(Path fichier) {
+        try {
+            Files.setLastModifiedTime(fichier, FileTime.fromMillis(horloge += 1000));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ==================== DONNÉES ====================
+
+    private static List<UserJson> genererUtilisateurs(int nombre) {
+        List<UserJson> users = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            users.add(new UserJson(i, "Dr Utilisateur " + i, "utilisateur" + i + "@medisyns.fr",
+                "motdepasse" + i, i % 10 == 0 ? "admin" : "user"));
+        }
+        return users;
+    }
+
+    private static List<EventJson> genererEvenements(int nombre) {
+        List<EventJson> events = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            EventJson ev = new EventJson();
+            ev.event_id = i;
+            ev.titre = "Consultation " + i;
+            ev.description = "Suivi du patient " + i + " : bilan sanguin, tension, « renouvellement » d'ordonnance";
+            ev.date = String.format("2026-%02d-%02d", 1 + i % 12, 1 + i % 28);
+            ev.heure = String.format("%02d:%02d", 8 + i % 10, (i % 4) * 15);
+            ev.createur_id = 1 + i % 50;
+            ev.responsable = "Dr Utilisateur " + (1 + i % 50);
+            ev.participants.add("Infirmier " + (i % 7));
+            ev.participants.add("Patient " + i);
+            ev.notificationBeforeMinutes = 15;
+            ev.partage_avec.add(1 + i % 50);
+            ev.partage_avec.add(1 + (i + 1) % 50);
+            events.add(ev);
+        }
+        return events;
+    }
+
+    private static List<NotificationJson> genererNotifications(int nombre) {
+        List<NotificationJson> notifications = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            notifications.add(new NotificationJson(i, 1 + i % 50,
+                "Nouvel événement partagé : Consultation " + i, i % 3 == 0));
+        }
+        return notifications;
+    }
+
+    // ==================== ANCIENNE LECTURE ====================
+
+    /**
+     * Lecture et écriture de JsonManager avant le lecteur en flux, à chemin près
+     */
+    static final class ParseurRegex {
+
+        static List<UserJson> lireUtilisateurs(Path chemin) {
+            List<UserJson> users = new ArrayList<>();
+            String content = lireFichier(chemin);
+            if (content == null || content.trim().isEmpty()) {
+                return users;
+            }
+
+            Pattern pattern = Pattern.compile(
+                "\\{[^}]*\"id\"\\s*:\\s*(\\d+)[^}]*" +
+                "\"nom\"\\s*:\\s*\"([^\"]*?)\"[^}]*" +
+                "\"email\"\\s*:\\s*\"([^\"]*?)\"[^}]*" +
+                "\"password\"\\s*:\\s*\"([^\"]*?)\"[^}]*" +
+                "\"role\"\\s*:\\s*\"([^\"]*?)\"[^}]*\\}"
+            );
+
+            String[] blocks = content.split("\\},\\s*\\{");
+            for (String block : blocks) {
+                block = block.replaceAll("[\\[\\]]", "").trim();
+                if (!block.startsWith("{")) block = "{" + block;
+                if (!block.endsWith("}")) block = block + "}";
+
+                int id = extractInt(block, "id");
+                String nom = extractString(block, "nom");
+                String email = extractString(block, "email");
+                String password = extractString(block, "password");
+                String role = extractString(block, "role");
+
+                if (id > 0 && nom != null && email != null) {
+                    users.add(new UserJson(id, nom, email, password != null ? password : "", role != null ? role : "user"));
+                }
+            }
+            return users;
+        }
+
+        static List<EventJson> lireEvenements(Path chemin) {
+            List<EventJson> events = new ArrayList<>();
+            String content = lireFichier(chemin);
+            if (content == null || content.trim().isEmpty()) {
+                return events;
+            }
+
+            String[] blocks = content.split("\\},\\s*\\{");
+            for (String block : blocks) {
+                block = block.replaceAll("[\\[\\]]", "").trim();
+                if (!block.startsWith("{")) block = "{" + block;
+                if (!block.endsWith("}")) block = block + "}";
+
+                EventJson event = new EventJson();
+                event.event_id = extractInt(block, "event_id");
+                event.titre = extractString(block, "titre");
+                event.description = extractString(block, "description");
+                event.date = extractString(block, "date");
+                event.heure = extractString(block, "heure");
+                event.createur_id = extractInt(block, "createur_id");
+                event.responsable = extractString(block, "responsable");
+                event.notificationBeforeMinutes = extractInt(block, "notificationBeforeMinutes");
+                event.participants = extractStringArray(block, "participants");
+                event.partage_avec = extractIntArray(block, "partage_avec");
+
+                if (event.event_id > 0 && event.titre != null) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+
+        static List<NotificationJson> lireNotifications(Path chemin) {
+            List<NotificationJson> notifications = new ArrayList<>();
+            String content = lireFichier(chemin);
+            if (content == null || content.trim().isEmpty()) {
+                return notifications;
+            }
+
+            String[] blocks = content.split("\\},\\s*\\{");
+            for (String block : blocks) {
+                block = block.replaceAll("[\\[\\]]", "").trim();
+                if (!block.startsWith("{")) block = "{" + block;
+                if (!block.endsWith("}")) block = block + "}";
+
+                int notif_id = extractInt(block, "notif_id");
+                int user_id = extractInt(block, "user_id");
+                String message = extractString(block, "message");
+                boolean lu = extractBoolean(block, "lu");
+
+                if (notif_id > 0 && user_id > 0) {
+                    notifications.add(new NotificationJson(notif_id, user_id, message, lu));
+                }
+            }
+            return notifications;
+        }
+
+        static void sauvegarderEvenements(Path chemin, List<EventJson> events) {
+            StringBuilder json = new StringBuilder("[\n");
+
+            for (int i = 0; i < events.size(); i++) {
+                EventJson ev = events.get(i);
+                json.append("  {\n");
+                json.append("    \"event_id\": ").append(ev.event_id).append(",\n");
+                json.append("    \"titre\": \"").append(escapeJson(ev.titre != null ? ev.titre : "")).append("\",\n");
+                json.append("    \"description\": \"").append(escapeJson(ev.description != null ? ev.description : "")).append("\",\n");
+                json.append("    \"date\": \"").append(ev.date != null ? ev.date : "").append("\",\n");
+                json.append("    \"heure\": \"").append(ev.heure != null ? ev.heure : "").append("\",\n");
+                json.append("    \"createur_id\": ").append(ev.createur_id).append(",\n");
+                json.append("    \"responsable\": \"").append(escapeJson(ev.responsable != null ? ev.responsable : "")).append("\",\n");
+
+                json.append("    \"participants\": [");
+                if (ev.participants != null && !ev.participants.isEmpty()) {
+                    for (int j = 0; j < ev.participants.size(); j++) {
+                        json.append("\"").append(escapeJson(ev.participants.get(j))).append("\"");
+                        if (j < ev.participants.size() - 1) json.append(", ");
+                    }
+                }
+                json.append("],\n");
+
+                json.append("    \"notificationBeforeMinutes\": ").append(ev.notificationBeforeMinutes).append(",\n");
+
+                json.append("    \"partage_avec\": [");
+                if (ev.partage_avec != null && !ev.partage_avec.isEmpty()) {
+                    for (int j = 0; j < ev.partage_avec.size(); j++) {
+                        json.append(ev.partage_avec.get(j));
+                        if (j < ev.partage_avec.size() - 1) json.append(", ");
+                    }
+                }
+                json.append("]\n");
+
+                json.append("  }");
+                if (i < events.size() - 1) json.append(",");
+                json.append("\n");
+            }
+
+            json.append("]\n");
+            try {
+                Files.write(chemin, json.toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static String lireFichier(Path chemin) {
+            try {
+                return new String(Files.readAllBytes(chemin), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                System.err.println("Erreur lecture fichier " + chemin + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        private static String escapeJson(String s) {
+            if (s == null) return "";
+            return s.replace("\\", "\\\\")
+                    .replace("\"", "\\\"")
+                    .replace("\n", "\\n")
+                    .replace("\r", "\\r")
+                    .replace("\t", "\\t");
+        }
+
+        private static String extractString(String json, String key) {
+            Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*\"([^\"]*?)\"");
+            Matcher matcher = pattern.matcher(json);
+            if (matcher.find()) {
+                return matcher.group(1).replace("\\\"", "\"").replace("\\n", "\n");
+            }
+            return null;
+        }
+
+        private static int extractInt(String json, String key) {
+            Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*(\\d+)");
+            Matcher matcher = pattern.matcher(json);
+            if (matcher.find()) {
+                return Integer.parseInt(matcher.group(1));
+            }
+            return 0;
+        }
+
+        private static boolean extractBoolean(String json, String key) {
+            Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*(true|false)");
+            Matcher matcher = pattern.matcher(json);
+            if (matcher.find()) {
+                return Boolean.parseBoolean(matcher.group(1));
+            }
+            return false;
+        }
+
+        private static List<String> extractStringArray(String json, String key) {
+            List<String> result = new ArrayList<>();
+            Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*\\[([^\\]]*)\\]");
+            Matcher matcher = pattern.matcher(json);
+            if (matcher.find()) {
+                String arrayContent = matcher.group(1);
+                Pattern itemPattern = Pattern.compile("\"([^\"]+)\"");
+                Matcher itemMatcher = itemPattern.matcher(arrayContent);
+                while (itemMatcher.find()) {
+                    result.add(itemMatcher.group(1));
+                }
+            }
+            return result;
+        }
+
+        private static List<Integer> extractIntArray(String json, String key) {
+            List<Integer> result = new ArrayList<>();
+            Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*\\[([^\\]]*)\\]");
+            Matcher matcher = pattern.matcher(json);
+            if (matcher.find()) {
+                String arrayContent = matcher.group(1).trim();
+                if (!arrayContent.isEmpty()) {
+                    for (String part : arrayContent.split(",")) {
+                        try {
+                            result.add(Integer.parseInt(part.trim()));
+                        } catch (NumberFormatException e) {
+                            // Ignorer les valeurs non numériques
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
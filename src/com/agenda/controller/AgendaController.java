@@ -1,54 +1,163 @@
 package com.agenda.controller;
 
 import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
 import com.agenda.modele.Utilisateur;
 import javax.swing.*;
-import java.awt.*;
+import java.time.DayOfWeek;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.*;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.io.*;
+import java.lang.ref.SoftReference;
 import java.nio.file.*;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 public class AgendaController {
 
-    private final List<Evenement> evenements;
+    // Événements des partitions chargées, par identifiant : recherche, modification et suppression en O(1)
+    private final Map<Integer, Evenement> evenements = new LinkedHashMap<>();
+    private int prochainId = 1;
+    private final IndexEvenements index = new IndexEvenements();
+    // Événements récurrents, toujours en mémoire (leur partition n'est jamais évincée) :
+    // leurs occurrences sont calculées pour chaque période demandée
+    private final Map<Integer, Evenement> series = new HashMap<>();
+    // Recherche textuelle sur tous les événements, y compris ceux des partitions non chargées
+    // (remplacé, une fois construit hors verrou, par construireIndex)
+    private volatile IndexTexte indexTexte = new IndexTexte();
+    // Occupation de chaque personne sur tous les événements, pour les conflits d'horaire
+    private volatile DetecteurConflits conflits = new DetecteurConflits();
+    // Compteurs des statistiques, tenus à jour à chaque modification
+    private final AgregatsStatistiques agregats = new AgregatsStatistiques();
+    // Pendant la construction des index : dernier état de chaque événement modifié depuis
+    // l'instantané (null pour une suppression), rejoué avant leur mise en service. Sous verrou.
+    private Map<Integer, Evenement> modificationsPendantIndexation;
+    // Une seule construction à la fois ; les autres demandeurs attendent son résultat
+    private final Object constructionIndex = new Object();
+    // Événements anciens sortis de l'agenda, lus seulement à la demande (recherche, statistiques)
+    private final ArchiveEvenements archive = new ArchiveEvenements(ARCHIVE_DIR);
+    // Protège evenements, index, stockage et prochainId : lectures concurrentes (EDT, rappels,
+    // arrêt), modifications exclusives. Non réentrant : rien n'est reverrouillé sous verrou.
+    private final StampedLock verrou = new StampedLock();
+    // Liste complète publiée aux lecteurs, invalidée à chaque modification
+    private volatile SoftReference<List<Evenement>> tousEnCache = new SoftReference<>(null);
+    // Incrémenté à chaque invalidation de tousEnCache (sous verrou d'écriture)
+    private long versionEvenements;
     private final ScheduledExecutorService scheduler;
-    private final List<Runnable> refreshListeners = new ArrayList<>();
-    private final Timer notificationTimer;
+    // Rechargement complet des vues (changement d'utilisateur, restauration)
+    private final List<Runnable> refreshListeners = new CopyOnWriteArrayList<>();
+    // Modifications unitaires des événements, appliquées incrémentalement par les vues
+    private final List<Consumer<ChangementAgenda>> changementListeners = new CopyOnWriteArrayList<>();
+    // Confirmations, alertes et rappels affichés par la fenêtre principale
+    private final List<Consumer<NotificationAgenda>> notificationListeners = new CopyOnWriteArrayList<>();
+    private final ArrayDeque<NotificationAgenda> notificationsEnAttente = new ArrayDeque<>();
+    private static final int MAX_NOTIFICATIONS_EN_ATTENTE = 50;
+    // Rappels de tous les événements chargés, déclenchés sur le thread des rappels
+    // Rappels d'un même destinataire regroupés en un seul message s'ils tombent dans cette fenêtre
+    public static final int FENETRE_RAPPELS_MINUTES = 30;
+    private volatile Duration fenetreRappels = Duration.ofMinutes(FENETRE_RAPPELS_MINUTES);
+    private final MoteurRappels rappels = new MoteurRappels("medisyns-rappels",
+        (id, instant) -> declencherRappel(id));
     
-    private static final String SAVE_FILE = "medisyns_data.ser";
-    private static final String BACKUP_FILE = "medisyns_data.ser.backup";
-    private static final String USERS_FILE = "medisyns_users.ser";
-    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String DATA_DIR = "medisyns_data";
+    private static final String ARCHIVE_DIR = "medisyns_archive";
+    private static final String JOURNAL_FILE = "medisyns_data.journal";
+    private static final String USERS_FILE = "medisyns_users.bin";
+    private static final String PARTAGES_FILE = "medisyns_partages.bin";
+    private static final String RAPPELS_FILE = "medisyns_rappels.bin";
+    // Sauvegardes des versions précédentes, converties au premier démarrage
+    private static final String ANCIEN_SAVE_FILE = "medisyns_data.bin";
+    private static final String ANCIEN_SAVE_FILE_SER = "medisyns_data.ser";
+    private static final String ANCIEN_USERS_FILE = "medisyns_users.ser";
+    // Partitions mensuelles gardées en mémoire au plus (hors partitions modifiées et mois courant)
+    private static final int MAX_PARTITIONS_EN_MEMOIRE = 24;
+    private static final int MAX_RAPPELS_ENVOYES = 50000;
+    // Par défaut, les événements de plus d'un an sont proposés à l'archivage
+    public static final int HORIZON_ARCHIVE_MOIS = 12;
+    // Heures d'ouverture du cabinet, pour la recherche de créneaux libres
+    public static final LocalTime HEURE_OUVERTURE = LocalTime.of(8, 0);
+    public static final LocalTime HEURE_FERMETURE = LocalTime.of(19, 0);
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-    private Utilisateur utilisateurCourant;
-    private final Map<String, Utilisateur> utilisateurs = new HashMap<>();
-    private final List<String> notificationsEnvoyees = new ArrayList<>();
-    private final List<EvenementPartage> evenementsPartages = new ArrayList<>();
+    private volatile Utilisateur utilisateurCourant;
+    private final Map<String, Utilisateur> utilisateurs = new ConcurrentHashMap<>();
+    // Rappels déjà affichés, conservés jusqu'au début de leur événement
+    private final RappelsEnvoyes rappelsEnvoyes = new RappelsEnvoyes(MAX_RAPPELS_ENVOYES);
+    private final List<EvenementPartage> evenementsPartages = new CopyOnWriteArrayList<>();
+    private final JournalEvenements journal = new JournalEvenements(JOURNAL_FILE);
+    private final StockagePartitionne stockage = new StockagePartitionne(DATA_DIR, MAX_PARTITIONS_EN_MEMOIRE,
+        new StockagePartitionne.Residence() {
+            @Override
+            public void partitionChargee(YearMonth mois, List<Evenement> charges) {
+                for (Evenement e : charges) {
+                    Evenement precedent = evenements.put(e.getId(), e);
+                    if (precedent != null) index.retirer(precedent);
+                    index.ajouter(e);
+                    enregistrerSerie(e);
+                    planifierNotification(e);
+                }
+            }
+
+            @Override
+            public void partitionEvincee(YearMonth mois) {
+                for (Evenement e : index.getPourMois(mois)) {
+                    evenements.remove(e.getId());
+                    series.remove(e.getId());
+                    index.retirer(e);
+                }
+            }
+        });
+    // Écritures sur disque regroupées toutes les 500 ms, au plus 5 s après une modification
+    private final PersistanceAsynchrone persistance = new PersistanceAsynchrone("medisyns-persistance", 500, 5000);
+    // Rejeu interrompu par une partition illisible : le journal n'est plus vidé aux checkpoints,
+    // ses opérations pas encore appliquées seront rejouées au prochain démarrage
+    private boolean journalConserve;
+    private boolean arrete;
 
     public AgendaController() {
-        evenements = new ArrayList<>();
         scheduler = Executors.newScheduledThreadPool(1);
+        persistance.setGestionnaireEchec(e -> showRedAlert("Erreur de sauvegarde", 
+            "Une écriture a été abandonnée après " + PersistanceAsynchrone.MAX_TENTATIVES +
+            " tentatives: " + e.getMessage() + ". Les modifications suivantes continuent d'être enregistrées."));
         
-        notificationTimer = new Timer(30000, e -> verifierNotificationsImmediates());
-        notificationTimer.start();
+        migrerSauvegarde(ANCIEN_USERS_FILE, USERS_FILE, CodecBinaire::decoderUtilisateurs, CodecBinaire::encoderUtilisateurs);
         
+        // Avant les événements : leurs rappels en retard partent dès le chargement
+        chargerRappelsEnvoyes();
         chargerDonnees();
         chargerUtilisateurs();
+        chargerPartages();
+        planifierChangementDeMois();
+        // Index de recherche, de conflits et statistiques construits en arrière-plan, prêts avant la première requête
+        scheduler.execute(() -> {
+            try {
+                construireIndex();
+            } catch (UncheckedIOException e) {
+                signalerPartitionIllisible(e);
+            }
+        });
         
-        Runtime.getRuntime().addShutdownHook(new Thread(this::sauvegarderDonnees));
-        Runtime.getRuntime().addShutdownHook(new Thread(this::sauvegarderUtilisateurs));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
         
         System.out.println("Système de notifications Medisyns activé");
     }
@@ -93,7 +202,7 @@ public class AgendaController {
         }
         
         Utilisateur nouvelUtilisateur = new Utilisateur(username, username, role, email);
-        utilisateurs.put(username, nouvelUtilisateur);
+        enregistrerUtilisateur(nouvelUtilisateur);
         sauvegarderUtilisateurs();
         
         System.out.println("Inscription réussie pour: " + username);
@@ -111,7 +220,7 @@ public class AgendaController {
     public void setUtilisateurCourant(Utilisateur utilisateur) {
         this.utilisateurCourant = utilisateur;
         if (utilisateur != null && !utilisateurs.containsKey(utilisateur.getUsername())) {
-            utilisateurs.put(utilisateur.getUsername(), utilisateur);
+            enregistrerUtilisateur(utilisateur);
         }
         // Notifier tous les listeners pour rafraîchir l'UI
         notifyRefreshListeners();
@@ -154,7 +263,7 @@ public class AgendaController {
             nouvelUtilisateur = new Utilisateur(username, nomComplet, "UTILISATEUR", email);
         }
         
-        utilisateurs.put(username, nouvelUtilisateur);
+        enregistrerUtilisateur(nouvelUtilisateur);
         sauvegarderUtilisateurs();
         
         System.out.println("Profil créé: " + username + " (" + role + ")");
@@ -176,149 +285,169 @@ public class AgendaController {
         return true;
     }
 
-    private void verifierNotificationsImmediates() {
+    /**
+     * Rappel arrivé à échéance : l'événement est relu par son identifiant, il a pu
+     * être modifié ou supprimé depuis la planification.
+     */
+    private void declencherRappel(int id) {
+        Evenement ev = getEvenementParId(id);
+        if (ev == null || ev.getNotificationBeforeMinutes() <= 0) return;
+
         LocalDateTime now = LocalDateTime.now();
-        
-        for (Evenement ev : new ArrayList<>(evenements)) {
-            if (ev.getNotificationBeforeMinutes() <= 0) continue;
+        LocalDateTime eventTime = prochaineOccurrenceARappeler(ev, now);
+        if (eventTime == null) return;
+        LocalDateTime notifyTime = eventTime.minusMinutes(ev.getNotificationBeforeMinutes());
+        if (now.isBefore(notifyTime)) {
+            planifierNotification(ev);
+            return;
+        }
 
-            LocalDateTime eventTime = LocalDateTime.of(ev.getDate(), ev.getHeure());
-            LocalDateTime notifyTime = eventTime.minusMinutes(ev.getNotificationBeforeMinutes());
+        envoyerRappels(ev, eventTime, now);
+        // Une série enchaîne sur le rappel de l'occurrence suivante
+        if (ev.estRecurrent()) planifierNotification(ev);
+    }
 
-            if (eventTime.isBefore(now)) {
-                continue;
-            }
+    /**
+     * Envoie le rappel échu de {@code ev} avec ceux du même destinataire qui tombent dans
+     * la fenêtre de regroupement : un seul message, trié par heure de début. Les rappels
+     * emportés sont marqués envoyés et retirés de la file (une série passe à son occurrence
+     * suivante) ; ils ne repartiront donc pas à leur heure.
+     */
+    private void envoyerRappels(Evenement ev, LocalDateTime debut, LocalDateTime maintenant) {
+        String destinataire = destinataireRappel(ev);
+        List<Evenement> occurrences = new ArrayList<>();
+        occurrences.add(ev.estRecurrent() ? ev.occurrenceLe(debut.toLocalDate()) : ev);
+        rappelsEnvoyes.marquerEnvoye(ev.getId(), ev.getNotificationBeforeMinutes(), debut);
 
-            boolean isTimeForNotification = 
-                (now.isAfter(notifyTime) || now.isEqual(notifyTime)) && 
-                now.isBefore(eventTime);
-            
-            if (isTimeForNotification) {
-                String notificationKey = ev.getTitre() + "_" + ev.getDate() + "_" + 
-                                       ev.getHeure() + "_" + ev.getNotificationBeforeMinutes();
-                if (!notificationDejaEnvoyee(notificationKey)) {
-                    envoyerNotificationImmediate(ev);
-                    marquerNotificationEnvoyee(notificationKey);
-                }
-            }
+        LocalDateTime limite = maintenant.plus(fenetreRappels);
+        for (int autreId : rappels.prochainsAvant(limite)) {
+            if (autreId == ev.getId()) continue;
+            Evenement autre = getEvenementParId(autreId);
+            if (autre == null || autre.getNotificationBeforeMinutes() <= 0
+                    || !destinataire.equals(destinataireRappel(autre))) continue;
+            LocalDateTime autreDebut = prochaineOccurrenceARappeler(autre, maintenant);
+            if (autreDebut == null || autreDebut.minusMinutes(autre.getNotificationBeforeMinutes()).isAfter(limite)) continue;
+            occurrences.add(autre.estRecurrent() ? autre.occurrenceLe(autreDebut.toLocalDate()) : autre);
+            rappelsEnvoyes.marquerEnvoye(autreId, autre.getNotificationBeforeMinutes(), autreDebut);
+            planifierNotification(autre);
         }
+        sauvegarderRappelsEnvoyes();
+
+        if (occurrences.size() == 1) {
+            envoyerNotificationImmediate(occurrences.get(0));
+            return;
+        }
+        occurrences.sort(Comparator.comparing(Evenement::getDebut));
+        publierNotification(NotificationAgenda.rappels(destinataire, occurrences));
+        System.out.println("Rappels regroupés envoyés: " + occurrences.size() + " pour " + destinataire + " - " + LocalDateTime.now());
     }
-    
-    private boolean notificationDejaEnvoyee(String key) {
-        return notificationsEnvoyees.contains(key);
+
+    /**
+     * Personne à qui s'adresse le rappel : le responsable de l'événement, à défaut son créateur
+     */
+    private static String destinataireRappel(Evenement e) {
+        if (e.getResponsable() != null && !e.getResponsable().isBlank()) return e.getResponsable();
+        return e.getCreateurUsername() != null ? e.getCreateurUsername() : "System";
     }
-    
-    private void marquerNotificationEnvoyee(String key) {
-        notificationsEnvoyees.add(key);
+
+    /**
+     * Fenêtre de regroupement des rappels : ceux d'un même destinataire qui tombent dans
+     * cet intervalle après un rappel échu partent avec lui (zéro : seulement ceux déjà échus)
+     */
+    public void setFenetreRappels(Duration fenetre) {
+        this.fenetreRappels = fenetre.isNegative() ? Duration.ZERO : fenetre;
     }
 
-    private void envoyerNotificationImmediate(Evenement ev) {
-        SwingUtilities.invokeLater(() -> {
-            String message = String.format(
-                "<html>" +
-                "<div style='background: linear-gradient(135deg, #E6D7FF, #F0E8FF); padding: 20px; border-radius: 12px; border: 2px solid #6E44FF; width: 360px;'>" +
-                "<h3 style='margin: 0 0 15px 0; text-align: center; color: #6B46C1; font-size: 16px;'>Rappel Médical</h3>" +
-                "<div style='color: #4A5568; font-size: 13px; background: #FFFFFF; padding: 15px; border-radius: 8px; border: 1px solid #E2E8F0;'>" +
-                "<div style='margin-bottom: 8px;'><b style='color: #6B46C1;'>Événement :</b> %s</div>" +
-                "<div style='margin-bottom: 8px;'><b style='color: #6B46C1;'>Date :</b> %s à %s</div>" +
-                "<div style='margin-bottom: 8px;'><b style='color: #6B46C1;'>Dans :</b> %d minutes</div>" +
-                "<div style='margin-bottom: 8px;'><b style='color: #6B46C1;'>Responsable :</b> %s</div>" +
-                "<div><b style='color: #6B46C1;'>Participants :</b> %s</div>" +
-                "</div>" +
-                "</div>" +
-                "</html>",
-                ev.getTitre(),
-                ev.getDate().format(dateFormatter),
-                ev.getHeure().format(timeFormatter),
-                ev.getNotificationBeforeMinutes(),
-                ev.getResponsable(),
-                ev.getParticipants() != null ? String.join(", ", ev.getParticipants()) : "Aucun"
-            );
-
-            JLabel notificationLabel = new JLabel(message);
-            notificationLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-            JOptionPane.showMessageDialog(
-                null,
-                notificationLabel,
-                "Medisyns - Rappel",
-                JOptionPane.WARNING_MESSAGE
-            );
-            
-            System.out.println("Rappel envoyé: " + ev.getTitre() + " - " + LocalDateTime.now());
-        });
+    public Duration getFenetreRappels() {
+        return fenetreRappels;
     }
 
-    private void showMedisynsNotification(String title, String message) {
-        SwingUtilities.invokeLater(() -> {
-            String notificationHTML = String.format(
-                "<html>" +
-                "<div style='background: linear-gradient(135deg, #E6D7FF, #F0E8FF); padding: 20px; border-radius: 12px; border: 2px solid #B464C8; width: 320px;'>" +
-                "<h3 style='margin: 0 0 12px 0; text-align: center; color: #6B46C1; font-size: 16px;'>%s</h3>" +
-                "<div style='text-align: center; color: #4A5568; font-size: 13px; background: #FFFFFF; padding: 12px; border-radius: 8px; border: 1px solid #E2E8F0;'>%s</div>" +
-                "</div>" +
-                "</html>",
-                title, message
-            );
-
-            JLabel notificationLabel = new JLabel(notificationHTML);
-            notificationLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-            JOptionPane.showMessageDialog(
-                null,
-                notificationLabel,
-                "Medisyns",
-                JOptionPane.INFORMATION_MESSAGE
-            );
-        });
+    /**
+     * Début de la prochaine occurrence à venir dont le rappel n'est pas encore parti
+     * (pour un événement unique : son début s'il est à venir et pas encore rappelé)
+     */
+    private LocalDateTime prochaineOccurrenceARappeler(Evenement e, LocalDateTime maintenant) {
+        LocalDateTime debut = e.prochainDebut(maintenant);
+        while (debut != null
+                && rappelsEnvoyes.estEnvoye(e.getId(), e.getNotificationBeforeMinutes(), debut)) {
+            debut = e.prochainDebut(debut);
+        }
+        return debut;
+    }
+    
+    /**
+     * Au début de chaque mois, charge la nouvelle fenêtre de partitions (et planifie ses rappels)
+     */
+    private void planifierChangementDeMois() {
+        LocalDateTime debutMoisSuivant = YearMonth.now().plusMonths(1).atDay(1).atStartOfDay();
+        long delai = Duration.between(LocalDateTime.now(), debutMoisSuivant).toMillis();
+        scheduler.schedule(() -> {
+            long stamp = verrou.writeLock();
+            try {
+                stockage.assurerFenetreCourante();
+            } finally {
+                verrou.unlockWrite(stamp);
+            }
+            planifierChangementDeMois();
+        }, Math.max(delai, 0) + 1000, TimeUnit.MILLISECONDS);
+    }
+    
+    private void envoyerNotificationImmediate(Evenement ev) {
+        publierNotification(NotificationAgenda.rappel(ev));
+        System.out.println("Rappel envoyé: " + ev.getTitre() + " - " + LocalDateTime.now());
     }
 
     private void showRedAlert(String title, String message) {
-        SwingUtilities.invokeLater(() -> {
-            String alertHTML = String.format(
-                "<html>" +
-                "<div style='background: linear-gradient(135deg, #FED7D7, #FEB2B2); padding: 20px; border-radius: 12px; border: 2px solid #FC8181; width: 320px;'>" +
-                "<h3 style='margin: 0 0 12px 0; text-align: center; color: #C53030; font-size: 16px;'>%s</h3>" +
-                "<div style='text-align: center; color: #744210; font-size: 13px; background: #FFFFFF; padding: 12px; border-radius: 8px; border: 1px solid #FBD38D;'>%s</div>" +
-                "</div>" +
-                "</html>",
-                title, message
-            );
-
-            JLabel alertLabel = new JLabel(alertHTML);
-            alertLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-            JOptionPane.showMessageDialog(
-                null,
-                alertLabel,
-                "Medisyns - Alerte",
-                JOptionPane.ERROR_MESSAGE
-            );
-        });
+        publierNotification(NotificationAgenda.alerte(title, message));
     }
 
     private void showSuccess(String title, String message) {
-        SwingUtilities.invokeLater(() -> {
-            String successHTML = String.format(
-                "<html>" +
-                "<div style='background: linear-gradient(135deg, #C6F6D5, #9AE6B4); padding: 20px; border-radius: 12px; border: 2px solid #48BB78; width: 320px;'>" +
-                "<h3 style='margin: 0 0 12px 0; text-align: center; color: #2F855A; font-size: 16px;'>%s</h3>" +
-                "<div style='text-align: center; color: #22543D; font-size: 13px; background: #FFFFFF; padding: 12px; border-radius: 8px; border: 1px solid #9AE6B4;'>%s</div>" +
-                "</div>" +
-                "</html>",
-                title, message
-            );
-
-            JLabel successLabel = new JLabel(successHTML);
-            successLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-            JOptionPane.showMessageDialog(
-                null,
-                successLabel,
-                "Medisyns - Succès",
-                JOptionPane.INFORMATION_MESSAGE
-            );
-        });
+        publierNotification(NotificationAgenda.succes(title, message));
+    }
+
+    /**
+     * Abonne une vue aux confirmations, alertes et rappels ; elle est toujours appelée sur l'EDT.
+     * Les notifications publiées avant le premier abonnement (rappels en retard envoyés
+     * au chargement, par exemple) lui sont remises à ce moment-là.
+     */
+    public void addNotificationListener(Consumer<NotificationAgenda> listener) {
+        List<NotificationAgenda> enAttente;
+        synchronized (notificationsEnAttente) {
+            notificationListeners.add(listener);
+            enAttente = new ArrayList<>(notificationsEnAttente);
+            notificationsEnAttente.clear();
+        }
+        if (!enAttente.isEmpty()) {
+            SwingUtilities.invokeLater(() -> enAttente.forEach(listener));
+        }
+    }
+
+    public void removeNotificationListener(Consumer<NotificationAgenda> listener) {
+        notificationListeners.remove(listener);
+    }
+
+    private void publierNotification(NotificationAgenda notification) {
+        synchronized (notificationsEnAttente) {
+            if (notificationListeners.isEmpty()) {
+                // Aucune fenêtre principale encore ouverte : gardée pour elle (les plus récentes)
+                if (notificationsEnAttente.size() == MAX_NOTIFICATIONS_EN_ATTENTE) {
+                    notificationsEnAttente.removeFirst();
+                }
+                notificationsEnAttente.addLast(notification);
+                System.out.println("🔔 " + notification);
+                return;
+            }
+        }
+        Runnable diffusion = () -> {
+            for (Consumer<NotificationAgenda> listener : notificationListeners) {
+                listener.accept(notification);
+            }
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            diffusion.run();
+        } else {
+            SwingUtilities.invokeLater(diffusion);
+        }
     }
 
     public void addRefreshListener(Runnable listener) {
@@ -329,6 +458,31 @@ public class AgendaController {
         for (Runnable r : refreshListeners) r.run();
     }
 
+    /**
+     * Abonne une vue aux modifications d'événements ; elle est toujours appelée sur l'EDT
+     */
+    public void addChangementListener(Consumer<ChangementAgenda> listener) {
+        changementListeners.add(listener);
+    }
+
+    public void removeChangementListener(Consumer<ChangementAgenda> listener) {
+        changementListeners.remove(listener);
+    }
+
+    private void publierChangement(ChangementAgenda changement) {
+        if (changementListeners.isEmpty()) return;
+        Runnable diffusion = () -> {
+            for (Consumer<ChangementAgenda> listener : changementListeners) {
+                listener.accept(changement);
+            }
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            diffusion.run();
+        } else {
+            SwingUtilities.invokeLater(diffusion);
+        }
+    }
+
     public void ajouterEvenement(Evenement e) {
         // Lier l'événement à l'utilisateur courant
         if (utilisateurCourant != null) {
@@ -340,15 +494,34 @@ public class AgendaController {
             } catch (Exception ex) {
                 System.err.println("Erreur lors de la liaison de l'événement à l'utilisateur: " + ex.getMessage());
             }
-            
-            // Incrémenter le compteur d'événements créés
-            utilisateurCourant.incrementerEvenementsCrees();
         }
         
-        evenements.add(e);
-        planifierNotification(e);
-        notifyRefreshListeners();
-        sauvegarderDonnees();
+        long stamp = verrou.writeLock();
+        try {
+            stockage.assurerCharge(YearMonth.from(e.getDate()));
+            if (e.getId() <= 0 || stockage.getMois(e.getId()) != null) {
+                e.setId(prochainId++);
+            }
+            evenements.put(e.getId(), e);
+            index.ajouter(e);
+            enregistrerSerie(e);
+            indexTexte.mettreAJour(e);
+            conflits.mettreAJour(e);
+            agregats.mettreAJour(e);
+            noterPourIndexation(e.getId(), e);
+            stockage.enregistrerEcriture(e);
+            invaliderCache();
+            planifierNotification(e);
+            persister(() -> journal.journaliserAjout(e));
+        } catch (UncheckedIOException ex) {
+            signalerPartitionIllisible(ex);
+            return;
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        // Incrémenter le compteur d'événements créés
+        if (utilisateurCourant != null) utilisateurCourant.incrementerEvenementsCrees();
+        publierChangement(ChangementAgenda.ajout(e));
         sauvegarderUtilisateurs();
         
         showSuccess("Événement créé", "L'événement \"" + e.getTitre() + "\" a été créé avec succès.");
@@ -356,10 +529,30 @@ public class AgendaController {
                           (utilisateurCourant != null ? utilisateurCourant.getUsername() : "System"));
     }
 
+    /**
+     * Supprime l'événement ; pour une occurrence affichée d'une série, seulement ce jour-là
+     * (la série entière se supprime par son identifiant)
+     */
     public void supprimerEvenement(Evenement e) {
-        if (evenements.remove(e)) {
-            notifyRefreshListeners();
-            sauvegarderDonnees();
+        if (e.estOccurrence()) {
+            supprimerOccurrence(e);
+            return;
+        }
+        Evenement retire;
+        long stamp = verrou.writeLock();
+        try {
+            retire = appliquerSuppression(e.getId());
+            if (retire != null) {
+                persister(() -> journal.journaliserSuppression(retire.getId()));
+            }
+        } catch (UncheckedIOException ex) {
+            signalerPartitionIllisible(ex);
+            return;
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        if (retire != null) {
+            publierChangement(ChangementAgenda.suppression(retire));
             showSuccess("Événement supprimé", "L'événement \"" + e.getTitre() + "\" a été supprimé.");
             System.out.println("Événement supprimé: " + e.getTitre());
         } else {
@@ -367,14 +560,69 @@ public class AgendaController {
         }
     }
 
+    /**
+     * Retire un jour d'une série : la date devient une exception de sa règle
+     */
+    public void supprimerOccurrence(Evenement occurrence) {
+        Evenement serie = getEvenementParId(occurrence.getId());
+        if (serie == null || !serie.estRecurrent()) {
+            showRedAlert("Erreur", "Impossible de trouver la série de \"" + occurrence.getTitre() + "\".");
+            return;
+        }
+        Evenement modifiee = serie.copie();
+        modifiee.getRecurrence().ajouterException(occurrence.getDate());
+        long stamp = verrou.writeLock();
+        try {
+            appliquerEcriture(modifiee);
+            persister(() -> journal.journaliserMiseAJour(modifiee));
+        } catch (UncheckedIOException ex) {
+            signalerPartitionIllisible(ex);
+            return;
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        publierChangement(ChangementAgenda.miseAJour(serie, modifiee));
+        showSuccess("Occurrence supprimée", "L'événement \"" + occurrence.getTitre() + "\" du " +
+                   occurrence.getDate().format(dateFormatter) + " a été retiré de la série.");
+        System.out.println("Occurrence supprimée: " + occurrence.getTitre() + " le " + occurrence.getDate());
+    }
+
+    /**
+     * Supprime l'événement portant cet identifiant (une série en entier)
+     */
+    public void supprimerEvenement(int id) {
+        Evenement e = getEvenementParId(id);
+        if (e != null) {
+            supprimerEvenement(e);
+        } else {
+            showRedAlert("Erreur", "Impossible de trouver l'événement n°" + id + ".");
+        }
+    }
+
+    /**
+     * Remplace un événement. À partir d'une occurrence affichée d'une série : un {@code nouveau}
+     * sans répétition ne modifie que ce jour-là (exception dans la série et événement séparé) ;
+     * avec répétition, il modifie la série, décalée d'autant de jours que l'occurrence.
+     */
     public void mettreAJourEvenement(Evenement ancien, Evenement nouveau) {
-        int index = evenements.indexOf(ancien);
-        if (index != -1) {
+        Evenement existant = getEvenementParId(ancien.getId());
+        if (existant != null && ancien.estOccurrence() && existant.estRecurrent()) {
+            if (!nouveau.estRecurrent()) {
+                detacherOccurrence(existant, ancien, nouveau);
+                return;
+            }
+            long decalage = java.time.temporal.ChronoUnit.DAYS.between(ancien.getDate(), nouveau.getDate());
+            nouveau.setDate(existant.getDate().plusDays(decalage));
+            for (LocalDate exception : existant.getRecurrence().getExceptions()) {
+                nouveau.getRecurrence().ajouterException(exception.plusDays(decalage));
+            }
+        }
+        if (existant != null) {
             // Conserver le createurUsername de l'ancien événement
             try {
-                java.lang.reflect.Field oldField = ancien.getClass().getDeclaredField("createurUsername");
+                java.lang.reflect.Field oldField = existant.getClass().getDeclaredField("createurUsername");
                 oldField.setAccessible(true);
-                String createurUsername = (String) oldField.get(ancien);
+                String createurUsername = (String) oldField.get(existant);
                 
                 java.lang.reflect.Field newField = nouveau.getClass().getDeclaredField("createurUsername");
                 newField.setAccessible(true);
@@ -383,108 +631,690 @@ public class AgendaController {
                 System.err.println("Erreur lors de la conservation du createurUsername: " + ex.getMessage());
             }
             
-            evenements.set(index, nouveau);
-            planifierNotification(nouveau);
-            notifyRefreshListeners();
-            sauvegarderDonnees();
+            // Le nouvel événement reprend l'identifiant et la place de l'ancien
+            nouveau.setId(existant.getId());
+            long stamp = verrou.writeLock();
+            try {
+                appliquerEcriture(nouveau);
+                persister(() -> journal.journaliserMiseAJour(nouveau));
+            } catch (UncheckedIOException ex) {
+                signalerPartitionIllisible(ex);
+                return;
+            } finally {
+                verrou.unlockWrite(stamp);
+            }
+            publierChangement(ChangementAgenda.miseAJour(existant, nouveau));
             
             showSuccess("Événement modifié", "L'événement \"" + nouveau.getTitre() + "\" a été modifié avec succès.");
-            System.out.println("Événement modifié: " + ancien.getTitre() + " -> " + nouveau.getTitre());
+            System.out.println("Événement modifié: " + existant.getTitre() + " -> " + nouveau.getTitre());
         } else {
             showRedAlert("Erreur", "Impossible de trouver l'événement à modifier: " + ancien.getTitre());
         }
     }
 
+    /**
+     * Modification d'un seul jour d'une série : ce jour devient une exception et
+     * {@code nouveau} est enregistré comme un événement à part
+     */
+    private void detacherOccurrence(Evenement serie, Evenement occurrence, Evenement nouveau) {
+        Evenement modifiee = serie.copie();
+        modifiee.getRecurrence().ajouterException(occurrence.getDate());
+        nouveau.setCreateurUsername(serie.getCreateurUsername());
+        long stamp = verrou.writeLock();
+        try {
+            // Les deux partitions d'abord : rien n'est modifié si l'une est illisible
+            stockage.assurerCharge(YearMonth.from(nouveau.getDate()));
+            appliquerEcriture(modifiee);
+            persister(() -> journal.journaliserMiseAJour(modifiee));
+            nouveau.setId(prochainId++);
+            appliquerEcriture(nouveau);
+            persister(() -> journal.journaliserAjout(nouveau));
+        } catch (UncheckedIOException ex) {
+            signalerPartitionIllisible(ex);
+            return;
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        publierChangement(ChangementAgenda.miseAJour(serie, modifiee));
+        publierChangement(ChangementAgenda.ajout(nouveau));
+        showSuccess("Événement modifié", "L'événement \"" + nouveau.getTitre() + "\" du " +
+                   occurrence.getDate().format(dateFormatter) + " a été modifié (cette occurrence seulement).");
+        System.out.println("Occurrence détachée: " + serie.getTitre() + " le " + occurrence.getDate() + " -> n°" + nouveau.getId());
+    }
+
+    /**
+     * Remplace l'événement portant cet identifiant
+     */
+    public void mettreAJourEvenement(int id, Evenement nouveau) {
+        Evenement ancien = getEvenementParId(id);
+        if (ancien != null) {
+            mettreAJourEvenement(ancien, nouveau);
+        } else {
+            showRedAlert("Erreur", "Impossible de trouver l'événement n°" + id + ".");
+        }
+    }
+
+    // ==================== OPÉRATIONS PAR LOT ====================
+    // Tout le lot est appliqué sous un seul verrou d'écriture, envoyé au journal en une tâche,
+    // publié aux vues en un seul changement et résumé en un seul message.
+
+    /**
+     * Ajoute plusieurs événements (ceux sans date ou sans heure sont ignorés)
+     */
+    public ResultatLot ajouterEvenements(Collection<Evenement> nouveaux) {
+        long debut = System.currentTimeMillis();
+        Utilisateur createur = utilisateurCourant;
+        List<Evenement> ajoutes = new ArrayList<>(nouveaux.size());
+        List<Integer> ignores = new ArrayList<>();
+        List<ChangementAgenda> changements = new ArrayList<>(nouveaux.size());
+        long stamp = verrou.writeLock();
+        try {
+            for (Evenement e : nouveaux) {
+                if (e.getDate() == null || e.getHeure() == null) {
+                    ignores.add(e.getId());
+                    continue;
+                }
+                if (createur != null) e.setCreateurUsername(createur.getUsername());
+                if (e.getId() <= 0 || stockage.getMois(e.getId()) != null) {
+                    e.setId(prochainId++);
+                }
+                try {
+                    appliquerEcriture(e);
+                } catch (UncheckedIOException ex) {
+                    ignorerDansLot(e.getId(), ex, ignores);
+                    continue;
+                }
+                ajoutes.add(e);
+                changements.add(ChangementAgenda.ajout(e));
+            }
+            if (!ajoutes.isEmpty()) {
+                persister(() -> {
+                    for (Evenement e : ajoutes) journal.journaliserAjout(e);
+                });
+            }
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        if (createur != null) {
+            for (int i = 0; i < ajoutes.size(); i++) createur.incrementerEvenementsCrees();
+        }
+        return terminerLot("ajouté(s)", changements, ignores, debut);
+    }
+
+    /**
+     * Supprime plusieurs événements par identifiant (une série en entier)
+     */
+    public ResultatLot supprimerEvenements(Collection<Integer> ids) {
+        return supprimerLot("supprimé(s)", ids);
+    }
+
+    private ResultatLot supprimerLot(String operation, Collection<Integer> ids) {
+        long debut = System.currentTimeMillis();
+        List<Integer> ignores = new ArrayList<>();
+        List<ChangementAgenda> changements = new ArrayList<>(ids.size());
+        long stamp = verrou.writeLock();
+        try {
+            supprimerSousVerrou(ids, changements, ignores);
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        return terminerLot(operation, changements, ignores, debut);
+    }
+
+    /**
+     * Suppression d'un lot, journalisée en une fois. Appelé sous verrou d'écriture.
+     */
+    private void supprimerSousVerrou(Collection<Integer> ids, List<ChangementAgenda> changements, List<Integer> ignores) {
+        List<Integer> supprimes = new ArrayList<>(ids.size());
+        for (int id : ids) {
+            Evenement retire;
+            try {
+                retire = appliquerSuppression(id);
+            } catch (UncheckedIOException ex) {
+                ignorerDansLot(id, ex, ignores);
+                continue;
+            }
+            if (retire == null) {
+                ignores.add(id);
+                continue;
+            }
+            supprimes.add(id);
+            changements.add(ChangementAgenda.suppression(retire));
+        }
+        if (!supprimes.isEmpty()) {
+            persister(() -> {
+                for (int id : supprimes) journal.journaliserSuppression(id);
+            });
+        }
+    }
+
+    /**
+     * Décale plusieurs événements de la même durée (une série est décalée en entier,
+     * avec ses jours de semaine, sa date de fin et ses jours supprimés)
+     */
+    public ResultatLot deplacerEvenements(Collection<Integer> ids, Duration decalage) {
+        return modifierEvenements("déplacé(s)", ids, e -> {
+            LocalDateTime nouveauDebut = e.getDebut().plus(decalage);
+            long jours = java.time.temporal.ChronoUnit.DAYS.between(e.getDate(), nouveauDebut.toLocalDate());
+            e.setDate(nouveauDebut.toLocalDate());
+            e.setHeure(nouveauDebut.toLocalTime());
+            if (e.estRecurrent() && jours != 0) decalerSerie(e.getRecurrence(), jours);
+            return e;
+        });
+    }
+
+    /**
+     * Confie plusieurs événements à un autre responsable
+     */
+    public ResultatLot reassignerResponsable(Collection<Integer> ids, String responsable) {
+        return modifierEvenements("réassigné(s) à " + responsable, ids, e -> {
+            e.setResponsable(responsable);
+            return e;
+        });
+    }
+
+    /**
+     * Remplace chaque événement par {@code modification} appliquée à une copie
+     * (même identifiant, même créateur)
+     */
+    private ResultatLot modifierEvenements(String operation, Collection<Integer> ids, UnaryOperator<Evenement> modification) {
+        long debut = System.currentTimeMillis();
+        List<Evenement> modifies = new ArrayList<>(ids.size());
+        List<Integer> ignores = new ArrayList<>();
+        List<ChangementAgenda> changements = new ArrayList<>(ids.size());
+        long stamp = verrou.writeLock();
+        try {
+            for (int id : ids) {
+                Evenement existant;
+                Evenement nouveau;
+                try {
+                    stockage.assurerChargePour(id);
+                    existant = evenements.get(id);
+                    if (existant == null) {
+                        ignores.add(id);
+                        continue;
+                    }
+                    nouveau = modification.apply(existant.copie());
+                    appliquerEcriture(nouveau);
+                } catch (UncheckedIOException ex) {
+                    ignorerDansLot(id, ex, ignores);
+                    continue;
+                }
+                modifies.add(nouveau);
+                changements.add(ChangementAgenda.miseAJour(existant, nouveau));
+            }
+            if (!modifies.isEmpty()) {
+                persister(() -> {
+                    for (Evenement e : modifies) journal.journaliserMiseAJour(e);
+                });
+            }
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        return terminerLot(operation, changements, ignores, debut);
+    }
+
+    /**
+     * Élément d'un lot dont une partition est illisible : il est compté parmi les ignorés, le reste du lot continue
+     */
+    private static void ignorerDansLot(int id, UncheckedIOException e, List<Integer> ignores) {
+        System.err.println("Lot: événement n°" + id + " ignoré, " + e.getMessage() + ": " + e.getCause().getMessage());
+        ignores.add(id);
+    }
+
+    private static void decalerSerie(Recurrence r, long jours) {
+        if (r.getFrequence() == Recurrence.Frequence.HEBDOMADAIRE && !r.getJours().isEmpty()) {
+            Set<DayOfWeek> decales = new HashSet<>();
+            for (DayOfWeek j : r.getJours()) decales.add(j.plus(jours));
+            r.setJours(decales);
+        }
+        if (r.getJusquAu() != null) r.setJusquAu(r.getJusquAu().plusDays(jours));
+        List<LocalDate> exceptions = new ArrayList<>(r.getExceptions());
+        r.getExceptions().clear();
+        for (LocalDate exception : exceptions) r.ajouterException(exception.plusDays(jours));
+    }
+
+    /**
+     * Une seule notification aux vues et un seul message pour tout le lot
+     */
+    private ResultatLot terminerLot(String operation, List<ChangementAgenda> changements, List<Integer> ignores, long debut) {
+        ResultatLot resultat = new ResultatLot(operation, changements.size(), ignores,
+                                               System.currentTimeMillis() - debut);
+        if (!changements.isEmpty()) {
+            publierChangement(ChangementAgenda.lot(changements));
+            showSuccess("Opération terminée", resultat.getResume());
+        } else if (!ignores.isEmpty()) {
+            showRedAlert("Erreur", "Aucun événement " + operation + " : " + ignores.size() + " introuvable(s).");
+        }
+        System.out.println("Lot: " + resultat);
+        return resultat;
+    }
+
+    /**
+     * Exécute une requête sous verrou de lecture si les partitions nécessaires sont en mémoire ;
+     * sinon passe en écriture pour les charger (puis évincer les moins utilisées).
+     *
+     * @throws UncheckedIOException si l'une de ces partitions est illisible
+     */
+    private <T> T lire(Supplier<Collection<YearMonth>> moisRequis, Supplier<T> requete) {
+        long stamp = verrou.readLock();
+        try {
+            Collection<YearMonth> mois = moisRequis.get();
+            if (stockage.sontResidentes(mois)) {
+                stockage.marquerAcces(mois);
+                return requete.get();
+            }
+            long ecriture = verrou.tryConvertToWriteLock(stamp);
+            if (ecriture == 0L) {
+                verrou.unlockRead(stamp);
+                ecriture = verrou.writeLock();
+                mois = moisRequis.get();
+            }
+            stamp = ecriture;
+            for (YearMonth m : mois) {
+                stockage.assurerCharge(m);
+            }
+            T resultat = requete.get();
+            stockage.evincer();
+            return resultat;
+        } finally {
+            verrou.unlock(stamp);
+        }
+    }
+
+    /**
+     * Recherche d'un événement par identifiant : le catalogue indique sa partition, chargée si besoin
+     */
+    public Evenement getEvenementParId(int id) {
+        return lire(() -> {
+            YearMonth mois = stockage.getMois(id);
+            return mois != null ? List.of(mois) : List.of();
+        }, () -> evenements.get(id));
+    }
+
+    /**
+     * Tous les événements, partition par partition, en liste non modifiable partagée entre
+     * les lecteurs jusqu'à la prochaine modification. Les mois non chargés sont lus sur disque
+     * sans être gardés en mémoire : modifier un événement passe par son identifiant.
+     *
+     * Parcourt tout l'agenda : pour un nombre ou des identifiants, préférer
+     * {@link #getNombreEvenements()} ou les requêtes par période.
+     *
+     * Comme pour {@link #construireIndex()}, seul l'instantané est pris sous verrou : les partitions
+     * sur disque sont lues sans bloquer les écritures. La liste est l'état de l'instantané ; elle
+     * n'est gardée en cache que si rien n'a été modifié depuis. Si une partition a été réécrite sur
+     * disque pendant la lecture (checkpoint), elle est refaite, au pire une dernière fois sous verrou.
+     *
+     * @throws UncheckedIOException si une partition est illisible (jamais de liste incomplète)
+     */
     public List<Evenement> getEvenements() {
-        return new ArrayList<>(evenements);
+        List<Evenement> tous = tousEnCache.get();
+        if (tous != null) return tous;
+        for (int essai = 0; essai < 2; essai++) {
+            StockagePartitionne.Instantane instantane;
+            long version;
+            long stamp = verrou.readLock();
+            try {
+                tous = tousEnCache.get();
+                if (tous != null) return tous;
+                instantane = stockage.instantane(index::getPourMois);
+                version = versionEvenements;
+            } finally {
+                verrou.unlockRead(stamp);
+            }
+            
+            List<Evenement> lus = instantane.lire();
+            if (!instantane.estCoherent()) continue;
+            tous = Collections.unmodifiableList(lus);
+            
+            stamp = verrou.readLock();
+            try {
+                if (versionEvenements == version) tousEnCache = new SoftReference<>(tous);
+            } finally {
+                verrou.unlockRead(stamp);
+            }
+            return tous;
+        }
+        // Checkpoints pendant chaque lecture : lecture sous verrou, comme un lecteur ordinaire
+        long stamp = verrou.readLock();
+        try {
+            tous = Collections.unmodifiableList(stockage.lireTout(index::getPourMois));
+            tousEnCache = new SoftReference<>(tous);
+            return tous;
+        } finally {
+            verrou.unlockRead(stamp);
+        }
+    }
+    
+    /**
+     * Recherche textuelle (sans accents, par préfixe ou sous-chaîne de chaque mot) sur le titre,
+     * la description, le responsable, les participants et la date. Les résultats les plus
+     * proches de maintenant viennent d'abord ; une série compte pour sa prochaine occurrence.
+     */
+    public List<Evenement> rechercherEvenements(String requete, int limite) {
+        if (!indexTexte.estConstruit()) construireIndex();
+        List<Integer> ids = indexTexte.rechercher(requete, LocalDateTime.now(), limite);
+        return lire(() -> {
+            Set<YearMonth> mois = new HashSet<>();
+            for (int id : ids) {
+                YearMonth m = stockage.getMois(id);
+                if (m != null) mois.add(m);
+            }
+            return mois;
+        }, () -> {
+            List<Evenement> resultat = new ArrayList<>(ids.size());
+            LocalDateTime maintenant = LocalDateTime.now();
+            for (int id : ids) {
+                Evenement e = evenements.get(id);
+                if (e == null) continue;
+                // Une série est présentée par sa prochaine occurrence
+                LocalDateTime prochaine = e.estRecurrent() ? e.prochainDebut(maintenant) : null;
+                resultat.add(prochaine != null ? e.occurrenceLe(prochaine.toLocalDate()) : e);
+            }
+            return resultat;
+        });
+    }
+
+    /**
+     * Conflits d'horaire qu'aurait {@code candidat} (nouveau ou modifié, pas encore enregistré) :
+     * ses personnes déjà occupées pendant [début, début + durée). L'événement du même
+     * identifiant n'est pas compté, pour qu'une modification ne se signale pas elle-même.
+     */
+    public List<Conflit> getConflits(Evenement candidat) {
+        if (!conflits.estConstruit()) construireIndex();
+        List<DetecteurConflits.Chevauchement> chevauchements = conflits.chevauchements(candidat);
+        Map<Integer, Evenement> parId = resoudre(chevauchements);
+        List<Conflit> resultat = new ArrayList<>();
+        for (DetecteurConflits.Chevauchement c : chevauchements) {
+            Evenement autre = parId.get(c.second);
+            if (autre != null) {
+                resultat.add(new Conflit(c.personne, aLaDate(candidat, c.debutPremier), aLaDate(autre, c.debutSecond)));
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Tous les conflits d'horaire entre événements enregistrés qui touchent [debut, fin),
+     * par ordre de début
+     */
+    public List<Conflit> getRapportConflits(LocalDateTime debut, LocalDateTime fin) {
+        if (!conflits.estConstruit()) construireIndex();
+        List<DetecteurConflits.Chevauchement> chevauchements = conflits.rapport(debut, fin);
+        Map<Integer, Evenement> parId = resoudre(chevauchements);
+        List<Conflit> resultat = new ArrayList<>();
+        for (DetecteurConflits.Chevauchement c : chevauchements) {
+            Evenement a = parId.get(c.premier);
+            Evenement b = parId.get(c.second);
+            if (a != null && b != null) {
+                resultat.add(new Conflit(c.personne, aLaDate(a, c.debutPremier), aLaDate(b, c.debutSecond)));
+            }
+        }
+        resultat.sort(Comparator.comparing(Conflit::getDebutChevauchement));
+        return resultat;
+    }
+
+    /**
+     * Premiers créneaux de {@code dureeMinutes} où toutes ces personnes sont libres entre
+     * {@code debut} et {@code fin}, pendant les heures d'ouverture ; les créneaux qui
+     * laissent le moins de trous inutilisables passent d'abord.
+     */
+    public List<LocalDateTime> trouverCreneauxLibres(Collection<String> participants, int dureeMinutes,
+                                                     LocalDateTime debut, LocalDateTime fin, int nombre) {
+        return trouverCreneauxLibres(participants, dureeMinutes, debut, fin,
+                                     HEURE_OUVERTURE, HEURE_FERMETURE, nombre, true, 0);
+    }
+
+    /**
+     * Créneaux libres communs, avec des heures d'ouverture données ; sans {@code moinsFragmentes},
+     * les {@code nombre} premiers par ordre chronologique. L'événement {@code exclu} (celui qu'on
+     * déplace) ne compte pas comme occupation.
+     */
+    public List<LocalDateTime> trouverCreneauxLibres(Collection<String> participants, int dureeMinutes,
+                                                     LocalDateTime debut, LocalDateTime fin,
+                                                     LocalTime ouverture, LocalTime fermeture,
+                                                     int nombre, boolean moinsFragmentes, int exclu) {
+        if (!conflits.estConstruit()) construireIndex();
+        int pas = CreneauxLibres.MINUTES_PAR_CRENEAU;
+        // Grille alignée sur les multiples de 5 minutes
+        LocalDateTime origine = debut.withSecond(0).withNano(0);
+        origine = origine.plusMinutes(Math.floorMod(-origine.getMinute(), pas));
+        int creneaux = CreneauxLibres.nombreCreneaux(origine, fin);
+        int longueur = (Math.max(dureeMinutes, 1) + pas - 1) / pas;
+        if (creneaux < longueur || nombre <= 0) return new ArrayList<>();
+
+        long[] occupes = conflits.occupation(participants, origine, creneaux, pas, exclu);
+        CreneauxLibres.fermer(occupes, origine, creneaux, ouverture, fermeture);
+        List<LocalDateTime> resultat = new ArrayList<>();
+        for (int i : CreneauxLibres.chercher(occupes, longueur, nombre, moinsFragmentes)) {
+            resultat.add(origine.plusMinutes((long) i * pas));
+        }
+        return resultat;
+    }
+
+    /**
+     * L'occurrence concernée par un chevauchement (l'événement lui-même s'il est unique)
+     */
+    private static Evenement aLaDate(Evenement e, long debutMinutes) {
+        if (!e.estRecurrent()) return e;
+        return e.occurrenceLe(DetecteurConflits.instant(debutMinutes).toLocalDate());
+    }
+
+    /**
+     * Événements des chevauchements, en chargeant leurs partitions en une fois
+     */
+    private Map<Integer, Evenement> resoudre(List<DetecteurConflits.Chevauchement> chevauchements) {
+        Set<Integer> ids = new HashSet<>();
+        for (DetecteurConflits.Chevauchement c : chevauchements) {
+            ids.add(c.premier);
+            ids.add(c.second);
+        }
+        if (ids.isEmpty()) return Map.of();
+        return lire(() -> {
+            Set<YearMonth> mois = new HashSet<>();
+            for (int id : ids) {
+                YearMonth m = stockage.getMois(id);
+                if (m != null) mois.add(m);
+            }
+            return mois;
+        }, () -> {
+            Map<Integer, Evenement> resultat = new HashMap<>();
+            for (int id : ids) {
+                Evenement e = evenements.get(id);
+                if (e != null) resultat.put(id, e);
+            }
+            return resultat;
+        });
+    }
+
+    /**
+     * Indexe une fois tous les événements (recherche, conflits, statistiques). Seul l'instantané
+     * est pris sous verrou de lecture : les partitions sur disque sont lues et les index construits
+     * hors verrou, puis les modifications faites entre-temps sont rejouées sous verrou d'écriture
+     * avant la mise en service des index.
+     *
+     * @throws UncheckedIOException si une partition est illisible (les index restent à construire)
+     */
+    private void construireIndex() {
+        synchronized (constructionIndex) {
+            if (indexTexte.estConstruit() && conflits.estConstruit() && agregats.estConstruit()) return;
+            long debut = System.currentTimeMillis();
+            Map<Integer, Evenement> modifications = new LinkedHashMap<>();
+            List<Evenement> tous;
+            StockagePartitionne.Instantane instantane = null;
+            long stamp = verrou.readLock();
+            try {
+                modificationsPendantIndexation = modifications;
+                tous = tousEnCache.get();
+                if (tous == null) instantane = stockage.instantane(index::getPourMois);
+            } finally {
+                verrou.unlockRead(stamp);
+            }
+
+            IndexTexte texte = new IndexTexte();
+            DetecteurConflits detecteur = new DetecteurConflits();
+            AgregatsStatistiques compteurs = new AgregatsStatistiques();
+            boolean installes = false;
+            try {
+                if (tous == null) tous = instantane.lire();
+                texte.construire(tous);
+                detecteur.construire(tous);
+                compteurs.construire(tous);
+            } finally {
+                stamp = verrou.writeLock();
+                try {
+                    // Une restauration entre-temps a tout vidé : les index construits sont périmés
+                    if (modificationsPendantIndexation == modifications && texte.estConstruit()) {
+                        for (Map.Entry<Integer, Evenement> m : modifications.entrySet()) {
+                            if (m.getValue() != null) {
+                                texte.mettreAJour(m.getValue());
+                                detecteur.mettreAJour(m.getValue());
+                                compteurs.mettreAJour(m.getValue());
+                            } else {
+                                texte.supprimer(m.getKey());
+                                detecteur.supprimer(m.getKey());
+                                compteurs.supprimer(m.getKey());
+                            }
+                        }
+                        indexTexte = texte;
+                        conflits = detecteur;
+                        agregats.adopterEvenements(compteurs);
+                        installes = true;
+                    }
+                    if (modificationsPendantIndexation == modifications) modificationsPendantIndexation = null;
+                } finally {
+                    verrou.unlockWrite(stamp);
+                }
+            }
+            if (installes) {
+                System.out.println("Index de recherche et de conflits construits: " + texte.getNombreMots() +
+                                 " mots en " + (System.currentTimeMillis() - debut) + " ms (" +
+                                 modifications.size() + " modification(s) rejouée(s))");
+            }
+        }
+    }
+
+    /**
+     * Retient le nouvel état d'un événement pour la construction d'index en cours (null : supprimé).
+     * Appelé sous verrou d'écriture.
+     */
+    private void noterPourIndexation(int id, Evenement e) {
+        if (modificationsPendantIndexation != null) modificationsPendantIndexation.put(id, e);
+    }
+
+    /**
+     * Appelé sous verrou d'écriture après chaque modification des événements
+     */
+    private void invaliderCache() {
+        tousEnCache = new SoftReference<>(null);
+        versionEvenements++;
+    }
+    
+    /**
+     * Nombre total d'événements, d'après le catalogue (lecture optimiste, sans verrou en l'absence d'écriture)
+     */
+    public int getNombreEvenements() {
+        long stamp = verrou.tryOptimisticRead();
+        int nombre = stockage.getNombreEvenements();
+        if (!verrou.validate(stamp)) {
+            stamp = verrou.readLock();
+            try {
+                nombre = stockage.getNombreEvenements();
+            } finally {
+                verrou.unlockRead(stamp);
+            }
+        }
+        return nombre;
     }
     
     public List<Evenement> getEvenementsParCreateur(String username) {
-        return evenements.stream()
+        return getEvenements().stream()
                 .filter(ev -> username.equals(ev.getCreateurUsername()))
                 .collect(Collectors.toList());
     }
 
     public List<Evenement> getEvenementsPourDate(LocalDate date) {
-        return evenements.stream()
-                .filter(ev -> ev.getDate().equals(date))
-                .collect(Collectors.toList());
+        return lire(() -> List.of(YearMonth.from(date)), () -> developper(index.getPourDate(date),
+                    date.atStartOfDay(), date.plusDays(1).atStartOfDay()));
     }
 
     public List<Evenement> getEvenementsPourDateEtHeure(LocalDate date, LocalTime heure) {
-        return evenements.stream()
-                .filter(ev -> ev.getDate().equals(date) && ev.getHeure().equals(heure))
-                .collect(Collectors.toList());
+        LocalDateTime instant = LocalDateTime.of(date, heure);
+        return lire(() -> List.of(YearMonth.from(date)), () -> developper(index.getPourDateEtHeure(date, heure),
+                    instant, instant.plusNanos(1)));
+    }
+
+    /**
+     * Événements des 7 jours commençant à {@code premierJour}, triés par date et heure (occurrences des séries comprises)
+     */
+    public List<Evenement> getEvenementsPourSemaine(LocalDate premierJour) {
+        return lire(() -> StockagePartitionne.moisEntre(premierJour, premierJour.plusDays(7)),
+                    () -> developper(index.getPourSemaine(premierJour),
+                                     premierJour.atStartOfDay(), premierJour.plusDays(7).atStartOfDay()));
     }
 
     public List<Evenement> getEvenementsPourMois(YearMonth mois) {
-        return evenements.stream()
-                .filter(ev -> YearMonth.from(ev.getDate()).equals(mois))
-                .collect(Collectors.toList());
+        return lire(() -> List.of(mois), () -> developper(index.getPourMois(mois),
+                    mois.atDay(1).atStartOfDay(), mois.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    /**
+     * Événements commençant dans l'intervalle [debut, fin), triés par date et heure (occurrences des séries comprises)
+     */
+    public List<Evenement> getEvenementsEntre(LocalDateTime debut, LocalDateTime fin) {
+        if (!debut.isBefore(fin)) return new ArrayList<>();
+        // Jusqu'au jour de fin inclus s'il n'est pas pris à minuit
+        LocalDate dernierJour = fin.toLocalTime().equals(LocalTime.MIDNIGHT) ? fin.toLocalDate() : fin.toLocalDate().plusDays(1);
+        return lire(() -> StockagePartitionne.moisEntre(debut.toLocalDate(), dernierJour),
+                    () -> developper(index.getEntre(debut, fin), debut, fin));
     }
 
     public Evenement getEvenementParTitre(String titre) {
-        return evenements.stream()
+        return getEvenements().stream()
                 .filter(ev -> ev.getTitre().equals(titre))
                 .findFirst()
                 .orElse(null);
     }
 
+    /**
+     * Planifie, replanifie ou annule le rappel d'un événement selon sa date et son délai.
+     * Un rappel dont l'heure est passée mais dont l'événement n'a pas commencé part tout de suite.
+     * Pour une série, le rappel porte sur sa prochaine occurrence.
+     */
     private void planifierNotification(Evenement e) {
-        if (e.getNotificationBeforeMinutes() <= 0) return;
-
-        LocalDateTime now = LocalDateTime.now();
-        LocalDateTime eventTime = LocalDateTime.of(e.getDate(), e.getHeure());
-        LocalDateTime notifTime = eventTime.minusMinutes(e.getNotificationBeforeMinutes());
-
-        if (notifTime.isBefore(now)) return;
-
-        long delaySeconds = Duration.between(now, notifTime).getSeconds();
-
-        scheduler.schedule(() -> {
-            SwingUtilities.invokeLater(() -> {
-                if (evenements.contains(e)) {
-                    String message = String.format(
-                        "<html>" +
-                        "<div style='background: linear-gradient(135deg, #E6D7FF, #F0E8FF); padding: 20px; border-radius: 12px; border: 2px solid #B464C8; width: 320px;'>" +
-                        "<h3 style='margin: 0 0 12px 0; text-align: center; color: #6B46C1; font-size: 16px;'>Rappel</h3>" +
-                        "<div style='color: #4A5568; font-size: 13px; background: #FFFFFF; padding: 12px; border-radius: 8px; border: 1px solid #E2E8F0;'>" +
-                        "<b>%s</b><br>" +
-                        "Le %s à %s<br>" +
-                        "Avec %s<br>" +
-                        "Dans %d minutes" +
-                        "</div>" +
-                        "</div>" +
-                        "</html>",
-                        e.getTitre(),
-                        e.getDate().format(dateFormatter),
-                        e.getHeure().format(timeFormatter),
-                        e.getResponsable(),
-                        e.getNotificationBeforeMinutes()
-                    );
-                    
-                    showMedisynsNotification("Rappel d'événement", message);
-                }
-            });
-        }, delaySeconds, TimeUnit.SECONDS);
+        LocalDateTime eventTime = e.getNotificationBeforeMinutes() > 0
+                ? prochaineOccurrenceARappeler(e, LocalDateTime.now()) : null;
+        if (eventTime == null) {
+            rappels.annuler(e.getId());
+            return;
+        }
+        rappels.planifier(e.getId(), eventTime.minusMinutes(e.getNotificationBeforeMinutes()));
     }
 
+    /**
+     * Replanifie les rappels des partitions chargées (les autres le sont à leur chargement)
+     */
     public void replanifierToutesNotifications() {
-        for (Evenement e : evenements) {
-            if (e.getNotificationBeforeMinutes() > 0) {
+        long stamp = verrou.readLock();
+        try {
+            for (Evenement e : evenements.values()) {
                 planifierNotification(e);
             }
+        } finally {
+            verrou.unlockRead(stamp);
         }
     }
 
     public void partagerEvenement(Evenement ev, List<String> utilisateurs) {
         EvenementPartage partage = new EvenementPartage(
+            ev.getId(),
             ev.getTitre(), 
             ev.getDate(), 
             ev.getHeure(), 
             utilisateurs
         );
         evenementsPartages.add(partage);
+        sauvegarderPartages();
         
         // Incrémenter le compteur d'événements partagés pour le createur
         if (utilisateurCourant != null && utilisateurCourant.getUsername().equals(ev.getCreateurUsername())) {
@@ -492,12 +1322,16 @@ public class AgendaController {
             sauvegarderUtilisateurs();
         }
         
+        publierChangement(ChangementAgenda.partage(ev));
         System.out.println("Événement partagé: " + ev.getTitre() + 
                          " avec " + utilisateurs.size() + " utilisateur(s)");
     }
 
+    /**
+     * Vue non modifiable : chaque itération parcourt un instantané de la liste
+     */
     public List<EvenementPartage> getEvenementsPartages() {
-        return new ArrayList<>(evenementsPartages);
+        return Collections.unmodifiableList(evenementsPartages);
     }
 
     public void exporterVersCSV(String fichier) throws IOException {
@@ -507,7 +1341,13 @@ public class AgendaController {
             DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("dd/MM/yyyy");
             DateTimeFormatter heureFmt = DateTimeFormatter.ofPattern("HH:mm");
             
-            for (Evenement ev : evenements) {
+            List<Evenement> tous;
+            try {
+                tous = getEvenements();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            for (Evenement ev : tous) {
                 String participants = (ev.getParticipants() != null) 
                     ? String.join(";", ev.getParticipants()) 
                     : "";
@@ -537,9 +1377,11 @@ public class AgendaController {
         DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("yyyy-MM-dd");
         DateTimeFormatter heureFmt = DateTimeFormatter.ofPattern("HH:mm");
         
-        for (int i = 0; i < evenements.size(); i++) {
-            Evenement ev = evenements.get(i);
+        List<Evenement> tous = getEvenements();
+        int i = 0;
+        for (Evenement ev : tous) {
             json.append("  {\n");
+            json.append("    \"id\": ").append(ev.getId()).append(",\n");
             json.append("    \"titre\": \"").append(escapeJSON(ev.getTitre())).append("\",\n");
             json.append("    \"description\": \"").append(escapeJSON(ev.getDescription())).append("\",\n");
             json.append("    \"date\": \"").append(ev.getDate().format(dateFmt)).append("\",\n");
@@ -556,7 +1398,7 @@ public class AgendaController {
             json.append("],\n");
             json.append("    \"notificationBeforeMinutes\": ").append(ev.getNotificationBeforeMinutes()).append("\n");
             json.append("  }");
-            if (i < evenements.size() - 1) json.append(",");
+            if (++i < tous.size()) json.append(",");
             json.append("\n");
         }
         json.append("]");
@@ -572,67 +1414,272 @@ public class AgendaController {
                    .replace("\t", "\\t");
     }
 
+    /**
+     * Ajoute une mutation au journal (O(1)) sur le thread de persistance.
+     * Les enregistrements d'une rafale sont écrits sur disque en un seul flush ;
+     * un checkpoint est demandé lorsque le journal a atteint sa taille maximale.
+     * Appelé sous verrou d'écriture, pour que le journal suive l'ordre des modifications.
+     */
+    private void persister(PersistanceAsynchrone.Tache ecriture) {
+        persistance.soumettre(ecriture);
+        if (journal.checkpointNecessaire() && !journalConserve) {
+            preparerCheckpoint();
+        } else {
+            persistance.soumettre("journal", journal::synchroniser);
+        }
+    }
+
+    /**
+     * Checkpoint : réécrit les partitions modifiées et le catalogue, puis vide le journal.
+     * La copie des partitions est prise immédiatement, l'écriture se fait sur le thread de persistance.
+     */
     private void sauvegarderDonnees() {
+        long stamp = verrou.readLock();
         try {
-            Path saveFilePath = Paths.get(SAVE_FILE);
-            if (Files.exists(saveFilePath)) {
-                Files.copy(saveFilePath, Paths.get(BACKUP_FILE), 
-                          StandardCopyOption.REPLACE_EXISTING);
-            }
-            
-            try (ObjectOutputStream oos = new ObjectOutputStream(
-                    new FileOutputStream(SAVE_FILE))) {
-                oos.writeObject(evenements);
-                System.out.println("Données sauvegardées: " + evenements.size() + " événements");
-            }
-        } catch (IOException e) {
-            System.err.println("Erreur de sauvegarde: " + e.getMessage());
-            showRedAlert("Erreur de sauvegarde", 
-                "Impossible de sauvegarder les données: " + e.getMessage());
+            preparerCheckpoint();
+        } finally {
+            verrou.unlockRead(stamp);
         }
     }
     
+    /**
+     * Appelé sous verrou (lecture ou écriture)
+     */
+    private void preparerCheckpoint() {
+        StockagePartitionne.Checkpoint checkpoint = stockage.preparerCheckpoint(index::getPourMois);
+        boolean viderJournal = !journalConserve;
+        persistance.soumettre("snapshot", () -> {
+            checkpoint.ecrire();
+            if (viderJournal) journal.vider();
+            System.out.println("Données sauvegardées: " + checkpoint.getNombrePartitions() + " partition(s) modifiée(s)");
+        });
+    }
+    
     private void sauvegarderUtilisateurs() {
+        List<Utilisateur> copie = new ArrayList<>(utilisateurs.values());
+        persistance.soumettre("utilisateurs", () -> {
+            Files.write(Paths.get(USERS_FILE), CodecBinaire.encoderUtilisateurs(copie));
+            System.out.println("Utilisateurs sauvegardés: " + copie.size() + " utilisateurs");
+        });
+    }
+    
+    private void sauvegarderPartages() {
+        List<EvenementPartage> copie = new ArrayList<>(evenementsPartages);
+        persistance.soumettre("partages", () -> Files.write(Paths.get(PARTAGES_FILE), CodecBinaire.encoderPartages(copie)));
+    }
+    
+    private void chargerPartages() {
         try {
-            try (ObjectOutputStream oos = new ObjectOutputStream(
-                    new FileOutputStream(USERS_FILE))) {
-                oos.writeObject(new ArrayList<>(utilisateurs.values()));
-                System.out.println("Utilisateurs sauvegardés: " + utilisateurs.size() + " utilisateurs");
+            if (Files.exists(Paths.get(PARTAGES_FILE))) {
+                evenementsPartages.addAll(CodecBinaire.lireFichier(Paths.get(PARTAGES_FILE), CodecBinaire::decoderPartages));
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Erreur chargement partages: " + e.getMessage());
+        }
+    }
+    
+    private void sauvegarderRappelsEnvoyes() {
+        persistance.soumettre("rappels", () -> Files.write(Paths.get(RAPPELS_FILE), rappelsEnvoyes.encoder()));
+    }
+    
+    private void chargerRappelsEnvoyes() {
+        try {
+            if (Files.exists(Paths.get(RAPPELS_FILE))) {
+                rappelsEnvoyes.charger(Files.readAllBytes(Paths.get(RAPPELS_FILE)));
             }
         } catch (IOException e) {
-            System.err.println("Erreur de sauvegarde utilisateurs: " + e.getMessage());
+            System.err.println("Erreur chargement rappels envoyés: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Encodage binaire d'une liste
+     */
+    private interface Encodage<T> {
+        byte[] encoder(List<T> elements);
+    }
+    
+    /**
+     * Convertit une sauvegarde des versions précédentes (sérialisation Java) au format binaire.
+     * L'ancien fichier est conservé ; la conversion n'a lieu que si le nouveau fichier n'existe pas.
+     */
+    private static <T> void migrerSauvegarde(String ancien, String nouveau, 
+            CodecBinaire.Decodage<T> decodage, Encodage<T> encodage) {
+        if (Files.exists(Paths.get(nouveau)) || !Files.exists(Paths.get(ancien))) return;
+        try {
+            List<T> elements = CodecBinaire.lireFichier(Paths.get(ancien), decodage);
+            Files.write(Paths.get(nouveau), encodage.encoder(elements));
+            System.out.println("Sauvegarde convertie au format binaire: " + ancien + " -> " + nouveau + 
+                             " (" + elements.size() + " éléments)");
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Erreur de conversion de " + ancien + ": " + e.getMessage());
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Ouvre le stockage partitionné (ou le crée depuis l'ancienne sauvegarde complète),
+     * charge la fenêtre du mois courant puis rejoue le journal des modifications.
+     */
     private void chargerDonnees() {
+        long stamp = verrou.writeLock();
         try {
-            if (Files.exists(Paths.get(SAVE_FILE))) {
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(SAVE_FILE))) {
-                    List<Evenement> loadedEvents = (List<Evenement>) ois.readObject();
-                    evenements.clear();
-                    evenements.addAll(loadedEvents);
-                    replanifierToutesNotifications();
-                    System.out.println("Données chargées: " + loadedEvents.size() + " événements");
+            if (!stockage.ouvrir()) {
+                migrerSauvegardeComplete();
+            }
+            // Les identifiants ne doivent pas entrer en collision avec les event_id de events.json
+            // Un identifiant archivé n'est jamais réattribué
+            prochainId = Math.max(Math.max(JsonManager.getDernierIdEvenement(), stockage.getDernierId()),
+                                  archive.getDernierId()) + 1;
+            try {
+                stockage.assurerFenetreCourante();
+            } catch (UncheckedIOException e) {
+                signalerPartitionIllisible(e);
+            }
+            
+            int rejoues = journal.rejouer(new JournalEvenements.Rejeu() {
+                @Override
+                public void ecriture(Evenement e) {
+                    appliquerEcriture(e);
+                }
+
+                @Override
+                public void suppression(int id) {
+                    appliquerSuppression(id);
                 }
+            });
+            System.out.println("Données chargées: " + stockage.getNombreEvenements() + " événements, " + 
+                             evenements.size() + " en mémoire");
+            
+            // Écrire dans les partitions les modifications rejouées
+            if (rejoues > 0) {
+                preparerCheckpoint();
             }
+        } catch (UncheckedIOException e) {
+            // Le rejeu s'est arrêté sur une partition illisible : le journal garde les opérations suivantes
+            journalConserve = true;
+            signalerPartitionIllisible(e);
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Erreur chargement: " + e.getMessage());
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Partition illisible : l'opération est abandonnée sans rien modifier
+     */
+    private void signalerPartitionIllisible(UncheckedIOException e) {
+        System.err.println("Erreur stockage: " + e.getMessage() + ": " + e.getCause().getMessage());
+        showRedAlert("Erreur de lecture", e.getMessage() + " (" + e.getCause().getMessage() + "). " +
+                     "Aucune modification n'a été faite ; la restauration du backup peut réparer ce mois.");
+    }
+    
+    /**
+     * Répartit l'ancienne sauvegarde complète en partitions mensuelles.
+     * Les événements sans identifiant en reçoivent un ; l'ancien fichier est conservé.
+     */
+    private void migrerSauvegardeComplete() throws IOException, ClassNotFoundException {
+        Path ancien = Paths.get(ANCIEN_SAVE_FILE);
+        if (!Files.exists(ancien)) ancien = Paths.get(ANCIEN_SAVE_FILE_SER);
+        List<Evenement> charges = Files.exists(ancien)
+            ? CodecBinaire.lireFichier(ancien, CodecBinaire::decoderEvenements)
+            : new ArrayList<>();
+        
+        int maxId = JsonManager.getDernierIdEvenement();
+        for (Evenement e : charges) {
+            maxId = Math.max(maxId, e.getId());
+        }
+        Map<Integer, Evenement> parId = new LinkedHashMap<>();
+        for (Evenement e : charges) {
+            if (e.getId() <= 0 || parId.containsKey(e.getId())) {
+                e.setId(++maxId);
+            }
+            parId.put(e.getId(), e);
+        }
+        stockage.initialiser(parId.values());
+        if (!charges.isEmpty()) {
+            System.out.println("Sauvegarde répartie par mois: " + ancien + " -> " + DATA_DIR + 
+                             " (" + charges.size() + " événements)");
         }
     }
     
-    @SuppressWarnings("unchecked")
+    /**
+     * Tient à jour les séries après l'écriture ou le chargement d'un événement. Appelé sous verrou d'écriture.
+     */
+    private void enregistrerSerie(Evenement e) {
+        if (e.estRecurrent()) {
+            series.put(e.getId(), e);
+        } else {
+            series.remove(e.getId());
+        }
+    }
+
+    /**
+     * Résultat d'une requête par période : les séries (rangées à leur première date) sont
+     * remplacées par leurs occurrences dans [debut, fin). Appelé sous verrou de lecture.
+     */
+    private List<Evenement> developper(List<Evenement> bruts, LocalDateTime debut, LocalDateTime fin) {
+        if (series.isEmpty()) return bruts;
+        List<Evenement> resultat = new ArrayList<>(bruts.size());
+        for (Evenement e : bruts) {
+            if (!e.estRecurrent()) resultat.add(e);
+        }
+        for (Evenement serie : series.values()) {
+            resultat.addAll(serie.occurrencesEntre(debut, fin));
+        }
+        resultat.sort(Comparator.comparing(Evenement::getDebut).thenComparingInt(Evenement::getId));
+        return resultat;
+    }
+
+    /**
+     * Ajout ou modification (y compris rejouée) : l'événement remplace sa version précédente,
+     * éventuellement dans une autre partition. Appelé sous verrou d'écriture.
+     */
+    private void appliquerEcriture(Evenement e) {
+        stockage.assurerChargePour(e.getId());
+        stockage.assurerCharge(YearMonth.from(e.getDate()));
+        Evenement precedent = evenements.put(e.getId(), e);
+        if (precedent != null) index.retirer(precedent);
+        index.ajouter(e);
+        enregistrerSerie(e);
+        indexTexte.mettreAJour(e);
+        conflits.mettreAJour(e);
+        agregats.mettreAJour(e);
+        noterPourIndexation(e.getId(), e);
+        stockage.enregistrerEcriture(e);
+        invaliderCache();
+        planifierNotification(e);
+        prochainId = Math.max(prochainId, e.getId() + 1);
+    }
+    
+    /**
+     * Suppression (y compris rejouée) ; retourne l'événement retiré. Appelé sous verrou d'écriture.
+     */
+    private Evenement appliquerSuppression(int id) {
+        stockage.assurerChargePour(id);
+        Evenement retire = evenements.remove(id);
+        if (retire != null) index.retirer(retire);
+        series.remove(id);
+        indexTexte.supprimer(id);
+        conflits.supprimer(id);
+        agregats.supprimer(id);
+        noterPourIndexation(id, null);
+        stockage.enregistrerSuppression(id);
+        invaliderCache();
+        rappels.annuler(id);
+        return retire;
+    }
+    
     private void chargerUtilisateurs() {
         try {
             if (Files.exists(Paths.get(USERS_FILE))) {
-                try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(USERS_FILE))) {
-                    List<Utilisateur> loadedUsers = (List<Utilisateur>) ois.readObject();
-                    utilisateurs.clear();
-                    for (Utilisateur user : loadedUsers) {
-                        utilisateurs.put(user.getUsername(), user);
-                    }
-                    System.out.println("Utilisateurs chargés: " + loadedUsers.size() + " utilisateurs");
+                List<Utilisateur> loadedUsers = CodecBinaire.lireFichier(Paths.get(USERS_FILE), CodecBinaire::decoderUtilisateurs);
+                utilisateurs.clear();
+                agregats.viderUtilisateurs();
+                for (Utilisateur user : loadedUsers) {
+                    enregistrerUtilisateur(user);
                 }
+                System.out.println("Utilisateurs chargés: " + loadedUsers.size() + " utilisateurs");
             } else {
                 // Créer des utilisateurs par défaut
                 creerUtilisateursParDefaut();
@@ -643,6 +1690,11 @@ public class AgendaController {
         }
     }
     
+    private void enregistrerUtilisateur(Utilisateur u) {
+        utilisateurs.put(u.getUsername(), u);
+        agregats.utilisateurEnregistre(u);
+    }
+
     private void creerUtilisateursParDefaut() {
         // Administrateur par défaut
         Utilisateur admin = new Utilisateur("admin", "Administrateur Medisyns", "ADMIN", "admin@medisyns.com",
@@ -664,151 +1716,309 @@ public class AgendaController {
         Utilisateur patient = new Utilisateur("patient", "Patient Test", "PATIENT", "patient@medisyns.com",
                                              "0567891234", "", new ArrayList<>());
         
-        utilisateurs.put(admin.getUsername(), admin);
-        utilisateurs.put(user.getUsername(), user);
-        utilisateurs.put(medecin.getUsername(), medecin);
-        utilisateurs.put(infirmiere.getUsername(), infirmiere);
-        utilisateurs.put(patient.getUsername(), patient);
+        enregistrerUtilisateur(admin);
+        enregistrerUtilisateur(user);
+        enregistrerUtilisateur(medecin);
+        enregistrerUtilisateur(infirmiere);
+        enregistrerUtilisateur(patient);
         
         sauvegarderUtilisateurs();
         System.out.println("Utilisateurs par défaut créés");
     }
 
+    /**
+     * Remplace chaque partition par sa version d'avant le dernier checkpoint
+     */
     public boolean restaurerBackup() {
         try {
-            if (Files.exists(Paths.get(BACKUP_FILE))) {
-                try (ObjectInputStream ois = new ObjectInputStream(
-                        new FileInputStream(BACKUP_FILE))) {
-                    @SuppressWarnings("unchecked")
-                    List<Evenement> loadedEvents = (List<Evenement>) ois.readObject();
-                    evenements.clear();
-                    evenements.addAll(loadedEvents);
-                    replanifierToutesNotifications();
-                    notifyRefreshListeners();
-                    showSuccess("Restauration réussie", 
-                        "Backup restauré avec succès: " + loadedEvents.size() + " événements");
-                    System.out.println("Backup restauré: " + loadedEvents.size() + " événements");
-                    return true;
+            // Écrire d'abord les modifications en attente, puis restaurer sur le thread de persistance
+            int[] restaurees = new int[1];
+            persistance.executerApresFlush(() -> {
+                long stamp = verrou.writeLock();
+                try {
+                    restaurees[0] = stockage.restaurerBackups();
+                    if (restaurees[0] > 0) {
+                        journal.vider();
+                        evenements.clear();
+                        index.vider();
+                        series.clear();
+                        indexTexte.vider();
+                        conflits.vider();
+                        agregats.vider();
+                        modificationsPendantIndexation = null;
+                        invaliderCache();
+                        stockage.assurerFenetreCourante();
+                    }
+                } finally {
+                    verrou.unlockWrite(stamp);
                 }
-            } else {
+            }, 10000);
+            
+            if (restaurees[0] == 0) {
                 showRedAlert("Pas de backup", "Aucun fichier de backup trouvé.");
                 return false;
             }
-        } catch (IOException | ClassNotFoundException e) {
+            notifyRefreshListeners();
+            showSuccess("Restauration réussie", 
+                "Backup restauré avec succès: " + restaurees[0] + " mois, " + stockage.getNombreEvenements() + " événements");
+            System.out.println("Backup restauré: " + restaurees[0] + " partition(s), " + stockage.getNombreEvenements() + " événements");
+            return true;
+        } catch (Exception e) {
             showRedAlert("Erreur de restauration", 
                 "Impossible de restaurer le backup: " + e.getMessage());
             return false;
         }
     }
 
-    public String getStatistiques() {
-        long avecNotifications = evenements.stream()
-                .filter(e -> e.getNotificationBeforeMinutes() > 0)
-                .count();
-        
-        long aujourdhui = evenements.stream()
-                .filter(e -> e.getDate().equals(LocalDate.now()))
-                .count();
-        
-        long passes = evenements.stream()
-                .filter(e -> e.getDate().isBefore(LocalDate.now()))
-                .count();
-        
-        long futurs = evenements.stream()
-                .filter(e -> e.getDate().isAfter(LocalDate.now()))
-                .count();
-        
-        // Compter les utilisateurs par rôle
-        long adminCount = utilisateurs.values().stream()
-                .filter(u -> u.estAdministrateur())
-                .count();
-        
-        long userCount = utilisateurs.values().stream()
-                .filter(u -> "UTILISATEUR".equals(u.getRole()))
-                .count();
-        
-        long medecinCount = utilisateurs.values().stream()
-                .filter(u -> u.estMedecin())
-                .count();
-        
-        long infirmiereCount = utilisateurs.values().stream()
-                .filter(u -> u.estInfirmier())
-                .count();
-        
-        long patientCount = utilisateurs.values().stream()
-                .filter(u -> u.estPatient())
-                .count();
-        
-        return String.format(
-            "📊 STATISTIQUES MEDISYNS\n" +
-            "=======================\n\n" +
-            "📅 Événements:\n" +
-            "• Totaux: %d événements\n" +
-            "• Aujourd'hui: %d\n" +
-            "• Passés: %d\n" +
-            "• À venir: %d\n" +
-            "• Avec notifications: %d\n\n" +
-            "👥 Utilisateurs (%d au total):\n" +
-            "• 👑 Administrateurs: %d\n" +
-            "• 👨‍⚕️ Médecins: %d\n" +
-            "• 👩‍⚕️ Infirmières: %d\n" +
-            "• 👤 Utilisateurs simples: %d\n" +
-            "• 👤 Patients: %d\n\n" +
-            "💾 Système:\n" +
-            "• Fichier de données: %s\n" +
-            "• Fichier utilisateurs: %s",
-            evenements.size(),
-            aujourdhui,
-            passes,
-            futurs,
-            avecNotifications,
-            utilisateurs.size(),
-            adminCount,
-            medecinCount,
-            infirmiereCount,
-            userCount,
-            patientCount,
-            SAVE_FILE,
-            USERS_FILE
-        );
+    /**
+     * Statistiques de l'agenda, lues dans les compteurs tenus à jour (les événements ne sont
+     * parcourus qu'une fois, au premier appel si l'index n'est pas encore construit)
+     */
+    public Statistiques getStatistiques() {
+        if (!agregats.estConstruit()) construireIndex();
+        Statistiques s = new Statistiques();
+        agregats.remplir(s);
+        s.dossierDonnees = DATA_DIR;
+        s.partitions = stockage.getNombrePartitions();
+        s.partitionsEnMemoire = stockage.getNombrePartitionsEnMemoire();
+        s.fichierUtilisateurs = USERS_FILE;
+        s.rappelsPlanifies = rappels.getNombreRappels();
+        s.rappelsEnvoyes = rappelsEnvoyes.getTaille();
+        s.ecrituresEnAttente = persistance.getEcrituresEnAttente();
+        s.persistance = persistance.getStatistiques();
+        try {
+            s.archives = archive.getNombre();
+            s.segmentsArchive = archive.getNombreSegments();
+            s.octetsArchive = archive.getTailleOctets();
+            s.archivesParMois = new java.util.TreeMap<>(archive.getParMois());
+        } catch (IOException e) {
+            System.err.println("Erreur lecture archives: " + e.getMessage());
+        }
+        return s;
+    }
+
+    /**
+     * Nombre d'événements enregistrés à cette date (une série compte à sa première date)
+     */
+    public int getNombreEvenementsLe(LocalDate jour) {
+        if (!agregats.estConstruit()) construireIndex();
+        return agregats.getNombreLe(jour);
+    }
+
+    public int getNombreEvenementsEn(YearMonth mois) {
+        if (!agregats.estConstruit()) construireIndex();
+        return agregats.getNombreEn(mois);
+    }
+
+    /**
+     * Événements enregistrés avant {@code limite} : seules les partitions jusqu'à ce mois sont lues,
+     * celles sur disque hors verrou (comme {@link #getEvenements()}).
+     *
+     * @throws UncheckedIOException si une de ces partitions est illisible
+     */
+    private List<Evenement> getEvenementsAvant(LocalDate limite) {
+        List<Evenement> avant = null;
+        for (int essai = 0; essai < 2 && avant == null; essai++) {
+            StockagePartitionne.Instantane instantane;
+            long stamp = verrou.readLock();
+            try {
+                instantane = stockage.instantaneJusquA(index::getPourMois, YearMonth.from(limite));
+            } finally {
+                verrou.unlockRead(stamp);
+            }
+            avant = instantane.lire();
+            if (!instantane.estCoherent()) avant = null;
+        }
+        if (avant == null) {
+            avant = new ArrayList<>(getEvenements());
+        }
+        avant.removeIf(ev -> !ev.getDate().isBefore(limite));
+        return avant;
     }
 
     public int nettoyerEvenementsPasses() {
         LocalDate aujourdhui = LocalDate.now();
-        List<Evenement> passes = evenements.stream()
-            .filter(ev -> ev.getDate().isBefore(aujourdhui))
+        List<Evenement> passes = getEvenementsAvant(aujourdhui).stream()
+            // Une série n'est passée qu'après sa dernière occurrence
+            .filter(ev -> !ev.estRecurrent() || estTerminee(ev, aujourdhui))
             .collect(Collectors.toList());
         
-        int count = passes.size();
-        passes.forEach(this::supprimerEvenement);
+        List<Integer> ids = passes.stream().map(Evenement::getId).collect(Collectors.toList());
+        int count = ids.isEmpty() ? 0 : supprimerEvenements(ids).getTraites();
         
         System.out.println(count + " événements passés supprimés");
         return count;
     }
 
+    private static boolean estTerminee(Evenement serie, LocalDate aujourdhui) {
+        LocalDate derniere = serie.getRecurrence().derniere(serie.getDate());
+        return derniere != null && derniere.isBefore(aujourdhui);
+    }
+
+    // ==================== ARCHIVES ====================
+
+    /**
+     * Archive les événements de plus de {@code mois} mois
+     */
+    public ResultatLot archiverEvenementsAnciens(int mois) {
+        return archiverAvant(LocalDate.now().minusMonths(mois));
+    }
+
+    /**
+     * Déplace dans les archives les événements antérieurs à {@code limite} (une série seulement
+     * si elle est terminée) : ils sont écrits sur disque, puis retirés de l'agenda en un lot.
+     *
+     * La sélection et l'écriture du segment se font sans verrou ; sous le verrou d'écriture,
+     * seuls les événements restés identiques entre-temps sont supprimés. Un événement modifié
+     * depuis la sélection reste dans l'agenda (compté comme ignoré) et sa copie, périmée,
+     * est retirée du segment.
+     */
+    public ResultatLot archiverAvant(LocalDate limite) {
+        long debut = System.currentTimeMillis();
+        List<Evenement> anciens;
+        int segment;
+        try {
+            anciens = getEvenementsAvant(limite).stream()
+                .filter(ev -> !ev.estRecurrent() || estTerminee(ev, limite))
+                .collect(Collectors.toList());
+            if (anciens.isEmpty()) {
+                return new ResultatLot("archivé(s)", 0, new ArrayList<>(), 0);
+            }
+            // Tout est sur disque avant de retirer quoi que ce soit de l'agenda
+            segment = archive.archiver(anciens);
+        } catch (UncheckedIOException | IOException e) {
+            return echecArchivage(e);
+        }
+        
+        List<Integer> ignores = new ArrayList<>();
+        List<ChangementAgenda> changements = new ArrayList<>(anciens.size());
+        long stamp = verrou.writeLock();
+        try {
+            List<Integer> inchanges = new ArrayList<>(anciens.size());
+            for (Evenement ancien : anciens) {
+                Evenement actuel;
+                try {
+                    stockage.assurerChargePour(ancien.getId());
+                    actuel = evenements.get(ancien.getId());
+                } catch (UncheckedIOException ex) {
+                    ignorerDansLot(ancien.getId(), ex, ignores);
+                    continue;
+                }
+                if (actuel != null && memeContenu(ancien, actuel)) {
+                    inchanges.add(ancien.getId());
+                } else {
+                    ignores.add(ancien.getId());
+                }
+            }
+            supprimerSousVerrou(inchanges, changements, ignores);
+        } finally {
+            verrou.unlockWrite(stamp);
+        }
+        
+        Set<Integer> supprimes = changements.stream().map(ChangementAgenda::getEvenementId).collect(Collectors.toSet());
+        List<Evenement> perimes = anciens.stream().filter(ev -> !supprimes.contains(ev.getId())).collect(Collectors.toList());
+        try {
+            archive.retirer(segment, perimes);
+        } catch (IOException e) {
+            // Les requêtes sur les archives écartent de toute façon les événements encore dans l'agenda
+            System.err.println("Erreur archivage: copies périmées non retirées: " + e.getMessage());
+        }
+        return terminerLot("archivé(s)", changements, ignores, debut);
+    }
+    
+    private ResultatLot echecArchivage(Exception e) {
+        System.err.println("Erreur archivage: " + e.getMessage());
+        showRedAlert("Erreur d'archivage", "Impossible d'archiver les événements: " + e.getMessage());
+        return new ResultatLot("archivé(s)", 0, new ArrayList<>(), 0);
+    }
+    
+    /**
+     * Même contenu enregistré (tous les champs sauvegardés, récurrence comprise)
+     */
+    private static boolean memeContenu(Evenement a, Evenement b) {
+        return a == b || Arrays.equals(CodecBinaire.encoderEvenements(List.of(a)),
+                                       CodecBinaire.encoderEvenements(List.of(b)));
+    }
+
+    /**
+     * Événements archivés qui correspondent à la requête (consultation seule), les plus récents d'abord
+     */
+    public List<Evenement> rechercherDansArchives(String requete, int limite) {
+        try {
+            return horsAgenda(archive.rechercher(requete, limite));
+        } catch (IOException e) {
+            System.err.println("Erreur lecture archives: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    public List<Evenement> getEvenementsArchivesEntre(LocalDate debut, LocalDate fin) {
+        try {
+            return horsAgenda(archive.entre(debut, fin));
+        } catch (IOException e) {
+            System.err.println("Erreur lecture archives: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Écarte les copies archivées d'événements encore dans l'agenda (arrêt entre l'écriture
+     * d'un segment et la suppression, ou copie périmée non retirée) : l'agenda fait foi
+     */
+    private List<Evenement> horsAgenda(List<Evenement> archives) {
+        long stamp = verrou.readLock();
+        try {
+            archives.removeIf(ev -> stockage.getMois(ev.getId()) != null);
+        } finally {
+            verrou.unlockRead(stamp);
+        }
+        return archives;
+    }
+
+    /**
+     * Dernier événement créé (identifiant le plus élevé)
+     */
     public Evenement getDernierEvenement() {
-        if (evenements.isEmpty()) return null;
-        return evenements.get(evenements.size() - 1);
+        Evenement dernier = null;
+        for (Evenement e : getEvenements()) {
+            if (dernier == null || e.getId() > dernier.getId()) dernier = e;
+        }
+        return dernier;
     }
 
+    /**
+     * Arrêt ordonné : un seul flush final (snapshot des événements et utilisateurs).
+     * Appelé à la fermeture de l'application et par le hook d'arrêt de la JVM.
+     */
     public void shutdown() {
+        synchronized (this) {
+            if (arrete) return;
+            arrete = true;
+        }
+        rappels.arreter();
+        scheduler.shutdownNow();
         sauvegarderDonnees();
         sauvegarderUtilisateurs();
-        notificationTimer.stop();
-        scheduler.shutdown();
+        sauvegarderPartages();
+        sauvegarderRappelsEnvoyes();
+        // Plus d'alerte Swing pendant l'arrêt : les échecs restent journalisés
+        persistance.setGestionnaireEchec(null);
+        persistance.arreter(10000);
         System.out.println("Système de notifications Medisyns arrêté");
     }
 
     public static class EvenementPartage implements Serializable {
         private static final long serialVersionUID = 1L;
+        private int evenementId;
         private String evenementTitre;
         private LocalDate evenementDate;
         private LocalTime evenementHeure;
         private List<String> utilisateursPartages;
         private LocalDateTime datePartage;
         
-        public EvenementPartage(String titre, LocalDate date, LocalTime heure, 
+        public EvenementPartage(int evenementId, String titre, LocalDate date, LocalTime heure, 
                                List<String> utilisateurs) {
+            this.evenementId = evenementId;
             this.evenementTitre = titre;
             this.evenementDate = date;
             this.evenementHeure = heure;
@@ -816,6 +2026,16 @@ public class AgendaController {
             this.datePartage = LocalDateTime.now();
         }
         
+        /**
+         * Reconstruit un partage enregistré
+         */
+        public EvenementPartage(int evenementId, String titre, LocalDate date, LocalTime heure, 
+                               List<String> utilisateurs, LocalDateTime datePartage) {
+            this(evenementId, titre, date, heure, utilisateurs);
+            this.datePartage = datePartage;
+        }
+        
+        public int getEvenementId() { return evenementId; }
         public String getEvenementTitre() { return evenementTitre; }
         public LocalDate getEvenementDate() { return evenementDate; }
         public LocalTime getEvenementHeure() { return evenementHeure; }
@@ -0,0 +1,222 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+import com.agenda.modele.Utilisateur;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compteurs des statistiques tenus à jour à chaque modification : événements par jour, par mois,
+ * par créateur, avec ou sans rappel, passés / aujourd'hui / à venir ; utilisateurs par rôle.
+ *
+ * Le passage à un nouveau jour ne déplace que les jours écoulés depuis le précédent ;
+ * une photographie des compteurs ne parcourt donc jamais les événements.
+ */
+public class AgregatsStatistiques {
+
+    private static final String CREATEUR_INCONNU = "System";
+
+    /**
+     * Ce qui a été compté pour un événement, pour le décompter à sa modification
+     */
+    private static final class Trace {
+        final LocalDate date;
+        final String createur;
+        final boolean rappel;
+        final boolean serie;
+
+        Trace(Evenement e) {
+            this.date = e.getDate();
+            this.createur = e.getCreateurUsername() != null ? e.getCreateurUsername() : CREATEUR_INCONNU;
+            this.rappel = e.getNotificationBeforeMinutes() > 0;
+            this.serie = e.estRecurrent();
+        }
+    }
+
+    // Compteurs d'événements (remplacés d'un bloc par adopterEvenements)
+    private Map<Integer, Trace> parId = new HashMap<>();
+    private TreeMap<LocalDate, Integer> parJour = new TreeMap<>();
+    private TreeMap<YearMonth, Integer> parMois = new TreeMap<>();
+    private Map<String, Integer> parCreateur = new HashMap<>();
+    private int avecRappel;
+    private int series;
+    private int passes;
+    private int aujourdhui;
+    private int futurs;
+    private LocalDate jourCourant = LocalDate.now();
+    private boolean construit;
+
+    // Utilisateurs : tous en mémoire, comptés dès leur chargement
+    private final Map<String, String> roles = new HashMap<>();
+    private final Map<String, Integer> parRole = new HashMap<>();
+
+    public synchronized boolean estConstruit() {
+        return construit;
+    }
+
+    /**
+     * Compte tous les événements d'un coup (premier appel seulement)
+     */
+    public synchronized void construire(Collection<Evenement> evenements) {
+        if (construit) return;
+        suivreJour();
+        for (Evenement e : evenements) ajouter(e);
+        construit = true;
+    }
+
+    /**
+     * Reprend les compteurs d'événements de {@code construits}, comptés à part (hors verrou) ;
+     * les utilisateurs déjà comptés ici sont conservés. {@code construits} ne doit plus servir.
+     */
+    public synchronized void adopterEvenements(AgregatsStatistiques construits) {
+        synchronized (construits) {
+            parId = construits.parId;
+            parJour = construits.parJour;
+            parMois = construits.parMois;
+            parCreateur = construits.parCreateur;
+            avecRappel = construits.avecRappel;
+            series = construits.series;
+            passes = construits.passes;
+            aujourdhui = construits.aujourdhui;
+            futurs = construits.futurs;
+            jourCourant = construits.jourCourant;
+            construit = construits.construit;
+        }
+    }
+
+    /**
+     * Oublie les événements ; ils seront recomptés à la prochaine demande
+     */
+    public synchronized void vider() {
+        parId.clear();
+        parJour.clear();
+        parMois.clear();
+        parCreateur.clear();
+        avecRappel = series = passes = aujourdhui = futurs = 0;
+        construit = false;
+    }
+
+    /**
+     * Compte un événement ajouté ou modifié (ignoré tant que les compteurs ne sont pas construits)
+     */
+    public synchronized void mettreAJour(Evenement e) {
+        if (!construit) return;
+        suivreJour();
+        retirer(e.getId());
+        ajouter(e);
+    }
+
+    public synchronized void supprimer(int id) {
+        if (!construit) return;
+        suivreJour();
+        retirer(id);
+    }
+
+    private void ajouter(Evenement e) {
+        if (e.getDate() == null) return;
+        Trace t = new Trace(e);
+        parId.put(e.getId(), t);
+        compter(t, 1);
+    }
+
+    private void retirer(int id) {
+        Trace t = parId.remove(id);
+        if (t != null) compter(t, -1);
+    }
+
+    private void compter(Trace t, int sens) {
+        ajuster(parJour, t.date, sens);
+        ajuster(parMois, YearMonth.from(t.date), sens);
+        ajuster(parCreateur, t.createur, sens);
+        if (t.rappel) avecRappel += sens;
+        if (t.serie) series += sens;
+        int c = t.date.compareTo(jourCourant);
+        if (c < 0) passes += sens;
+        else if (c == 0) aujourdhui += sens;
+        else futurs += sens;
+    }
+
+    private static <K> void ajuster(Map<K, Integer> compteurs, K cle, int sens) {
+        compteurs.merge(cle, sens, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    /**
+     * Reclasse passés / aujourd'hui / à venir si la date a changé depuis le dernier appel :
+     * seuls les jours entre l'ancienne et la nouvelle date sont parcourus
+     */
+    private void suivreJour() {
+        LocalDate maintenant = LocalDate.now();
+        if (maintenant.equals(jourCourant)) return;
+        if (maintenant.isAfter(jourCourant)) {
+            passes += somme(parJour.subMap(jourCourant, true, maintenant, false));
+            futurs -= somme(parJour.subMap(jourCourant, false, maintenant, true));
+        } else {
+            // Horloge reculée : tout est reclassé
+            passes = somme(parJour.headMap(maintenant, false));
+            futurs = somme(parJour.tailMap(maintenant, false));
+        }
+        aujourdhui = parJour.getOrDefault(maintenant, 0);
+        jourCourant = maintenant;
+    }
+
+    private static int somme(Map<?, Integer> compteurs) {
+        int total = 0;
+        for (int n : compteurs.values()) total += n;
+        return total;
+    }
+
+    // ==================== UTILISATEURS ====================
+
+    /**
+     * Compte un utilisateur ajouté ou remplacé
+     */
+    public synchronized void utilisateurEnregistre(Utilisateur u) {
+        utilisateurRetire(u.getUsername());
+        String role = u.getRole() != null ? u.getRole().toUpperCase() : "UTILISATEUR";
+        roles.put(u.getUsername(), role);
+        ajuster(parRole, role, 1);
+    }
+
+    public synchronized void utilisateurRetire(String username) {
+        String role = roles.remove(username);
+        if (role != null) ajuster(parRole, role, -1);
+    }
+
+    public synchronized void viderUtilisateurs() {
+        roles.clear();
+        parRole.clear();
+    }
+
+    // ==================== LECTURE ====================
+
+    public synchronized int getNombreLe(LocalDate jour) {
+        return parJour.getOrDefault(jour, 0);
+    }
+
+    public synchronized int getNombreEn(YearMonth mois) {
+        return parMois.getOrDefault(mois, 0);
+    }
+
+    /**
+     * Recopie les compteurs dans {@code s} (les tables recopiées ont une entrée par mois,
+     * créateur ou rôle, pas par événement)
+     */
+    synchronized void remplir(Statistiques s) {
+        suivreJour();
+        s.evenements = parId.size();
+        s.aujourdhui = aujourdhui;
+        s.passes = passes;
+        s.futurs = futurs;
+        s.avecRappel = avecRappel;
+        s.series = series;
+        s.parMois = new TreeMap<>(parMois);
+        s.parCreateur = new HashMap<>(parCreateur);
+        s.utilisateurs = roles.size();
+        s.parRole = new HashMap<>(parRole);
+    }
+}
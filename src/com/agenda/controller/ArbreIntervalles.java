@@ -0,0 +1,161 @@
+package com.agenda.controller;
+
+/**
+ * Arbre d'intervalles [debut, fin) identifiés par un entier : arbre AVL trié par début,
+ * chaque nœud connaissant la plus grande fin de son sous-arbre.
+ *
+ * Ajout et retrait en O(log n) ; les intervalles qui chevauchent une période sont
+ * trouvés en O(log n + k), les sous-arbres qui finissent avant la période étant ignorés.
+ */
+public class ArbreIntervalles {
+
+    public interface Visiteur {
+        void intervalle(int id, long debut, long fin);
+    }
+
+    private static final class Noeud {
+        final int id;
+        final long debut;
+        final long fin;
+        long finMax;
+        int hauteur = 1;
+        Noeud gauche, droite;
+
+        Noeud(int id, long debut, long fin) {
+            this.id = id;
+            this.debut = debut;
+            this.fin = fin;
+            this.finMax = fin;
+        }
+    }
+
+    private Noeud racine;
+    private int taille;
+
+    public int taille() {
+        return taille;
+    }
+
+    public boolean estVide() {
+        return racine == null;
+    }
+
+    public void ajouter(int id, long debut, long fin) {
+        racine = inserer(racine, new Noeud(id, debut, fin));
+        taille++;
+    }
+
+    /**
+     * Retire l'intervalle de cet identifiant, ajouté avec ce début
+     */
+    public boolean retirer(int id, long debut) {
+        int avant = taille;
+        racine = supprimer(racine, id, debut);
+        return taille < avant;
+    }
+
+    /**
+     * Appelle {@code action} avec (identifiant, début, fin) pour chaque intervalle qui
+     * chevauche [debut, fin), par ordre de début
+     */
+    public void chevauchant(long debut, long fin, Visiteur action) {
+        parcourir(racine, debut, fin, action);
+    }
+
+    private static void parcourir(Noeud n, long debut, long fin, Visiteur action) {
+        if (n == null || n.finMax <= debut) return;
+        parcourir(n.gauche, debut, fin, action);
+        if (n.debut >= fin) return;
+        if (n.fin > debut) action.intervalle(n.id, n.debut, n.fin);
+        parcourir(n.droite, debut, fin, action);
+    }
+
+    // ==================== AVL ====================
+
+    private static int comparer(long debut, int id, Noeud n) {
+        int c = Long.compare(debut, n.debut);
+        return c != 0 ? c : Integer.compare(id, n.id);
+    }
+
+    private Noeud inserer(Noeud n, Noeud nouveau) {
+        if (n == null) return nouveau;
+        if (comparer(nouveau.debut, nouveau.id, n) < 0) {
+            n.gauche = inserer(n.gauche, nouveau);
+        } else {
+            n.droite = inserer(n.droite, nouveau);
+        }
+        return equilibrer(n);
+    }
+
+    private Noeud supprimer(Noeud n, int id, long debut) {
+        if (n == null) return null;
+        int c = comparer(debut, id, n);
+        if (c < 0) {
+            n.gauche = supprimer(n.gauche, id, debut);
+        } else if (c > 0) {
+            n.droite = supprimer(n.droite, id, debut);
+        } else {
+            taille--;
+            if (n.gauche == null) return n.droite;
+            if (n.droite == null) return n.gauche;
+            // Remplacé par le plus petit nœud du sous-arbre droit
+            Noeud successeur = n.droite;
+            while (successeur.gauche != null) successeur = successeur.gauche;
+            Noeud remplacant = new Noeud(successeur.id, successeur.debut, successeur.fin);
+            remplacant.droite = retirerMin(n.droite);
+            remplacant.gauche = n.gauche;
+            return equilibrer(remplacant);
+        }
+        return equilibrer(n);
+    }
+
+    private Noeud retirerMin(Noeud n) {
+        if (n.gauche == null) return n.droite;
+        n.gauche = retirerMin(n.gauche);
+        return equilibrer(n);
+    }
+
+    private static int hauteur(Noeud n) {
+        return n == null ? 0 : n.hauteur;
+    }
+
+    private static void mettreAJour(Noeud n) {
+        n.hauteur = 1 + Math.max(hauteur(n.gauche), hauteur(n.droite));
+        long max = n.fin;
+        if (n.gauche != null) max = Math.max(max, n.gauche.finMax);
+        if (n.droite != null) max = Math.max(max, n.droite.finMax);
+        n.finMax = max;
+    }
+
+    private static Noeud equilibrer(Noeud n) {
+        mettreAJour(n);
+        int balance = hauteur(n.gauche) - hauteur(n.droite);
+        if (balance > 1) {
+            if (hauteur(n.gauche.gauche) < hauteur(n.gauche.droite)) n.gauche = rotationGauche(n.gauche);
+            return rotationDroite(n);
+        }
+        if (balance < -1) {
+            if (hauteur(n.droite.droite) < hauteur(n.droite.gauche)) n.droite = rotationDroite(n.droite);
+            return rotationGauche(n);
+        }
+        return n;
+    }
+
+    private static Noeud rotationDroite(Noeud n) {
+        Noeud g = n.gauche;
+        n.gauche = g.droite;
+        g.droite = n;
+        mettreAJour(n);
+        mettreAJour(g);
+        return g;
+    }
+
+    private static Noeud rotationGauche(Noeud n) {
+        Noeud d = n.droite;
+        n.droite = d.gauche;
+        d.gauche = n;
+        mettreAJour(n);
+        mettreAJour(d);
+        return d;
+    }
+}
@@ -0,0 +1,554 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Archives des événements anciens : fichiers segments en lecture seule, jamais chargés au démarrage.
+ *
+ * Chaque archivage écrit un segment : les événements triés par date, par blocs de
+ * {@link #EVENEMENTS_PAR_BLOC} encodés avec {@link CodecBinaire} puis compressés.
+ * L'index (une entrée par bloc) garde la position du bloc, ses dates extrêmes, le nombre
+ * d'événements par mois et un filtre de Bloom des débuts de mots et trigrammes du texte :
+ * une recherche ne décompresse que les blocs qui peuvent contenir tous ses termes,
+ * une requête par dates que les blocs de la période.
+ *
+ * Un segment est écrit avant que ses événements soient retirés de l'agenda ; ceux qui y restent
+ * (modifiés entre-temps) sont ensuite déclarés retirés du segment : leur copie y est ignorée.
+ *
+ * Fichiers :
+ *   segment-NNNNNN.arc : blocs compressés bout à bout
+ *   index.arc          : [magic][version] puis entrées [longueur][entrée][crc]
+ *   retires.arc        : [magic][version] puis entrées [segment][id][mois][crc]
+ *   dernier_id         : plus grand identifiant archivé, pour ne pas le réattribuer
+ */
+public class ArchiveEvenements {
+
+    private static final int MAGIC = 0x4D415243; // "MARC"
+    private static final int VERSION = 1;
+    private static final int EVENEMENTS_PAR_BLOC = 128;
+    private static final int BITS_FILTRE = 2048;
+    // Blocs décompressés gardés pour les recherches successives pendant la saisie
+    private static final int BLOCS_EN_CACHE = 16;
+    private static final String INDEX = "index.arc";
+    private static final String RETIRES = "retires.arc";
+    private static final String DERNIER_ID = "dernier_id";
+    private static final String PREFIXE_SEGMENT = "segment-";
+    private static final String EXTENSION = ".arc";
+
+    private static final class Bloc {
+        final int segment;
+        final long position;
+        final int longueur;
+        final int nombre;
+        final long premierJour;
+        final long dernierJour;
+        final long[] filtre;
+        final Map<YearMonth, Integer> parMois;
+
+        Bloc(int segment, long position, int longueur, int nombre, long premierJour, long dernierJour,
+             long[] filtre, Map<YearMonth, Integer> parMois) {
+            this.segment = segment;
+            this.position = position;
+            this.longueur = longueur;
+            this.nombre = nombre;
+            this.premierJour = premierJour;
+            this.dernierJour = dernierJour;
+            this.filtre = filtre;
+            this.parMois = parMois;
+        }
+    }
+
+    private final Path dossier;
+    // null tant que l'index n'a pas été lu (première requête)
+    private List<Bloc> blocs;
+    private int prochainSegment;
+    // Copies retirées : segment -> identifiants, et leur nombre par mois pour les totaux
+    private final Map<Integer, Set<Integer>> retires = new HashMap<>();
+    private final Map<YearMonth, Integer> retiresParMois = new TreeMap<>();
+    private final Map<Bloc, List<Evenement>> cache = new LinkedHashMap<Bloc, List<Evenement>>(BLOCS_EN_CACHE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Bloc, List<Evenement>> eldest) {
+            return size() > BLOCS_EN_CACHE;
+        }
+    };
+
+    public ArchiveEvenements(String dossier) {
+        this.dossier = Paths.get(dossier);
+    }
+
+    /**
+     * Plus grand identifiant archivé (0 sans archive) ; ne lit pas l'index
+     */
+    public synchronized int getDernierId() {
+        Path fichier = dossier.resolve(DERNIER_ID);
+        if (!Files.exists(fichier)) return 0;
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(fichier))) {
+            return in.readInt();
+        } catch (IOException e) {
+            System.err.println("Erreur lecture archives: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    /**
+     * Écrit ces événements dans un nouveau segment, puis ajoute ses blocs à l'index.
+     * Tout est sur disque au retour : ils peuvent alors être retirés de l'agenda.
+     *
+     * @return le numéro du segment, pour {@link #retirer}
+     */
+    public synchronized int archiver(List<Evenement> evenements) throws IOException {
+        if (evenements.isEmpty()) return -1;
+        chargerIndex();
+        List<Evenement> tries = new ArrayList<>(evenements);
+        tries.sort(Comparator.comparing(Evenement::getDate).thenComparing(Evenement::getHeure)
+                             .thenComparingInt(Evenement::getId));
+
+        Files.createDirectories(dossier);
+        int segment = prochainSegment++;
+        List<Bloc> nouveaux = new ArrayList<>();
+        int dernierId = getDernierId();
+        try (FileOutputStream out = new FileOutputStream(fichierSegment(segment).toFile())) {
+            long position = 0;
+            for (int i = 0; i < tries.size(); i += EVENEMENTS_PAR_BLOC) {
+                List<Evenement> contenu = tries.subList(i, Math.min(i + EVENEMENTS_PAR_BLOC, tries.size()));
+                byte[] compresse = compresser(CodecBinaire.encoderEvenements(contenu));
+                out.write(compresse);
+                nouveaux.add(decrire(segment, position, compresse.length, contenu));
+                position += compresse.length;
+                for (Evenement e : contenu) dernierId = Math.max(dernierId, e.getId());
+            }
+            out.getFD().sync();
+        }
+
+        // L'index n'est complété qu'une fois le segment sur disque
+        Path index = dossier.resolve(INDEX);
+        boolean nouveau = !Files.exists(index);
+        try (FileOutputStream fichier = new FileOutputStream(index.toFile(), true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fichier));
+            if (nouveau) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+            }
+            for (Bloc b : nouveaux) ecrireEntree(out, b);
+            out.flush();
+            fichier.getFD().sync();
+        }
+        ecrireDernierId(dernierId);
+        blocs.addAll(nouveaux);
+        System.out.println("🗄️ Archives: " + tries.size() + " événement(s) dans le segment " + segment +
+                           " (" + nouveaux.size() + " bloc(s))");
+        return segment;
+    }
+
+    /**
+     * Déclare périmées les copies de ces événements dans le segment : ils sont restés dans
+     * l'agenda (modifiés ou supprimés depuis l'écriture du segment). Requêtes et totaux les ignorent.
+     */
+    public synchronized void retirer(int segment, List<Evenement> evenements) throws IOException {
+        if (evenements.isEmpty()) return;
+        chargerIndex();
+        Path fichier = dossier.resolve(RETIRES);
+        boolean nouveau = !Files.exists(fichier);
+        try (FileOutputStream sortie = new FileOutputStream(fichier.toFile(), true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(sortie));
+            if (nouveau) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+            }
+            for (Evenement e : evenements) {
+                YearMonth mois = YearMonth.from(e.getDate());
+                ByteArrayOutputStream tampon = new ByteArrayOutputStream(12);
+                DataOutputStream entree = new DataOutputStream(tampon);
+                entree.writeInt(segment);
+                entree.writeInt(e.getId());
+                entree.writeInt(mois.getYear() * 12 + mois.getMonthValue() - 1);
+                byte[] donnees = tampon.toByteArray();
+                CRC32 crc = new CRC32();
+                crc.update(donnees);
+                out.write(donnees);
+                out.writeLong(crc.getValue());
+            }
+            out.flush();
+            sortie.getFD().sync();
+        }
+        for (Evenement e : evenements) noterRetire(segment, e.getId(), YearMonth.from(e.getDate()));
+        // Les blocs déjà décompressés contiennent encore ces copies
+        cache.keySet().removeIf(b -> b.segment == segment);
+        System.out.println("🗄️ Archives: " + evenements.size() + " copie(s) retirée(s) du segment " + segment);
+    }
+
+    private void noterRetire(int segment, int id, YearMonth mois) {
+        if (retires.computeIfAbsent(segment, s -> new HashSet<>()).add(id)) {
+            retiresParMois.merge(mois, 1, Integer::sum);
+        }
+    }
+
+    private Bloc decrire(int segment, long position, int longueur, List<Evenement> contenu) {
+        long[] filtre = new long[BITS_FILTRE / 64];
+        Map<YearMonth, Integer> parMois = new TreeMap<>();
+        long premier = Long.MAX_VALUE;
+        long dernier = Long.MIN_VALUE;
+        for (Evenement e : contenu) {
+            long jour = e.getDate().toEpochDay();
+            premier = Math.min(premier, jour);
+            dernier = Math.max(dernier, jour);
+            parMois.merge(YearMonth.from(e.getDate()), 1, Integer::sum);
+            for (String mot : IndexTexte.motsDe(e)) {
+                ajouterAuFiltre(filtre, "^" + mot.substring(0, 1));
+                if (mot.length() > 1) ajouterAuFiltre(filtre, "^" + mot.substring(0, 2));
+                for (String trigramme : IndexTexte.trigrammes(mot)) ajouterAuFiltre(filtre, trigramme);
+            }
+        }
+        return new Bloc(segment, position, longueur, contenu.size(), premier, dernier, filtre, parMois);
+    }
+
+    private static void ecrireEntree(DataOutputStream out, Bloc b) throws IOException {
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(BITS_FILTRE / 8 + 64);
+        DataOutputStream entree = new DataOutputStream(tampon);
+        entree.writeInt(b.segment);
+        entree.writeLong(b.position);
+        entree.writeInt(b.longueur);
+        entree.writeInt(b.nombre);
+        entree.writeLong(b.premierJour);
+        entree.writeLong(b.dernierJour);
+        for (long mot : b.filtre) entree.writeLong(mot);
+        entree.writeInt(b.parMois.size());
+        for (Map.Entry<YearMonth, Integer> m : b.parMois.entrySet()) {
+            entree.writeInt(m.getKey().getYear() * 12 + m.getKey().getMonthValue() - 1);
+            entree.writeInt(m.getValue());
+        }
+        byte[] donnees = tampon.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(donnees);
+        out.writeInt(donnees.length);
+        out.write(donnees);
+        out.writeLong(crc.getValue());
+    }
+
+    private void ecrireDernierId(int id) throws IOException {
+        Path fichier = dossier.resolve(DERNIER_ID);
+        Path temporaire = dossier.resolve(DERNIER_ID + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temporaire))) {
+            out.writeInt(id);
+        }
+        try {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ==================== INDEX ====================
+
+    /**
+     * Lit l'index à la première requête. Une entrée incomplète en fin de fichier
+     * (arrêt pendant un archivage) est ignorée avec ce qui la suit.
+     */
+    private void chargerIndex() throws IOException {
+        if (blocs != null) return;
+        List<Bloc> lus = new ArrayList<>();
+        int maxSegment = -1;
+        Path index = dossier.resolve(INDEX);
+        if (Files.exists(index)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+                if (in.readInt() != MAGIC) throw new IOException("Index d'archives invalide: " + index);
+                in.readByte();
+                while (true) {
+                    Bloc b = lireEntree(in);
+                    if (b == null) break;
+                    lus.add(b);
+                    maxSegment = Math.max(maxSegment, b.segment);
+                }
+            }
+        }
+        // Un segment écrit sans son index (arrêt pendant l'archivage) n'est pas réutilisé
+        if (Files.isDirectory(dossier)) {
+            try (DirectoryStream<Path> fichiers = Files.newDirectoryStream(dossier, PREFIXE_SEGMENT + "*" + EXTENSION)) {
+                for (Path f : fichiers) {
+                    String nom = f.getFileName().toString();
+                    try {
+                        maxSegment = Math.max(maxSegment, Integer.parseInt(
+                            nom.substring(PREFIXE_SEGMENT.length(), nom.length() - EXTENSION.length())));
+                    } catch (NumberFormatException e) {
+                        // fichier étranger
+                    }
+                }
+            }
+        }
+        blocs = lus;
+        prochainSegment = maxSegment + 1;
+        chargerRetires();
+        System.out.println("🗄️ Index des archives lu: " + lus.size() + " bloc(s)");
+    }
+
+    /**
+     * Lit les copies retirées ; comme pour l'index, une entrée incomplète en fin de fichier est ignorée
+     */
+    private void chargerRetires() throws IOException {
+        retires.clear();
+        retiresParMois.clear();
+        Path fichier = dossier.resolve(RETIRES);
+        if (!Files.exists(fichier)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Fichier des archives retirées invalide: " + fichier);
+            in.readByte();
+            byte[] donnees = new byte[12];
+            while (true) {
+                try {
+                    in.readFully(donnees);
+                    CRC32 crc = new CRC32();
+                    crc.update(donnees);
+                    if (in.readLong() != crc.getValue()) break;
+                } catch (EOFException e) {
+                    break;
+                }
+                DataInputStream entree = new DataInputStream(new ByteArrayInputStream(donnees));
+                int segment = entree.readInt();
+                int id = entree.readInt();
+                int m = entree.readInt();
+                noterRetire(segment, id, YearMonth.of(m / 12, m % 12 + 1));
+            }
+        }
+    }
+
+    private static Bloc lireEntree(DataInputStream in) throws IOException {
+        byte[] donnees;
+        try {
+            int longueur = in.readInt();
+            if (longueur <= 0 || longueur > 1 << 20) return null;
+            donnees = new byte[longueur];
+            in.readFully(donnees);
+            CRC32 crc = new CRC32();
+            crc.update(donnees);
+            if (in.readLong() != crc.getValue()) return null;
+        } catch (EOFException e) {
+            return null;
+        }
+        DataInputStream entree = new DataInputStream(new ByteArrayInputStream(donnees));
+        int segment = entree.readInt();
+        long position = entree.readLong();
+        int longueur = entree.readInt();
+        int nombre = entree.readInt();
+        long premier = entree.readLong();
+        long dernier = entree.readLong();
+        long[] filtre = new long[BITS_FILTRE / 64];
+        for (int i = 0; i < filtre.length; i++) filtre[i] = entree.readLong();
+        Map<YearMonth, Integer> parMois = new TreeMap<>();
+        int mois = entree.readInt();
+        for (int i = 0; i < mois; i++) {
+            int m = entree.readInt();
+            parMois.put(YearMonth.of(m / 12, m % 12 + 1), entree.readInt());
+        }
+        return new Bloc(segment, position, longueur, nombre, premier, dernier, filtre, parMois);
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Événements archivés qui contiennent tous les termes de la requête, les plus récents d'abord,
+     * au plus {@code limite}
+     */
+    public synchronized List<Evenement> rechercher(String requete, int limite) throws IOException {
+        List<Evenement> resultat = new ArrayList<>();
+        List<String> termes = IndexTexte.termes(requete);
+        if (termes.isEmpty() || limite <= 0) return resultat;
+        chargerIndex();
+        List<String> cles = new ArrayList<>();
+        for (String terme : termes) {
+            if (IndexTexte.estTermeCourt(terme)) {
+                cles.add("^" + terme);
+            } else {
+                cles.addAll(IndexTexte.trigrammes(terme));
+            }
+        }
+        List<Bloc> parRecence = new ArrayList<>(blocs);
+        parRecence.sort(Comparator.comparingLong((Bloc b) -> b.dernierJour).reversed());
+        Map<Integer, Integer> segments = new HashMap<>();
+        Map<Integer, Evenement> trouves = new HashMap<>();
+        for (Bloc b : parRecence) {
+            if (!peutContenir(b.filtre, cles)) continue;
+            List<Evenement> contenu = lireBloc(b);
+            for (int i = contenu.size() - 1; i >= 0 && trouves.size() < limite; i--) {
+                if (IndexTexte.correspond(contenu.get(i), requete)) garderPlusRecente(b, contenu.get(i), segments, trouves);
+            }
+            if (trouves.size() >= limite) break;
+        }
+        resultat.addAll(trouves.values());
+        resultat.sort(Comparator.comparing(Evenement::getDebut).reversed());
+        return resultat;
+    }
+
+    /**
+     * Événements archivés des jours [de, a), par date
+     */
+    public synchronized List<Evenement> entre(LocalDate de, LocalDate a) throws IOException {
+        chargerIndex();
+        long premier = de.toEpochDay();
+        long dernier = a.toEpochDay();
+        Map<Integer, Integer> segments = new HashMap<>();
+        Map<Integer, Evenement> trouves = new HashMap<>();
+        for (Bloc b : blocs) {
+            if (b.dernierJour < premier || b.premierJour >= dernier) continue;
+            for (Evenement e : lireBloc(b)) {
+                if (!e.getDate().isBefore(de) && e.getDate().isBefore(a)) garderPlusRecente(b, e, segments, trouves);
+            }
+        }
+        List<Evenement> resultat = new ArrayList<>(trouves.values());
+        resultat.sort(Comparator.comparing(Evenement::getDebut).thenComparingInt(Evenement::getId));
+        return resultat;
+    }
+
+    /**
+     * Un événement archivé deux fois (arrêt avant la suppression, puis nouvel archivage) :
+     * la copie du segment le plus récent remplace l'autre
+     */
+    private static void garderPlusRecente(Bloc b, Evenement e, Map<Integer, Integer> segments,
+                                          Map<Integer, Evenement> trouves) {
+        Integer segment = segments.get(e.getId());
+        if (segment != null && segment > b.segment) return;
+        segments.put(e.getId(), b.segment);
+        trouves.put(e.getId(), e);
+    }
+
+    public synchronized int getNombre() throws IOException {
+        chargerIndex();
+        int total = 0;
+        for (Bloc b : blocs) total += b.nombre;
+        for (Set<Integer> ids : retires.values()) total -= ids.size();
+        return total;
+    }
+
+    public synchronized int getNombreSegments() throws IOException {
+        chargerIndex();
+        return (int) blocs.stream().mapToInt(b -> b.segment).distinct().count();
+    }
+
+    public synchronized long getTailleOctets() throws IOException {
+        chargerIndex();
+        long total = 0;
+        for (Bloc b : blocs) total += b.longueur;
+        return total;
+    }
+
+    public synchronized Map<YearMonth, Integer> getParMois() throws IOException {
+        chargerIndex();
+        Map<YearMonth, Integer> total = new TreeMap<>();
+        for (Bloc b : blocs) {
+            for (Map.Entry<YearMonth, Integer> m : b.parMois.entrySet()) total.merge(m.getKey(), m.getValue(), Integer::sum);
+        }
+        for (Map.Entry<YearMonth, Integer> m : retiresParMois.entrySet()) {
+            total.computeIfPresent(m.getKey(), (mois, n) -> n > m.getValue() ? n - m.getValue() : null);
+        }
+        return total;
+    }
+
+    private List<Evenement> lireBloc(Bloc b) throws IOException {
+        List<Evenement> contenu = cache.get(b);
+        if (contenu != null) return contenu;
+        byte[] compresse = new byte[b.longueur];
+        try (RandomAccessFile fichier = new RandomAccessFile(fichierSegment(b.segment).toFile(), "r")) {
+            fichier.seek(b.position);
+            fichier.readFully(compresse);
+        }
+        contenu = CodecBinaire.decoderEvenements(decompresser(compresse));
+        Set<Integer> retiresDuSegment = retires.get(b.segment);
+        if (retiresDuSegment != null) contenu.removeIf(e -> retiresDuSegment.contains(e.getId()));
+        for (Evenement e : contenu) e.marquerArchive();
+        cache.put(b, contenu);
+        return contenu;
+    }
+
+    // ==================== OUTILS ====================
+
+    private Path fichierSegment(int segment) {
+        return dossier.resolve(String.format("%s%06d%s", PREFIXE_SEGMENT, segment, EXTENSION));
+    }
+
+    private static void ajouterAuFiltre(long[] filtre, String cle) {
+        int h1 = cle.hashCode();
+        int h2 = Integer.rotateLeft(h1 * 0x9E3779B1, 16) | 1;
+        for (int i = 0; i < 3; i++) {
+            int bit = Math.floorMod(h1 + i * h2, BITS_FILTRE);
+            filtre[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    private static boolean peutContenir(long[] filtre, List<String> cles) {
+        for (String cle : cles) {
+            int h1 = cle.hashCode();
+            int h2 = Integer.rotateLeft(h1 * 0x9E3779B1, 16) | 1;
+            for (int i = 0; i < 3; i++) {
+                int bit = Math.floorMod(h1 + i * h2, BITS_FILTRE);
+                if ((filtre[bit >>> 6] & (1L << bit)) == 0) return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] compresser(byte[] donnees) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(donnees);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(donnees.length / 4 + 64);
+        DataOutputStream entete = new DataOutputStream(out);
+        try {
+            entete.writeInt(donnees.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] tampon = new byte[8192];
+        while (!deflater.finished()) {
+            int n = deflater.deflate(tampon);
+            out.write(tampon, 0, n);
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    private static byte[] decompresser(byte[] compresse) throws IOException {
+        int taille = (compresse[0] & 0xFF) << 24 | (compresse[1] & 0xFF) << 16
+                   | (compresse[2] & 0xFF) << 8 | (compresse[3] & 0xFF);
+        Inflater inflater = new Inflater();
+        inflater.setInput(compresse, 4, compresse.length - 4);
+        byte[] donnees = new byte[taille];
+        try {
+            int lus = 0;
+            while (lus < taille && !inflater.finished()) {
+                int n = inflater.inflate(donnees, lus, taille - lus);
+                if (n == 0 && inflater.needsInput()) break;
+                lus += n;
+            }
+            if (lus != taille) throw new IOException("Bloc d'archive tronqué");
+        } catch (DataFormatException e) {
+            throw new IOException("Bloc d'archive illisible", e);
+        } finally {
+            inflater.end();
+        }
+        return donnees;
+    }
+}
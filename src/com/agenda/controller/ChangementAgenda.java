@@ -0,0 +1,140 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Modification d'un événement publiée par {@link AgendaController} aux vues.
+ *
+ * Porte l'identifiant de l'événement et ses dates avant et après la modification,
+ * pour que chaque vue ne mette à jour que les cellules ou lignes concernées.
+ */
+public final class ChangementAgenda {
+
+    public enum Type {
+        AJOUT,
+        SUPPRESSION,
+        // Modification qui change la date ou l'heure
+        DEPLACEMENT,
+        // Modification sans changement de date ni d'heure
+        MODIFICATION,
+        PARTAGE,
+        // Ajout, modification ou suppression d'un événement récurrent : ses occurrences
+        // peuvent toucher n'importe quel jour, les vues se rechargent
+        SERIE,
+        // Opération sur plusieurs événements publiée en une fois : voir getChangements()
+        LOT
+    }
+
+    private final Type type;
+    private final int evenementId;
+    private final LocalDateTime ancienneDate;
+    private final LocalDateTime nouvelleDate;
+    private final Evenement evenement;
+    private final List<ChangementAgenda> changements;
+
+    private ChangementAgenda(Type type, int evenementId, LocalDateTime ancienneDate,
+                             LocalDateTime nouvelleDate, Evenement evenement) {
+        this.type = type;
+        this.evenementId = evenementId;
+        this.ancienneDate = ancienneDate;
+        this.nouvelleDate = nouvelleDate;
+        this.evenement = evenement;
+        this.changements = Collections.emptyList();
+    }
+
+    private ChangementAgenda(List<ChangementAgenda> changements) {
+        this.type = Type.LOT;
+        this.evenementId = 0;
+        this.ancienneDate = null;
+        this.nouvelleDate = null;
+        this.evenement = null;
+        this.changements = Collections.unmodifiableList(changements);
+    }
+
+    public static ChangementAgenda ajout(Evenement e) {
+        return new ChangementAgenda(e.estRecurrent() ? Type.SERIE : Type.AJOUT, e.getId(), null, debut(e), e);
+    }
+
+    public static ChangementAgenda suppression(Evenement e) {
+        return new ChangementAgenda(e.estRecurrent() ? Type.SERIE : Type.SUPPRESSION, e.getId(), debut(e), null, null);
+    }
+
+    /**
+     * Déplacement ou simple modification, selon que la date a changé
+     */
+    public static ChangementAgenda miseAJour(Evenement ancien, Evenement nouveau) {
+        LocalDateTime avant = debut(ancien);
+        LocalDateTime apres = debut(nouveau);
+        Type type = avant.equals(apres) ? Type.MODIFICATION : Type.DEPLACEMENT;
+        if (ancien.estRecurrent() || nouveau.estRecurrent()) type = Type.SERIE;
+        return new ChangementAgenda(type, nouveau.getId(), avant, apres, nouveau);
+    }
+
+    public static ChangementAgenda partage(Evenement e) {
+        return new ChangementAgenda(Type.PARTAGE, e.getId(), debut(e), debut(e), e);
+    }
+
+    /**
+     * Modifications de plusieurs événements, appliquées ensemble
+     */
+    public static ChangementAgenda lot(List<ChangementAgenda> changements) {
+        return new ChangementAgenda(changements);
+    }
+
+    public Type getType() { return type; }
+    public int getEvenementId() { return evenementId; }
+
+    /**
+     * Date avant la modification ; null pour un ajout
+     */
+    public LocalDateTime getAncienneDate() { return ancienneDate; }
+
+    /**
+     * Date après la modification ; null pour une suppression
+     */
+    public LocalDateTime getNouvelleDate() { return nouvelleDate; }
+
+    /**
+     * Nouvelle version de l'événement ; null pour une suppression
+     */
+    public Evenement getEvenement() { return evenement; }
+
+    /**
+     * Modifications unitaires d'un lot, dans l'ordre où elles ont été faites ; vide sinon
+     */
+    public List<ChangementAgenda> getChangements() { return changements; }
+
+    /**
+     * Indique si l'ancienne ou la nouvelle date tombe dans les jours [debut, fin) (toujours pour une série ;
+     * pour un lot, si l'une de ses modifications est concernée)
+     */
+    public boolean concerne(LocalDate debut, LocalDate fin) {
+        if (type == Type.SERIE) return true;
+        if (type == Type.LOT) {
+            for (ChangementAgenda c : changements) {
+                if (c.concerne(debut, fin)) return true;
+            }
+            return false;
+        }
+        return dansPeriode(ancienneDate, debut, fin) || dansPeriode(nouvelleDate, debut, fin);
+    }
+
+    private static boolean dansPeriode(LocalDateTime date, LocalDate debut, LocalDate fin) {
+        return date != null && !date.toLocalDate().isBefore(debut) && date.toLocalDate().isBefore(fin);
+    }
+
+    private static LocalDateTime debut(Evenement e) {
+        return LocalDateTime.of(e.getDate(), e.getHeure());
+    }
+
+    @Override
+    public String toString() {
+        if (type == Type.LOT) return type + " de " + changements.size() + " modification(s)";
+        return type + " n°" + evenementId + " (" + ancienneDate + " -> " + nouvelleDate + ")";
+    }
+}
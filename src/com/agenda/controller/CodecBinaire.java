@@ -0,0 +1,543 @@
+package com.agenda.controller;
+
+import com.agenda.controller.AgendaController.EvenementPartage;
+import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
+import com.agenda.modele.Utilisateur;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Format binaire compact et versionné pour les sauvegardes de Medisyns
+ * (événements, utilisateurs, partages), à la place de la sérialisation Java.
+ *
+ * Structure d'un fichier :
+ *   [magic int "MDSB"][version byte][type byte]
+ *   [dictionnaire : nombre, puis chaînes UTF-8]
+ *   [nombre d'enregistrements][enregistrements : longueur, puis champs]
+ *
+ * - Entiers en varint (zigzag pour les valeurs signées).
+ * - Date et heure empaquetées en un seul entier : jour epoch * 86400 + seconde du jour.
+ * - Noms répétés (responsable, participants, créateur, rôle...) stockés une fois
+ *   dans le dictionnaire, puis référencés par leur indice.
+ *
+ * Évolution du schéma : les nouveaux champs sont ajoutés en fin d'enregistrement.
+ * Un lecteur plus ancien ignore les octets qu'il ne connaît pas, un lecteur plus
+ * récent donne une valeur par défaut aux champs absents d'un ancien fichier.
+ */
+public final class CodecBinaire {
+
+    private static final int MAGIC = 0x4D445342; // "MDSB"
+    public static final int VERSION = 1;
+
+    private static final byte TYPE_EVENEMENTS = 1;
+    private static final byte TYPE_UTILISATEURS = 2;
+    private static final byte TYPE_PARTAGES = 3;
+
+    private CodecBinaire() {
+    }
+
+    // ==================== ÉVÉNEMENTS ====================
+
+    public static byte[] encoderEvenements(Collection<Evenement> evenements) {
+        Encodeur enc = new Encodeur(TYPE_EVENEMENTS, evenements.size() * 64);
+        for (Evenement e : evenements) {
+            enc.nom(e.getResponsable());
+            enc.noms(e.getParticipants());
+            enc.nom(e.getCreateurUsername());
+        }
+        enc.debutEnregistrements(evenements.size());
+        for (Evenement e : evenements) {
+            enc.debutEnregistrement();
+            enc.varint(e.getId());
+            enc.dateHeure(e.getDate(), e.getHeure());
+            enc.texte(e.getTitre());
+            enc.texte(e.getDescription());
+            enc.refNom(e.getResponsable());
+            enc.refNoms(e.getParticipants());
+            enc.entier(e.getNotificationBeforeMinutes());
+            enc.refNom(e.getCreateurUsername());
+            enc.varint(e.getDureeMinutes());
+            enc.recurrence(e.getRecurrence());
+            enc.finEnregistrement();
+        }
+        return enc.octets();
+    }
+
+    public static List<Evenement> decoderEvenements(byte[] donnees) throws IOException {
+        Decodeur dec = new Decodeur(donnees, TYPE_EVENEMENTS);
+        List<Evenement> resultat = new ArrayList<>(dec.nombreEnregistrements);
+        for (int i = 0; i < dec.nombreEnregistrements; i++) {
+            dec.debutEnregistrement();
+            int id = dec.varint();
+            LocalDateTime dateHeure = dec.dateHeure();
+            String titre = dec.texte();
+            String description = dec.texte();
+            String responsable = dec.refNom();
+            List<String> participants = dec.refNoms();
+            int notification = dec.entier();
+            String createur = dec.refNom();
+            // Absente des fichiers d'avant les durées : 0, soit la durée par défaut
+            int duree = dec.varint();
+            Recurrence recurrence = dec.recurrence();
+            dec.finEnregistrement();
+
+            Evenement e = new Evenement(titre, description, dateHeure.toLocalDate(), dateHeure.toLocalTime(),
+                    responsable, participants, createur);
+            e.setId(id);
+            e.setNotificationBeforeMinutes(notification);
+            e.setDureeMinutes(duree);
+            e.setRecurrence(recurrence);
+            resultat.add(e);
+        }
+        return resultat;
+    }
+
+    /**
+     * Un seul événement, dans le même format (enregistrement du journal)
+     */
+    public static byte[] encoderEvenement(Evenement e) {
+        return encoderEvenements(List.of(e));
+    }
+
+    public static Evenement decoderEvenement(byte[] donnees) throws IOException {
+        List<Evenement> evenements = decoderEvenements(donnees);
+        if (evenements.size() != 1) throw new IOException("Un événement attendu, " + evenements.size() + " lu(s)");
+        return evenements.get(0);
+    }
+
+    // ==================== UTILISATEURS ====================
+
+    public static byte[] encoderUtilisateurs(Collection<Utilisateur> utilisateurs) {
+        Encodeur enc = new Encodeur(TYPE_UTILISATEURS, utilisateurs.size() * 96);
+        for (Utilisateur u : utilisateurs) {
+            enc.nom(u.getUsername());
+            enc.nom(u.getNomComplet());
+            enc.nom(u.getRole());
+            enc.noms(u.getSpecialites());
+            enc.nom(u.getService());
+            enc.nom(u.getAvatarColor());
+        }
+        enc.debutEnregistrements(utilisateurs.size());
+        for (Utilisateur u : utilisateurs) {
+            enc.debutEnregistrement();
+            enc.refNom(u.getUsername());
+            enc.refNom(u.getNomComplet());
+            enc.refNom(u.getRole());
+            enc.texte(u.getEmail());
+            enc.date(u.getDateInscription());
+            enc.refNoms(u.getSpecialites());
+            enc.texte(u.getTelephone());
+            enc.refNom(u.getService());
+            enc.refNom(u.getAvatarColor());
+            enc.varint(u.getNombreEvenementsCrees());
+            enc.varint(u.getNombreEvenementsPartages());
+            enc.date(u.getDernierAcces());
+            enc.finEnregistrement();
+        }
+        return enc.octets();
+    }
+
+    public static List<Utilisateur> decoderUtilisateurs(byte[] donnees) throws IOException {
+        Decodeur dec = new Decodeur(donnees, TYPE_UTILISATEURS);
+        List<Utilisateur> resultat = new ArrayList<>(dec.nombreEnregistrements);
+        for (int i = 0; i < dec.nombreEnregistrements; i++) {
+            dec.debutEnregistrement();
+            Utilisateur u = new Utilisateur(
+                    dec.refNom(), dec.refNom(), dec.refNom(), dec.texte(),
+                    dec.date(), dec.refNoms(), dec.texte(), dec.refNom(), dec.refNom(),
+                    dec.varint(), dec.varint(), dec.date());
+            dec.finEnregistrement();
+            resultat.add(u);
+        }
+        return resultat;
+    }
+
+    // ==================== PARTAGES ====================
+
+    public static byte[] encoderPartages(Collection<EvenementPartage> partages) {
+        Encodeur enc = new Encodeur(TYPE_PARTAGES, partages.size() * 48);
+        for (EvenementPartage p : partages) {
+            enc.noms(p.getUtilisateursPartages());
+        }
+        enc.debutEnregistrements(partages.size());
+        for (EvenementPartage p : partages) {
+            enc.debutEnregistrement();
+            enc.varint(p.getEvenementId());
+            enc.texte(p.getEvenementTitre());
+            enc.dateHeure(p.getEvenementDate(), p.getEvenementHeure());
+            enc.refNoms(p.getUtilisateursPartages());
+            enc.dateHeure(p.getDatePartage().toLocalDate(), p.getDatePartage().toLocalTime());
+            enc.finEnregistrement();
+        }
+        return enc.octets();
+    }
+
+    public static List<EvenementPartage> decoderPartages(byte[] donnees) throws IOException {
+        Decodeur dec = new Decodeur(donnees, TYPE_PARTAGES);
+        List<EvenementPartage> resultat = new ArrayList<>(dec.nombreEnregistrements);
+        for (int i = 0; i < dec.nombreEnregistrements; i++) {
+            dec.debutEnregistrement();
+            int evenementId = dec.varint();
+            String titre = dec.texte();
+            LocalDateTime evenement = dec.dateHeure();
+            List<String> utilisateurs = dec.refNoms();
+            LocalDateTime datePartage = dec.dateHeure();
+            dec.finEnregistrement();
+            resultat.add(new EvenementPartage(evenementId, titre, evenement.toLocalDate(), evenement.toLocalTime(),
+                    utilisateurs != null ? utilisateurs : new ArrayList<>(), datePartage));
+        }
+        return resultat;
+    }
+
+    // ==================== FICHIERS ====================
+
+    /**
+     * Décodage d'un contenu binaire
+     */
+    public interface Decodage<T> {
+        List<T> decoder(byte[] donnees) throws IOException;
+    }
+
+    /**
+     * Lit une liste depuis un fichier au format binaire, ou au format de
+     * sérialisation Java des anciennes versions (migration).
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> lireFichier(Path fichier, Decodage<T> decodage)
+            throws IOException, ClassNotFoundException {
+        byte[] donnees = Files.readAllBytes(fichier);
+        if (estFormatBinaire(donnees)) {
+            return decodage.decoder(donnees);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(donnees))) {
+            return (List<T>) ois.readObject();
+        }
+    }
+
+    public static boolean estFormatBinaire(byte[] donnees) {
+        return donnees.length >= 4 && ((donnees[0] & 0xFF) << 24 | (donnees[1] & 0xFF) << 16
+                | (donnees[2] & 0xFF) << 8 | (donnees[3] & 0xFF)) == MAGIC;
+    }
+
+    // ==================== ENCODAGE ====================
+
+    private static final class Encodeur {
+        private final byte type;
+        private final Map<String, Integer> dictionnaire = new LinkedHashMap<>();
+        private byte[] tampon;
+        private int taille;
+        private int debutEnregistrement;
+
+        Encodeur(byte type, int capacite) {
+            this.type = type;
+            this.tampon = new byte[Math.max(capacite, 256)];
+        }
+
+        /**
+         * Déclare un nom répété : il sera stocké une seule fois dans le dictionnaire
+         */
+        void nom(String s) {
+            if (s != null) dictionnaire.putIfAbsent(s, dictionnaire.size());
+        }
+
+        void noms(List<String> liste) {
+            if (liste != null) {
+                for (String s : liste) nom(s);
+            }
+        }
+
+        /**
+         * Écrit l'en-tête et le dictionnaire ; les enregistrements suivent
+         */
+        void debutEnregistrements(int nombre) {
+            ecrireInt(MAGIC);
+            octet(VERSION);
+            octet(type);
+            varint(dictionnaire.size());
+            for (String s : dictionnaire.keySet()) {
+                utf8(s);
+            }
+            varint(nombre);
+        }
+
+        /**
+         * Réserve la place de la longueur (varint sur 3 octets, jusqu'à 2 Mo par enregistrement)
+         */
+        void debutEnregistrement() {
+            assurer(3);
+            debutEnregistrement = taille;
+            taille += 3;
+        }
+
+        void finEnregistrement() {
+            int longueur = taille - debutEnregistrement - 3;
+            if (longueur >= 1 << 21) throw new IllegalStateException("Enregistrement trop grand: " + longueur + " octets");
+            tampon[debutEnregistrement] = (byte) ((longueur & 0x7F) | 0x80);
+            tampon[debutEnregistrement + 1] = (byte) (((longueur >>> 7) & 0x7F) | 0x80);
+            tampon[debutEnregistrement + 2] = (byte) ((longueur >>> 14) & 0x7F);
+        }
+
+        void refNom(String s) {
+            varint(s == null ? 0 : dictionnaire.get(s) + 1);
+        }
+
+        void refNoms(List<String> liste) {
+            if (liste == null) {
+                varint(0);
+                return;
+            }
+            varint(liste.size() + 1);
+            for (String s : liste) refNom(s);
+        }
+
+        void texte(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] octets = s.getBytes(StandardCharsets.UTF_8);
+            varint(octets.length + 1);
+            ecrire(octets);
+        }
+
+        void dateHeure(LocalDate date, LocalTime heure) {
+            varlong(zigzag(date.toEpochDay() * 86400 + heure.toSecondOfDay()));
+        }
+
+        void date(LocalDate date) {
+            varlong(date == null ? 0 : zigzag(date.toEpochDay()) + 1);
+        }
+
+        void entier(int valeur) {
+            varlong(zigzag(valeur));
+        }
+
+        /**
+         * Fréquence + 1 (0 = pas de répétition), intervalle, jours en masque, fin, nombre, exceptions
+         */
+        void recurrence(Recurrence r) {
+            if (r == null) {
+                varint(0);
+                return;
+            }
+            varint(r.getFrequence().ordinal() + 1);
+            varint(r.getIntervalle());
+            int masque = 0;
+            for (DayOfWeek jour : r.getJours()) masque |= 1 << (jour.getValue() - 1);
+            varint(masque);
+            date(r.getJusquAu());
+            varint(r.getNombre());
+            varint(r.getExceptions().size());
+            for (LocalDate exception : r.getExceptions()) date(exception);
+        }
+
+        void varint(int valeur) {
+            varlong(valeur & 0xFFFFFFFFL);
+        }
+
+        private void varlong(long valeur) {
+            assurer(10);
+            while ((valeur & ~0x7FL) != 0) {
+                tampon[taille++] = (byte) ((valeur & 0x7F) | 0x80);
+                valeur >>>= 7;
+            }
+            tampon[taille++] = (byte) valeur;
+        }
+
+        private void utf8(String s) {
+            byte[] octets = s.getBytes(StandardCharsets.UTF_8);
+            varint(octets.length);
+            ecrire(octets);
+        }
+
+        private void ecrireInt(int valeur) {
+            assurer(4);
+            tampon[taille++] = (byte) (valeur >>> 24);
+            tampon[taille++] = (byte) (valeur >>> 16);
+            tampon[taille++] = (byte) (valeur >>> 8);
+            tampon[taille++] = (byte) valeur;
+        }
+
+        private void octet(int valeur) {
+            assurer(1);
+            tampon[taille++] = (byte) valeur;
+        }
+
+        private void ecrire(byte[] octets) {
+            assurer(octets.length);
+            System.arraycopy(octets, 0, tampon, taille, octets.length);
+            taille += octets.length;
+        }
+
+        private void assurer(int supplement) {
+            if (taille + supplement > tampon.length) {
+                tampon = Arrays.copyOf(tampon, Math.max(tampon.length * 2, taille + supplement));
+            }
+        }
+
+        byte[] octets() {
+            return Arrays.copyOf(tampon, taille);
+        }
+    }
+
+    // ==================== DÉCODAGE ====================
+
+    private static final class Decodeur {
+        private final byte[] donnees;
+        private final String[] dictionnaire;
+        private final int nombreEnregistrements;
+        private int position;
+        private int finEnregistrement;
+        private boolean dansEnregistrement;
+
+        Decodeur(byte[] donnees, byte typeAttendu) throws IOException {
+            this.donnees = donnees;
+            if (!estFormatBinaire(donnees)) throw new IOException("Format de fichier inconnu");
+            position = 4;
+            finEnregistrement = donnees.length;
+            int version = octet();
+            if (version > VERSION) {
+                // Les champs ajoutés par une version plus récente seront ignorés
+                System.err.println("Fichier écrit par une version plus récente du format (" + version + ")");
+            }
+            int type = octet();
+            if (type != typeAttendu) throw new IOException("Type de contenu inattendu: " + type);
+
+            dictionnaire = new String[varint()];
+            for (int i = 0; i < dictionnaire.length; i++) {
+                int longueur = varint();
+                verifier(longueur);
+                dictionnaire[i] = new String(donnees, position, longueur, StandardCharsets.UTF_8);
+                position += longueur;
+            }
+            nombreEnregistrements = varint();
+        }
+
+        void debutEnregistrement() throws IOException {
+            finEnregistrement = donnees.length;
+            int longueur = varint();
+            verifier(longueur);
+            finEnregistrement = position + longueur;
+            dansEnregistrement = true;
+        }
+
+        /**
+         * Saute les champs inconnus (écrits par une version plus récente)
+         */
+        void finEnregistrement() {
+            position = finEnregistrement;
+            finEnregistrement = donnees.length;
+            dansEnregistrement = false;
+        }
+
+        /**
+         * Un champ absent (fichier écrit par une version plus ancienne) vaut sa valeur par défaut.
+         * Hors d'un enregistrement (en-tête, dictionnaire, longueurs), rien n'est facultatif.
+         */
+        private boolean champPresent() throws IOException {
+            if (position < finEnregistrement) return true;
+            if (!dansEnregistrement) throw new IOException("Fichier tronqué");
+            return false;
+        }
+
+        String refNom() throws IOException {
+            int ref = varint();
+            if (ref == 0) return null;
+            if (ref > dictionnaire.length) throw new IOException("Référence de dictionnaire invalide: " + ref);
+            return dictionnaire[ref - 1];
+        }
+
+        List<String> refNoms() throws IOException {
+            int nombre = varint();
+            if (nombre == 0) return null;
+            List<String> liste = new ArrayList<>(nombre - 1);
+            for (int i = 1; i < nombre; i++) liste.add(refNom());
+            return liste;
+        }
+
+        String texte() throws IOException {
+            int longueur = varint();
+            if (longueur == 0) return null;
+            verifier(longueur - 1);
+            String s = new String(donnees, position, longueur - 1, StandardCharsets.UTF_8);
+            position += longueur - 1;
+            return s;
+        }
+
+        LocalDateTime dateHeure() throws IOException {
+            long secondes = unzigzag(varlong());
+            return LocalDateTime.of(LocalDate.ofEpochDay(Math.floorDiv(secondes, 86400)),
+                    LocalTime.ofSecondOfDay(Math.floorMod(secondes, 86400)));
+        }
+
+        LocalDate date() throws IOException {
+            long valeur = varlong();
+            return valeur == 0 ? null : LocalDate.ofEpochDay(unzigzag(valeur - 1));
+        }
+
+        int entier() throws IOException {
+            return (int) unzigzag(varlong());
+        }
+
+        Recurrence recurrence() throws IOException {
+            int frequence = varint();
+            if (frequence == 0) return null;
+            if (frequence > Recurrence.Frequence.values().length) throw new IOException("Fréquence invalide: " + frequence);
+            Recurrence r = new Recurrence(Recurrence.Frequence.values()[frequence - 1], varint());
+            int masque = varint();
+            Set<DayOfWeek> jours = EnumSet.noneOf(DayOfWeek.class);
+            for (DayOfWeek jour : DayOfWeek.values()) {
+                if ((masque & 1 << (jour.getValue() - 1)) != 0) jours.add(jour);
+            }
+            r.setJours(jours);
+            r.setJusquAu(date());
+            r.setNombre(varint());
+            int exceptions = varint();
+            for (int i = 0; i < exceptions; i++) r.ajouterException(date());
+            return r;
+        }
+
+        int varint() throws IOException {
+            return (int) varlong();
+        }
+
+        private long varlong() throws IOException {
+            // Champ absent d'un ancien enregistrement : 0 (null, liste vide ou zéro)
+            if (!champPresent()) return 0;
+            long valeur = 0;
+            for (int decalage = 0; decalage < 64; decalage += 7) {
+                if (position >= finEnregistrement) throw new IOException("Enregistrement tronqué");
+                byte b = donnees[position++];
+                valeur |= (long) (b & 0x7F) << decalage;
+                if (b >= 0) return valeur;
+            }
+            throw new IOException("Varint invalide");
+        }
+
+        private int octet() throws IOException {
+            if (position >= donnees.length) throw new IOException("Fichier tronqué");
+            return donnees[position++] & 0xFF;
+        }
+
+        private void verifier(int longueur) throws IOException {
+            if (longueur < 0 || position + longueur > finEnregistrement) throw new IOException("Fichier tronqué");
+        }
+    }
+
+    private static long zigzag(long valeur) {
+        return (valeur << 1) ^ (valeur >> 63);
+    }
+
+    private static long unzigzag(long valeur) {
+        return (valeur >>> 1) ^ -(valeur & 1);
+    }
+}
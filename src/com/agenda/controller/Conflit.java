@@ -0,0 +1,43 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.time.LocalDateTime;
+
+/**
+ * Deux événements qui se chevauchent pour une même personne (responsable ou participant)
+ */
+public final class Conflit {
+
+    private final String personne;
+    private final Evenement evenement;
+    private final Evenement autre;
+
+    public Conflit(String personne, Evenement evenement, Evenement autre) {
+        this.personne = personne;
+        this.evenement = evenement;
+        this.autre = autre;
+    }
+
+    public String getPersonne() { return personne; }
+    public Evenement getEvenement() { return evenement; }
+    public Evenement getAutre() { return autre; }
+
+    public LocalDateTime getDebutChevauchement() {
+        LocalDateTime a = evenement.getDebut();
+        LocalDateTime b = autre.getDebut();
+        return a.isAfter(b) ? a : b;
+    }
+
+    public LocalDateTime getFinChevauchement() {
+        LocalDateTime a = evenement.getFin();
+        LocalDateTime b = autre.getFin();
+        return a.isBefore(b) ? a : b;
+    }
+
+    @Override
+    public String toString() {
+        return personne + ": " + evenement.getTitre() + " / " + autre.getTitre()
+                + " (" + getDebutChevauchement() + " -> " + getFinChevauchement() + ")";
+    }
+}
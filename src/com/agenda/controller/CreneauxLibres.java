@@ -0,0 +1,134 @@
+package com.agenda.controller;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Recherche de créneaux libres communs sur des tableaux de bits : un bit par créneau de
+ * {@link #MINUTES_PAR_CRENEAU} minutes, à 1 quand le créneau est pris.
+ *
+ * Les occupations des personnes et les heures de fermeture sont réunies par OU mot à mot ;
+ * les plages libres sont ensuite parcourues 64 créneaux à la fois.
+ */
+public final class CreneauxLibres {
+
+    public static final int MINUTES_PAR_CRENEAU = 5;
+    // Dans une plage libre, un début proposé tous les quarts d'heure
+    private static final int PAS_PROPOSITIONS = 3;
+
+    private CreneauxLibres() {
+    }
+
+    public static int nombreCreneaux(LocalDateTime debut, LocalDateTime fin) {
+        long minutes = java.time.Duration.between(debut, fin).toMinutes();
+        return (int) Math.max(0, minutes / MINUTES_PAR_CRENEAU);
+    }
+
+    /**
+     * Met à 1 les bits [de, a)
+     */
+    static void marquer(long[] bits, int de, int a) {
+        if (de >= a) return;
+        int premierMot = de >>> 6;
+        int dernierMot = (a - 1) >>> 6;
+        long masqueDebut = -1L << de;
+        long masqueFin = -1L >>> -a;
+        if (premierMot == dernierMot) {
+            bits[premierMot] |= masqueDebut & masqueFin;
+            return;
+        }
+        bits[premierMot] |= masqueDebut;
+        for (int i = premierMot + 1; i < dernierMot; i++) bits[i] = -1L;
+        bits[dernierMot] |= masqueFin;
+    }
+
+    /**
+     * Occupe tout ce qui tombe hors de [ouverture, fermeture) chaque jour, et les bits au-delà de la fenêtre
+     */
+    static void fermer(long[] bits, LocalDateTime debut, int creneaux, LocalTime ouverture, LocalTime fermeture) {
+        LocalDate jour = debut.toLocalDate();
+        LocalDateTime fin = debut.plusMinutes((long) creneaux * MINUTES_PAR_CRENEAU);
+        while (jour.atStartOfDay().isBefore(fin)) {
+            marquer(bits, indice(debut, jour.atStartOfDay(), creneaux), indice(debut, jour.atTime(ouverture), creneaux));
+            int finJournee = fermeture.equals(LocalTime.MIDNIGHT) ? creneaux : indice(debut, jour.atTime(fermeture), creneaux);
+            marquer(bits, finJournee, indice(debut, jour.plusDays(1).atStartOfDay(), creneaux));
+            jour = jour.plusDays(1);
+        }
+        marquer(bits, creneaux, bits.length << 6);
+    }
+
+    private static int indice(LocalDateTime debut, LocalDateTime instant, int creneaux) {
+        long minutes = java.time.Duration.between(debut, instant).toMinutes();
+        // Arrondi vers le haut : un créneau entamé avant l'ouverture reste fermé
+        long i = Math.floorDiv(minutes + MINUTES_PAR_CRENEAU - 1, MINUTES_PAR_CRENEAU);
+        return (int) Math.max(0, Math.min(i, creneaux));
+    }
+
+    /**
+     * Débuts (en indices de créneau) des {@code nombre} premiers créneaux libres de {@code longueur} créneaux.
+     * Avec {@code moinsFragmentes}, les créneaux collés à une occupation ou à un bord de plage
+     * passent d'abord : ils ne laissent pas derrière eux de trou trop court pour resservir.
+     */
+    static List<Integer> chercher(long[] occupes, int longueur, int nombre, boolean moinsFragmentes) {
+        List<int[]> candidats = new ArrayList<>(); // {début, fragmentation}
+        int total = occupes.length << 6;
+        int i = suivantLibre(occupes, 0, total);
+        while (i < total) {
+            int finPlage = suivantOccupe(occupes, i, total);
+            int dernier = finPlage - longueur;
+            for (int d = i; d <= dernier; d += PAS_PROPOSITIONS) {
+                candidats.add(new int[]{d, fragmentation(d - i, dernier - d, longueur)});
+                if (!moinsFragmentes && candidats.size() >= nombre) return debuts(candidats);
+            }
+            // La fin de plage, si le pas ne tombe pas dessus : le créneau y est collé à l'occupation suivante
+            if (dernier > i && (dernier - i) % PAS_PROPOSITIONS != 0) {
+                candidats.add(new int[]{dernier, fragmentation(dernier - i, 0, longueur)});
+                if (!moinsFragmentes && candidats.size() >= nombre) return debuts(candidats);
+            }
+            i = suivantLibre(occupes, finPlage, total);
+        }
+        if (moinsFragmentes) {
+            candidats.sort(Comparator.<int[]>comparingInt(c -> c[1]).thenComparingInt(c -> c[0]));
+        }
+        return debuts(candidats.subList(0, Math.min(nombre, candidats.size())));
+    }
+
+    /**
+     * Nombre de côtés où le créneau laisse un reste libre trop court pour un autre rendez-vous de même durée
+     */
+    private static int fragmentation(int avant, int apres, int longueur) {
+        return (avant > 0 && avant < longueur ? 1 : 0) + (apres > 0 && apres < longueur ? 1 : 0);
+    }
+
+    private static List<Integer> debuts(List<int[]> candidats) {
+        List<Integer> debuts = new ArrayList<>(candidats.size());
+        for (int[] c : candidats) debuts.add(c[0]);
+        return debuts;
+    }
+
+    private static int suivantLibre(long[] bits, int de, int total) {
+        int mot = de >>> 6;
+        if (mot >= bits.length) return total;
+        long libres = ~bits[mot] & (-1L << de);
+        while (libres == 0) {
+            if (++mot == bits.length) return total;
+            libres = ~bits[mot];
+        }
+        return (mot << 6) + Long.numberOfTrailingZeros(libres);
+    }
+
+    private static int suivantOccupe(long[] bits, int de, int total) {
+        int mot = de >>> 6;
+        if (mot >= bits.length) return total;
+        long occupes = bits[mot] & (-1L << de);
+        while (occupes == 0) {
+            if (++mot == bits.length) return total;
+            occupes = bits[mot];
+        }
+        return (mot << 6) + Long.numberOfTrailingZeros(occupes);
+    }
+}
@@ -0,0 +1,277 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Occupation de chaque personne (responsable et participants) : un arbre d'intervalles
+ * [début, fin) par personne, sur tous les événements.
+ *
+ * "Qu'est-ce qui chevauche [début, fin) pour ces personnes" coûte O(log n + k) par personne,
+ * et le rapport d'une période balaie chaque personne par ordre de début.
+ * Les participants génériques ("Patient", "Visiteur"...) désignent des personnes différentes
+ * d'un événement à l'autre et ne sont pas comparés. Les séries ne sont pas dans les arbres :
+ * leurs occurrences sont calculées sur la période de chaque requête.
+ */
+public class DetecteurConflits {
+
+    private static final Set<String> PARTICIPANTS_GENERIQUES = Set.of(
+            "patient", "parent accompagnant", "visiteur", "stagiaire", "equipe medicale");
+
+    // Une série sans fin est vérifiée sur un an à partir de sa première occurrence
+    private static final int HORIZON_SERIES_JOURS = 366;
+
+    /**
+     * Deux événements (par identifiant, avec le début de l'occurrence concernée en minutes epoch)
+     * qui se chevauchent pour une personne
+     */
+    public static final class Chevauchement {
+        public final String personne;
+        public final int premier;
+        public final int second;
+        public final long debutPremier;
+        public final long debutSecond;
+
+        Chevauchement(String personne, long[] premier, long[] second) {
+            this.personne = personne;
+            this.premier = (int) premier[0];
+            this.second = (int) second[0];
+            this.debutPremier = premier[1];
+            this.debutSecond = second[1];
+        }
+    }
+
+    private static final class Occupation {
+        final long debut;
+        final long fin;
+        final String[] personnes;
+
+        Occupation(long debut, long fin, String[] personnes) {
+            this.debut = debut;
+            this.fin = fin;
+            this.personnes = personnes;
+        }
+    }
+
+    // Clé normalisée d'une personne -> ses événements uniques ; et le nom tel qu'il a été saisi
+    private final Map<String, ArbreIntervalles> parPersonne = new HashMap<>();
+    private final Map<String, String> nomsAffiches = new HashMap<>();
+    private final Map<Integer, Occupation> parId = new HashMap<>();
+    // Séries, peu nombreuses : leurs occurrences sont calculées pour chaque période demandée
+    private final Map<Integer, Evenement> series = new HashMap<>();
+    private boolean construit;
+
+    public synchronized boolean estConstruit() {
+        return construit;
+    }
+
+    /**
+     * Indexe tous les événements d'un coup (premier appel seulement)
+     */
+    public synchronized void construire(Collection<Evenement> evenements) {
+        if (construit) return;
+        for (Evenement e : evenements) ajouter(e);
+        construit = true;
+    }
+
+    /**
+     * Oublie tout ; le détecteur sera reconstruit à la prochaine requête
+     */
+    public synchronized void vider() {
+        parPersonne.clear();
+        nomsAffiches.clear();
+        parId.clear();
+        series.clear();
+        construit = false;
+    }
+
+    /**
+     * Indexe ou réindexe un événement (ignoré tant que le détecteur n'est pas construit)
+     */
+    public synchronized void mettreAJour(Evenement e) {
+        if (!construit) return;
+        retirer(e.getId());
+        ajouter(e);
+    }
+
+    public synchronized void supprimer(int id) {
+        if (construit) retirer(id);
+    }
+
+    private void ajouter(Evenement e) {
+        if (e.getDate() == null || e.getHeure() == null) return;
+        long debut = minutes(e.getDebut());
+        long fin = debut + e.getDureeMinutes();
+        List<String> personnes = new ArrayList<>();
+        for (String nom : personnesDe(e)) {
+            String cle = cle(nom);
+            if (!e.estRecurrent()) {
+                parPersonne.computeIfAbsent(cle, k -> new ArbreIntervalles()).ajouter(e.getId(), debut, fin);
+            }
+            nomsAffiches.putIfAbsent(cle, nom.trim());
+            personnes.add(cle);
+        }
+        parId.put(e.getId(), new Occupation(debut, fin, personnes.toArray(new String[0])));
+        if (e.estRecurrent()) series.put(e.getId(), e);
+    }
+
+    private void retirer(int id) {
+        Occupation occupation = parId.remove(id);
+        if (occupation == null) return;
+        if (series.remove(id) != null) return;
+        for (String cle : occupation.personnes) {
+            ArbreIntervalles arbre = parPersonne.get(cle);
+            if (arbre == null) continue;
+            arbre.retirer(id, occupation.debut);
+            if (arbre.estVide()) parPersonne.remove(cle);
+        }
+    }
+
+    // ==================== REQUÊTES ====================
+
+    /**
+     * Occupations {identifiant, début, fin} d'une personne qui touchent [de, a), par ordre de début :
+     * événements uniques de l'arbre puis occurrences des séries où elle figure
+     */
+    private List<long[]> intervalles(String cle, long de, long a) {
+        List<long[]> resultat = new ArrayList<>();
+        ArbreIntervalles arbre = parPersonne.get(cle);
+        if (arbre != null) arbre.chevauchant(de, a, (id, d, f) -> resultat.add(new long[]{id, d, f}));
+        boolean ajoutees = false;
+        for (Evenement serie : series.values()) {
+            if (!contient(parId.get(serie.getId()).personnes, cle)) continue;
+            long duree = serie.getDureeMinutes();
+            // Une occurrence commencée avant la période peut encore la toucher
+            for (Evenement occ : serie.occurrencesEntre(instant(de - duree + 1), instant(a))) {
+                long d = minutes(occ.getDebut());
+                resultat.add(new long[]{occ.getId(), d, d + duree});
+                ajoutees = true;
+            }
+        }
+        if (ajoutees) resultat.sort((x, y) -> Long.compare(x[1], y[1]));
+        return resultat;
+    }
+
+    /**
+     * Événements qui chevaucheraient {@code candidat} pour l'une de ses personnes
+     * ({@code premier} = identifiant du candidat, qui n'est pas compté contre lui-même).
+     * Pour une série, chacune de ses occurrences de la première année est vérifiée.
+     */
+    public synchronized List<Chevauchement> chevauchements(Evenement candidat) {
+        List<Chevauchement> resultat = new ArrayList<>();
+        if (candidat.getDate() == null || candidat.getHeure() == null) return resultat;
+        List<Evenement> occurrences = candidat.estRecurrent()
+                ? candidat.occurrencesEntre(candidat.getDebut(), candidat.getDebut().plusDays(HORIZON_SERIES_JOURS))
+                : List.of(candidat);
+        Set<String> personnes = personnesDe(candidat);
+        for (Evenement occ : occurrences) {
+            long debut = minutes(occ.getDebut());
+            long[] lui = {candidat.getId(), debut, debut + candidat.getDureeMinutes()};
+            for (String nom : personnes) {
+                for (long[] autre : intervalles(cle(nom), lui[1], lui[2])) {
+                    if (autre[0] != candidat.getId()) resultat.add(new Chevauchement(nom.trim(), lui, autre));
+                }
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Toutes les paires d'événements qui se chevauchent pour une même personne,
+     * parmi les événements (et occurrences) qui touchent [debut, fin)
+     */
+    public synchronized List<Chevauchement> rapport(LocalDateTime debut, LocalDateTime fin) {
+        List<Chevauchement> resultat = new ArrayList<>();
+        long de = minutes(debut);
+        long a = minutes(fin);
+        Set<String> cles = new LinkedHashSet<>(parPersonne.keySet());
+        for (Evenement serie : series.values()) {
+            cles.addAll(List.of(parId.get(serie.getId()).personnes));
+        }
+        for (String cle : cles) {
+            String nom = nomsAffiches.get(cle);
+            // Balayage par ordre de début : chaque intervalle est comparé aux seuls intervalles encore ouverts
+            List<long[]> ouverts = new ArrayList<>();
+            for (long[] intervalle : intervalles(cle, de, a)) {
+                ouverts.removeIf(o -> o[2] <= intervalle[1]);
+                for (long[] o : ouverts) {
+                    if (o[0] != intervalle[0]) resultat.add(new Chevauchement(nom, o, intervalle));
+                }
+                ouverts.add(intervalle);
+            }
+        }
+        return resultat;
+    }
+
+    /**
+     * Occupation cumulée de ces personnes sur {@code creneaux} créneaux de {@code minutesParCreneau}
+     * minutes à partir de {@code debut} : bit i à 1 si l'une d'elles est prise pendant le créneau i
+     * (un événement qui déborde sur un créneau le rend occupé), sans compter l'événement {@code exclu}
+     */
+    public synchronized long[] occupation(Collection<String> personnes, LocalDateTime debut,
+                                          int creneaux, int minutesParCreneau, int exclu) {
+        long[] bits = new long[(creneaux + 63) >>> 6];
+        long de = minutes(debut);
+        long a = de + (long) creneaux * minutesParCreneau;
+        for (String nom : personnes) {
+            if (nom == null || nom.isBlank()) continue;
+            for (long[] intervalle : intervalles(cle(nom), de, a)) {
+                if (intervalle[0] == exclu) continue;
+                int premier = (int) (Math.max(intervalle[1] - de, 0) / minutesParCreneau);
+                int dernier = (int) Math.min((intervalle[2] - de + minutesParCreneau - 1) / minutesParCreneau, creneaux);
+                CreneauxLibres.marquer(bits, premier, dernier);
+            }
+        }
+        return bits;
+    }
+
+    private static boolean contient(String[] cles, String cle) {
+        for (String c : cles) {
+            if (c.equals(cle)) return true;
+        }
+        return false;
+    }
+
+    // ==================== PERSONNES ====================
+
+    private static Set<String> personnesDe(Evenement e) {
+        Set<String> personnes = new LinkedHashSet<>();
+        if (e.getResponsable() != null && !e.getResponsable().isBlank()) personnes.add(e.getResponsable());
+        if (e.getParticipants() != null) {
+            for (String participant : e.getParticipants()) {
+                if (participant != null && !participant.isBlank()
+                        && !PARTICIPANTS_GENERIQUES.contains(cle(participant))) {
+                    personnes.add(participant);
+                }
+            }
+        }
+        // Une même personne en responsable et en participant ne compte qu'une fois
+        Set<String> cles = new LinkedHashSet<>();
+        personnes.removeIf(nom -> !cles.add(cle(nom)));
+        return personnes;
+    }
+
+    /**
+     * "Dr. Hélène  Martin" et "dr helene martin" désignent la même personne
+     */
+    private static String cle(String nom) {
+        return String.join(" ", IndexTexte.normaliser(nom).split("[^\\p{L}\\p{N}]+")).trim();
+    }
+
+    private static long minutes(LocalDateTime instant) {
+        return instant.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    static LocalDateTime instant(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+}
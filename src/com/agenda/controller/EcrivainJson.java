@@ -0,0 +1,126 @@
+package com.agenda.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Écrivain JSON en flux pour les fichiers de Medisyns : un tableau d'objets plats
+ * dont les champs sont des chaînes, des entiers, des booléens ou des tableaux en ligne.
+ *
+ * Le texte est écrit directement dans le Writer, sans construire le document en mémoire.
+ * La mise en forme est identique à celle des fichiers existants.
+ */
+public class EcrivainJson implements Closeable {
+
+    private final Writer sortie;
+    private boolean premierObjet = true;
+    private boolean premierChamp = true;
+
+    public EcrivainJson(Writer sortie) {
+        this.sortie = sortie;
+    }
+
+    public void debutTableau() throws IOException {
+        sortie.write("[\n");
+    }
+
+    public void finTableau() throws IOException {
+        sortie.write(premierObjet ? "]\n" : "\n]\n");
+    }
+
+    public void debutObjet() throws IOException {
+        sortie.write(premierObjet ? "  {\n" : ",\n  {\n");
+        premierObjet = false;
+        premierChamp = true;
+    }
+
+    public void finObjet() throws IOException {
+        sortie.write("\n  }");
+    }
+
+    /**
+     * Champ chaîne ; une valeur null est écrite comme une chaîne vide
+     */
+    public void champ(String nom, String valeur) throws IOException {
+        nom(nom);
+        chaine(valeur);
+    }
+
+    public void champ(String nom, int valeur) throws IOException {
+        nom(nom);
+        sortie.write(Integer.toString(valeur));
+    }
+
+    public void champ(String nom, boolean valeur) throws IOException {
+        nom(nom);
+        sortie.write(valeur ? "true" : "false");
+    }
+
+    public void champChaines(String nom, List<String> valeurs) throws IOException {
+        nom(nom);
+        sortie.write('[');
+        if (valeurs != null) {
+            for (int i = 0; i < valeurs.size(); i++) {
+                if (i > 0) sortie.write(", ");
+                chaine(valeurs.get(i));
+            }
+        }
+        sortie.write(']');
+    }
+
+    public void champEntiers(String nom, List<Integer> valeurs) throws IOException {
+        nom(nom);
+        sortie.write('[');
+        if (valeurs != null) {
+            for (int i = 0; i < valeurs.size(); i++) {
+                if (i > 0) sortie.write(", ");
+                sortie.write(Integer.toString(valeurs.get(i)));
+            }
+        }
+        sortie.write(']');
+    }
+
+    @Override
+    public void close() throws IOException {
+        sortie.close();
+    }
+
+    private void nom(String nom) throws IOException {
+        sortie.write(premierChamp ? "    \"" : ",\n    \"");
+        premierChamp = false;
+        sortie.write(nom);
+        sortie.write("\": ");
+    }
+
+    /**
+     * Écrit une chaîne entre guillemets en échappant les caractères spéciaux
+     */
+    private void chaine(String s) throws IOException {
+        sortie.write('"');
+        if (s != null) {
+            int debut = 0;
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                String echappement;
+                switch (c) {
+                    case '"': echappement = "\\\""; break;
+                    case '\\': echappement = "\\\\"; break;
+                    case '\n': echappement = "\\n"; break;
+                    case '\r': echappement = "\\r"; break;
+                    case '\t': echappement = "\\t"; break;
+                    default:
+                        if (c >= 0x20) continue;
+                        echappement = String.format("\\u%04x", (int) c);
+                }
+                // Les portions sans caractère spécial sont copiées d'un bloc
+                sortie.write(s, debut, i - debut);
+                sortie.write(echappement);
+                debut = i + 1;
+            }
+            sortie.write(s, debut, s.length() - debut);
+        }
+        sortie.write('"');
+    }
+}
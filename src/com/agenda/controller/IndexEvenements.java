@@ -0,0 +1,103 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Index trié des événements par date et heure.
+ * Les requêtes par plage (jour, semaine, mois, intervalle) coûtent O(log n + k)
+ * au lieu d'un parcours complet de la liste des événements.
+ *
+ * La date et l'heure d'un événement indexé ne doivent pas être modifiées
+ * sans le retirer puis le réinsérer.
+ */
+public class IndexEvenements {
+
+    private final NavigableMap<LocalDateTime, List<Evenement>> parDateHeure = new TreeMap<>();
+    private int taille;
+
+    /**
+     * Ajoute un événement à l'index
+     */
+    public void ajouter(Evenement e) {
+        parDateHeure.computeIfAbsent(cle(e), k -> new ArrayList<>(1)).add(e);
+        taille++;
+    }
+
+    /**
+     * Retire un événement de l'index (comparaison par identité)
+     */
+    public boolean retirer(Evenement e) {
+        LocalDateTime cle = cle(e);
+        List<Evenement> bucket = parDateHeure.get(cle);
+        if (bucket == null) return false;
+
+        for (Iterator<Evenement> it = bucket.iterator(); it.hasNext(); ) {
+            if (it.next() == e) {
+                it.remove();
+                if (bucket.isEmpty()) parDateHeure.remove(cle);
+                taille--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void vider() {
+        parDateHeure.clear();
+        taille = 0;
+    }
+
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Événements prévus exactement à cette date et cette heure
+     */
+    public List<Evenement> getPourDateEtHeure(LocalDate date, LocalTime heure) {
+        List<Evenement> bucket = parDateHeure.get(LocalDateTime.of(date, heure));
+        return bucket == null ? Collections.emptyList() : new ArrayList<>(bucket);
+    }
+
+    /**
+     * Événements dont le début est dans l'intervalle [debut, fin), triés par date et heure
+     */
+    public List<Evenement> getEntre(LocalDateTime debut, LocalDateTime fin) {
+        List<Evenement> resultat = new ArrayList<>();
+        if (!debut.isBefore(fin)) return resultat;
+        for (List<Evenement> bucket : parDateHeure.subMap(debut, true, fin, false).values()) {
+            resultat.addAll(bucket);
+        }
+        return resultat;
+    }
+
+    public List<Evenement> getPourDate(LocalDate date) {
+        return getEntre(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * Événements des 7 jours commençant à {@code premierJour}
+     */
+    public List<Evenement> getPourSemaine(LocalDate premierJour) {
+        return getEntre(premierJour.atStartOfDay(), premierJour.plusDays(7).atStartOfDay());
+    }
+
+    public List<Evenement> getPourMois(YearMonth mois) {
+        return getEntre(mois.atDay(1).atStartOfDay(), mois.plusMonths(1).atDay(1).atStartOfDay());
+    }
+
+    private static LocalDateTime cle(Evenement e) {
+        return LocalDateTime.of(e.getDate(), e.getHeure());
+    }
+}
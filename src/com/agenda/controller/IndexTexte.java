@@ -0,0 +1,435 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé du texte des événements (titre, description, responsable, participants, date).
+ *
+ * Le texte est découpé en mots sans accents ni majuscules ; chaque mot renvoie aux
+ * identifiants (triés) des événements qui le contiennent. Un terme de recherche trouve les
+ * mots qu'il préfixe (mots triés) ou, à partir de 3 caractères, qu'il contient : les
+ * trigrammes du vocabulaire donnent les mots candidats sans parcourir les événements.
+ * Les termes se combinent en ET sur des BitSet, et les résultats sont classés par
+ * proximité de leur date avec l'instant de la recherche.
+ *
+ * Ne garde que les identifiants et les dates (la règle pour une série), pas les événements
+ * eux-mêmes, pour ne pas retenir en mémoire les partitions évincées.
+ */
+public class IndexTexte {
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final int TAILLE_NGRAMME = 3;
+    private static final long AUCUNE_DATE = Long.MIN_VALUE;
+    // Mots accentués déjà normalisés : les mêmes reviennent sans cesse ("réunion", "médecin"...)
+    private static final int MAX_MOTS_NORMALISES = 20000;
+    private static final Map<String, String> motsNormalises = new ConcurrentHashMap<>();
+
+    /**
+     * Identifiants triés, sans objets Integer
+     */
+    private static final class Identifiants {
+        int[] valeurs = new int[2];
+        int taille;
+
+        void ajouter(int id) {
+            if (taille > 0 && valeurs[taille - 1] >= id) {
+                int pos = Arrays.binarySearch(valeurs, 0, taille, id);
+                if (pos >= 0) return;
+                inserer(-pos - 1, id);
+            } else {
+                inserer(taille, id);
+            }
+        }
+
+        private void inserer(int pos, int id) {
+            if (taille == valeurs.length) valeurs = Arrays.copyOf(valeurs, taille * 2);
+            System.arraycopy(valeurs, pos, valeurs, pos + 1, taille - pos);
+            valeurs[pos] = id;
+            taille++;
+        }
+
+        void retirer(int id) {
+            int pos = Arrays.binarySearch(valeurs, 0, taille, id);
+            if (pos < 0) return;
+            System.arraycopy(valeurs, pos + 1, valeurs, pos, taille - pos - 1);
+            taille--;
+        }
+
+        void verser(BitSet bits) {
+            for (int i = 0; i < taille; i++) bits.set(valeurs[i]);
+        }
+    }
+
+    // Mot -> événements qui le contiennent, mots triés pour les préfixes
+    private final NavigableMap<String, Identifiants> parMot = new TreeMap<>();
+    // Trigramme -> mots du vocabulaire qui le contiennent
+    private final Map<String, Set<String>> motsParTrigramme = new HashMap<>();
+    // Par identifiant : mots indexés (pour les retirer) et minute de début (pour le classement)
+    private final Map<Integer, String[]> motsParId = new HashMap<>();
+    private long[] minuteParId = new long[0];
+    // Séries : leur date de classement dépend de l'instant de la recherche
+    private final Map<Integer, Serie> seriesParId = new HashMap<>();
+    private boolean construit;
+
+    public synchronized boolean estConstruit() {
+        return construit;
+    }
+
+    /**
+     * Indexe tous les événements d'un coup (premier appel seulement)
+     */
+    public synchronized void construire(Collection<Evenement> evenements) {
+        if (construit) return;
+        for (Evenement e : evenements) ajouter(e);
+        construit = true;
+    }
+
+    /**
+     * Oublie tout ; l'index sera reconstruit à la prochaine recherche
+     */
+    public synchronized void vider() {
+        parMot.clear();
+        motsParTrigramme.clear();
+        motsParId.clear();
+        minuteParId = new long[0];
+        seriesParId.clear();
+        construit = false;
+    }
+
+    /**
+     * Indexe ou réindexe un événement (ignoré tant que l'index n'est pas construit)
+     */
+    public synchronized void mettreAJour(Evenement e) {
+        if (!construit) return;
+        retirer(e.getId());
+        ajouter(e);
+    }
+
+    public synchronized void supprimer(int id) {
+        if (construit) retirer(id);
+    }
+
+    public synchronized int getNombreMots() {
+        return parMot.size();
+    }
+
+    private void ajouter(Evenement e) {
+        int id = e.getId();
+        if (id < 0) return;
+        Set<String> mots = motsDe(e);
+        for (String mot : mots) {
+            Identifiants ids = parMot.get(mot);
+            if (ids == null) {
+                ids = new Identifiants();
+                parMot.put(mot, ids);
+                for (String trigramme : trigrammes(mot)) {
+                    motsParTrigramme.computeIfAbsent(trigramme, k -> new HashSet<>(4)).add(mot);
+                }
+            }
+            ids.ajouter(id);
+        }
+        motsParId.put(id, mots.toArray(new String[0]));
+
+        if (id >= minuteParId.length) {
+            int ancienne = minuteParId.length;
+            minuteParId = Arrays.copyOf(minuteParId, Math.max(id + 1, ancienne * 2));
+            Arrays.fill(minuteParId, ancienne, minuteParId.length, AUCUNE_DATE);
+        }
+        boolean date = e.getDate() != null && e.getHeure() != null;
+        minuteParId[id] = date ? minutes(LocalDateTime.of(e.getDate(), e.getHeure())) : AUCUNE_DATE;
+        if (date && e.estRecurrent()) seriesParId.put(id, new Serie(e));
+    }
+
+    private void retirer(int id) {
+        String[] mots = motsParId.remove(id);
+        if (id >= 0 && id < minuteParId.length) minuteParId[id] = AUCUNE_DATE;
+        seriesParId.remove(id);
+        if (mots == null) return;
+        for (String mot : mots) {
+            Identifiants ids = parMot.get(mot);
+            if (ids == null) continue;
+            ids.retirer(id);
+            if (ids.taille == 0) {
+                parMot.remove(mot);
+                for (String trigramme : trigrammes(mot)) {
+                    Set<String> candidats = motsParTrigramme.get(trigramme);
+                    if (candidats != null && candidats.remove(mot) && candidats.isEmpty()) {
+                        motsParTrigramme.remove(trigramme);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ce qui classe une série : sa règle, pour trouver sa prochaine occurrence au moment de la recherche
+     */
+    private static final class Serie {
+        final LocalDate premiere;
+        final LocalTime heure;
+        final Recurrence regle;
+
+        Serie(Evenement e) {
+            this.premiere = e.getDate();
+            this.heure = e.getHeure();
+            this.regle = new Recurrence(e.getRecurrence());
+        }
+
+        /**
+         * Prochaine occurrence après la référence ; une série terminée compte pour sa fin
+         */
+        LocalDateTime classement(LocalDateTime reference) {
+            LocalDate jour = regle.prochaine(premiere, reference.toLocalDate());
+            if (jour != null && !LocalDateTime.of(jour, heure).isAfter(reference)) {
+                jour = regle.prochaine(premiere, jour.plusDays(1));
+            }
+            if (jour == null) jour = regle.derniere(premiere);
+            return LocalDateTime.of(jour != null ? jour : premiere, heure);
+        }
+    }
+
+    // ==================== RECHERCHE ====================
+
+    /**
+     * Identifiants des événements qui contiennent tous les termes de la requête,
+     * les plus proches de {@code reference} d'abord, au plus {@code limite}.
+     */
+    public synchronized List<Integer> rechercher(String requete, LocalDateTime reference, int limite) {
+        List<String> termes = new ArrayList<>();
+        decouper(requete, termes);
+        if (termes.isEmpty() || limite <= 0) return new ArrayList<>();
+
+        BitSet resultat = null;
+        for (String terme : termes) {
+            BitSet ids = idsPourTerme(terme);
+            if (resultat == null) {
+                resultat = ids;
+            } else {
+                resultat.and(ids);
+            }
+            if (resultat.isEmpty()) return new ArrayList<>();
+        }
+        return plusProches(resultat, reference, limite);
+    }
+
+    private BitSet idsPourTerme(String terme) {
+        BitSet ids = new BitSet(minuteParId.length);
+        for (Identifiants postings : parMot.subMap(terme, true, terme + Character.MAX_VALUE, false).values()) {
+            postings.verser(ids);
+        }
+        if (terme.length() < TAILLE_NGRAMME) return ids;
+
+        // Mots qui contiennent le terme ailleurs qu'au début : intersection des trigrammes
+        // (la plus petite liste d'abord), puis vérification
+        List<Set<String>> listes = new ArrayList<>();
+        for (String trigramme : trigrammes(terme)) {
+            Set<String> mots = motsParTrigramme.get(trigramme);
+            if (mots == null) return ids;
+            listes.add(mots);
+        }
+        listes.sort(Comparator.comparingInt(Set::size));
+        Set<String> candidats = new HashSet<>(listes.get(0));
+        for (int i = 1; i < listes.size() && !candidats.isEmpty(); i++) {
+            candidats.retainAll(listes.get(i));
+        }
+        for (String mot : candidats) {
+            if (!mot.startsWith(terme) && mot.contains(terme)) parMot.get(mot).verser(ids);
+        }
+        return ids;
+    }
+
+    /**
+     * Les {@code limite} identifiants les plus proches de la référence, dans l'ordre :
+     * tas borné (le plus éloigné en tête) sur des tableaux de primitifs
+     */
+    private List<Integer> plusProches(BitSet ids, LocalDateTime instant, int limite) {
+        long reference = minutes(instant);
+        int capacite = Math.min(limite, ids.cardinality());
+        long[] distances = new long[capacite];
+        int[] tas = new int[capacite];
+        int taille = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            long d = distance(id, instant, reference);
+            if (taille < capacite) {
+                tas[taille] = id;
+                distances[taille] = d;
+                monter(tas, distances, taille++);
+            } else if (d < distances[0]) {
+                tas[0] = id;
+                distances[0] = d;
+                descendre(tas, distances, taille);
+            }
+        }
+        // Tri des positions du tas : la distance d'une série n'est calculée qu'une fois
+        Integer[] positions = new Integer[taille];
+        for (int i = 0; i < taille; i++) positions[i] = i;
+        Arrays.sort(positions, Comparator.comparingLong((Integer i) -> distances[i]).thenComparingInt(i -> tas[i]));
+        List<Integer> tries = new ArrayList<>(taille);
+        for (int i : positions) tries.add(tas[i]);
+        return tries;
+    }
+
+    private static void monter(int[] tas, long[] distances, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (distances[parent] >= distances[i]) return;
+            echanger(tas, distances, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void descendre(int[] tas, long[] distances, int taille) {
+        int i = 0;
+        while (true) {
+            int plusGrand = i;
+            int gauche = 2 * i + 1;
+            int droite = gauche + 1;
+            if (gauche < taille && distances[gauche] > distances[plusGrand]) plusGrand = gauche;
+            if (droite < taille && distances[droite] > distances[plusGrand]) plusGrand = droite;
+            if (plusGrand == i) return;
+            echanger(tas, distances, i, plusGrand);
+            i = plusGrand;
+        }
+    }
+
+    private static void echanger(int[] tas, long[] distances, int i, int j) {
+        int id = tas[i];
+        tas[i] = tas[j];
+        tas[j] = id;
+        long d = distances[i];
+        distances[i] = distances[j];
+        distances[j] = d;
+    }
+
+    private long distance(int id, LocalDateTime instant, long reference) {
+        long minute = id < minuteParId.length ? minuteParId[id] : AUCUNE_DATE;
+        Serie serie = minute != AUCUNE_DATE ? seriesParId.get(id) : null;
+        if (serie != null) minute = minutes(serie.classement(instant));
+        return minute == AUCUNE_DATE ? Long.MAX_VALUE : Math.abs(minute - reference);
+    }
+
+    // ==================== TEXTE ====================
+
+    /**
+     * Indique si l'événement correspond à la requête, selon les mêmes règles que l'index
+     * (pour filtrer un événement isolé sans interroger l'index)
+     */
+    public static boolean correspond(Evenement e, String requete) {
+        List<String> termes = new ArrayList<>();
+        decouper(requete, termes);
+        if (termes.isEmpty()) return true;
+
+        Set<String> mots = motsDe(e);
+        for (String terme : termes) {
+            boolean trouve = false;
+            for (String mot : mots) {
+                if (terme.length() < TAILLE_NGRAMME ? mot.startsWith(terme) : mot.contains(terme)) {
+                    trouve = true;
+                    break;
+                }
+            }
+            if (!trouve) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Termes d'une requête, découpés et normalisés comme les mots indexés
+     */
+    static List<String> termes(String requete) {
+        List<String> termes = new ArrayList<>();
+        decouper(requete, termes);
+        return termes;
+    }
+
+    static boolean estTermeCourt(String terme) {
+        return terme.length() < TAILLE_NGRAMME;
+    }
+
+    static Set<String> motsDe(Evenement e) {
+        Set<String> mots = new LinkedHashSet<>();
+        decouper(e.getTitre(), mots);
+        decouper(e.getDescription(), mots);
+        decouper(e.getResponsable(), mots);
+        if (e.getParticipants() != null) {
+            for (String participant : e.getParticipants()) decouper(participant, mots);
+        }
+        if (e.getDate() != null) decouper(e.getDate().toString(), mots);
+        return mots;
+    }
+
+    /**
+     * Mot sans accents ni majuscules ("Réunion" -> "reunion", "Œdème" -> "oedeme")
+     */
+    public static String normaliser(String texte) {
+        String sansAccents = ACCENTS.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return sansAccents.toLowerCase().replace("œ", "oe").replace("æ", "ae");
+    }
+
+    private static String normaliserMot(String mot) {
+        String normalise = motsNormalises.get(mot);
+        if (normalise == null) {
+            normalise = normaliser(mot);
+            if (motsNormalises.size() >= MAX_MOTS_NORMALISES) motsNormalises.clear();
+            motsNormalises.put(mot, normalise);
+        }
+        return normalise;
+    }
+
+    /**
+     * Découpe en mots (lettres et chiffres) ; seuls les mots non ASCII passent par la normalisation Unicode
+     */
+    private static void decouper(String texte, Collection<String> mots) {
+        if (texte == null) return;
+        int debut = -1;
+        boolean ascii = true;
+        for (int i = 0; i <= texte.length(); i++) {
+            char c = i < texte.length() ? texte.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (debut < 0) {
+                    debut = i;
+                    ascii = true;
+                }
+                if (c >= 128) ascii = false;
+            } else if (debut >= 0) {
+                String mot = texte.substring(debut, i);
+                mots.add(ascii ? mot.toLowerCase() : normaliserMot(mot));
+                debut = -1;
+            }
+        }
+    }
+
+    static List<String> trigrammes(String mot) {
+        List<String> resultat = new ArrayList<>(Math.max(mot.length() - TAILLE_NGRAMME + 1, 0));
+        for (int i = 0; i + TAILLE_NGRAMME <= mot.length(); i++) {
+            resultat.add(mot.substring(i, i + TAILLE_NGRAMME));
+        }
+        return resultat;
+    }
+
+    private static long minutes(LocalDateTime instant) {
+        return instant.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
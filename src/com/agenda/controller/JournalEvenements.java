@@ -0,0 +1,198 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Journal des modifications d'événements (write-ahead log).
+ *
+ * Chaque mutation ajoute un enregistrement compact à la fin du journal (coût O(1)).
+ * Les enregistrements sont mis en tampon jusqu'à {@link #synchroniser()}, qui les écrit sur disque.
+ * Un checkpoint écrit périodiquement les partitions modifiées puis vide le journal.
+ * Au démarrage, la fin du journal est rejouée sur les partitions enregistrées.
+ *
+ * Format d'un enregistrement : [longueur int][type byte][données][crc32 long].
+ * Les données d'un ajout ou d'une mise à jour sont l'événement encodé par
+ * {@link CodecBinaire#encoderEvenement} (même format que les partitions) ;
+ * celles d'une suppression, l'identifiant.
+ * Un enregistrement incomplet ou corrompu (arrêt brutal pendant l'écriture) marque
+ * la fin du journal valide : il est ignoré et tronqué au chargement.
+ */
+public class JournalEvenements {
+
+    private static final byte AJOUT = 1;
+    private static final byte MISE_A_JOUR = 2;
+    private static final byte SUPPRESSION = 3;
+
+    private static final int SEUIL_CHECKPOINT_PAR_DEFAUT = 500;
+
+    private final Path fichierJournal;
+    private final int seuilCheckpoint;
+
+    private FileOutputStream fichier;
+    private DataOutputStream sortie;
+    private volatile int enregistrementsDepuisCheckpoint;
+
+    /**
+     * Application d'un enregistrement du journal lors du rejeu
+     */
+    public interface Rejeu {
+        void ecriture(Evenement e);
+        void suppression(int id);
+    }
+
+    public JournalEvenements(String journal) {
+        this(journal, SEUIL_CHECKPOINT_PAR_DEFAUT);
+    }
+
+    public JournalEvenements(String journal, int seuilCheckpoint) {
+        this.fichierJournal = Paths.get(journal);
+        this.seuilCheckpoint = seuilCheckpoint;
+    }
+
+    // ==================== CHARGEMENT ====================
+
+    /**
+     * Rejoue le journal et retourne le nombre d'opérations appliquées.
+     * Le rejeu est idempotent (remplacement par identifiant), un journal déjà
+     * intégré aux partitions peut donc être rejoué sans effet de bord.
+     */
+    public int rejouer(Rejeu rejeu) throws IOException {
+        enregistrementsDepuisCheckpoint = 0;
+        if (!Files.exists(fichierJournal)) return 0;
+
+        int rejoues = 0;
+        long finValide = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(fichierJournal)))) {
+            while (true) {
+                byte[] donnees = lireEnregistrement(in);
+                if (donnees == null) break;
+
+                byte type = donnees[0];
+                if (type == SUPPRESSION) {
+                    rejeu.suppression(new DataInputStream(new ByteArrayInputStream(donnees, 1, donnees.length - 1)).readInt());
+                } else if (type == AJOUT || type == MISE_A_JOUR) {
+                    rejeu.ecriture(CodecBinaire.decoderEvenement(Arrays.copyOfRange(donnees, 1, donnees.length)));
+                } else {
+                    break;
+                }
+                rejoues++;
+                finValide += 4 + donnees.length + 8;
+            }
+        }
+
+        // Supprimer une éventuelle fin corrompue pour que les prochains ajouts restent lisibles
+        if (finValide < Files.size(fichierJournal)) {
+            System.err.println("Journal: fin incomplète ignorée (" + (Files.size(fichierJournal) - finValide) + " octets)");
+            try (RandomAccessFile raf = new RandomAccessFile(fichierJournal.toFile(), "rw")) {
+                raf.setLength(finValide);
+            }
+        }
+        if (rejoues > 0) {
+            System.out.println("Journal rejoué: " + rejoues + " opération(s)");
+        }
+        enregistrementsDepuisCheckpoint = rejoues;
+        return rejoues;
+    }
+
+    /**
+     * Lit un enregistrement complet et vérifié, ou null en fin de journal valide
+     */
+    private static byte[] lireEnregistrement(DataInputStream in) throws IOException {
+        try {
+            int longueur = in.readInt();
+            if (longueur <= 0 || longueur > (1 << 24)) return null;
+            byte[] donnees = new byte[longueur];
+            in.readFully(donnees);
+            long crc = in.readLong();
+            CRC32 attendu = new CRC32();
+            attendu.update(donnees);
+            return attendu.getValue() == crc ? donnees : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    public void journaliserAjout(Evenement e) throws IOException {
+        ecrire(AJOUT, e, 0);
+    }
+
+    public void journaliserMiseAJour(Evenement e) throws IOException {
+        ecrire(MISE_A_JOUR, e, 0);
+    }
+
+    public void journaliserSuppression(int id) throws IOException {
+        ecrire(SUPPRESSION, null, id);
+    }
+
+    private void ecrire(byte type, Evenement e, int id) throws IOException {
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(128);
+        DataOutputStream rec = new DataOutputStream(tampon);
+        rec.writeByte(type);
+        if (e != null) {
+            rec.write(CodecBinaire.encoderEvenement(e));
+        } else {
+            rec.writeInt(id);
+        }
+        byte[] donnees = tampon.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(donnees);
+
+        DataOutputStream out = sortie();
+        out.writeInt(donnees.length);
+        out.write(donnees);
+        out.writeLong(crc.getValue());
+        enregistrementsDepuisCheckpoint++;
+    }
+
+    /**
+     * Écrit sur disque les enregistrements encore en tampon (fsync) : au retour, ils
+     * survivent à un arrêt brutal. Une série de modifications coûte une seule synchronisation.
+     */
+    public void synchroniser() throws IOException {
+        if (sortie != null) {
+            sortie.flush();
+            fichier.getFD().sync();
+        }
+    }
+
+    private DataOutputStream sortie() throws IOException {
+        if (sortie == null) {
+            fichier = new FileOutputStream(fichierJournal.toFile(), true);
+            sortie = new DataOutputStream(new BufferedOutputStream(fichier));
+        }
+        return sortie;
+    }
+
+    public boolean checkpointNecessaire() {
+        return enregistrementsDepuisCheckpoint >= seuilCheckpoint;
+    }
+
+    public int getEnregistrementsDepuisCheckpoint() {
+        return enregistrementsDepuisCheckpoint;
+    }
+
+    /**
+     * Vide le journal, une fois son contenu écrit dans les partitions
+     */
+    public void vider() throws IOException {
+        fermer();
+        Files.deleteIfExists(fichierJournal);
+        enregistrementsDepuisCheckpoint = 0;
+    }
+
+    public void fermer() throws IOException {
+        if (sortie != null) {
+            sortie.close();
+            sortie = null;
+            fichier = null;
+        }
+    }
+}
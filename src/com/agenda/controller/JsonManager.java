@@ -4,18 +4,28 @@ import com.agenda.modele.Evenement;
 import com.agenda.modele.Utilisateur;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * Gestionnaire de fichiers JSON pour Medisyns
  * Gère la lecture/écriture des fichiers users.json, events.json, notifications.json
+ *
+ * Le contenu de chaque fichier est gardé en mémoire avec des index (id, email, user_id).
+ * Un fichier n'est relu que si sa date de modification ou sa taille a changé ;
+ * les écritures passent par le cache, qui reste à jour sans relecture.
  */
 public class JsonManager {
     
@@ -46,46 +56,39 @@ public class JsonManager {
             this.password = password;
             this.role = role;
         }
+        
+        UserJson copie() {
+            return new UserJson(id, nom, email, password, role);
+        }
     }
     
     /**
-     * Lit tous les utilisateurs depuis users.json
+     * Lit tous les utilisateurs depuis users.json (des copies : les modifier ne change pas le cache)
      */
     public static List<UserJson> lireUtilisateurs() {
+        return UTILISATEURS.copies(UTILISATEURS.contenu().liste);
+    }
+    
+    private static List<UserJson> parserUtilisateurs() {
         List<UserJson> users = new ArrayList<>();
         try {
-            String content = lireFichier(USERS_FILE);
-            if (content == null || content.trim().isEmpty()) {
-                return users;
-            }
-            
-            // Parser le JSON manuellement (sans bibliothèque externe)
-            Pattern pattern = Pattern.compile(
-                "\\{[^}]*\"id\"\\s*:\\s*(\\d+)[^}]*" +
-                "\"nom\"\\s*:\\s*\"([^\"]*?)\"[^}]*" +
-                "\"email\"\\s*:\\s*\"([^\"]*?)\"[^}]*" +
-                "\"password\"\\s*:\\s*\"([^\"]*?)\"[^}]*" +
-                "\"role\"\\s*:\\s*\"([^\"]*?)\"[^}]*\\}"
-            );
-            
-            // Parser plus flexible pour différents ordres de propriétés
-            String[] blocks = content.split("\\},\\s*\\{");
-            for (String block : blocks) {
-                block = block.replaceAll("[\\[\\]]", "").trim();
-                if (!block.startsWith("{")) block = "{" + block;
-                if (!block.endsWith("}")) block = block + "}";
-                
-                int id = extractInt(block, "id");
-                String nom = extractString(block, "nom");
-                String email = extractString(block, "email");
-                String password = extractString(block, "password");
-                String role = extractString(block, "role");
-                
+            lireTableau(USERS_FILE, in -> {
+                int id = 0;
+                String nom = null, email = null, password = null, role = null;
+                while (in.aSuivant()) {
+                    switch (in.nomSuivant()) {
+                        case "id": id = in.entierSuivant(); break;
+                        case "nom": nom = in.chaineSuivante(); break;
+                        case "email": email = in.chaineSuivante(); break;
+                        case "password": password = in.chaineSuivante(); break;
+                        case "role": role = in.chaineSuivante(); break;
+                        default: in.ignorerValeur();
+                    }
+                }
                 if (id > 0 && nom != null && email != null) {
                     users.add(new UserJson(id, nom, email, password != null ? password : "", role != null ? role : "user"));
                 }
-            }
-            
+            });
         } catch (Exception e) {
             System.err.println("Erreur lors de la lecture de users.json: " + e.getMessage());
         }
@@ -93,41 +96,50 @@ public class JsonManager {
     }
     
     /**
-     * Sauvegarde la liste des utilisateurs dans users.json
+     * Utilisateurs indexés par id et par email (insensible à la casse)
      */
-    public static void sauvegarderUtilisateurs(List<UserJson> users) {
-        StringBuilder json = new StringBuilder("[\n");
+    private static final class ContenuUtilisateurs {
+        final List<UserJson> liste;
+        final Map<Integer, UserJson> parId = new HashMap<>();
+        final Map<String, UserJson> parEmail = new HashMap<>();
         
-        for (int i = 0; i < users.size(); i++) {
-            UserJson user = users.get(i);
-            json.append("  {\n");
-            json.append("    \"id\": ").append(user.id).append(",\n");
-            json.append("    \"nom\": \"").append(escapeJson(user.nom)).append("\",\n");
-            json.append("    \"email\": \"").append(escapeJson(user.email)).append("\",\n");
-            json.append("    \"password\": \"").append(escapeJson(user.password)).append("\",\n");
-            json.append("    \"role\": \"").append(escapeJson(user.role)).append("\"\n");
-            json.append("  }");
-            if (i < users.size() - 1) json.append(",");
-            json.append("\n");
+        ContenuUtilisateurs(List<UserJson> liste) {
+            this.liste = liste;
+            for (UserJson user : liste) {
+                parId.putIfAbsent(user.id, user);
+                parEmail.putIfAbsent(user.email.toLowerCase(Locale.ROOT), user);
+            }
         }
-        
-        json.append("]\n");
-        ecrireFichier(USERS_FILE, json.toString());
+    }
+    
+    /**
+     * Sauvegarde la liste des utilisateurs dans users.json
+     */
+    public static void sauvegarderUtilisateurs(List<UserJson> users) {
+        UTILISATEURS.enregistrer(users, out -> {
+            for (UserJson user : users) {
+                out.debutObjet();
+                out.champ("id", user.id);
+                out.champ("nom", user.nom);
+                out.champ("email", user.email);
+                out.champ("password", user.password);
+                out.champ("role", user.role);
+                out.finObjet();
+            }
+        });
     }
     
     /**
      * Ajoute un nouvel utilisateur
      */
-    public static boolean ajouterUtilisateur(String nom, String email, String password, String role) {
-        List<UserJson> users = lireUtilisateurs();
-        
+    public static synchronized boolean ajouterUtilisateur(String nom, String email, String password, String role) {
         // Vérifier si l'email existe déjà
-        for (UserJson user : users) {
-            if (user.email.equalsIgnoreCase(email)) {
-                return false; // Email déjà utilisé
-            }
+        if (getUtilisateurParEmail(email) != null) {
+            return false; // Email déjà utilisé
         }
         
+        List<UserJson> users = lireUtilisateurs();
+        
         // Trouver le prochain ID
         int nextId = 1;
         for (UserJson user : users) {
@@ -143,11 +155,9 @@ public class JsonManager {
      * Vérifie les identifiants de connexion
      */
     public static UserJson authentifier(String email, String password) {
-        List<UserJson> users = lireUtilisateurs();
-        for (UserJson user : users) {
-            if (user.email.equalsIgnoreCase(email) && user.password.equals(password)) {
-                return user;
-            }
+        UserJson user = getUtilisateurParEmail(email);
+        if (user != null && user.password.equals(password)) {
+            return user;
         }
         return null;
     }
@@ -156,28 +166,21 @@ public class JsonManager {
      * Récupère un utilisateur par son ID
      */
     public static UserJson getUtilisateurParId(int id) {
-        List<UserJson> users = lireUtilisateurs();
-        for (UserJson user : users) {
-            if (user.id == id) return user;
-        }
-        return null;
+        return UTILISATEURS.copie(UTILISATEURS.contenu().parId.get(id));
     }
     
     /**
      * Récupère un utilisateur par son email
      */
     public static UserJson getUtilisateurParEmail(String email) {
-        List<UserJson> users = lireUtilisateurs();
-        for (UserJson user : users) {
-            if (user.email.equalsIgnoreCase(email)) return user;
-        }
-        return null;
+        if (email == null) return null;
+        return UTILISATEURS.copie(UTILISATEURS.contenu().parEmail.get(email.toLowerCase(Locale.ROOT)));
     }
     
     /**
      * Met à jour les informations d'un utilisateur dans le JSON
      */
-    public static boolean mettreAJourUtilisateur(String email, String nom, String telephone, String service) {
+    public static synchronized boolean mettreAJourUtilisateur(String email, String nom, String telephone, String service) {
         List<UserJson> users = lireUtilisateurs();
         boolean updated = false;
         
@@ -202,7 +205,7 @@ public class JsonManager {
     /**
      * Met à jour le nom d'un utilisateur
      */
-    public static boolean mettreAJourNomUtilisateur(String email, String nouveauNom) {
+    public static synchronized boolean mettreAJourNomUtilisateur(String email, String nouveauNom) {
         List<UserJson> users = lireUtilisateurs();
         
         for (UserJson user : users) {
@@ -218,7 +221,7 @@ public class JsonManager {
     /**
      * Met à jour le rôle d'un utilisateur
      */
-    public static boolean mettreAJourRoleUtilisateur(String email, String nouveauRole) {
+    public static synchronized boolean mettreAJourRoleUtilisateur(String email, String nouveauRole) {
         List<UserJson> users = lireUtilisateurs();
         
         for (UserJson user : users) {
@@ -252,43 +255,72 @@ public class JsonManager {
             this.participants = new ArrayList<>();
             this.partage_avec = new ArrayList<>();
         }
+        
+        EventJson copie() {
+            EventJson copie = new EventJson();
+            copie.event_id = event_id;
+            copie.titre = titre;
+            copie.description = description;
+            copie.date = date;
+            copie.heure = heure;
+            copie.createur_id = createur_id;
+            copie.responsable = responsable;
+            copie.participants = participants != null ? new ArrayList<>(participants) : new ArrayList<>();
+            copie.notificationBeforeMinutes = notificationBeforeMinutes;
+            copie.partage_avec = partage_avec != null ? new ArrayList<>(partage_avec) : new ArrayList<>();
+            return copie;
+        }
     }
     
     /**
      * Lit tous les événements depuis events.json
      */
     public static List<EventJson> lireEvenements() {
+        return EVENEMENTS.copies(EVENEMENTS.contenu().liste);
+    }
+    
+    /**
+     * Récupère un événement par son event_id
+     */
+    public static EventJson getEvenementParId(int eventId) {
+        return EVENEMENTS.copie(EVENEMENTS.contenu().parId.get(eventId));
+    }
+    
+    private static List<EventJson> parserEvenements() {
         List<EventJson> events = new ArrayList<>();
         try {
-            String content = lireFichier(EVENTS_FILE);
-            if (content == null || content.trim().isEmpty()) {
-                return events;
-            }
-            
-            // Parser le JSON
-            String[] blocks = content.split("\\},\\s*\\{");
-            for (String block : blocks) {
-                block = block.replaceAll("[\\[\\]]", "").trim();
-                if (!block.startsWith("{")) block = "{" + block;
-                if (!block.endsWith("}")) block = block + "}";
-                
+            lireTableau(EVENTS_FILE, in -> {
                 EventJson event = new EventJson();
-                event.event_id = extractInt(block, "event_id");
-                event.titre = extractString(block, "titre");
-                event.description = extractString(block, "description");
-                event.date = extractString(block, "date");
-                event.heure = extractString(block, "heure");
-                event.createur_id = extractInt(block, "createur_id");
-                event.responsable = extractString(block, "responsable");
-                event.notificationBeforeMinutes = extractInt(block, "notificationBeforeMinutes");
-                event.participants = extractStringArray(block, "participants");
-                event.partage_avec = extractIntArray(block, "partage_avec");
-                
+                while (in.aSuivant()) {
+                    switch (in.nomSuivant()) {
+                        case "event_id": event.event_id = in.entierSuivant(); break;
+                        case "titre": event.titre = in.chaineSuivante(); break;
+                        case "description": event.description = in.chaineSuivante(); break;
+                        case "date": event.date = in.chaineSuivante(); break;
+                        case "heure": event.heure = in.chaineSuivante(); break;
+                        case "createur_id": event.createur_id = in.entierSuivant(); break;
+                        case "responsable": event.responsable = in.chaineSuivante(); break;
+                        case "notificationBeforeMinutes": event.notificationBeforeMinutes = in.entierSuivant(); break;
+                        case "participants":
+                            in.debutTableau();
+                            while (in.aSuivant()) {
+                                String participant = in.chaineSuivante();
+                                if (participant != null && !participant.isEmpty()) event.participants.add(participant);
+                            }
+                            in.finTableau();
+                            break;
+                        case "partage_avec":
+                            in.debutTableau();
+                            while (in.aSuivant()) event.partage_avec.add(in.entierSuivant());
+                            in.finTableau();
+                            break;
+                        default: in.ignorerValeur();
+                    }
+                }
                 if (event.event_id > 0 && event.titre != null) {
                     events.add(event);
                 }
-            }
-            
+            });
         } catch (Exception e) {
             System.err.println("Erreur lors de la lecture de events.json: " + e.getMessage());
         }
@@ -296,67 +328,53 @@ public class JsonManager {
     }
     
     /**
-     * Sauvegarde la liste des événements dans events.json
+     * Événements indexés par event_id
      */
-    public static void sauvegarderEvenements(List<EventJson> events) {
-        StringBuilder json = new StringBuilder("[\n");
+    private static final class ContenuEvenements {
+        final List<EventJson> liste;
+        final Map<Integer, EventJson> parId = new HashMap<>();
+        int dernierId;
         
-        for (int i = 0; i < events.size(); i++) {
-            EventJson ev = events.get(i);
-            json.append("  {\n");
-            json.append("    \"event_id\": ").append(ev.event_id).append(",\n");
-            json.append("    \"titre\": \"").append(escapeJson(ev.titre != null ? ev.titre : "")).append("\",\n");
-            json.append("    \"description\": \"").append(escapeJson(ev.description != null ? ev.description : "")).append("\",\n");
-            json.append("    \"date\": \"").append(ev.date != null ? ev.date : "").append("\",\n");
-            json.append("    \"heure\": \"").append(ev.heure != null ? ev.heure : "").append("\",\n");
-            json.append("    \"createur_id\": ").append(ev.createur_id).append(",\n");
-            json.append("    \"responsable\": \"").append(escapeJson(ev.responsable != null ? ev.responsable : "")).append("\",\n");
-            
-            // Participants
-            json.append("    \"participants\": [");
-            if (ev.participants != null && !ev.participants.isEmpty()) {
-                for (int j = 0; j < ev.participants.size(); j++) {
-                    json.append("\"").append(escapeJson(ev.participants.get(j))).append("\"");
-                    if (j < ev.participants.size() - 1) json.append(", ");
-                }
+        ContenuEvenements(List<EventJson> liste) {
+            this.liste = liste;
+            for (EventJson event : liste) {
+                parId.putIfAbsent(event.event_id, event);
+                dernierId = Math.max(dernierId, event.event_id);
             }
-            json.append("],\n");
-            
-            json.append("    \"notificationBeforeMinutes\": ").append(ev.notificationBeforeMinutes).append(",\n");
-            
-            // Partage avec
-            json.append("    \"partage_avec\": [");
-            if (ev.partage_avec != null && !ev.partage_avec.isEmpty()) {
-                for (int j = 0; j < ev.partage_avec.size(); j++) {
-                    json.append(ev.partage_avec.get(j));
-                    if (j < ev.partage_avec.size() - 1) json.append(", ");
-                }
-            }
-            json.append("]\n");
-            
-            json.append("  }");
-            if (i < events.size() - 1) json.append(",");
-            json.append("\n");
         }
-        
-        json.append("]\n");
-        ecrireFichier(EVENTS_FILE, json.toString());
+    }
+    
+    /**
+     * Sauvegarde la liste des événements dans events.json
+     */
+    public static void sauvegarderEvenements(List<EventJson> events) {
+        EVENEMENTS.enregistrer(events, out -> {
+            for (EventJson ev : events) {
+                out.debutObjet();
+                out.champ("event_id", ev.event_id);
+                out.champ("titre", ev.titre);
+                out.champ("description", ev.description);
+                out.champ("date", ev.date);
+                out.champ("heure", ev.heure);
+                out.champ("createur_id", ev.createur_id);
+                out.champ("responsable", ev.responsable);
+                out.champChaines("participants", ev.participants);
+                out.champ("notificationBeforeMinutes", ev.notificationBeforeMinutes);
+                out.champEntiers("partage_avec", ev.partage_avec);
+                out.finObjet();
+            }
+        });
     }
     
     /**
      * Ajoute un nouvel événement
      */
-    public static int ajouterEvenement(String titre, String description, LocalDate date, 
+    public static synchronized int ajouterEvenement(String titre, String description, LocalDate date, 
             LocalTime heure, int createurId, String responsable, List<String> participants, 
             int notificationMinutes, List<Integer> partageAvec) {
         
         List<EventJson> events = lireEvenements();
-        
-        // Trouver le prochain ID
-        int nextId = 1;
-        for (EventJson event : events) {
-            if (event.event_id >= nextId) nextId = event.event_id + 1;
-        }
+        int nextId = getDernierIdEvenement() + 1;
         
         EventJson newEvent = new EventJson();
         newEvent.event_id = nextId;
@@ -376,10 +394,61 @@ public class JsonManager {
         return nextId;
     }
     
+    /**
+     * Plus grand event_id présent dans events.json (0 si aucun)
+     */
+    public static int getDernierIdEvenement() {
+        return EVENEMENTS.contenu().dernierId;
+    }
+
+    /**
+     * Convertit un événement du modèle en EventJson.
+     * L'event_id est l'identifiant de l'événement dans le stockage sérialisé.
+     */
+    public static EventJson versEventJson(Evenement ev, int createurId) {
+        EventJson json = new EventJson();
+        json.event_id = ev.getId();
+        json.titre = ev.getTitre();
+        json.description = ev.getDescription();
+        json.date = ev.getDate().format(DATE_FORMAT);
+        json.heure = ev.getHeure().format(TIME_FORMAT);
+        json.createur_id = createurId;
+        json.responsable = ev.getResponsable();
+        json.participants = ev.getParticipants() != null ? new ArrayList<>(ev.getParticipants()) : new ArrayList<>();
+        json.notificationBeforeMinutes = ev.getNotificationBeforeMinutes();
+        return json;
+    }
+
+    /**
+     * Ajoute ou met à jour un événement dans events.json selon son event_id.
+     * Les partages déjà enregistrés sont conservés.
+     */
+    public static synchronized void enregistrerEvenement(EventJson event) {
+        List<EventJson> events = lireEvenements();
+        boolean remplace = false;
+        for (int i = 0; i < events.size(); i++) {
+            EventJson existant = events.get(i);
+            if (existant.event_id == event.event_id) {
+                if (existant.partage_avec != null) {
+                    for (Integer userId : existant.partage_avec) {
+                        if (!event.partage_avec.contains(userId)) event.partage_avec.add(userId);
+                    }
+                }
+                events.set(i, event);
+                remplace = true;
+                break;
+            }
+        }
+        if (!remplace) {
+            events.add(event);
+        }
+        sauvegarderEvenements(events);
+    }
+
     /**
      * Met à jour le partage d'un événement
      */
-    public static void partagerEvenement(int eventId, List<Integer> userIds) {
+    public static synchronized void partagerEvenement(int eventId, List<Integer> userIds) {
         List<EventJson> events = lireEvenements();
         for (EventJson event : events) {
             if (event.event_id == eventId) {
@@ -400,7 +469,7 @@ public class JsonManager {
     /**
      * Supprime un événement
      */
-    public static boolean supprimerEvenement(int eventId) {
+    public static synchronized boolean supprimerEvenement(int eventId) {
         List<EventJson> events = lireEvenements();
         boolean removed = events.removeIf(e -> e.event_id == eventId);
         if (removed) {
@@ -426,35 +495,39 @@ public class JsonManager {
             this.message = message;
             this.lu = lu;
         }
+        
+        NotificationJson copie() {
+            return new NotificationJson(notif_id, user_id, message, lu);
+        }
     }
     
     /**
      * Lit toutes les notifications depuis notifications.json
      */
     public static List<NotificationJson> lireNotifications() {
+        return NOTIFICATIONS.copies(NOTIFICATIONS.contenu().liste);
+    }
+    
+    private static List<NotificationJson> parserNotifications() {
         List<NotificationJson> notifications = new ArrayList<>();
         try {
-            String content = lireFichier(NOTIFICATIONS_FILE);
-            if (content == null || content.trim().isEmpty()) {
-                return notifications;
-            }
-            
-            String[] blocks = content.split("\\},\\s*\\{");
-            for (String block : blocks) {
-                block = block.replaceAll("[\\[\\]]", "").trim();
-                if (!block.startsWith("{")) block = "{" + block;
-                if (!block.endsWith("}")) block = block + "}";
-                
-                int notif_id = extractInt(block, "notif_id");
-                int user_id = extractInt(block, "user_id");
-                String message = extractString(block, "message");
-                boolean lu = extractBoolean(block, "lu");
-                
+            lireTableau(NOTIFICATIONS_FILE, in -> {
+                int notif_id = 0, user_id = 0;
+                String message = null;
+                boolean lu = false;
+                while (in.aSuivant()) {
+                    switch (in.nomSuivant()) {
+                        case "notif_id": notif_id = in.entierSuivant(); break;
+                        case "user_id": user_id = in.entierSuivant(); break;
+                        case "message": message = in.chaineSuivante(); break;
+                        case "lu": lu = in.booleenSuivant(); break;
+                        default: in.ignorerValeur();
+                    }
+                }
                 if (notif_id > 0 && user_id > 0) {
                     notifications.add(new NotificationJson(notif_id, user_id, message, lu));
                 }
-            }
-            
+            });
         } catch (Exception e) {
             System.err.println("Erreur lors de la lecture de notifications.json: " + e.getMessage());
         }
@@ -462,40 +535,58 @@ public class JsonManager {
     }
     
     /**
-     * Sauvegarde les notifications dans notifications.json
+     * Notifications indexées par notif_id et par user_id
      */
-    public static void sauvegarderNotifications(List<NotificationJson> notifications) {
-        StringBuilder json = new StringBuilder("[\n");
+    private static final class ContenuNotifications {
+        final List<NotificationJson> liste;
+        final Map<Integer, NotificationJson> parId = new HashMap<>();
+        final Map<Integer, List<NotificationJson>> parUtilisateur = new HashMap<>();
+        int dernierId;
         
-        for (int i = 0; i < notifications.size(); i++) {
-            NotificationJson notif = notifications.get(i);
-            json.append("  {\n");
-            json.append("    \"notif_id\": ").append(notif.notif_id).append(",\n");
-            json.append("    \"user_id\": ").append(notif.user_id).append(",\n");
-            json.append("    \"message\": \"").append(escapeJson(notif.message)).append("\",\n");
-            json.append("    \"lu\": ").append(notif.lu).append("\n");
-            json.append("  }");
-            if (i < notifications.size() - 1) json.append(",");
-            json.append("\n");
+        ContenuNotifications(List<NotificationJson> liste) {
+            this.liste = liste;
+            for (NotificationJson notif : liste) {
+                parId.putIfAbsent(notif.notif_id, notif);
+                parUtilisateur.computeIfAbsent(notif.user_id, k -> new ArrayList<>()).add(notif);
+                dernierId = Math.max(dernierId, notif.notif_id);
+            }
         }
-        
-        json.append("]\n");
-        ecrireFichier(NOTIFICATIONS_FILE, json.toString());
+    }
+    
+    /**
+     * Sauvegarde les notifications dans notifications.json
+     */
+    public static void sauvegarderNotifications(List<NotificationJson> notifications) {
+        NOTIFICATIONS.enregistrer(notifications, out -> {
+            for (NotificationJson notif : notifications) {
+                out.debutObjet();
+                out.champ("notif_id", notif.notif_id);
+                out.champ("user_id", notif.user_id);
+                out.champ("message", notif.message);
+                out.champ("lu", notif.lu);
+                out.finObjet();
+            }
+        });
     }
     
     /**
      * Ajoute une notification
      */
-    public static void ajouterNotification(int userId, String message) {
+    public static synchronized void ajouterNotification(int userId, String message) {
+        ajouterNotifications(List.of(userId), message);
+    }
+    
+    /**
+     * Ajoute la même notification à plusieurs utilisateurs, en une seule écriture du fichier
+     */
+    public static synchronized void ajouterNotifications(List<Integer> userIds, String message) {
+        if (userIds.isEmpty()) return;
         List<NotificationJson> notifications = lireNotifications();
+        int nextId = NOTIFICATIONS.contenu().dernierId + 1;
         
-        // Trouver le prochain ID
-        int nextId = 1;
-        for (NotificationJson notif : notifications) {
-            if (notif.notif_id >= nextId) nextId = notif.notif_id + 1;
+        for (int userId : userIds) {
+            notifications.add(new NotificationJson(nextId++, userId, message, false));
         }
-        
-        notifications.add(new NotificationJson(nextId, userId, message, false));
         sauvegarderNotifications(notifications);
     }
     
@@ -503,21 +594,16 @@ public class JsonManager {
      * Récupère les notifications d'un utilisateur
      */
     public static List<NotificationJson> getNotificationsUtilisateur(int userId) {
-        List<NotificationJson> allNotifs = lireNotifications();
-        List<NotificationJson> userNotifs = new ArrayList<>();
-        for (NotificationJson notif : allNotifs) {
-            if (notif.user_id == userId) {
-                userNotifs.add(notif);
-            }
-        }
-        return userNotifs;
+        List<NotificationJson> userNotifs = NOTIFICATIONS.contenu().parUtilisateur.get(userId);
+        return userNotifs != null ? NOTIFICATIONS.copies(userNotifs) : new ArrayList<>();
     }
     
     /**
      * Compte les notifications non lues d'un utilisateur
      */
     public static int compterNotificationsNonLues(int userId) {
-        List<NotificationJson> userNotifs = getNotificationsUtilisateur(userId);
+        List<NotificationJson> userNotifs = NOTIFICATIONS.contenu().parUtilisateur.get(userId);
+        if (userNotifs == null) return 0;
         int count = 0;
         for (NotificationJson notif : userNotifs) {
             if (!notif.lu) count++;
@@ -528,21 +614,21 @@ public class JsonManager {
     /**
      * Marque une notification comme lue
      */
-    public static void marquerCommeLue(int notifId) {
-        List<NotificationJson> notifications = lireNotifications();
-        for (NotificationJson notif : notifications) {
-            if (notif.notif_id == notifId) {
-                notif.lu = true;
-                break;
+    public static synchronized void marquerCommeLue(int notifId) {
+        NotificationJson notif = NOTIFICATIONS.contenu().parId.get(notifId);
+        if (notif != null && !notif.lu) {
+            List<NotificationJson> notifications = lireNotifications();
+            for (NotificationJson copie : notifications) {
+                if (copie.notif_id == notifId) copie.lu = true;
             }
+            sauvegarderNotifications(notifications);
         }
-        sauvegarderNotifications(notifications);
     }
     
     /**
      * Marque toutes les notifications d'un utilisateur comme lues
      */
-    public static void marquerToutesCommeLues(int userId) {
+    public static synchronized void marquerToutesCommeLues(int userId) {
         List<NotificationJson> notifications = lireNotifications();
         for (NotificationJson notif : notifications) {
             if (notif.user_id == userId) {
@@ -552,103 +638,143 @@ public class JsonManager {
         sauvegarderNotifications(notifications);
     }
     
-    // ==================== UTILITAIRES ====================
+    // ==================== CACHE ====================
     
-    private static String lireFichier(String path) {
-        try {
-            Path filePath = Paths.get(path);
-            if (!Files.exists(filePath)) {
-                // Créer le fichier avec un tableau vide
-                Files.createDirectories(filePath.getParent());
-                Files.write(filePath, "[]".getBytes());
-                return "[]";
+    private static final FichierEnCache<UserJson, ContenuUtilisateurs> UTILISATEURS =
+        new FichierEnCache<>(USERS_FILE, JsonManager::parserUtilisateurs, ContenuUtilisateurs::new, UserJson::copie);
+    private static final FichierEnCache<EventJson, ContenuEvenements> EVENEMENTS =
+        new FichierEnCache<>(EVENTS_FILE, JsonManager::parserEvenements, ContenuEvenements::new, EventJson::copie);
+    private static final FichierEnCache<NotificationJson, ContenuNotifications> NOTIFICATIONS =
+        new FichierEnCache<>(NOTIFICATIONS_FILE, JsonManager::parserNotifications, ContenuNotifications::new,
+                             NotificationJson::copie);
+    
+    /**
+     * Contenu indexé d'un fichier JSON, rechargé seulement si le fichier a changé sur disque
+     * (date de modification ou taille différente de celles du dernier chargement).
+     *
+     * Les objets du cache ne sortent jamais : les lectures publiques en rendent des copies et
+     * {@link #enregistrer} installe des copies de ce qui a été écrit. Modifier un objet lu ne
+     * change donc le cache (partagé entre threads) qu'une fois le fichier écrit.
+     */
+    private static final class FichierEnCache<T, C> {
+        private final Path chemin;
+        private final Supplier<List<T>> lecture;
+        private final Function<List<T>, C> indexation;
+        private final UnaryOperator<T> copie;
+        
+        private C contenu;
+        private long dateModification = -1;
+        private long taille = -1;
+        
+        FichierEnCache(String chemin, Supplier<List<T>> lecture, Function<List<T>, C> indexation,
+                       UnaryOperator<T> copie) {
+            this.chemin = Paths.get(chemin);
+            this.lecture = lecture;
+            this.indexation = indexation;
+            this.copie = copie;
+        }
+        
+        T copie(T element) {
+            return element != null ? copie.apply(element) : null;
+        }
+        
+        List<T> copies(List<T> elements) {
+            List<T> resultat = new ArrayList<>(elements.size());
+            for (T element : elements) resultat.add(copie.apply(element));
+            return resultat;
+        }
+        
+        synchronized C contenu() {
+            BasicFileAttributes attributs = attributs();
+            if (contenu == null || attributs == null
+                    || attributs.lastModifiedTime().toMillis() != dateModification
+                    || attributs.size() != taille) {
+                contenu = indexation.apply(lecture.get());
+                memoriserEtat(attributs != null ? attributs : attributs());
             }
-            return new String(Files.readAllBytes(filePath), "UTF-8");
-        } catch (IOException e) {
-            System.err.println("Erreur lecture fichier " + path + ": " + e.getMessage());
-            return null;
+            return contenu;
         }
-    }
-    
-    private static void ecrireFichier(String path, String content) {
-        try {
-            Path filePath = Paths.get(path);
-            Files.createDirectories(filePath.getParent());
-            Files.write(filePath, content.getBytes("UTF-8"));
-            System.out.println("✅ Fichier sauvegardé: " + path);
-        } catch (IOException e) {
-            System.err.println("Erreur écriture fichier " + path + ": " + e.getMessage());
+        
+        /**
+         * Écrit le fichier puis met le cache à jour sans relecture
+         */
+        synchronized void enregistrer(List<T> elements, EcritureTableau ecriture) {
+            if (ecrireFichier(chemin.toString(), ecriture)) {
+                contenu = indexation.apply(copies(elements));
+                memoriserEtat(attributs());
+            } else {
+                // Écriture en échec : le prochain accès relira le fichier
+                contenu = null;
+            }
+        }
+        
+        private BasicFileAttributes attributs() {
+            try {
+                return Files.readAttributes(chemin, BasicFileAttributes.class);
+            } catch (IOException e) {
+                return null;
+            }
+        }
+        
+        private void memoriserEtat(BasicFileAttributes attributs) {
+            dateModification = attributs != null ? attributs.lastModifiedTime().toMillis() : -1;
+            taille = attributs != null ? attributs.size() : -1;
         }
     }
     
-    private static String escapeJson(String s) {
-        if (s == null) return "";
-        return s.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
-    }
+    // ==================== UTILITAIRES ====================
     
-    private static String extractString(String json, String key) {
-        Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*\"([^\"]*?)\"");
-        Matcher matcher = pattern.matcher(json);
-        if (matcher.find()) {
-            return matcher.group(1).replace("\\\"", "\"").replace("\\n", "\n");
-        }
-        return null;
+    /**
+     * Lecture d'un objet du tableau : le lecteur est positionné après '{'
+     */
+    private interface LectureObjet {
+        void lire(LecteurJson in) throws IOException;
     }
     
-    private static int extractInt(String json, String key) {
-        Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*(\\d+)");
-        Matcher matcher = pattern.matcher(json);
-        if (matcher.find()) {
-            return Integer.parseInt(matcher.group(1));
-        }
-        return 0;
+    /**
+     * Écriture du contenu d'un tableau JSON
+     */
+    private interface EcritureTableau {
+        void ecrire(EcrivainJson out) throws IOException;
     }
     
-    private static boolean extractBoolean(String json, String key) {
-        Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*(true|false)");
-        Matcher matcher = pattern.matcher(json);
-        if (matcher.find()) {
-            return Boolean.parseBoolean(matcher.group(1));
+    /**
+     * Parcourt en flux le tableau d'objets d'un fichier JSON.
+     * Le fichier est créé avec un tableau vide s'il n'existe pas.
+     */
+    private static void lireTableau(String path, LectureObjet lecture) throws IOException {
+        Path filePath = Paths.get(path);
+        if (!Files.exists(filePath)) {
+            Files.createDirectories(filePath.getParent());
+            Files.write(filePath, "[]".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        try (LecteurJson in = new LecteurJson(Files.newBufferedReader(filePath, StandardCharsets.UTF_8))) {
+            if (in.estVide()) return;
+            in.debutTableau();
+            while (in.aSuivant()) {
+                in.debutObjet();
+                lecture.lire(in);
+                in.finObjet();
+            }
+            in.finTableau();
         }
-        return false;
     }
     
-    private static List<String> extractStringArray(String json, String key) {
-        List<String> result = new ArrayList<>();
-        Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*\\[([^\\]]*)\\]");
-        Matcher matcher = pattern.matcher(json);
-        if (matcher.find()) {
-            String arrayContent = matcher.group(1);
-            Pattern itemPattern = Pattern.compile("\"([^\"]+)\"");
-            Matcher itemMatcher = itemPattern.matcher(arrayContent);
-            while (itemMatcher.find()) {
-                result.add(itemMatcher.group(1));
-            }
-        }
-        return result;
-    }
-    
-    private static List<Integer> extractIntArray(String json, String key) {
-        List<Integer> result = new ArrayList<>();
-        Pattern pattern = Pattern.compile("\"" + key + "\"\\s*:\\s*\\[([^\\]]*)\\]");
-        Matcher matcher = pattern.matcher(json);
-        if (matcher.find()) {
-            String arrayContent = matcher.group(1).trim();
-            if (!arrayContent.isEmpty()) {
-                String[] parts = arrayContent.split(",");
-                for (String part : parts) {
-                    try {
-                        result.add(Integer.parseInt(part.trim()));
-                    } catch (NumberFormatException e) {
-                        // Ignorer les valeurs non numériques
-                    }
-                }
+    private static boolean ecrireFichier(String path, EcritureTableau contenu) {
+        try {
+            Path filePath = Paths.get(path);
+            Files.createDirectories(filePath.getParent());
+            try (EcrivainJson out = new EcrivainJson(Files.newBufferedWriter(filePath, StandardCharsets.UTF_8))) {
+                out.debutTableau();
+                contenu.ecrire(out);
+                out.finTableau();
             }
+            System.out.println("✅ Fichier sauvegardé: " + path);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erreur écriture fichier " + path + ": " + e.getMessage());
+            return false;
         }
-        return result;
     }
 }
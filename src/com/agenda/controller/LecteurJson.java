@@ -0,0 +1,262 @@
+package com.agenda.controller;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Lecteur JSON en flux, sans bibliothèque externe.
+ *
+ * Le document est lu en une seule passe à travers un tampon de caractères fixe :
+ * pas d'expression régulière ni de découpage en sous-chaînes. L'appelant parcourt
+ * la structure (tableaux, objets, valeurs) et lie directement les champs à ses objets.
+ *
+ * Les chaînes sont entièrement décodées (échappements \" \\ \n \\uXXXX ...),
+ * une accolade ou un guillemet échappé dans une valeur ne perturbe donc pas la lecture.
+ */
+public class LecteurJson implements Closeable {
+
+    private final Reader source;
+    private final char[] tampon = new char[8192];
+    private int position;
+    private int limite;
+    private long consommes;
+
+    // Réutilisé pour chaque chaîne lue
+    private final StringBuilder chaine = new StringBuilder(64);
+
+    public LecteurJson(Reader source) {
+        this.source = source;
+    }
+
+    // ==================== STRUCTURE ====================
+
+    public void debutTableau() throws IOException {
+        attendre('[');
+    }
+
+    public void finTableau() throws IOException {
+        attendre(']');
+    }
+
+    public void debutObjet() throws IOException {
+        attendre('{');
+    }
+
+    public void finObjet() throws IOException {
+        attendre('}');
+    }
+
+    /**
+     * Indique s'il reste un élément dans le tableau ou l'objet courant.
+     * Consomme la virgule qui sépare deux éléments.
+     */
+    public boolean aSuivant() throws IOException {
+        int c = regarder();
+        if (c == ',') {
+            position++;
+            c = regarder();
+        }
+        return c != ']' && c != '}' && c != -1;
+    }
+
+    /**
+     * Lit le nom d'une propriété et le séparateur ':'
+     */
+    public String nomSuivant() throws IOException {
+        String nom = chaineSuivante();
+        attendre(':');
+        return nom;
+    }
+
+    // ==================== VALEURS ====================
+
+    /**
+     * Lit une chaîne, ou null si la valeur est le littéral null
+     */
+    public String chaineSuivante() throws IOException {
+        int c = regarder();
+        if (c == 'n') {
+            litteral("null");
+            return null;
+        }
+        attendre('"');
+        chaine.setLength(0);
+        while (true) {
+            if (position == limite && !remplir()) throw erreur("chaîne non terminée");
+            char ch = tampon[position++];
+            if (ch == '"') break;
+            if (ch != '\\') {
+                chaine.append(ch);
+                continue;
+            }
+            if (position == limite && !remplir()) throw erreur("échappement incomplet");
+            char esc = tampon[position++];
+            switch (esc) {
+                case '"': chaine.append('"'); break;
+                case '\\': chaine.append('\\'); break;
+                case '/': chaine.append('/'); break;
+                case 'b': chaine.append('\b'); break;
+                case 'f': chaine.append('\f'); break;
+                case 'n': chaine.append('\n'); break;
+                case 'r': chaine.append('\r'); break;
+                case 't': chaine.append('\t'); break;
+                case 'u': chaine.append(unicode()); break;
+                default: throw erreur("échappement invalide \\" + esc);
+            }
+        }
+        return chaine.toString();
+    }
+
+    /**
+     * Lit un nombre entier. Une partie décimale ou un exposant éventuels sont ignorés.
+     * Le littéral null vaut 0.
+     */
+    public int entierSuivant() throws IOException {
+        int c = regarder();
+        if (c == 'n') {
+            litteral("null");
+            return 0;
+        }
+        boolean negatif = false;
+        if (c == '-') {
+            negatif = true;
+            position++;
+        }
+        long valeur = 0;
+        int chiffres = 0;
+        while ((c = lireSiDisponible()) >= '0' && c <= '9') {
+            valeur = valeur * 10 + (c - '0');
+            if (valeur > Integer.MAX_VALUE + 1L) throw erreur("entier trop grand");
+            position++;
+            chiffres++;
+        }
+        if (chiffres == 0) throw erreur("nombre attendu");
+        while ((c = lireSiDisponible()) == '.' || c == 'e' || c == 'E' || c == '+' || c == '-'
+                || (c >= '0' && c <= '9')) {
+            position++;
+        }
+        return (int) (negatif ? -valeur : valeur);
+    }
+
+    public boolean booleenSuivant() throws IOException {
+        int c = regarder();
+        if (c == 't') {
+            litteral("true");
+            return true;
+        }
+        if (c == 'n') {
+            litteral("null");
+            return false;
+        }
+        litteral("false");
+        return false;
+    }
+
+    /**
+     * Ignore la valeur suivante, quel que soit son type (objet et tableau compris)
+     */
+    public void ignorerValeur() throws IOException {
+        int c = regarder();
+        switch (c) {
+            case '"':
+                chaineSuivante();
+                break;
+            case '{':
+                debutObjet();
+                while (aSuivant()) {
+                    nomSuivant();
+                    ignorerValeur();
+                }
+                finObjet();
+                break;
+            case '[':
+                debutTableau();
+                while (aSuivant()) ignorerValeur();
+                finTableau();
+                break;
+            case 't':
+            case 'f':
+                booleenSuivant();
+                break;
+            case 'n':
+                litteral("null");
+                break;
+            default:
+                entierSuivant();
+        }
+    }
+
+    /**
+     * Indique si le document ne contient que des espaces
+     */
+    public boolean estVide() throws IOException {
+        return regarder() == -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    // ==================== LECTURE BAS NIVEAU ====================
+
+    private boolean remplir() throws IOException {
+        consommes += limite;
+        int lus = source.read(tampon, 0, tampon.length);
+        position = 0;
+        limite = Math.max(lus, 0);
+        return lus > 0;
+    }
+
+    /**
+     * Caractère courant sans le consommer, -1 en fin de flux
+     */
+    private int lireSiDisponible() throws IOException {
+        if (position == limite && !remplir()) return -1;
+        return tampon[position];
+    }
+
+    /**
+     * Prochain caractère significatif (espaces ignorés), sans le consommer
+     */
+    private int regarder() throws IOException {
+        while (true) {
+            if (position == limite && !remplir()) return -1;
+            char c = tampon[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t' && c != '\uFEFF') return c;
+            position++;
+        }
+    }
+
+    private void attendre(char attendu) throws IOException {
+        int c = regarder();
+        if (c != attendu) {
+            throw erreur("'" + attendu + "' attendu, trouvé " + (c == -1 ? "fin de fichier" : "'" + (char) c + "'"));
+        }
+        position++;
+    }
+
+    private void litteral(String mot) throws IOException {
+        for (int i = 0; i < mot.length(); i++) {
+            if (lireSiDisponible() != mot.charAt(i)) throw erreur(mot + " attendu");
+            position++;
+        }
+    }
+
+    private char unicode() throws IOException {
+        int valeur = 0;
+        for (int i = 0; i < 4; i++) {
+            int c = lireSiDisponible();
+            int chiffre = Character.digit(c, 16);
+            if (c == -1 || chiffre < 0) throw erreur("séquence \\u invalide");
+            valeur = (valeur << 4) | chiffre;
+            position++;
+        }
+        return (char) valeur;
+    }
+
+    private IOException erreur(String message) {
+        return new IOException("JSON invalide (caractère " + (consommes + position) + "): " + message);
+    }
+}
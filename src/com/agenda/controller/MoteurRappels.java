@@ -0,0 +1,176 @@
+package com.agenda.controller;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moteur unique des rappels d'événements.
+ *
+ * Les rappels sont rangés par instant dans une file ordonnée, avec au plus un rappel
+ * par événement : planifier de nouveau un événement remplace son rappel, le supprimer
+ * l'annule (O(log n) dans les deux cas). Un seul réveil est programmé, pour le rappel
+ * le plus proche ; aucun travail n'est fait entre deux rappels.
+ */
+public class MoteurRappels {
+
+    /**
+     * Appelé sur le thread du moteur quand un rappel arrive à échéance
+     */
+    public interface Declencheur {
+        void rappelDu(int evenementId, LocalDateTime instant);
+    }
+
+    private static final class Rappel implements Comparable<Rappel> {
+        final int evenementId;
+        final LocalDateTime instant;
+        final long instantMs;
+        final long sequence;
+
+        Rappel(int evenementId, LocalDateTime instant, long sequence) {
+            this.evenementId = evenementId;
+            this.instant = instant;
+            this.instantMs = instant.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Rappel autre) {
+            int c = Long.compare(instantMs, autre.instantMs);
+            return c != 0 ? c : Long.compare(sequence, autre.sequence);
+        }
+    }
+
+    private final Declencheur declencheur;
+    private final ScheduledExecutorService executeur;
+
+    private final TreeSet<Rappel> file = new TreeSet<>();
+    private final Map<Integer, Rappel> parEvenement = new HashMap<>();
+    private long prochaineSequence;
+
+    // Réveil programmé pour le rappel en tête de file
+    private ScheduledFuture<?> reveil;
+    private long reveilMs = Long.MAX_VALUE;
+
+    private long nombreDeclenches;
+
+    public MoteurRappels(String nom, Declencheur declencheur) {
+        this.declencheur = declencheur;
+        this.executeur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, nom);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Planifie (ou replanifie) le rappel d'un événement. Un instant déjà passé déclenche
+     * le rappel immédiatement.
+     */
+    public synchronized void planifier(int evenementId, LocalDateTime instant) {
+        Rappel precedent = parEvenement.remove(evenementId);
+        if (precedent != null) file.remove(precedent);
+
+        Rappel rappel = new Rappel(evenementId, instant, prochaineSequence++);
+        parEvenement.put(evenementId, rappel);
+        file.add(rappel);
+        rearmer();
+    }
+
+    /**
+     * Annule le rappel d'un événement, s'il y en a un
+     */
+    public synchronized void annuler(int evenementId) {
+        Rappel rappel = parEvenement.remove(evenementId);
+        if (rappel != null) {
+            file.remove(rappel);
+            rearmer();
+        }
+    }
+
+    public synchronized LocalDateTime getInstant(int evenementId) {
+        Rappel rappel = parEvenement.get(evenementId);
+        return rappel != null ? rappel.instant : null;
+    }
+
+    /**
+     * Événements dont le rappel tombe au plus tard à {@code limite}, du plus proche au plus lointain
+     * (sans les retirer de la file)
+     */
+    public synchronized List<Integer> prochainsAvant(LocalDateTime limite) {
+        long limiteMs = limite.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<Integer> ids = new ArrayList<>();
+        for (Rappel rappel : file) {
+            if (rappel.instantMs > limiteMs) break;
+            ids.add(rappel.evenementId);
+        }
+        return ids;
+    }
+
+    public synchronized int getNombreRappels() {
+        return file.size();
+    }
+
+    public synchronized long getNombreDeclenches() {
+        return nombreDeclenches;
+    }
+
+    public synchronized void arreter() {
+        file.clear();
+        parEvenement.clear();
+        if (reveil != null) reveil.cancel(false);
+        executeur.shutdownNow();
+    }
+
+    /**
+     * Programme le réveil pour la tête de file, s'il n'est pas déjà programmé à cet instant
+     */
+    private void rearmer() {
+        if (executeur.isShutdown()) return;
+        long prochain = file.isEmpty() ? Long.MAX_VALUE : file.first().instantMs;
+        if (prochain == reveilMs) return;
+
+        if (reveil != null) reveil.cancel(false);
+        reveilMs = prochain;
+        reveil = null;
+        if (prochain != Long.MAX_VALUE) {
+            long delai = Math.max(prochain - System.currentTimeMillis(), 0);
+            reveil = executeur.schedule(this::reveiller, delai, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Déclenche les rappels échus un par un, puis se reprogramme pour le suivant.
+     * Les rappels pas encore traités restent dans la file : le déclencheur peut les
+     * regrouper avec le rappel en cours (ils sont alors replanifiés ou annulés par lui).
+     */
+    private void reveiller() {
+        while (true) {
+            Rappel rappel;
+            synchronized (this) {
+                if (file.isEmpty() || file.first().instantMs > System.currentTimeMillis()) {
+                    // Réveil anticipé (changement d'heure système) : simplement reprogrammé
+                    reveilMs = Long.MAX_VALUE;
+                    rearmer();
+                    return;
+                }
+                rappel = file.pollFirst();
+                parEvenement.remove(rappel.evenementId);
+                nombreDeclenches++;
+            }
+            try {
+                declencheur.rappelDu(rappel.evenementId, rappel.instant);
+            } catch (RuntimeException e) {
+                System.err.println("Erreur rappel événement n°" + rappel.evenementId + ": " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Message publié par {@link AgendaController} à l'interface : confirmation, alerte ou rappel.
+ *
+ * Ne contient que du texte ; la mise en forme est faite par la vue qui l'affiche.
+ * Deux notifications de même clé (même type et même titre) peuvent être regroupées
+ * en une seule (« 12 × Événement supprimé »).
+ */
+public final class NotificationAgenda {
+
+    public enum Type {
+        SUCCES,
+        ALERTE,
+        RAPPEL,
+        // Message bref de l'interface elle-même (changement de vue, rafraîchissement...)
+        INFO
+    }
+
+    private final Type type;
+    private final String titre;
+    private final String message;
+    private final List<Evenement> evenements;
+    private final LocalDateTime creeeLe = LocalDateTime.now();
+
+    private NotificationAgenda(Type type, String titre, String message, List<Evenement> evenements) {
+        this.type = type;
+        this.titre = titre;
+        this.message = message;
+        this.evenements = evenements;
+    }
+
+    public static NotificationAgenda succes(String titre, String message) {
+        return new NotificationAgenda(Type.SUCCES, titre, message, Collections.emptyList());
+    }
+
+    public static NotificationAgenda alerte(String titre, String message) {
+        return new NotificationAgenda(Type.ALERTE, titre, message, Collections.emptyList());
+    }
+
+    public static NotificationAgenda info(String message) {
+        return new NotificationAgenda(Type.INFO, "Medisyns", message, Collections.emptyList());
+    }
+
+    /**
+     * Rappel d'un événement (pour une série : l'occurrence concernée)
+     */
+    public static NotificationAgenda rappel(Evenement e) {
+        return new NotificationAgenda(Type.RAPPEL, "Rappel Médical", e.getTitre(), List.of(e));
+    }
+
+    /**
+     * Rappels regroupés d'un même destinataire, triés par heure de début
+     */
+    public static NotificationAgenda rappels(String destinataire, List<Evenement> occurrences) {
+        StringBuilder message = new StringBuilder();
+        for (Evenement e : occurrences) {
+            if (message.length() > 0) message.append('\n');
+            message.append(e.getHeure()).append(' ').append(e.getTitre());
+        }
+        return new NotificationAgenda(Type.RAPPEL, occurrences.size() + " rappels - " + destinataire,
+            message.toString(), Collections.unmodifiableList(occurrences));
+    }
+
+    public Type getType() { return type; }
+    public String getTitre() { return titre; }
+    public String getMessage() { return message; }
+    public LocalDateTime getCreeeLe() { return creeeLe; }
+
+    /**
+     * Événement rappelé (null si ce n'est pas un rappel, ou si plusieurs rappels sont regroupés)
+     */
+    public Evenement getEvenement() { return evenements.size() == 1 ? evenements.get(0) : null; }
+
+    /**
+     * Événements rappelés, du plus proche au plus lointain (vide si ce n'est pas un rappel)
+     */
+    public List<Evenement> getEvenements() { return evenements; }
+
+    public boolean estRegroupement() { return evenements.size() > 1; }
+
+    /**
+     * Les notifications de même clé sont regroupées à l'affichage
+     */
+    public String getCle() {
+        return type + ":" + titre;
+    }
+
+    @Override
+    public String toString() {
+        return type + " - " + titre + " : " + message;
+    }
+}
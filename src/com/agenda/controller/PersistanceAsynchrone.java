@@ -0,0 +1,299 @@
+package com.agenda.controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Service d'écriture différée (write-behind) exécuté hors de l'EDT.
+ *
+ * Les écritures sont mises en file puis exécutées par un unique thread de fond :
+ * une rafale de modifications est regroupée en un seul passage (flush) après
+ * {@code delaiRegroupementMs} sans nouvelle modification, et une écriture en attente
+ * n'attend jamais plus de {@code delaiMaximalMs}.
+ *
+ * Deux sortes de tâches :
+ * - ordonnées ({@link #soumettre(Tache)}) : toutes exécutées, dans l'ordre de soumission ;
+ * - regroupées par clé ({@link #soumettre(String, Tache)}) : une nouvelle tâche remplace
+ *   la précédente de même clé et prend sa place en fin de file.
+ *
+ * Une écriture en échec bloque les suivantes et est réessayée avec un délai doublé à chaque
+ * fois ; après {@link #MAX_TENTATIVES} échecs elle est abandonnée (le gestionnaire d'échec
+ * est prévenu) et la file reprend.
+ */
+public class PersistanceAsynchrone {
+
+    /**
+     * Écriture exécutée sur le thread de persistance
+     */
+    public interface Tache {
+        void executer() throws Exception;
+    }
+
+    // Tentatives d'une écriture avant son abandon
+    public static final int MAX_TENTATIVES = 3;
+
+    private final long delaiRegroupementMs;
+    private final long delaiMaximalMs;
+    private final ScheduledExecutorService executeur;
+
+    // File des écritures en attente ; clé unique pour les tâches ordonnées
+    private final Map<Object, Tache> enAttente = new LinkedHashMap<>();
+    private long premiereAttenteMs;
+    private ScheduledFuture<?> prochainFlush;
+    // Après un échec, pas de nouveau flush avant cet instant
+    private long repriseMs;
+    // Clé de l'écriture en tête de file qui a échoué (une tâche qui la remplace hérite de ses échecs)
+    private Object cleEnEchec;
+    private int tentativesEchec;
+    private boolean arrete;
+    private volatile Consumer<Exception> gestionnaireEchec;
+
+    // Statistiques
+    private long nombreFlush;
+    private long nombreOperations;
+    private long latenceTotaleMs;
+    private long latenceMaxMs;
+    private long retardMaxMs;
+    private long nombreEchecs;
+    private long nombreAbandons;
+    private String derniereErreur;
+
+    public PersistanceAsynchrone(String nom, long delaiRegroupementMs, long delaiMaximalMs) {
+        this.delaiRegroupementMs = delaiRegroupementMs;
+        this.delaiMaximalMs = delaiMaximalMs;
+        this.executeur = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, nom);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Appelé sur le thread de persistance quand une écriture est abandonnée
+     */
+    public void setGestionnaireEchec(Consumer<Exception> gestionnaireEchec) {
+        this.gestionnaireEchec = gestionnaireEchec;
+    }
+
+    /**
+     * Ajoute une écriture qui sera exécutée, dans l'ordre, au prochain flush
+     */
+    public void soumettre(Tache tache) {
+        ajouter(new Object(), tache);
+    }
+
+    /**
+     * Ajoute une écriture regroupée : seule la dernière tâche soumise pour une clé est exécutée
+     */
+    public void soumettre(String cle, Tache tache) {
+        ajouter(cle, tache);
+    }
+
+    private void ajouter(Object cle, Tache tache) {
+        synchronized (this) {
+            if (!arrete) {
+                enAttente.remove(cle);
+                enAttente.put(cle, tache);
+                planifier();
+                return;
+            }
+        }
+        // Service arrêté : écrire immédiatement plutôt que de perdre la modification
+        executer(new Object(), tache, true);
+    }
+
+    /**
+     * Reporte le flush de {@code delaiRegroupementMs}, sans dépasser le délai maximal
+     * depuis la plus ancienne écriture en attente.
+     */
+    private synchronized void planifier() {
+        long maintenant = System.currentTimeMillis();
+        if (premiereAttenteMs == 0) premiereAttenteMs = maintenant;
+        long delai = Math.min(delaiRegroupementMs, premiereAttenteMs + delaiMaximalMs - maintenant);
+        delai = Math.max(delai, repriseMs - maintenant);
+
+        if (prochainFlush != null) prochainFlush.cancel(false);
+        prochainFlush = executeur.schedule(this::flush, Math.max(delai, 0), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Exécute les écritures en attente dans l'ordre (thread de persistance) ; une écriture
+     * en échec et les suivantes sont remises en tête de file pour une nouvelle tentative
+     */
+    private void flush() {
+        Map<Object, Tache> taches;
+        long retard;
+        synchronized (this) {
+            if (enAttente.isEmpty()) return;
+            taches = new LinkedHashMap<>(enAttente);
+            enAttente.clear();
+            retard = System.currentTimeMillis() - premiereAttenteMs;
+            premiereAttenteMs = 0;
+            prochainFlush = null;
+        }
+
+        long debut = System.nanoTime();
+        int executees = 0;
+        Map<Object, Tache> restantes = new LinkedHashMap<>();
+        for (Map.Entry<Object, Tache> entree : taches.entrySet()) {
+            if (restantes.isEmpty() && executer(entree.getKey(), entree.getValue(), false)) {
+                executees++;
+            } else {
+                restantes.put(entree.getKey(), entree.getValue());
+            }
+        }
+        long latence = (System.nanoTime() - debut) / 1_000_000;
+
+        synchronized (this) {
+            nombreFlush++;
+            nombreOperations += executees;
+            latenceTotaleMs += latence;
+            latenceMaxMs = Math.max(latenceMaxMs, latence);
+            retardMaxMs = Math.max(retardMaxMs, retard);
+
+            if (!restantes.isEmpty()) {
+                // Remettre en tête les écritures non effectuées (une tâche regroupée garde sa clé
+                // et peut encore être remplacée), puis réessayer après un délai doublé à chaque échec
+                for (Map.Entry<Object, Tache> entree : enAttente.entrySet()) {
+                    restantes.remove(entree.getKey());
+                    restantes.put(entree.getKey(), entree.getValue());
+                }
+                enAttente.clear();
+                enAttente.putAll(restantes);
+                long maintenant = System.currentTimeMillis();
+                repriseMs = maintenant + (delaiMaximalMs << (tentativesEchec - 1));
+                if (!arrete) {
+                    premiereAttenteMs = maintenant;
+                    prochainFlush = executeur.schedule(this::flush, repriseMs - maintenant, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Exécute une écriture. Retourne false si elle a échoué et doit être réessayée ;
+     * à son dernier échec (ou pour une {@code derniereTentative}) elle est abandonnée
+     * et le gestionnaire d'échec est prévenu.
+     */
+    private boolean executer(Object cle, Tache tache, boolean derniereTentative) {
+        try {
+            tache.executer();
+            synchronized (this) {
+                if (cle.equals(cleEnEchec)) {
+                    cleEnEchec = null;
+                    tentativesEchec = 0;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            int tentatives;
+            boolean abandon;
+            synchronized (this) {
+                nombreEchecs++;
+                derniereErreur = e.getMessage();
+                tentatives = cle.equals(cleEnEchec) ? tentativesEchec + 1 : 1;
+                abandon = derniereTentative || tentatives >= MAX_TENTATIVES;
+                if (abandon) {
+                    nombreAbandons++;
+                    cleEnEchec = null;
+                    tentativesEchec = 0;
+                } else {
+                    cleEnEchec = cle;
+                    tentativesEchec = tentatives;
+                }
+            }
+            if (!abandon) {
+                System.err.println("Erreur de persistance (tentative " + tentatives + "/" + MAX_TENTATIVES + "): " + e.getMessage());
+                return false;
+            }
+            System.err.println("Écriture abandonnée après " + tentatives + " tentative(s): " + e.getMessage());
+            Consumer<Exception> gestionnaire = gestionnaireEchec;
+            if (gestionnaire != null) gestionnaire.accept(e);
+            return true;
+        }
+    }
+
+    /**
+     * Exécute un dernier flush de toutes les écritures en attente puis arrête le thread.
+     * Les écritures soumises ensuite sont exécutées immédiatement par l'appelant.
+     */
+    public void arreter(long timeoutMs) {
+        synchronized (this) {
+            if (arrete) return;
+            arrete = true;
+            if (prochainFlush != null) prochainFlush.cancel(false);
+        }
+        try {
+            // Exécuté sur le thread de persistance : attend la fin d'un flush déjà en cours
+            executeur.submit(this::flush).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | TimeoutException e) {
+            System.err.println("Flush final incomplet: " + e);
+            return;
+        } finally {
+            executeur.shutdown();
+        }
+        // En cas d'échec du flush final, une dernière tentative de chaque écriture sur le thread appelant
+        List<Tache> restantes;
+        synchronized (this) {
+            restantes = new ArrayList<>(enAttente.values());
+            enAttente.clear();
+        }
+        for (Tache tache : restantes) executer(new Object(), tache, true);
+    }
+
+    /**
+     * Exécute immédiatement toutes les écritures en attente puis la tâche donnée,
+     * sur le thread de persistance, et attend la fin. L'exception de la tâche est relancée.
+     */
+    public void executerApresFlush(Tache tache, long timeoutMs) throws Exception {
+        synchronized (this) {
+            if (arrete) {
+                tache.executer();
+                return;
+            }
+            if (prochainFlush != null) prochainFlush.cancel(false);
+        }
+        try {
+            executeur.submit(() -> {
+                flush();
+                tache.executer();
+                return null;
+            }).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    public synchronized int getEcrituresEnAttente() {
+        return enAttente.size();
+    }
+
+    /**
+     * Écritures abandonnées après {@link #MAX_TENTATIVES} échecs depuis le démarrage
+     */
+    public synchronized long getEcrituresAbandonnees() {
+        return nombreAbandons;
+    }
+
+    /**
+     * Latences de flush, retard maximal des données sur disque et échecs
+     */
+    public synchronized String getStatistiques() {
+        return String.format(
+            "• Flushs: %d (%d écritures)\n" +
+            "• Latence de flush moyenne: %d ms, max: %d ms\n" +
+            "• Retard max sur disque: %d ms\n" +
+            "• Échecs d'écriture: %d, écritures abandonnées: %d%s",
+            nombreFlush, nombreOperations,
+            nombreFlush == 0 ? 0 : latenceTotaleMs / nombreFlush, latenceMaxMs,
+            retardMaxMs,
+            nombreEchecs, nombreAbandons, derniereErreur != null ? " (dernier: " + derniereErreur + ")" : "");
+    }
+}
@@ -0,0 +1,115 @@
+package com.agenda.controller;
+
+import java.io.*;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rappels déjà envoyés, pour ne jamais afficher deux fois le même rappel,
+ * y compris après un redémarrage.
+ *
+ * Un rappel est identifié par l'événement et son délai de rappel ; la date de
+ * l'événement est conservée pour qu'un événement déplacé soit de nouveau rappelé.
+ * Une entrée expire dès que l'événement a commencé : son rappel ne peut plus partir.
+ * La taille reste donc bornée par le nombre de rappels à venir (et par {@code maxEntrees}).
+ */
+public class RappelsEnvoyes {
+
+    private static final int VERSION = 1;
+
+    // (identifiant << 32 | délai) -> minute de début de l'événement (expiration)
+    private final Map<Long, Long> entrees = new HashMap<>();
+    private final int maxEntrees;
+    private int tailleApresPurge;
+
+    public RappelsEnvoyes(int maxEntrees) {
+        this.maxEntrees = maxEntrees;
+    }
+
+    public synchronized boolean estEnvoye(int evenementId, int delaiMinutes, LocalDateTime debutEvenement) {
+        Long debut = entrees.get(cle(evenementId, delaiMinutes));
+        return debut != null && debut == minutes(debutEvenement);
+    }
+
+    public synchronized void marquerEnvoye(int evenementId, int delaiMinutes, LocalDateTime debutEvenement) {
+        entrees.put(cle(evenementId, delaiMinutes), minutes(debutEvenement));
+        // Purge amortie : seulement quand la taille a doublé depuis la précédente
+        if (entrees.size() > Math.max(64, tailleApresPurge * 2) || entrees.size() > maxEntrees) {
+            purger(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Retire les rappels des événements déjà commencés, puis les plus anciens au-delà de la limite
+     */
+    public synchronized int purger(LocalDateTime maintenant) {
+        int avant = entrees.size();
+        long seuil = minutes(maintenant);
+        entrees.values().removeIf(debut -> debut <= seuil);
+
+        if (entrees.size() > maxEntrees) {
+            List<Map.Entry<Long, Long>> parDebut = new ArrayList<>(entrees.entrySet());
+            parDebut.sort(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Long> entree : parDebut.subList(0, entrees.size() - maxEntrees)) {
+                entrees.remove(entree.getKey());
+            }
+        }
+        tailleApresPurge = entrees.size();
+        return avant - entrees.size();
+    }
+
+    public synchronized int getTaille() {
+        return entrees.size();
+    }
+
+    // ==================== ENCODAGE ====================
+
+    /**
+     * Format : version, nombre, puis (identifiant, délai, minute de début) pour chaque rappel
+     */
+    public synchronized byte[] encoder() {
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(entrees.size() * 16 + 8);
+        try (DataOutputStream out = new DataOutputStream(tampon)) {
+            out.writeByte(VERSION);
+            out.writeInt(entrees.size());
+            for (Map.Entry<Long, Long> entree : entrees.entrySet()) {
+                out.writeInt((int) (entree.getKey() >>> 32));
+                out.writeInt((int) entree.getKey().longValue());
+                out.writeLong(entree.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tampon.toByteArray();
+    }
+
+    /**
+     * Remplace le contenu par celui d'une sauvegarde ; les rappels expirés sont ignorés
+     */
+    public synchronized void charger(byte[] donnees) throws IOException {
+        entrees.clear();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(donnees))) {
+            int version = in.readUnsignedByte();
+            if (version > VERSION) throw new IOException("version de rappels non supportée: " + version);
+            int nombre = in.readInt();
+            for (int i = 0; i < nombre; i++) {
+                int id = in.readInt();
+                int delai = in.readInt();
+                entrees.put(cle(id, delai), in.readLong());
+            }
+        }
+        purger(LocalDateTime.now());
+    }
+
+    private static long cle(int evenementId, int delaiMinutes) {
+        return ((long) evenementId << 32) | (delaiMinutes & 0xFFFFFFFFL);
+    }
+
+    private static long minutes(LocalDateTime instant) {
+        return instant.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
@@ -0,0 +1,42 @@
+package com.agenda.controller;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bilan d'une opération sur plusieurs événements : combien ont été traités,
+ * lesquels ont été ignorés (introuvables ou incomplets), et en combien de temps
+ */
+public final class ResultatLot {
+
+    private final String operation;
+    private final int traites;
+    private final List<Integer> ignores;
+    private final long millisecondes;
+
+    ResultatLot(String operation, int traites, List<Integer> ignores, long millisecondes) {
+        this.operation = operation;
+        this.traites = traites;
+        this.ignores = Collections.unmodifiableList(ignores);
+        this.millisecondes = millisecondes;
+    }
+
+    public String getOperation() { return operation; }
+    public int getTraites() { return traites; }
+    public List<Integer> getIgnores() { return ignores; }
+    public long getMillisecondes() { return millisecondes; }
+
+    /**
+     * Par exemple « 5000 événement(s) supprimé(s), 3 ignoré(s) »
+     */
+    public String getResume() {
+        String resume = traites + " événement(s) " + operation;
+        if (!ignores.isEmpty()) resume += ", " + ignores.size() + " ignoré(s)";
+        return resume;
+    }
+
+    @Override
+    public String toString() {
+        return getResume() + " en " + millisecondes + " ms";
+    }
+}
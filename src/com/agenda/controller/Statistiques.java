@@ -0,0 +1,140 @@
+package com.agenda.controller;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Photographie des statistiques de l'agenda à un instant : événements, utilisateurs et système.
+ * Remplie par le contrôleur à partir des compteurs tenus à jour, sans parcourir les événements.
+ */
+public final class Statistiques {
+
+    final LocalDateTime calculeesLe = LocalDateTime.now();
+
+    // Événements (une série compte pour un, à la date de sa première occurrence)
+    int evenements;
+    int aujourdhui;
+    int passes;
+    int futurs;
+    int avecRappel;
+    int series;
+    SortedMap<YearMonth, Integer> parMois;
+    Map<String, Integer> parCreateur;
+
+    // Archives (lues dans leur index, sans décompresser les événements)
+    int archives;
+    int segmentsArchive;
+    long octetsArchive;
+    SortedMap<YearMonth, Integer> archivesParMois = new TreeMap<>();
+
+    // Utilisateurs
+    int utilisateurs;
+    Map<String, Integer> parRole;
+
+    // Système
+    String dossierDonnees;
+    int partitions;
+    int partitionsEnMemoire;
+    String fichierUtilisateurs;
+    int rappelsPlanifies;
+    int rappelsEnvoyes;
+    int ecrituresEnAttente;
+    String persistance;
+
+    Statistiques() {
+    }
+
+    public LocalDateTime getCalculeesLe() { return calculeesLe; }
+
+    public int getEvenements() { return evenements; }
+    public int getAujourdhui() { return aujourdhui; }
+    public int getPasses() { return passes; }
+    public int getFuturs() { return futurs; }
+    public int getAvecRappel() { return avecRappel; }
+    public int getSansRappel() { return evenements - avecRappel; }
+    public int getSeries() { return series; }
+    public SortedMap<YearMonth, Integer> getParMois() { return Collections.unmodifiableSortedMap(parMois); }
+    public Map<String, Integer> getParCreateur() { return Collections.unmodifiableMap(parCreateur); }
+
+    public int getArchives() { return archives; }
+    public int getSegmentsArchive() { return segmentsArchive; }
+    public long getOctetsArchive() { return octetsArchive; }
+    public SortedMap<YearMonth, Integer> getArchivesParMois() { return Collections.unmodifiableSortedMap(archivesParMois); }
+
+    public int getUtilisateurs() { return utilisateurs; }
+    public Map<String, Integer> getParRole() { return Collections.unmodifiableMap(parRole); }
+
+    /**
+     * Nombre d'utilisateurs ayant ce rôle ("ADMIN", "MEDECIN", "INFIRMIERE", "PATIENT", "UTILISATEUR"...)
+     */
+    public int getUtilisateursAvecRole(String role) {
+        return parRole.getOrDefault(role.toUpperCase(), 0);
+    }
+
+    public String getDossierDonnees() { return dossierDonnees; }
+    public int getPartitions() { return partitions; }
+    public int getPartitionsEnMemoire() { return partitionsEnMemoire; }
+    public String getFichierUtilisateurs() { return fichierUtilisateurs; }
+    public int getRappelsPlanifies() { return rappelsPlanifies; }
+    public int getRappelsEnvoyes() { return rappelsEnvoyes; }
+    public int getEcrituresEnAttente() { return ecrituresEnAttente; }
+    public String getPersistance() { return persistance; }
+
+    /**
+     * Résumé texte affiché dans la fenêtre des statistiques
+     */
+    public String formater() {
+        return String.format(
+            "📊 STATISTIQUES MEDISYNS\n" +
+            "=======================\n\n" +
+            "📅 Événements:\n" +
+            "• Totaux: %d événements (dont %d séries)\n" +
+            "• Aujourd'hui: %d\n" +
+            "• Passés: %d\n" +
+            "• À venir: %d\n" +
+            "• Avec notifications: %d\n" +
+            "• 🗄️ Archivés: %d (%d segment(s), %d Ko)\n\n" +
+            "👥 Utilisateurs (%d au total):\n" +
+            "• 👑 Administrateurs: %d\n" +
+            "• 👨‍⚕️ Médecins: %d\n" +
+            "• 👩‍⚕️ Infirmières: %d\n" +
+            "• 👤 Utilisateurs simples: %d\n" +
+            "• 👤 Patients: %d\n\n" +
+            "💾 Système:\n" +
+            "• Dossier de données: %s (%d mois, %d en mémoire)\n" +
+            "• Fichier utilisateurs: %s\n" +
+            "• Rappels planifiés: %d (%d déjà envoyés)\n" +
+            "• Écritures en attente: %d\n" +
+            "%s",
+            evenements, series,
+            aujourdhui,
+            passes,
+            futurs,
+            avecRappel,
+            archives, segmentsArchive, (octetsArchive + 1023) / 1024,
+            utilisateurs,
+            getUtilisateursAvecRole("ADMIN"),
+            getUtilisateursAvecRole("MEDECIN"),
+            getUtilisateursAvecRole("INFIRMIERE"),
+            getUtilisateursAvecRole("UTILISATEUR"),
+            getUtilisateursAvecRole("PATIENT"),
+            dossierDonnees,
+            partitions,
+            partitionsEnMemoire,
+            fichierUtilisateurs,
+            rappelsPlanifies,
+            rappelsEnvoyes,
+            ecrituresEnAttente,
+            persistance
+        );
+    }
+
+    @Override
+    public String toString() {
+        return formater();
+    }
+}
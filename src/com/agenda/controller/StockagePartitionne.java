@@ -0,0 +1,658 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Stockage des événements en partitions mensuelles : un fichier par mois
+ * ({@code 2025-12.bin}, format {@link CodecBinaire}) et un catalogue
+ * identifiant → mois couvrant tous les événements.
+ *
+ * Seules les partitions consultées sont chargées en mémoire. Au-delà de
+ * {@code maxPartitionsEnMemoire}, les moins récemment utilisées sont évincées,
+ * sauf la fenêtre autour du mois courant (rappels), les partitions modifiées
+ * pas encore écrites et celles qui contiennent une série (ses occurrences
+ * peuvent tomber dans n'importe quel mois).
+ *
+ * Le stockage ne garde pas les événements lui-même : le contrôleur les reçoit
+ * au chargement ({@link Residence}) et fournit le contenu d'un mois à l'écriture.
+ *
+ * Une partition illisible n'est jamais considérée comme chargée : son chargement
+ * lève une {@link UncheckedIOException}, à chaque tentative, et aucune écriture n'y
+ * est acceptée (elle écraserait le fichier avec un contenu incomplet).
+ *
+ * Non synchronisé : le contrôleur appelle les méthodes qui chargent, évincent ou
+ * modifient sous son verrou d'écriture. Sous verrou de lecture, seules les consultations
+ * ({@link #sontResidentes}, {@link #marquerAcces}, catalogue, {@link #lireTout}, {@link #instantane})
+ * sont permises.
+ */
+public class StockagePartitionne {
+
+    private static final String CATALOGUE = "catalogue.bin";
+    private static final String EXTENSION = ".bin";
+    private static final String EXTENSION_BACKUP = ".bin.backup";
+
+    // Fenêtre toujours en mémoire autour du mois courant
+    private static final int MOIS_AVANT = 1;
+    private static final int MOIS_APRES = 2;
+
+    /**
+     * Reçoit les événements des partitions chargées et évincées
+     */
+    public interface Residence {
+        void partitionChargee(YearMonth mois, List<Evenement> evenements);
+        void partitionEvincee(YearMonth mois);
+    }
+
+    private final Path dossier;
+    private final int maxPartitionsEnMemoire;
+    private final Residence residence;
+
+    // Catalogue de tous les événements enregistrés
+    private final Map<Integer, YearMonth> moisParId = new HashMap<>();
+    private final NavigableMap<YearMonth, Integer> nombreParMois = new TreeMap<>();
+    // Identifiants des événements récurrents (leur partition reste en mémoire)
+    private final Set<Integer> series = new HashSet<>();
+    private int dernierId;
+
+    // Partitions en mémoire et numéro de leur dernier accès (mis à jour par les lecteurs concurrents)
+    private final Map<YearMonth, Long> residentes = new ConcurrentHashMap<>();
+    private final AtomicLong compteurAcces = new AtomicLong();
+
+    // Partitions modifiées depuis leur dernière écriture, avec le numéro de leur dernière modification
+    private final Map<YearMonth, Long> modifiees = new ConcurrentHashMap<>();
+    private final AtomicLong compteurModifications = new AtomicLong();
+    // Fichiers de partition réécrits (checkpoint, éviction, restauration) : voir Instantane#estCoherent
+    private final AtomicLong compteurEcritures = new AtomicLong();
+
+    // Partitions dont la dernière lecture a échoué, avec le message d'erreur
+    private final Map<YearMonth, String> illisibles = new ConcurrentHashMap<>();
+
+    public StockagePartitionne(String dossier, int maxPartitionsEnMemoire, Residence residence) {
+        this.dossier = Paths.get(dossier);
+        this.maxPartitionsEnMemoire = maxPartitionsEnMemoire;
+        this.residence = residence;
+    }
+
+    // ==================== OUVERTURE ====================
+
+    /**
+     * Lit le catalogue (ou le reconstruit depuis les partitions s'il est illisible).
+     * Retourne false si aucun stockage partitionné n'existe encore.
+     */
+    public boolean ouvrir() throws IOException {
+        if (!Files.isDirectory(dossier)) return false;
+        viderCatalogue();
+        try {
+            lireCatalogue();
+        } catch (IOException e) {
+            System.err.println("Catalogue illisible, reconstruction depuis les partitions: " + e.getMessage());
+            reconstruireCatalogue();
+        }
+        System.out.println("Stockage partitionné: " + moisParId.size() + " événements, " + nombreParMois.size() + " mois");
+        return true;
+    }
+
+    /**
+     * Crée le stockage à partir d'une liste complète (migration d'une ancienne sauvegarde)
+     */
+    public void initialiser(Collection<Evenement> evenements) throws IOException {
+        Files.createDirectories(dossier);
+        viderCatalogue();
+        Map<YearMonth, List<Evenement>> parMois = new TreeMap<>();
+        for (Evenement e : evenements) {
+            parMois.computeIfAbsent(YearMonth.from(e.getDate()), m -> new ArrayList<>()).add(e);
+            cataloguer(e.getId(), YearMonth.from(e.getDate()));
+            if (e.estRecurrent()) series.add(e.getId());
+        }
+        for (Map.Entry<YearMonth, List<Evenement>> entree : parMois.entrySet()) {
+            ecrirePartition(entree.getKey(), entree.getValue());
+        }
+        ecrireCatalogue(new HashMap<>(moisParId), new HashSet<>(series));
+    }
+
+    // ==================== CATALOGUE ====================
+
+    public YearMonth getMois(int id) {
+        return moisParId.get(id);
+    }
+
+    public int getDernierId() {
+        return dernierId;
+    }
+
+    public int getNombreEvenements() {
+        return moisParId.size();
+    }
+
+    /**
+     * Mois des partitions qui contiennent une série
+     */
+    public Set<YearMonth> getMoisSeries() {
+        Set<YearMonth> mois = new HashSet<>();
+        for (int id : series) {
+            YearMonth m = moisParId.get(id);
+            if (m != null) mois.add(m);
+        }
+        return mois;
+    }
+
+    public int getNombrePartitions() {
+        return nombreParMois.size();
+    }
+
+    public int getNombrePartitionsEnMemoire() {
+        return residentes.size();
+    }
+
+    /**
+     * Mois dont la partition n'a pas pu être lue, avec l'erreur rencontrée
+     */
+    public Map<YearMonth, String> getPartitionsIllisibles() {
+        return new TreeMap<>(illisibles);
+    }
+
+    public String getDossier() {
+        return dossier.toString();
+    }
+
+    /**
+     * Enregistre un événement ajouté ou modifié (sa partition, et l'ancienne s'il change de mois,
+     * doivent être chargées)
+     */
+    public void enregistrerEcriture(Evenement e) {
+        YearMonth mois = YearMonth.from(e.getDate());
+        YearMonth ancien = moisParId.get(e.getId());
+        verifierChargee(mois);
+        if (ancien != null) verifierChargee(ancien);
+        if (ancien != null && !ancien.equals(mois)) {
+            decataloguer(e.getId());
+            marquerModifiee(ancien);
+        }
+        cataloguer(e.getId(), mois);
+        if (e.estRecurrent()) {
+            series.add(e.getId());
+        } else {
+            series.remove(e.getId());
+        }
+        marquerModifiee(mois);
+    }
+
+    /**
+     * Enregistre la suppression d'un événement (sa partition doit être chargée)
+     */
+    public void enregistrerSuppression(int id) {
+        YearMonth mois = moisParId.get(id);
+        if (mois == null) return;
+        verifierChargee(mois);
+        decataloguer(id);
+        series.remove(id);
+        marquerModifiee(mois);
+    }
+
+    /**
+     * Refuse une écriture dans une partition absente de la mémoire (illisible, ou jamais chargée)
+     */
+    private void verifierChargee(YearMonth mois) {
+        if (residentes.containsKey(mois)) return;
+        String erreur = illisibles.get(mois);
+        throw new IllegalStateException("Écriture refusée dans la partition " + mois +
+            (erreur != null ? " illisible: " + erreur : " non chargée"));
+    }
+
+    private void cataloguer(int id, YearMonth mois) {
+        if (moisParId.put(id, mois) == null) {
+            nombreParMois.merge(mois, 1, Integer::sum);
+        }
+        dernierId = Math.max(dernierId, id);
+    }
+
+    private YearMonth decataloguer(int id) {
+        YearMonth mois = moisParId.remove(id);
+        if (mois != null) {
+            nombreParMois.computeIfPresent(mois, (m, n) -> n > 1 ? n - 1 : null);
+        }
+        return mois;
+    }
+
+    private void viderCatalogue() {
+        moisParId.clear();
+        nombreParMois.clear();
+        series.clear();
+        residentes.clear();
+        modifiees.clear();
+        illisibles.clear();
+        dernierId = 0;
+    }
+
+    private void marquerModifiee(YearMonth mois) {
+        modifiees.put(mois, compteurModifications.incrementAndGet());
+        marquerAcces(mois);
+    }
+
+    // ==================== CHARGEMENT ====================
+
+    /**
+     * Charge la partition d'un mois si elle n'est pas déjà en mémoire
+     *
+     * @throws UncheckedIOException si la partition ne peut pas être lue ; le mois reste
+     *         absent de la mémoire et le prochain appel relira le fichier
+     */
+    public void assurerCharge(YearMonth mois) {
+        if (residentes.containsKey(mois)) {
+            marquerAcces(mois);
+            return;
+        }
+        List<Evenement> evenements = Collections.emptyList();
+        if (nombreParMois.containsKey(mois)) {
+            evenements = lirePartitionOuEchouer(mois);
+        }
+        residentes.put(mois, compteurAcces.incrementAndGet());
+        residence.partitionChargee(mois, evenements);
+    }
+
+    /**
+     * Indique si toutes ces partitions sont en mémoire (une lecture peut alors se passer du verrou d'écriture)
+     */
+    public boolean sontResidentes(Collection<YearMonth> mois) {
+        for (YearMonth m : mois) {
+            if (!residentes.containsKey(m)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Compte une utilisation récente des partitions en mémoire parmi celles-ci
+     */
+    public void marquerAcces(Collection<YearMonth> mois) {
+        for (YearMonth m : mois) marquerAcces(m);
+    }
+
+    private void marquerAcces(YearMonth mois) {
+        residentes.computeIfPresent(mois, (m, acces) -> compteurAcces.incrementAndGet());
+    }
+
+    public boolean estModifiee(YearMonth mois) {
+        return modifiees.containsKey(mois);
+    }
+
+    /**
+     * Mois couvrant les jours [debut, fin)
+     */
+    public static List<YearMonth> moisEntre(LocalDate debut, LocalDate fin) {
+        List<YearMonth> mois = new ArrayList<>();
+        if (!debut.isBefore(fin)) return mois;
+        YearMonth dernier = YearMonth.from(fin.minusDays(1));
+        for (YearMonth m = YearMonth.from(debut); !m.isAfter(dernier); m = m.plusMonths(1)) {
+            mois.add(m);
+        }
+        return mois;
+    }
+
+    /**
+     * Charge la partition contenant cet événement ; false si l'identifiant est inconnu
+     */
+    public boolean assurerChargePour(int id) {
+        YearMonth mois = moisParId.get(id);
+        if (mois == null) return false;
+        assurerCharge(mois);
+        return true;
+    }
+
+    /**
+     * Charge toutes les partitions couvrant les jours [debut, fin)
+     */
+    public void assurerChargeEntre(LocalDate debut, LocalDate fin) {
+        for (YearMonth mois : moisEntre(debut, fin)) {
+            assurerCharge(mois);
+        }
+    }
+
+    /**
+     * Charge la fenêtre autour du mois courant (rappels à venir) et les partitions des séries.
+     * Une partition illisible n'empêche pas de charger les autres ; la première erreur est levée à la fin.
+     */
+    public void assurerFenetreCourante() {
+        Set<YearMonth> mois = new TreeSet<>(getMoisSeries());
+        YearMonth courant = YearMonth.now();
+        for (int i = -MOIS_AVANT; i <= MOIS_APRES; i++) {
+            mois.add(courant.plusMonths(i));
+        }
+        UncheckedIOException erreur = null;
+        for (YearMonth m : mois) {
+            try {
+                assurerCharge(m);
+            } catch (UncheckedIOException e) {
+                if (erreur == null) erreur = e;
+            }
+        }
+        if (erreur != null) throw erreur;
+    }
+
+    /**
+     * Évince les partitions les moins récemment utilisées au-delà de la limite.
+     * Doit être appelé hors d'une modification en cours : une partition modifiée
+     * n'est jamais évincée avant d'avoir été écrite.
+     */
+    public void evincer() {
+        if (residentes.size() <= maxPartitionsEnMemoire) return;
+        YearMonth courant = YearMonth.now();
+        YearMonth debutFenetre = courant.minusMonths(MOIS_AVANT);
+        YearMonth finFenetre = courant.plusMonths(MOIS_APRES);
+        Set<YearMonth> moisSeries = getMoisSeries();
+
+        // De la moins à la plus récemment utilisée
+        List<Map.Entry<YearMonth, Long>> parAcces = new ArrayList<>(residentes.entrySet());
+        parAcces.sort(Map.Entry.comparingByValue());
+        for (Map.Entry<YearMonth, Long> entree : parAcces) {
+            if (residentes.size() <= maxPartitionsEnMemoire) break;
+            YearMonth mois = entree.getKey();
+            boolean dansFenetre = !mois.isBefore(debutFenetre) && !mois.isAfter(finFenetre);
+            if (dansFenetre || modifiees.containsKey(mois) || moisSeries.contains(mois)) continue;
+            residentes.remove(mois);
+            residence.partitionEvincee(mois);
+        }
+    }
+
+    /**
+     * Tous les événements enregistrés, triés par mois. Les partitions absentes de la
+     * mémoire sont lues sans être conservées : les objets retournés pour ces mois
+     * sont des copies détachées.
+     *
+     * @throws UncheckedIOException si une partition ne peut pas être lue : aucune liste
+     *         incomplète n'est retournée (export, archivage et index en dépendent)
+     */
+    public List<Evenement> lireTout(Function<YearMonth, List<Evenement>> contenuResident) {
+        List<Evenement> tous = new ArrayList<>(moisParId.size());
+        for (YearMonth mois : new ArrayList<>(nombreParMois.keySet())) {
+            if (residentes.containsKey(mois)) {
+                tous.addAll(contenuResident.apply(mois));
+            } else {
+                tous.addAll(lirePartitionOuEchouer(mois));
+            }
+        }
+        return tous;
+    }
+
+    /**
+     * Lecture de tous les événements en deux temps : l'instantané, pris sous verrou, copie le contenu
+     * des partitions en mémoire et le catalogue ; {@link Instantane#lire()} lit ensuite hors verrou
+     * les partitions restées sur disque.
+     */
+    public Instantane instantane(Function<YearMonth, List<Evenement>> contenuResident) {
+        return instantane(contenuResident, nombreParMois.keySet());
+    }
+
+    /**
+     * Instantané des seules partitions jusqu'au mois {@code dernier} inclus
+     */
+    public Instantane instantaneJusquA(Function<YearMonth, List<Evenement>> contenuResident, YearMonth dernier) {
+        return instantane(contenuResident, nombreParMois.headMap(dernier, true).keySet());
+    }
+
+    private Instantane instantane(Function<YearMonth, List<Evenement>> contenuResident, Collection<YearMonth> moisRetenus) {
+        Map<YearMonth, List<Evenement>> partitions = new TreeMap<>();
+        for (YearMonth mois : moisRetenus) {
+            partitions.put(mois, residentes.containsKey(mois) ? new ArrayList<>(contenuResident.apply(mois)) : null);
+        }
+        return new Instantane(partitions, new HashMap<>(moisParId), compteurEcritures.get());
+    }
+
+    /**
+     * Tous les événements à un instant donné. Une partition lue sur disque après coup peut déjà
+     * contenir des modifications postérieures : l'appelant doit rejouer celles faites depuis.
+     */
+    public final class Instantane {
+        // Contenu des partitions en mémoire ; null pour une partition à lire sur disque
+        private final Map<YearMonth, List<Evenement>> partitions;
+        private final Map<Integer, YearMonth> catalogue;
+        private final long ecritures;
+
+        private Instantane(Map<YearMonth, List<Evenement>> partitions, Map<Integer, YearMonth> catalogue,
+                           long ecritures) {
+            this.partitions = partitions;
+            this.catalogue = catalogue;
+            this.ecritures = ecritures;
+        }
+
+        /**
+         * Vrai si aucun fichier de partition n'a été réécrit depuis l'instantané : après {@link #lire()},
+         * les partitions lues sur disque étaient alors dans leur état de l'instantané
+         */
+        public boolean estCoherent() {
+            return compteurEcritures.get() == ecritures;
+        }
+
+        /**
+         * Peut être appelé sans verrou, sur n'importe quel thread
+         *
+         * @throws UncheckedIOException si une partition ne peut pas être lue
+         */
+        public List<Evenement> lire() {
+            List<Evenement> tous = new ArrayList<>(catalogue.size());
+            for (Map.Entry<YearMonth, List<Evenement>> entree : partitions.entrySet()) {
+                YearMonth mois = entree.getKey();
+                if (entree.getValue() != null) {
+                    tous.addAll(entree.getValue());
+                    continue;
+                }
+                try {
+                    List<Evenement> lus = lirePartition(mois);
+                    lus.removeIf(e -> !mois.equals(catalogue.get(e.getId())));
+                    tous.addAll(lus);
+                } catch (IOException e) {
+                    illisibles.put(mois, String.valueOf(e.getMessage()));
+                    throw new UncheckedIOException("Partition " + mois + " illisible", e);
+                }
+            }
+            return tous;
+        }
+    }
+
+    /**
+     * Lit une partition cataloguée ; un échec est retenu dans {@link #getPartitionsIllisibles()}
+     */
+    private List<Evenement> lirePartitionOuEchouer(YearMonth mois) {
+        try {
+            List<Evenement> evenements = lirePartitionCataloguee(mois);
+            illisibles.remove(mois);
+            return evenements;
+        } catch (IOException e) {
+            illisibles.put(mois, String.valueOf(e.getMessage()));
+            throw new UncheckedIOException("Partition " + mois + " illisible", e);
+        }
+    }
+
+    /**
+     * Événements d'une partition que le catalogue y place. Après un arrêt pendant un checkpoint,
+     * une partition pas encore réécrite peut garder l'ancienne version d'un événement déplacé.
+     */
+    private List<Evenement> lirePartitionCataloguee(YearMonth mois) throws IOException {
+        List<Evenement> evenements = lirePartition(mois);
+        evenements.removeIf(e -> !mois.equals(moisParId.get(e.getId())));
+        return evenements;
+    }
+
+    private List<Evenement> lirePartition(YearMonth mois) throws IOException {
+        Path fichier = fichierPartition(mois);
+        if (!Files.exists(fichier)) return new ArrayList<>();
+        try {
+            return CodecBinaire.lireFichier(fichier, CodecBinaire::decoderEvenements);
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    // ==================== ÉCRITURE ====================
+
+    /**
+     * Copie, sur le thread appelant, le contenu des partitions modifiées et du catalogue.
+     * L'écriture ({@link Checkpoint#ecrire()}) peut ensuite se faire sur un autre thread.
+     */
+    public Checkpoint preparerCheckpoint(Function<YearMonth, List<Evenement>> contenuResident) {
+        Map<YearMonth, Long> versions = new HashMap<>(modifiees);
+        Map<YearMonth, List<Evenement>> partitions = new TreeMap<>();
+        for (YearMonth mois : versions.keySet()) {
+            partitions.put(mois, new ArrayList<>(contenuResident.apply(mois)));
+        }
+        return new Checkpoint(versions, partitions, new HashMap<>(moisParId), new HashSet<>(series));
+    }
+
+    /**
+     * Écriture des partitions modifiées et du catalogue à un instant donné
+     */
+    public final class Checkpoint {
+        private final Map<YearMonth, Long> versions;
+        private final Map<YearMonth, List<Evenement>> partitions;
+        private final Map<Integer, YearMonth> catalogue;
+        private final Set<Integer> seriesCatalogue;
+
+        private Checkpoint(Map<YearMonth, Long> versions, Map<YearMonth, List<Evenement>> partitions,
+                           Map<Integer, YearMonth> catalogue, Set<Integer> seriesCatalogue) {
+            this.versions = versions;
+            this.partitions = partitions;
+            this.catalogue = catalogue;
+            this.seriesCatalogue = seriesCatalogue;
+        }
+
+        public int getNombrePartitions() {
+            return partitions.size();
+        }
+
+        public void ecrire() throws IOException {
+            Files.createDirectories(dossier);
+            for (Map.Entry<YearMonth, List<Evenement>> entree : partitions.entrySet()) {
+                ecrirePartition(entree.getKey(), entree.getValue());
+            }
+            ecrireCatalogue(catalogue, seriesCatalogue);
+            // Une partition modifiée de nouveau entre-temps reste à écrire
+            for (Map.Entry<YearMonth, Long> entree : versions.entrySet()) {
+                modifiees.remove(entree.getKey(), entree.getValue());
+            }
+        }
+    }
+
+    /**
+     * Écrit une partition (remplacement atomique) ; la version précédente devient son backup
+     */
+    private void ecrirePartition(YearMonth mois, List<Evenement> evenements) throws IOException {
+        compteurEcritures.incrementAndGet();
+        Path fichier = fichierPartition(mois);
+        if (Files.exists(fichier)) {
+            Files.copy(fichier, dossier.resolve(mois + EXTENSION_BACKUP), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (evenements.isEmpty()) {
+            Files.deleteIfExists(fichier);
+            return;
+        }
+        remplacerAtomiquement(fichier, CodecBinaire.encoderEvenements(evenements));
+    }
+
+    /**
+     * Paires (identifiant, mois), puis les identifiants des séries (absents d'un ancien catalogue)
+     */
+    private void ecrireCatalogue(Map<Integer, YearMonth> catalogue, Set<Integer> idsSeries) throws IOException {
+        ByteArrayOutputStream tampon = new ByteArrayOutputStream(catalogue.size() * 8 + idsSeries.size() * 4 + 8);
+        try (DataOutputStream out = new DataOutputStream(tampon)) {
+            out.writeInt(catalogue.size());
+            for (Map.Entry<Integer, YearMonth> entree : catalogue.entrySet()) {
+                out.writeInt(entree.getKey());
+                out.writeInt(entree.getValue().getYear() * 12 + entree.getValue().getMonthValue() - 1);
+            }
+            out.writeInt(idsSeries.size());
+            for (int id : idsSeries) out.writeInt(id);
+        }
+        remplacerAtomiquement(dossier.resolve(CATALOGUE), tampon.toByteArray());
+    }
+
+    private void lireCatalogue() throws IOException {
+        Path fichier = dossier.resolve(CATALOGUE);
+        if (!Files.exists(fichier)) throw new IOException("catalogue absent");
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(fichier)))) {
+            int nombre = in.readInt();
+            for (int i = 0; i < nombre; i++) {
+                int id = in.readInt();
+                int mois = in.readInt();
+                cataloguer(id, YearMonth.of(mois / 12, mois % 12 + 1));
+            }
+            if (in.available() > 0) {
+                int nombreSeries = in.readInt();
+                for (int i = 0; i < nombreSeries; i++) {
+                    int id = in.readInt();
+                    if (moisParId.containsKey(id)) series.add(id);
+                }
+            }
+        }
+    }
+
+    private void reconstruireCatalogue() throws IOException {
+        viderCatalogue();
+        try (Stream<Path> fichiers = Files.list(dossier)) {
+            for (Path fichier : (Iterable<Path>) fichiers::iterator) {
+                YearMonth mois = moisDuFichier(fichier, EXTENSION);
+                if (mois == null) continue;
+                for (Evenement e : lirePartition(mois)) {
+                    cataloguer(e.getId(), mois);
+                    if (e.estRecurrent()) series.add(e.getId());
+                }
+            }
+        }
+        ecrireCatalogue(new HashMap<>(moisParId), new HashSet<>(series));
+    }
+
+    /**
+     * Remplace chaque partition par sa version précédente puis reconstruit le catalogue.
+     * Les partitions en mémoire sont oubliées : le contrôleur doit les recharger.
+     */
+    public int restaurerBackups() throws IOException {
+        int restaurees = 0;
+        if (Files.isDirectory(dossier)) {
+            try (Stream<Path> fichiers = Files.list(dossier)) {
+                for (Path backup : (Iterable<Path>) fichiers::iterator) {
+                    YearMonth mois = moisDuFichier(backup, EXTENSION_BACKUP);
+                    if (mois == null) continue;
+                    compteurEcritures.incrementAndGet();
+                    Files.copy(backup, fichierPartition(mois), StandardCopyOption.REPLACE_EXISTING);
+                    restaurees++;
+                }
+            }
+        }
+        if (restaurees > 0) {
+            reconstruireCatalogue();
+        }
+        return restaurees;
+    }
+
+    private Path fichierPartition(YearMonth mois) {
+        return dossier.resolve(mois + EXTENSION);
+    }
+
+    private static YearMonth moisDuFichier(Path fichier, String extension) {
+        String nom = fichier.getFileName().toString();
+        if (!nom.endsWith(extension) || nom.equals(CATALOGUE)) return null;
+        try {
+            return YearMonth.parse(nom.substring(0, nom.length() - extension.length()));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void remplacerAtomiquement(Path fichier, byte[] contenu) throws IOException {
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        Files.write(temporaire, contenu);
+        try {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
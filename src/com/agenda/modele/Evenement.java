@@ -2,12 +2,17 @@ package com.agenda.modele;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Evenement implements Serializable {
     private static final long serialVersionUID = 1L;
+    // Durée des événements créés sans durée (anciennes sauvegardes) : un créneau d'une heure
+    public static final int DUREE_PAR_DEFAUT = 60;
     
+    private int id; // Identifiant unique attribué par le contrôleur (0 = pas encore attribué)
     private String titre;
     private String description;
     private LocalDate date;
@@ -15,7 +20,11 @@ public class Evenement implements Serializable {
     private String responsable;
     private List<String> participants;
     private int notificationBeforeMinutes = 0;
+    private int dureeMinutes = DUREE_PAR_DEFAUT;
     private String createurUsername; // Nouveau: l'utilisateur qui a créé l'événement
+    private Recurrence recurrence; // null = événement unique ; sinon la date est celle de la première occurrence
+    private transient boolean occurrence; // Copie calculée d'une série pour un jour donné
+    private transient boolean archive; // Lu dans les archives : consultation seule
 
     public Evenement(String titre, String description, LocalDate date, LocalTime heure, 
                     String responsable, List<String> participants, String createurUsername) {
@@ -38,6 +47,7 @@ public class Evenement implements Serializable {
     }
 
     // Getters
+    public int getId() { return id; }
     public String getTitre() { return titre; }
     public String getDescription() { return description; }
     public LocalDate getDate() { return date; }
@@ -47,6 +57,7 @@ public class Evenement implements Serializable {
     public String getCreateurUsername() { return createurUsername; }
 
     // Setters
+    public void setId(int id) { this.id = id; }
     public void setTitre(String titre) { this.titre = titre; }
     public void setDescription(String description) { this.description = description; }
     public void setDate(LocalDate date) { this.date = date; }
@@ -58,6 +69,75 @@ public class Evenement implements Serializable {
     public int getNotificationBeforeMinutes() { return notificationBeforeMinutes; }
     public void setNotificationBeforeMinutes(int minutes) { this.notificationBeforeMinutes = minutes; }
 
+    // Durée en minutes (0 dans une ancienne sauvegarde : durée par défaut)
+    public int getDureeMinutes() { return dureeMinutes > 0 ? dureeMinutes : DUREE_PAR_DEFAUT; }
+    public void setDureeMinutes(int minutes) { this.dureeMinutes = minutes; }
+
+    public Recurrence getRecurrence() { return recurrence; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
+    public boolean estRecurrent() { return recurrence != null; }
+    public boolean estOccurrence() { return occurrence; }
+    public boolean estArchive() { return archive; }
+    public void marquerArchive() { this.archive = true; }
+
+    /**
+     * Copie indépendante (règle de répétition comprise), à modifier avant de la réenregistrer
+     */
+    public Evenement copie() {
+        Evenement copie = new Evenement(titre, description, date, heure, responsable, participants, createurUsername);
+        copie.id = id;
+        copie.notificationBeforeMinutes = notificationBeforeMinutes;
+        copie.dureeMinutes = dureeMinutes;
+        copie.recurrence = recurrence != null ? new Recurrence(recurrence) : null;
+        return copie;
+    }
+
+    /**
+     * Copie de l'événement d'une série pour le jour d'une de ses occurrences (même identifiant)
+     */
+    public Evenement occurrenceLe(LocalDate jour) {
+        Evenement copie = new Evenement(titre, description, jour, heure, responsable, participants, createurUsername);
+        copie.id = id;
+        copie.notificationBeforeMinutes = notificationBeforeMinutes;
+        copie.dureeMinutes = dureeMinutes;
+        copie.recurrence = recurrence;
+        copie.occurrence = true;
+        return copie;
+    }
+
+    /**
+     * Occurrences qui commencent dans [debut, fin) : l'événement lui-même s'il est unique,
+     * sinon une copie par jour de la série dans la période
+     */
+    public List<Evenement> occurrencesEntre(LocalDateTime debut, LocalDateTime fin) {
+        List<Evenement> resultat = new ArrayList<>();
+        if (recurrence == null) {
+            LocalDateTime d = getDebut();
+            if (!d.isBefore(debut) && d.isBefore(fin)) resultat.add(this);
+            return resultat;
+        }
+        for (LocalDate jour : recurrence.occurrencesEntre(date, debut.toLocalDate(), fin.toLocalDate().plusDays(1))) {
+            LocalDateTime d = LocalDateTime.of(jour, heure);
+            if (!d.isBefore(debut) && d.isBefore(fin)) resultat.add(occurrenceLe(jour));
+        }
+        return resultat;
+    }
+
+    /**
+     * Début de la première occurrence après {@code instant} (exclu), ou null s'il n'y en a plus
+     */
+    public LocalDateTime prochainDebut(LocalDateTime instant) {
+        if (recurrence == null) return getDebut().isAfter(instant) ? getDebut() : null;
+        LocalDate jour = recurrence.prochaine(date, instant.toLocalDate());
+        if (jour != null && !LocalDateTime.of(jour, heure).isAfter(instant)) {
+            jour = recurrence.prochaine(date, jour.plusDays(1));
+        }
+        return jour != null ? LocalDateTime.of(jour, heure) : null;
+    }
+
+    public LocalDateTime getDebut() { return LocalDateTime.of(date, heure); }
+    public LocalDateTime getFin() { return getDebut().plusMinutes(getDureeMinutes()); }
+
     // Méthode pour vérifier les permissions
     public boolean peutModifier(String utilisateurUsername, Utilisateur utilisateur) {
         if (utilisateur == null) return false;
@@ -0,0 +1,219 @@
+package com.agenda.modele;
+
+import java.io.Serializable;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Règle de répétition d'un événement : tous les N jours, toutes les N semaines (certains jours),
+ * ou tous les N mois (même jour du mois), jusqu'à une date ou pour un nombre d'occurrences,
+ * avec des dates exclues.
+ *
+ * Seule la règle est enregistrée : les dates sont calculées à la demande pour une période,
+ * en sautant directement à la période quand la série n'est pas limitée en nombre.
+ */
+public class Recurrence implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public enum Frequence { QUOTIDIENNE, HEBDOMADAIRE, MENSUELLE }
+
+    // Au-delà, une période sans occurrence possible (29 février...) arrête le calcul
+    private static final int MAX_PERIODES_VIDES = 100;
+
+    private Frequence frequence;
+    private int intervalle = 1;
+    private Set<DayOfWeek> jours = EnumSet.noneOf(DayOfWeek.class);
+    private LocalDate jusquAu;          // inclus ; null = sans date de fin
+    private int nombre;                 // 0 = sans limite de nombre
+    private Set<LocalDate> exceptions = new TreeSet<>();
+
+    public Recurrence(Frequence frequence, int intervalle) {
+        this.frequence = frequence;
+        this.intervalle = Math.max(1, intervalle);
+    }
+
+    public Recurrence(Recurrence autre) {
+        this(autre.frequence, autre.intervalle);
+        this.jours = autre.jours.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(autre.jours);
+        this.jusquAu = autre.jusquAu;
+        this.nombre = autre.nombre;
+        this.exceptions = new TreeSet<>(autre.exceptions);
+    }
+
+    // Getters
+    public Frequence getFrequence() { return frequence; }
+    public int getIntervalle() { return intervalle; }
+    public Set<DayOfWeek> getJours() { return jours; }
+    public LocalDate getJusquAu() { return jusquAu; }
+    public int getNombre() { return nombre; }
+    public Set<LocalDate> getExceptions() { return exceptions; }
+
+    // Setters
+    public void setJours(Set<DayOfWeek> jours) {
+        this.jours = jours == null || jours.isEmpty() ? EnumSet.noneOf(DayOfWeek.class) : EnumSet.copyOf(jours);
+    }
+    public void setJusquAu(LocalDate jusquAu) { this.jusquAu = jusquAu; }
+    public void setNombre(int nombre) { this.nombre = Math.max(0, nombre); }
+    public void ajouterException(LocalDate jour) { exceptions.add(jour); }
+
+    // ==================== OCCURRENCES ====================
+
+    /**
+     * Dates des occurrences dans [de, a) d'une série commençant le {@code premiere}, exceptions exclues
+     */
+    public List<LocalDate> occurrencesEntre(LocalDate premiere, LocalDate de, LocalDate a) {
+        List<LocalDate> resultat = new ArrayList<>();
+        if (!de.isBefore(a)) return resultat;
+        parcourir(premiere, de, jour -> {
+            if (!jour.isBefore(a)) return false;
+            if (!jour.isBefore(de) && !exceptions.contains(jour)) resultat.add(jour);
+            return true;
+        });
+        return resultat;
+    }
+
+    /**
+     * Première occurrence à partir du jour {@code aPartirDe} inclus, ou null si la série est terminée
+     */
+    public LocalDate prochaine(LocalDate premiere, LocalDate aPartirDe) {
+        LocalDate[] trouvee = new LocalDate[1];
+        parcourir(premiere, aPartirDe, jour -> {
+            if (jour.isBefore(aPartirDe) || exceptions.contains(jour)) return true;
+            trouvee[0] = jour;
+            return false;
+        });
+        return trouvee[0];
+    }
+
+    /**
+     * Dernier jour où la série peut avoir lieu (null si elle est sans fin)
+     */
+    public LocalDate derniere(LocalDate premiere) {
+        if (nombre == 0) return jusquAu;
+        LocalDate[] derniere = new LocalDate[1];
+        parcourir(premiere, premiere, jour -> {
+            derniere[0] = jour;
+            return true;
+        });
+        return derniere[0];
+    }
+
+    private interface Visiteur {
+        boolean jour(LocalDate jour); // false pour arrêter
+    }
+
+    /**
+     * Énumère les dates générées par la règle, dans l'ordre, à partir de la période contenant
+     * {@code depuis} (ou de la première si la série est limitée en nombre : le compte part du début).
+     * Les exceptions sont générées (elles comptent dans le nombre) et filtrées par le visiteur.
+     */
+    private void parcourir(LocalDate premiere, LocalDate depuis, Visiteur visiteur) {
+        long periode = 0;
+        if (nombre == 0 && depuis.isAfter(premiere)) {
+            periode = Math.floorDiv(ecart(premiere, depuis), intervalle);
+        }
+        int generees = 0;
+        int periodesVides = 0;
+        while (periodesVides < MAX_PERIODES_VIDES) {
+            List<LocalDate> jours = joursDeLaPeriode(premiere, periode * intervalle);
+            periodesVides = jours.isEmpty() ? periodesVides + 1 : 0;
+            for (LocalDate jour : jours) {
+                if (jusquAu != null && jour.isAfter(jusquAu)) return;
+                if (nombre > 0 && generees >= nombre) return;
+                generees++;
+                if (!visiteur.jour(jour)) return;
+            }
+            periode++;
+        }
+    }
+
+    /**
+     * Nombre d'unités (jours, semaines ou mois selon la fréquence) entre le début de la série et ce jour
+     */
+    private long ecart(LocalDate premiere, LocalDate jour) {
+        switch (frequence) {
+            case QUOTIDIENNE:
+                return ChronoUnit.DAYS.between(premiere, jour);
+            case HEBDOMADAIRE:
+                return ChronoUnit.WEEKS.between(lundi(premiere), lundi(jour));
+            default:
+                return ChronoUnit.MONTHS.between(YearMonth.from(premiere), YearMonth.from(jour));
+        }
+    }
+
+    private List<LocalDate> joursDeLaPeriode(LocalDate premiere, long decalage) {
+        List<LocalDate> resultat = new ArrayList<>(1);
+        switch (frequence) {
+            case QUOTIDIENNE:
+                resultat.add(premiere.plusDays(decalage));
+                break;
+            case HEBDOMADAIRE: {
+                LocalDate lundi = lundi(premiere).plusWeeks(decalage);
+                if (jours.isEmpty()) {
+                    resultat.add(lundi.plusDays(premiere.getDayOfWeek().getValue() - 1));
+                } else {
+                    for (DayOfWeek j : jours) {
+                        LocalDate jour = lundi.plusDays(j.getValue() - 1);
+                        if (!jour.isBefore(premiere)) resultat.add(jour);
+                    }
+                }
+                break;
+            }
+            default: {
+                // Les mois trop courts pour le jour de la série sont sautés
+                YearMonth mois = YearMonth.from(premiere).plusMonths(decalage);
+                if (mois.isValidDay(premiere.getDayOfMonth())) resultat.add(mois.atDay(premiere.getDayOfMonth()));
+            }
+        }
+        return resultat;
+    }
+
+    private static LocalDate lundi(LocalDate jour) {
+        return jour.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // ==================== AFFICHAGE ====================
+
+    /**
+     * Résumé lisible, par exemple « Toutes les 2 semaines (lun., jeu.) jusqu'au 30/06/2026 »
+     */
+    public String getDescription() {
+        StringBuilder sb = new StringBuilder();
+        switch (frequence) {
+            case QUOTIDIENNE:
+                sb.append(intervalle == 1 ? "Tous les jours" : "Tous les " + intervalle + " jours");
+                break;
+            case HEBDOMADAIRE:
+                sb.append(intervalle == 1 ? "Toutes les semaines" : "Toutes les " + intervalle + " semaines");
+                if (!jours.isEmpty()) {
+                    List<String> noms = new ArrayList<>();
+                    for (DayOfWeek j : jours) noms.add(j.getDisplayName(TextStyle.SHORT, Locale.FRENCH));
+                    sb.append(" (").append(String.join(", ", noms)).append(")");
+                }
+                break;
+            default:
+                sb.append(intervalle == 1 ? "Tous les mois" : "Tous les " + intervalle + " mois");
+        }
+        if (jusquAu != null) {
+            sb.append(String.format(" jusqu'au %02d/%02d/%d", jusquAu.getDayOfMonth(), jusquAu.getMonthValue(), jusquAu.getYear()));
+        }
+        if (nombre > 0) sb.append(", ").append(nombre).append(" fois");
+        if (!exceptions.isEmpty()) sb.append(" (").append(exceptions.size()).append(" exclue(s))");
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getDescription();
+    }
+}
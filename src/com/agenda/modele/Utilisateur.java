@@ -48,6 +48,27 @@ public class Utilisateur implements Serializable {
         }
     }
 
+    /**
+     * Reconstruit un utilisateur enregistré, avec ses statistiques
+     */
+    public Utilisateur(String username, String nomComplet, String role, String email,
+                      LocalDate dateInscription, List<String> specialites, String telephone, String service,
+                      String avatarColor, int nombreEvenementsCrees, int nombreEvenementsPartages,
+                      LocalDate dernierAcces) {
+        this.username = username;
+        this.nomComplet = nomComplet;
+        this.role = role;
+        this.email = email;
+        this.dateInscription = dateInscription;
+        this.specialites = specialites != null ? specialites : new ArrayList<>();
+        this.telephone = telephone;
+        this.service = service;
+        this.avatarColor = avatarColor;
+        this.nombreEvenementsCrees = nombreEvenementsCrees;
+        this.nombreEvenementsPartages = nombreEvenementsPartages;
+        this.dernierAcces = dernierAcces;
+    }
+
     public String getUsername() { return username; }
     public String getNomComplet() { return nomComplet; }
     public String getRole() { return role; }
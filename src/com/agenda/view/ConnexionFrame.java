@@ -18,6 +18,8 @@ public class ConnexionFrame extends JFrame {
     private JPasswordField passwordField;
     private JLabel messageLabel;
     private JButton loginButton;
+    // Lecture de users.json hors de l'EDT ; une nouvelle tentative remplace la précédente
+    private final RequeteAsynchrone<JsonManager.UserJson> authentification = new RequeteAsynchrone<>("authentification");
     
     // Couleurs du theme
     private static final Color PRIMARY_COLOR = new Color(102, 51, 153);
@@ -270,9 +272,15 @@ public class ConnexionFrame extends JFrame {
         loginButton.setText("Connexion...");
         messageLabel.setText(" ");
         
-        // Authentification via users.json
-        JsonManager.UserJson userJson = JsonManager.authentifier(email, password);
-        
+        // Authentification via users.json, lu en arrière-plan
+        authentification.lancer(() -> JsonManager.authentifier(email, password), this::terminerConnexion, e -> {
+            showError("Erreur de lecture des utilisateurs");
+            loginButton.setEnabled(true);
+            loginButton.setText("Se connecter");
+        });
+    }
+    
+    private void terminerConnexion(JsonManager.UserJson userJson) {
         if (userJson != null) {
             // Succes
             showSuccess("Connexion réussie !");
@@ -348,6 +356,9 @@ public class ConnexionFrame extends JFrame {
     }
     
     public void showFrame() {
+        authentification.annuler();
+        loginButton.setEnabled(true);
+        loginButton.setText("Se connecter");
         emailField.setText("");
         passwordField.setText("");
         messageLabel.setText(" ");
@@ -1,17 +1,23 @@
 package com.agenda.view;
 
 import com.agenda.controller.AgendaController;
+import com.agenda.controller.Conflit;
 import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
 import javax.swing.*;
 import javax.swing.border.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.RoundRectangle2D;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 public class EventDialog extends JDialog {
 
@@ -20,10 +26,27 @@ public class EventDialog extends JDialog {
     private JSpinner dateSpinner;
     private JComboBox<Integer> heureCombo, minuteCombo;
     private JComboBox<Integer> notifCombo;
+    private JComboBox<Integer> dureeCombo;
+    private JButton creneauBtn;
+    private JComboBox<String> repetitionCombo, finRepetitionCombo;
+    private JSpinner intervalleSpinner, jusquAuSpinner, nombreSpinner;
+    private JToggleButton[] joursToggles;
+    private JPanel joursPanel, finPanel;
     private Evenement evenementOriginal;
     private JButton saveBtn;
 
     private final AgendaController controller;
+    // Créneaux libres et conflits parcourent les agendas (partitions sur disque comprises) : hors de l'EDT
+    private final RequeteAsynchrone<List<LocalDateTime>> rechercheCreneaux =
+            new RequeteAsynchrone<List<LocalDateTime>>("recherche de créneaux").setIndicateur(enCours -> {
+                creneauBtn.setEnabled(!enCours);
+                indiquerAttente(enCours);
+            });
+    private final RequeteAsynchrone<Verification> verificationConflits =
+            new RequeteAsynchrone<Verification>("vérification des conflits").setIndicateur(enCours -> {
+                saveBtn.setEnabled(!enCours);
+                indiquerAttente(enCours);
+            });
     private String[] participantsList = {"Patient", "Parent / Accompagnant", "Assistante Samira", "Infirmière Lina",
             "Dr. Ahmed", "Dr. Salima", "Technicien Radio", "Secrétaire Karima", "Stagiaire",
             "Équipe médicale", "Visiteur"};
@@ -40,6 +63,10 @@ public class EventDialog extends JDialog {
     private static final Color ACCENT = new Color(236, 72, 153);
     private static final Color SUCCESS = new Color(34, 197, 94);
 
+    // Réponses de choisirPortee pour un événement récurrent
+    public static final int PORTEE_OCCURRENCE = 0;
+    public static final int PORTEE_SERIE = 1;
+
     public EventDialog(JFrame parent, AgendaController controller, LocalDate date) {
         super(parent, "", true);
         this.controller = controller;
@@ -201,6 +228,14 @@ public class EventDialog extends JDialog {
         content.add(createDateTimeCard(date));
         content.add(Box.createVerticalStrut(12));
 
+        // Durée
+        content.add(createDureeCard());
+        content.add(Box.createVerticalStrut(12));
+
+        // Répétition
+        content.add(createRepetitionCard());
+        content.add(Box.createVerticalStrut(12));
+
         // Notification
         content.add(createNotificationCard());
 
@@ -527,6 +562,289 @@ public class EventDialog extends JDialog {
         return card;
     }
 
+    private JPanel createDureeCard() {
+        JPanel card = new JPanel();
+        card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
+        card.setBackground(CARD_BG);
+        card.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createCompoundBorder(
+                new LineBorder(new Color(139, 92, 246, 30), 1, true),
+                BorderFactory.createEmptyBorder(1, 1, 1, 1)
+            ),
+            new EmptyBorder(16, 18, 16, 18)
+        ));
+        card.setMaximumSize(new Dimension(Integer.MAX_VALUE, 95));
+
+        JLabel titleLabel = new JLabel("⏳ Durée *");
+        titleLabel.setFont(new Font("Segoe UI Semibold", Font.PLAIN, 13));
+        titleLabel.setForeground(PRIMARY_DARK);
+        titleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        card.add(titleLabel);
+        card.add(Box.createVerticalStrut(12));
+
+        dureeCombo = new JComboBox<>();
+        for (int minutes : new int[]{15, 30, 45, 60, 90, 120, 180, 240}) dureeCombo.addItem(minutes);
+        dureeCombo.setSelectedItem(Evenement.DUREE_PAR_DEFAUT);
+        dureeCombo.setPreferredSize(new Dimension(200, 38));
+        dureeCombo.setMaximumSize(new Dimension(250, 38));
+        dureeCombo.setAlignmentX(Component.LEFT_ALIGNMENT);
+        styleComboBox(dureeCombo);
+
+        dureeCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                setFont(new Font("Segoe UI", Font.PLAIN, 13));
+                setText("⏳ " + libelleDuree((Integer) value));
+                if (isSelected) {
+                    setBackground(PRIMARY_LIGHT);
+                    setForeground(Color.WHITE);
+                }
+                return this;
+            }
+        });
+
+        creneauBtn = new JButton("🔎 Trouver un créneau");
+        creneauBtn.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        creneauBtn.setForeground(PRIMARY_DARK);
+        creneauBtn.setBackground(Color.WHITE);
+        creneauBtn.setBorder(BorderFactory.createCompoundBorder(
+            new LineBorder(BORDER_COLOR, 1, true),
+            new EmptyBorder(8, 14, 8, 14)
+        ));
+        creneauBtn.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        creneauBtn.setFocusPainted(false);
+        creneauBtn.setToolTipText("Premiers créneaux où le responsable et les participants sont libres");
+        creneauBtn.addActionListener(e -> proposerCreneaux());
+
+        JPanel rowPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 12, 0));
+        rowPanel.setBackground(CARD_BG);
+        rowPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        rowPanel.add(dureeCombo);
+        rowPanel.add(creneauBtn);
+        card.add(rowPanel);
+
+        return card;
+    }
+
+    /**
+     * Propose les premiers créneaux libres pour le responsable et les participants cochés,
+     * sur les deux semaines à partir de la date choisie ; en choisir un remplit la date et l'heure
+     */
+    private void proposerCreneaux() {
+        List<String> personnes = new ArrayList<>();
+        if (!respField.getText().trim().isEmpty()) personnes.add(respField.getText().trim());
+        for (int i = 0; i < participantCheckboxes.length; i++) {
+            if (participantCheckboxes[i].isSelected()) personnes.add(participantsList[i]);
+        }
+        if (personnes.isEmpty()) {
+            showModernAlert("Créneau libre", "Indiquez le responsable ou au moins un participant.");
+            return;
+        }
+
+        LocalDate jour = new java.sql.Date(((java.util.Date) dateSpinner.getValue()).getTime()).toLocalDate();
+        LocalDateTime debut = jour.atStartOfDay();
+        if (debut.isBefore(LocalDateTime.now())) debut = LocalDateTime.now();
+        int duree = (int) dureeCombo.getSelectedItem();
+        // L'événement modifié ne bloque pas son propre créneau
+        int exclu = evenementOriginal != null ? evenementOriginal.getId() : 0;
+        LocalDateTime depuis = debut;
+        rechercheCreneaux.lancer(() -> controller.trouverCreneauxLibres(personnes, duree, depuis, depuis.plusDays(14),
+                AgendaController.HEURE_OUVERTURE, AgendaController.HEURE_FERMETURE, 8, true, exclu),
+                creneaux -> afficherCreneaux(creneaux, duree),
+                e -> showModernAlert("Créneau libre", "Recherche impossible: " + e.getMessage()));
+    }
+
+    private void afficherCreneaux(List<LocalDateTime> creneaux, int duree) {
+        JPopupMenu menu = new JPopupMenu();
+        if (creneaux.isEmpty()) {
+            JMenuItem aucun = new JMenuItem("Aucun créneau libre sur deux semaines");
+            aucun.setEnabled(false);
+            menu.add(aucun);
+        }
+        DateTimeFormatter jourFmt = DateTimeFormatter.ofPattern("EEE dd/MM", java.util.Locale.FRENCH);
+        DateTimeFormatter heureFmt = DateTimeFormatter.ofPattern("HH:mm");
+        for (LocalDateTime creneau : creneaux) {
+            JMenuItem item = new JMenuItem("📅 " + creneau.format(jourFmt) + "  ⏰ " + creneau.format(heureFmt)
+                    + " – " + creneau.plusMinutes(duree).format(heureFmt));
+            item.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+            item.addActionListener(e -> {
+                dateSpinner.setValue(java.sql.Date.valueOf(creneau.toLocalDate()));
+                heureCombo.setSelectedItem(creneau.getHour());
+                minuteCombo.setSelectedItem(creneau.getMinute());
+            });
+            menu.add(item);
+        }
+        menu.show(creneauBtn, 0, creneauBtn.getHeight());
+    }
+
+    private static String libelleDuree(int minutes) {
+        if (minutes < 60) return minutes + " minutes";
+        if (minutes % 60 == 0) return minutes / 60 + (minutes == 60 ? " heure" : " heures");
+        return minutes / 60 + " h " + minutes % 60;
+    }
+
+    private JPanel createRepetitionCard() {
+        JPanel card = new JPanel();
+        card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
+        card.setBackground(CARD_BG);
+        card.setBorder(BorderFactory.createCompoundBorder(
+            BorderFactory.createCompoundBorder(
+                new LineBorder(new Color(139, 92, 246, 30), 1, true),
+                BorderFactory.createEmptyBorder(1, 1, 1, 1)
+            ),
+            new EmptyBorder(16, 18, 16, 18)
+        ));
+        card.setMaximumSize(new Dimension(Integer.MAX_VALUE, 190));
+
+        JLabel titleLabel = new JLabel("🔁 Répétition");
+        titleLabel.setFont(new Font("Segoe UI Semibold", Font.PLAIN, 13));
+        titleLabel.setForeground(PRIMARY_DARK);
+        titleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
+
+        card.add(titleLabel);
+        card.add(Box.createVerticalStrut(12));
+
+        // Fréquence et intervalle
+        repetitionCombo = new JComboBox<>(new String[]{"Ne se répète pas", "Chaque jour", "Chaque semaine", "Chaque mois"});
+        styleComboBox(repetitionCombo);
+        repetitionCombo.setPreferredSize(new Dimension(180, 38));
+
+        intervalleSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 52, 1));
+        intervalleSpinner.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        intervalleSpinner.setPreferredSize(new Dimension(60, 38));
+        intervalleSpinner.setToolTipText("Tous les N jours, semaines ou mois");
+
+        JPanel rowPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        rowPanel.setBackground(CARD_BG);
+        rowPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        rowPanel.add(repetitionCombo);
+        JLabel tousLesLabel = new JLabel("tous les");
+        tousLesLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        tousLesLabel.setForeground(TEXT_SECONDARY);
+        rowPanel.add(tousLesLabel);
+        rowPanel.add(intervalleSpinner);
+        card.add(rowPanel);
+
+        // Jours de la semaine (répétition hebdomadaire)
+        joursPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 0));
+        joursPanel.setBackground(CARD_BG);
+        joursPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        String[] initiales = {"L", "M", "M", "J", "V", "S", "D"};
+        joursToggles = new JToggleButton[7];
+        for (int i = 0; i < 7; i++) {
+            JToggleButton jour = new JToggleButton(initiales[i]);
+            jour.setFont(new Font("Segoe UI", Font.BOLD, 12));
+            jour.setFocusPainted(false);
+            jour.setMargin(new Insets(4, 8, 4, 8));
+            jour.setToolTipText(DayOfWeek.of(i + 1).getDisplayName(java.time.format.TextStyle.FULL, java.util.Locale.FRENCH));
+            joursToggles[i] = jour;
+            joursPanel.add(jour);
+        }
+        card.add(Box.createVerticalStrut(8));
+        card.add(joursPanel);
+
+        // Fin de la série
+        finRepetitionCombo = new JComboBox<>(new String[]{"Sans fin", "Jusqu'au", "Nombre de fois"});
+        styleComboBox(finRepetitionCombo);
+        finRepetitionCombo.setPreferredSize(new Dimension(150, 38));
+
+        jusquAuSpinner = new JSpinner(new SpinnerDateModel());
+        jusquAuSpinner.setEditor(new JSpinner.DateEditor(jusquAuSpinner, "dd/MM/yyyy"));
+        jusquAuSpinner.setValue(java.sql.Date.valueOf(LocalDate.now().plusMonths(3)));
+        jusquAuSpinner.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        jusquAuSpinner.setPreferredSize(new Dimension(130, 38));
+
+        nombreSpinner = new JSpinner(new SpinnerNumberModel(10, 1, 999, 1));
+        nombreSpinner.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        nombreSpinner.setPreferredSize(new Dimension(70, 38));
+
+        finPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 0));
+        finPanel.setBackground(CARD_BG);
+        finPanel.setAlignmentX(Component.LEFT_ALIGNMENT);
+        finPanel.add(finRepetitionCombo);
+        finPanel.add(jusquAuSpinner);
+        finPanel.add(nombreSpinner);
+        card.add(Box.createVerticalStrut(8));
+        card.add(finPanel);
+
+        repetitionCombo.addActionListener(e -> majRepetition());
+        finRepetitionCombo.addActionListener(e -> majRepetition());
+        majRepetition();
+
+        return card;
+    }
+
+    /**
+     * N'affiche que les réglages utiles à la fréquence et à la fin choisies
+     */
+    private void majRepetition() {
+        int frequence = repetitionCombo.getSelectedIndex();
+        boolean repete = frequence > 0;
+        intervalleSpinner.setEnabled(repete && repetitionCombo.isEnabled());
+        joursPanel.setVisible(frequence == 2);
+        finPanel.setVisible(repete);
+        jusquAuSpinner.setVisible(finRepetitionCombo.getSelectedIndex() == 1);
+        nombreSpinner.setVisible(finRepetitionCombo.getSelectedIndex() == 2);
+        revalidate();
+    }
+
+    /**
+     * Règle saisie dans la carte Répétition (null si l'événement ne se répète pas)
+     */
+    private Recurrence construireRecurrence(LocalDate premiere) {
+        int frequence = repetitionCombo.getSelectedIndex();
+        if (frequence == 0) return null;
+        Recurrence r = new Recurrence(Recurrence.Frequence.values()[frequence - 1], (int) intervalleSpinner.getValue());
+        if (frequence == 2) {
+            Set<DayOfWeek> jours = EnumSet.noneOf(DayOfWeek.class);
+            for (int i = 0; i < 7; i++) {
+                if (joursToggles[i].isSelected()) jours.add(DayOfWeek.of(i + 1));
+            }
+            // Sans jour coché, la série reprend le jour de sa première date
+            r.setJours(jours);
+        }
+        if (finRepetitionCombo.getSelectedIndex() == 1) {
+            r.setJusquAu(new java.sql.Date(((java.util.Date) jusquAuSpinner.getValue()).getTime()).toLocalDate());
+        } else if (finRepetitionCombo.getSelectedIndex() == 2) {
+            r.setNombre((int) nombreSpinner.getValue());
+        }
+        return r;
+    }
+
+    private void afficherRecurrence(Recurrence r) {
+        repetitionCombo.setSelectedIndex(r == null ? 0 : r.getFrequence().ordinal() + 1);
+        if (r != null) {
+            intervalleSpinner.setValue(r.getIntervalle());
+            for (int i = 0; i < 7; i++) joursToggles[i].setSelected(r.getJours().contains(DayOfWeek.of(i + 1)));
+            if (r.getJusquAu() != null) {
+                finRepetitionCombo.setSelectedIndex(1);
+                jusquAuSpinner.setValue(java.sql.Date.valueOf(r.getJusquAu()));
+            } else if (r.getNombre() > 0) {
+                finRepetitionCombo.setSelectedIndex(2);
+                nombreSpinner.setValue(r.getNombre());
+            } else {
+                finRepetitionCombo.setSelectedIndex(0);
+            }
+        }
+        majRepetition();
+    }
+
+    /**
+     * Demande si une action sur une occurrence d'une série vaut pour ce jour-là ou pour toute la série
+     * ({@link #PORTEE_OCCURRENCE}, {@link #PORTEE_SERIE}, ou -1 si l'utilisateur annule)
+     */
+    public static int choisirPortee(Component parent, Evenement occurrence, String action) {
+        Object[] options = {"Cette occurrence", "Toute la série", "Annuler"};
+        int choix = JOptionPane.showOptionDialog(parent,
+                "<html><b>" + action + " \"" + occurrence.getTitre() + "\"</b><br>"
+                        + "Cet événement fait partie d'une série : " + occurrence.getRecurrence().getDescription() + ".</html>",
+                "🔁 Événement récurrent", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                null, options, options[0]);
+        return choix == PORTEE_OCCURRENCE || choix == PORTEE_SERIE ? choix : -1;
+    }
+
     private JPanel createNotificationCard() {
         JPanel card = new JPanel();
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
@@ -680,6 +998,14 @@ public class EventDialog extends JDialog {
             dateSpinner.setEnabled(false);
             heureCombo.setEnabled(false);
             minuteCombo.setEnabled(false);
+            dureeCombo.setEnabled(false);
+            creneauBtn.setEnabled(false);
+            repetitionCombo.setEnabled(false);
+            intervalleSpinner.setEnabled(false);
+            for (JToggleButton jour : joursToggles) jour.setEnabled(false);
+            finRepetitionCombo.setEnabled(false);
+            jusquAuSpinner.setEnabled(false);
+            nombreSpinner.setEnabled(false);
             notifCombo.setEnabled(false);
             saveBtn.setEnabled(false);
             saveBtn.setText("🔒 Consultation seule");
@@ -708,17 +1034,58 @@ public class EventDialog extends JDialog {
         LocalDate d = new java.sql.Date(((java.util.Date) dateSpinner.getValue()).getTime()).toLocalDate();
         LocalTime time = LocalTime.of((int) heureCombo.getSelectedItem(), (int) minuteCombo.getSelectedItem());
 
-        if (!validerEvenement(titre, resp, selectedParticipants, d, time)) return;
-
         int notifMinutes = (int) notifCombo.getSelectedItem();
         String createurUsername = controller.getUtilisateurCourant() != null ?
                 controller.getUtilisateurCourant().getUsername() : "System";
 
         Evenement nouvelEv = new Evenement(titre, desc, d, time, resp, new ArrayList<>(selectedParticipants), createurUsername);
         nouvelEv.setNotificationBeforeMinutes(notifMinutes);
+        nouvelEv.setDureeMinutes((int) dureeCombo.getSelectedItem());
+        Recurrence recurrence = construireRecurrence(d);
+        if (recurrence != null && evenementOriginal != null && evenementOriginal.estRecurrent()
+                && !evenementOriginal.estOccurrence()) {
+            // La série modifiée depuis la liste garde ses jours supprimés
+            for (LocalDate exception : evenementOriginal.getRecurrence().getExceptions()) {
+                recurrence.ajouterException(exception);
+            }
+        }
+        nouvelEv.setRecurrence(recurrence);
+
+        // Depuis un jour d'une série : ce jour seulement, ou toute la série
+        boolean serieRemplacee = false;
+        if (evenementOriginal != null && evenementOriginal.estOccurrence()) {
+            int portee = choisirPortee(this, evenementOriginal, "Modifier");
+            if (portee < 0) return;
+            if (portee == PORTEE_OCCURRENCE) {
+                nouvelEv.setRecurrence(null);
+            } else if (recurrence == null) {
+                // Toute la série, sans répétition : elle est remplacée par ce seul événement
+                serieRemplacee = true;
+            }
+        }
+
+        if (!validerSaisie(nouvelEv)) return;
+
+        // Série et conflits sont lus en arrière-plan ; l'enregistrement reprend sur l'EDT
+        Evenement original = evenementOriginal;
+        boolean chercherSerie = serieRemplacee;
+        verificationConflits.lancer(() -> new Verification(
+                chercherSerie ? controller.getEvenementParId(original.getId()) : original,
+                controller.getConflits(nouvelEv)),
+            verification -> enregistrer(nouvelEv, verification, chercherSerie),
+            e -> showModernAlert("Vérification impossible", "Les conflits n'ont pas pu être vérifiés: " + e.getMessage()));
+    }
 
-        if (evenementOriginal != null) {
-            controller.mettreAJourEvenement(evenementOriginal, nouvelEv);
+    /**
+     * Fin de handleSave, une fois la série et les conflits lus
+     */
+    private void enregistrer(Evenement nouvelEv, Verification verification, boolean serieRemplacee) {
+        Evenement ancien = verification.ancien;
+        if (serieRemplacee && ancien == null) return;
+        if (!confirmerConflits(nouvelEv, verification.conflits)) return;
+
+        if (ancien != null) {
+            controller.mettreAJourEvenement(ancien, nouvelEv);
         } else {
             controller.ajouterEvenement(nouvelEv);
         }
@@ -726,6 +1093,17 @@ public class EventDialog extends JDialog {
         dispose();
     }
 
+    @Override
+    public void dispose() {
+        rechercheCreneaux.annuler();
+        verificationConflits.annuler();
+        super.dispose();
+    }
+
+    private void indiquerAttente(boolean enCours) {
+        setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+    }
+
     private void showModernAlert(String title, String message) {
         JDialog alert = new JDialog(this, true);
         alert.setUndecorated(true);
@@ -799,38 +1177,70 @@ public class EventDialog extends JDialog {
         heureCombo.setSelectedItem(toEdit.getHeure().getHour());
         minuteCombo.setSelectedItem(toEdit.getHeure().getMinute());
         notifCombo.setSelectedItem(toEdit.getNotificationBeforeMinutes());
+        // Une durée hors de la liste (données importées) y est ajoutée plutôt que perdue
+        if (((DefaultComboBoxModel<Integer>) dureeCombo.getModel()).getIndexOf(toEdit.getDureeMinutes()) < 0) {
+            dureeCombo.addItem(toEdit.getDureeMinutes());
+        }
+        dureeCombo.setSelectedItem(toEdit.getDureeMinutes());
+        afficherRecurrence(toEdit.getRecurrence());
 
         saveBtn.setText("💾 Modifier");
         applyPermissions();
     }
 
-    private boolean validerEvenement(String titre, String resp, List<String> participants, LocalDate date, LocalTime heure) {
-        if (titre.length() < 3) {
+    private boolean validerSaisie(Evenement candidat) {
+        if (candidat.getTitre().length() < 3) {
             showModernAlert("Titre invalide", "Le titre doit contenir au moins 3 caractères.");
             return false;
         }
 
-        LocalDateTime eventDateTime = LocalDateTime.of(date, heure);
-        if (eventDateTime.isBefore(LocalDateTime.now())) {
+        if (candidat.getDebut().isBefore(LocalDateTime.now())) {
             int confirm = JOptionPane.showConfirmDialog(this,
                     "⚠️ Cet événement est dans le passé.\nVoulez-vous quand même le créer ?",
                     "Confirmation", JOptionPane.YES_NO_OPTION);
-            return confirm == JOptionPane.YES_OPTION;
+            if (confirm != JOptionPane.YES_OPTION) return false;
         }
 
-        if (evenementOriginal == null) {
-            List<Evenement> existants = controller.getEvenementsPourDateEtHeure(date, heure);
-            if (!existants.isEmpty()) {
-                StringBuilder conflits = new StringBuilder("Conflit détecté:\n");
-                for (Evenement ev : existants) {
-                    conflits.append("• ").append(ev.getTitre()).append("\n");
+        // Une modification garde l'identifiant de l'original : il n'entre pas en conflit avec lui-même
+        if (evenementOriginal != null) candidat.setId(evenementOriginal.getId());
+        return true;
+    }
+
+    private boolean confirmerConflits(Evenement candidat, List<Conflit> conflits) {
+        if (!conflits.isEmpty()) {
+            // Pour une série, les conflits tombent sur des jours différents : la date est précisée
+            DateTimeFormatter heureFmt = DateTimeFormatter.ofPattern("HH:mm");
+            DateTimeFormatter debutFmt = candidat.estRecurrent() ? DateTimeFormatter.ofPattern("dd/MM HH:mm") : heureFmt;
+            StringBuilder message = new StringBuilder("Conflit détecté:\n");
+            int affiches = 0;
+            for (Conflit c : conflits) {
+                if (++affiches > 15) {
+                    message.append("• ... et ").append(conflits.size() - 15).append(" autre(s)\n");
+                    break;
                 }
-                conflits.append("\nContinuer quand même ?");
-                int confirm = JOptionPane.showConfirmDialog(this, conflits.toString(), "Conflit d'horaire", JOptionPane.YES_NO_OPTION);
-                return confirm == JOptionPane.YES_OPTION;
+                Evenement ev = c.getAutre();
+                message.append("• ").append(c.getPersonne()).append(" : ").append(ev.getTitre())
+                       .append(" (").append(ev.getDebut().format(debutFmt))
+                       .append("–").append(ev.getFin().format(heureFmt)).append(")\n");
             }
+            message.append("\nContinuer quand même ?");
+            int confirm = JOptionPane.showConfirmDialog(this, message.toString(), "Conflit d'horaire", JOptionPane.YES_NO_OPTION);
+            return confirm == JOptionPane.YES_OPTION;
         }
 
         return true;
     }
+
+    /**
+     * Résultat de la vérification faite en arrière-plan avant l'enregistrement
+     */
+    private static class Verification {
+        final Evenement ancien;
+        final List<Conflit> conflits;
+
+        Verification(Evenement ancien, List<Conflit> conflits) {
+            this.ancien = ancien;
+            this.conflits = conflits;
+        }
+    }
 }
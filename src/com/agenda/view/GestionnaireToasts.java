@@ -0,0 +1,566 @@
+package com.agenda.view;
+
+import com.agenda.controller.NotificationAgenda;
+import com.agenda.modele.Evenement;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Notifications non bloquantes de la fenêtre principale : de petits encarts empilés
+ * en bas à droite, qui disparaissent seuls, et un tiroir d'historique.
+ *
+ * Au plus {@value #MAX_VISIBLES} encarts à la fois et un nouveau tous les {@value #INTERVALLE_MS} ms ;
+ * les suivants attendent dans une file bornée. Les messages de même type et même titre
+ * arrivés à moins de {@value #REGROUPEMENT_MS} ms d'intervalle sont regroupés en un seul
+ * encart (« 12 × Événement supprimé »). Tout est conservé dans l'historique, même ce qui
+ * n'a pas pu être affiché. À utiliser sur l'EDT uniquement.
+ */
+public class GestionnaireToasts {
+
+    private static final int MAX_VISIBLES = 4;
+    private static final int FILE_MAX = 64;
+    private static final int INTERVALLE_MS = 250;
+    private static final int REGROUPEMENT_MS = 5000;
+    private static final int HISTORIQUE_MAX = 200;
+
+    private static final int LARGEUR = 320;
+    private static final int LARGEUR_TIROIR = 340;
+    private static final int MARGE = 12;
+    private static final int ESPACE = 8;
+
+    private static final Font POLICE = new Font("Segoe UI", Font.PLAIN, 12);
+    private static final DateTimeFormatter HEURE = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter HEURE_EVENEMENT = DateTimeFormatter.ofPattern("HH:mm");
+
+    // Modèles HTML découpés une fois pour toutes : chaque affichage ne fait que les concaténer
+    private static final Map<NotificationAgenda.Type, ModeleHtml> MODELES = new EnumMap<>(NotificationAgenda.Type.class);
+    static {
+        MODELES.put(NotificationAgenda.Type.SUCCES, modeleMessage("#C6F6D5", "#48BB78", "#2F855A", "#22543D"));
+        MODELES.put(NotificationAgenda.Type.ALERTE, modeleMessage("#FED7D7", "#FC8181", "#C53030", "#744210"));
+        MODELES.put(NotificationAgenda.Type.INFO, modeleMessage("#F0E8FF", "#B794F4", "#6B46C1", "#4A5568"));
+        MODELES.put(NotificationAgenda.Type.RAPPEL, new ModeleHtml(
+            "<html>" +
+            "<div style='background: #F0E8FF; padding: 8px; border: 2px solid #6E44FF; width: 270px;'>" +
+            "<div style='color: #6B46C1; font-size: 12px;'><b>⏰ %s</b></div>" +
+            "<div style='color: #4A5568; font-size: 11px; background: #FFFFFF; padding: 6px; margin-top: 4px;'>" +
+            "<div><b style='color: #6B46C1;'>Événement :</b> %s</div>" +
+            "<div><b style='color: #6B46C1;'>Date :</b> %s à %s</div>" +
+            "<div><b style='color: #6B46C1;'>Dans :</b> %s minutes</div>" +
+            "<div><b style='color: #6B46C1;'>Responsable :</b> %s</div>" +
+            "<div><b style='color: #6B46C1;'>Participants :</b> %s</div>" +
+            "%s" +
+            "</div>" +
+            "</div>" +
+            "</html>"));
+    }
+    // Rappels regroupés : une ligne par événement, par heure de début
+    private static final ModeleHtml MODELE_DIGEST = new ModeleHtml(
+        "<html>" +
+        "<div style='background: #F0E8FF; padding: 8px; border: 2px solid #6E44FF; width: 270px;'>" +
+        "<div style='color: #6B46C1; font-size: 12px;'><b>⏰ %s</b></div>" +
+        "<div style='color: #4A5568; font-size: 11px; background: #FFFFFF; padding: 6px; margin-top: 4px;'>" +
+        "<table cellpadding='1' cellspacing='0'>%s</table>" +
+        "%s" +
+        "</div>" +
+        "</div>" +
+        "</html>");
+    private static final ModeleHtml MODELE_LIGNE_DIGEST = new ModeleHtml(
+        "<tr><td valign='top'><b style='color: #6B46C1;'>%s</b></td><td>%s<span style='color: #718096;'>%s</span></td></tr>");
+    private static final int MAX_LIGNES_DIGEST = 8;
+    private static final ModeleHtml MODELE_HISTORIQUE = new ModeleHtml(
+        "<html><div style='width: 280px;'>" +
+        "<span style='color: #718096;'>%s</span> <b style='color: %s;'>%s</b>%s<br>" +
+        "<span style='color: #4A5568;'>%s</span></div></html>");
+    private static final Map<NotificationAgenda.Type, String> COULEURS_HISTORIQUE = new EnumMap<>(NotificationAgenda.Type.class);
+    static {
+        COULEURS_HISTORIQUE.put(NotificationAgenda.Type.SUCCES, "#2F855A");
+        COULEURS_HISTORIQUE.put(NotificationAgenda.Type.ALERTE, "#C53030");
+        COULEURS_HISTORIQUE.put(NotificationAgenda.Type.RAPPEL, "#6B46C1");
+        COULEURS_HISTORIQUE.put(NotificationAgenda.Type.INFO, "#805078");
+    }
+
+    private static ModeleHtml modeleMessage(String fond, String bordure, String titre, String texte) {
+        return new ModeleHtml(
+            "<html>" +
+            "<div style='background: " + fond + "; padding: 8px; border: 2px solid " + bordure + "; width: 270px;'>" +
+            "<div style='color: " + titre + "; font-size: 12px;'><b>%s</b></div>" +
+            "<div style='color: " + texte + "; font-size: 11px; background: #FFFFFF; padding: 6px; margin-top: 4px;'>%s%s</div>" +
+            "</div>" +
+            "</html>");
+    }
+
+    /**
+     * Gabarit HTML dont les emplacements %s sont remplis par des valeurs échappées
+     */
+    static final class ModeleHtml {
+        private final String[] morceaux;
+        private final int longueurFixe;
+
+        ModeleHtml(String gabarit) {
+            this.morceaux = gabarit.split("%s", -1);
+            this.longueurFixe = gabarit.length();
+        }
+
+        String remplir(Object... valeurs) {
+            StringBuilder sb = new StringBuilder(longueurFixe + 64 * valeurs.length);
+            sb.append(morceaux[0]);
+            for (int i = 1; i < morceaux.length; i++) {
+                Object v = i - 1 < valeurs.length ? valeurs[i - 1] : null;
+                if (v instanceof Brut) sb.append(((Brut) v).html);
+                else echapper(sb, v == null ? "" : v.toString());
+                sb.append(morceaux[i]);
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Fragment déjà en HTML, inséré tel quel dans un gabarit
+     */
+    private static final class Brut {
+        final String html;
+        Brut(String html) { this.html = html; }
+    }
+
+    private static final Brut VIDE = new Brut("");
+
+    private static void echapper(StringBuilder sb, String texte) {
+        for (int i = 0; i < texte.length(); i++) {
+            char c = texte.charAt(i);
+            switch (c) {
+                case '&': sb.append("&amp;"); break;
+                case '<': sb.append("&lt;"); break;
+                case '>': sb.append("&gt;"); break;
+                case '\n': sb.append("<br>"); break;
+                default: sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * Une notification et celles qui lui ont été regroupées
+     */
+    private static final class Entree {
+        final String cle;
+        final LocalDateTime premiere;
+        NotificationAgenda derniere;
+        int nombre = 1;
+        long recueLe;
+        boolean affichee;
+        Toast toast;
+        // HTML de l'encart et de la ligne d'historique, recalculés seulement après un regroupement
+        String html;
+        String htmlHistorique;
+
+        Entree(NotificationAgenda n) {
+            this.cle = n.getCle();
+            this.premiere = n.getCreeeLe();
+            this.derniere = n;
+            this.recueLe = System.currentTimeMillis();
+        }
+
+        void regrouper(NotificationAgenda n) {
+            derniere = n;
+            nombre++;
+            recueLe = System.currentTimeMillis();
+            html = null;
+            htmlHistorique = null;
+        }
+
+        NotificationAgenda.Type getType() {
+            return derniere.getType();
+        }
+
+        String getHtml() {
+            if (html == null) html = rendre(this);
+            return html;
+        }
+
+        String getHtmlHistorique() {
+            if (htmlHistorique == null) {
+                htmlHistorique = MODELE_HISTORIQUE.remplir(
+                    premiere.format(HEURE),
+                    new Brut(COULEURS_HISTORIQUE.get(getType())),
+                    nombre > 1 ? nombre + " × " + derniere.getTitre() : derniere.getTitre(),
+                    affichee ? VIDE : new Brut(" <i style='color: #A0AEC0;'>(non affichée)</i>"),
+                    derniere.getMessage());
+            }
+            return htmlHistorique;
+        }
+    }
+
+    private static String rendre(Entree e) {
+        NotificationAgenda n = e.derniere;
+        String titre = e.nombre > 1 ? e.nombre + " × " + n.getTitre() : n.getTitre();
+        Brut autres = e.nombre > 1
+            ? new Brut("<div style='color: #718096; margin-top: 4px;'><i>+ " + (e.nombre - 1) + " autre(s) message(s) dans l'historique</i></div>")
+            : VIDE;
+        if (n.getType() == NotificationAgenda.Type.RAPPEL && n.estRegroupement()) {
+            return MODELE_DIGEST.remplir(titre, new Brut(lignesDigest(n.getEvenements())), autres);
+        }
+        Evenement ev = n.getEvenement();
+        if (n.getType() == NotificationAgenda.Type.RAPPEL && ev != null) {
+            return MODELES.get(NotificationAgenda.Type.RAPPEL).remplir(
+                titre,
+                ev.getTitre(),
+                ev.getDate() != null ? ev.getDate().format(DATE) : "",
+                ev.getHeure() != null ? ev.getHeure().format(HEURE_EVENEMENT) : "",
+                ev.getNotificationBeforeMinutes(),
+                ev.getResponsable(),
+                ev.getParticipants() != null && !ev.getParticipants().isEmpty() ? String.join(", ", ev.getParticipants()) : "Aucun",
+                autres);
+        }
+        return MODELES.get(n.getType()).remplir(titre, n.getMessage(), autres);
+    }
+
+    private static String lignesDigest(List<Evenement> evenements) {
+        StringBuilder sb = new StringBuilder();
+        for (Evenement e : evenements.subList(0, Math.min(evenements.size(), MAX_LIGNES_DIGEST))) {
+            String avec = e.getParticipants() != null && !e.getParticipants().isEmpty()
+                ? " – " + String.join(", ", e.getParticipants()) : "";
+            sb.append(MODELE_LIGNE_DIGEST.remplir(
+                e.getHeure() != null ? e.getHeure().format(HEURE_EVENEMENT) : "", e.getTitre(), avec));
+        }
+        if (evenements.size() > MAX_LIGNES_DIGEST) {
+            sb.append(MODELE_LIGNE_DIGEST.remplir("", "", "+ " + (evenements.size() - MAX_LIGNES_DIGEST) + " autre(s)"));
+        }
+        return sb.toString();
+    }
+
+    private static int dureeAffichage(NotificationAgenda.Type type) {
+        switch (type) {
+            case ALERTE: return 8000;
+            case RAPPEL: return 15000;
+            case INFO: return 2500;
+            default: return 4000;
+        }
+    }
+
+    /**
+     * Les messages les moins importants cèdent leur place quand la file ou l'écran est plein
+     */
+    private static boolean estPrioritaire(NotificationAgenda.Type type) {
+        return type == NotificationAgenda.Type.ALERTE || type == NotificationAgenda.Type.RAPPEL;
+    }
+
+    /**
+     * Encart affiché : se ferme au clic ou au bout de sa durée, en pause tant que la souris le survole
+     */
+    private final class Toast extends JPanel {
+        private final Entree entree;
+        private final JLabel texte = new JLabel();
+        private final Timer fermeture;
+
+        Toast(Entree entree) {
+            super(new BorderLayout());
+            this.entree = entree;
+            setOpaque(false);
+            texte.setFont(POLICE);
+            texte.setText(entree.getHtml());
+            texte.setToolTipText("Cliquer pour fermer");
+            add(texte, BorderLayout.CENTER);
+
+            fermeture = new Timer(dureeAffichage(entree.getType()), e -> fermer(this));
+            fermeture.setRepeats(false);
+
+            MouseAdapter souris = new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    fermer(Toast.this);
+                }
+
+                @Override
+                public void mouseEntered(MouseEvent e) {
+                    fermeture.stop();
+                }
+
+                @Override
+                public void mouseExited(MouseEvent e) {
+                    fermeture.restart();
+                }
+            };
+            texte.addMouseListener(souris);
+            setSize(getPreferredSize());
+        }
+
+        void rafraichir() {
+            texte.setText(entree.getHtml());
+            setSize(getPreferredSize());
+            fermeture.setInitialDelay(dureeAffichage(entree.getType()));
+            fermeture.restart();
+        }
+    }
+
+    private final JLayeredPane couche;
+    private final int margeBas;
+    private final ArrayDeque<Entree> file = new ArrayDeque<>();
+    private final List<Entree> visibles = new ArrayList<>();
+    // Dernière entrée de chaque clé encore affichée ou en attente, pour le regroupement
+    private final Map<String, Entree> parCle = new HashMap<>();
+    private final Timer pompe;
+    private final Timer rafraichissement;
+    private final Set<Entree> aRafraichir = new LinkedHashSet<>();
+    private long dernierAffichage;
+    private int nonAffichees;
+
+    private final DefaultListModel<Entree> historique = new DefaultListModel<>();
+    private final JPanel tiroir;
+    private final JLabel titreTiroir = new JLabel();
+
+    /**
+     * @param couche   couche de la fenêtre où empiler les encarts (getLayeredPane())
+     * @param margeBas hauteur laissée libre en bas (barre de statut)
+     */
+    public GestionnaireToasts(JLayeredPane couche, int margeBas) {
+        this.couche = couche;
+        this.margeBas = margeBas;
+        this.pompe = new Timer(INTERVALLE_MS, e -> pomper());
+        this.rafraichissement = new Timer(INTERVALLE_MS / 2, e -> rafraichirRegroupees());
+        rafraichissement.setRepeats(false);
+        this.tiroir = creerTiroir();
+        tiroir.setVisible(false);
+        couche.add(tiroir, JLayeredPane.PALETTE_LAYER);
+        couche.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                disposer();
+            }
+        });
+    }
+
+    // ==================== RÉCEPTION ====================
+
+    /**
+     * Affiche une notification, regroupée avec la précédente de même clé si elle est récente
+     */
+    public void afficher(NotificationAgenda notification) {
+        long maintenant = System.currentTimeMillis();
+        Entree existante = parCle.get(notification.getCle());
+        if (existante != null && maintenant - existante.recueLe < REGROUPEMENT_MS) {
+            // Le texte n'est recalculé qu'une fois par rafale, pas à chaque message regroupé
+            existante.regrouper(notification);
+            aRafraichir.add(existante);
+            if (!rafraichissement.isRunning()) rafraichissement.start();
+            return;
+        }
+
+        Entree entree = new Entree(notification);
+        parCle.put(entree.cle, entree);
+        ajouterHistorique(entree);
+        if (file.size() == FILE_MAX) ecarterDeLaFile();
+        file.addLast(entree);
+        pomper();
+        if (!file.isEmpty() && !pompe.isRunning()) pompe.start();
+    }
+
+    public void info(String message) {
+        afficher(NotificationAgenda.info(message));
+    }
+
+    private void rafraichirRegroupees() {
+        for (Entree e : aRafraichir) {
+            historiqueModifie(e);
+            if (e.toast != null) e.toast.rafraichir();
+        }
+        aRafraichir.clear();
+        disposer();
+    }
+
+    /**
+     * File pleine : le plus ancien message non prioritaire est abandonné (il reste dans l'historique)
+     */
+    private void ecarterDeLaFile() {
+        Entree ecartee = null;
+        for (Entree e : file) {
+            if (!estPrioritaire(e.getType())) {
+                ecartee = e;
+                break;
+            }
+        }
+        if (ecartee == null) ecartee = file.peekFirst();
+        file.remove(ecartee);
+        oublier(ecartee);
+        nonAffichees++;
+        majTitreTiroir();
+    }
+
+    /**
+     * Affiche le prochain message en attente si le rythme et la place le permettent
+     */
+    private void pomper() {
+        if (file.isEmpty()) {
+            pompe.stop();
+            return;
+        }
+        long maintenant = System.currentTimeMillis();
+        if (maintenant - dernierAffichage < INTERVALLE_MS) return;
+        if (visibles.size() >= MAX_VISIBLES) {
+            // Une alerte ou un rappel en attente remplace le plus ancien message ordinaire
+            if (!estPrioritaire(file.peekFirst().getType())) return;
+            Toast remplace = null;
+            for (Entree e : visibles) {
+                if (!estPrioritaire(e.getType())) {
+                    remplace = e.toast;
+                    break;
+                }
+            }
+            if (remplace == null) return;
+            fermer(remplace);
+        }
+
+        Entree entree = file.pollFirst();
+        entree.affichee = true;
+        entree.htmlHistorique = null;
+        historiqueModifie(entree);
+        Toast toast = new Toast(entree);
+        entree.toast = toast;
+        visibles.add(toast.entree);
+        couche.add(toast, JLayeredPane.POPUP_LAYER);
+        toast.fermeture.start();
+        dernierAffichage = maintenant;
+        disposer();
+        if (file.isEmpty()) pompe.stop();
+    }
+
+    private void fermer(Toast toast) {
+        toast.fermeture.stop();
+        if (!visibles.remove(toast.entree)) return;
+        toast.entree.toast = null;
+        oublier(toast.entree);
+        couche.remove(toast);
+        couche.repaint(toast.getBounds());
+        disposer();
+        if (!file.isEmpty() && !pompe.isRunning()) pompe.start();
+    }
+
+    private void oublier(Entree entree) {
+        parCle.remove(entree.cle, entree);
+    }
+
+    /**
+     * Empile les encarts du bas vers le haut, à gauche du tiroir s'il est ouvert
+     */
+    private void disposer() {
+        int droite = couche.getWidth() - MARGE - (tiroir.isVisible() ? LARGEUR_TIROIR : 0);
+        int bas = couche.getHeight() - margeBas - MARGE;
+        for (Entree e : visibles) {
+            Toast t = e.toast;
+            Dimension d = t.getSize();
+            bas -= d.height;
+            t.setBounds(droite - Math.max(d.width, LARGEUR), bas, Math.max(d.width, LARGEUR), d.height);
+            bas -= ESPACE;
+        }
+        if (tiroir.isVisible()) {
+            int haut = couche.getRootPane() != null && couche.getRootPane().getJMenuBar() != null
+                ? couche.getRootPane().getJMenuBar().getHeight() : 0;
+            tiroir.setBounds(couche.getWidth() - LARGEUR_TIROIR, haut, LARGEUR_TIROIR,
+                Math.max(0, couche.getHeight() - haut - margeBas));
+        }
+        couche.revalidate();
+        couche.repaint();
+    }
+
+    // ==================== HISTORIQUE ====================
+
+    private JPanel creerTiroir() {
+        JPanel panneau = new JPanel(new BorderLayout());
+        panneau.setBackground(new Color(250, 245, 255));
+        panneau.setBorder(BorderFactory.createMatteBorder(0, 2, 0, 0, new Color(180, 100, 200)));
+
+        JPanel entete = new JPanel(new BorderLayout(6, 0));
+        entete.setBackground(new Color(230, 220, 240));
+        entete.setBorder(BorderFactory.createEmptyBorder(6, 10, 6, 6));
+        titreTiroir.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        titreTiroir.setForeground(new Color(80, 50, 120));
+        majTitreTiroir();
+
+        JButton effacer = new JButton("Effacer");
+        effacer.setFont(POLICE);
+        effacer.setFocusable(false);
+        effacer.addActionListener(e -> {
+            historique.clear();
+            nonAffichees = 0;
+            majTitreTiroir();
+        });
+        JButton fermer = new JButton("✕");
+        fermer.setFont(POLICE);
+        fermer.setFocusable(false);
+        fermer.addActionListener(e -> basculerHistorique());
+        JPanel boutons = new JPanel(new FlowLayout(FlowLayout.RIGHT, 4, 0));
+        boutons.setOpaque(false);
+        boutons.add(effacer);
+        boutons.add(fermer);
+        entete.add(titreTiroir, BorderLayout.CENTER);
+        entete.add(boutons, BorderLayout.EAST);
+
+        JList<Entree> liste = new JList<>(historique);
+        liste.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, ((Entree) value).getHtmlHistorique(), index, isSelected, cellHasFocus);
+                setFont(POLICE);
+                setBorder(BorderFactory.createCompoundBorder(
+                    BorderFactory.createMatteBorder(0, 0, 1, 0, new Color(230, 220, 240)),
+                    BorderFactory.createEmptyBorder(4, 8, 4, 8)));
+                return this;
+            }
+        });
+
+        panneau.add(entete, BorderLayout.NORTH);
+        panneau.add(new JScrollPane(liste), BorderLayout.CENTER);
+        return panneau;
+    }
+
+    private void ajouterHistorique(Entree entree) {
+        historique.add(0, entree);
+        if (historique.size() > HISTORIQUE_MAX) historique.removeElementAt(historique.size() - 1);
+        majTitreTiroir();
+    }
+
+    private void historiqueModifie(Entree entree) {
+        int i = historique.indexOf(entree);
+        if (i >= 0) historique.set(i, entree);
+    }
+
+    private void majTitreTiroir() {
+        titreTiroir.setText("🔔 Historique (" + historique.size() + ")" +
+            (nonAffichees > 0 ? " – " + nonAffichees + " non affichée(s)" : ""));
+    }
+
+    /**
+     * Ouvre ou ferme le tiroir d'historique sur le bord droit de la fenêtre
+     */
+    public void basculerHistorique() {
+        tiroir.setVisible(!tiroir.isVisible());
+        disposer();
+    }
+
+    public int getNombreEnAttente() {
+        return file.size();
+    }
+
+    public int getNombreVisibles() {
+        return visibles.size();
+    }
+
+    public int getTailleHistorique() {
+        return historique.size();
+    }
+}
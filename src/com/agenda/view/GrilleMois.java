@@ -0,0 +1,314 @@
+package com.agenda.view;
+
+import com.agenda.controller.ChangementAgenda;
+import com.agenda.modele.Evenement;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mois affiché d'un seul composant peint.
+ *
+ * La position des cases est calculée une fois par mois et par taille ; le fond (jours,
+ * numéros, couleurs) est peint dans une image conservée entre deux repaint. Seuls les
+ * événements sont dessinés à chaque fois, au plus ce qu'une case peut contenir, le reste
+ * étant résumé par "+N autres".
+ */
+public class GrilleMois extends JComponent {
+
+    /**
+     * Actions déclenchées par la souris, laissées au panneau qui contient la grille
+     */
+    public interface Actions {
+        void jourClique(LocalDate date);
+        void menuEvenement(Evenement ev, MouseEvent e);
+        void debordementClique(LocalDate date, List<Evenement> evenements, MouseEvent e);
+    }
+
+    private static final int HAUTEUR_EN_TETE = 28;
+    private static final int HAUTEUR_NUMERO = 24;
+    private static final int HAUTEUR_EVENEMENT = 16;
+    private static final int ESPACE = 2;
+
+    private static final String[] JOURS = {"Lun", "Mar", "Mer", "Jeu", "Ven", "Sam", "Dim"};
+
+    private static final Color COULEUR_FOND = new Color(250, 245, 255);
+    private static final Color COULEUR_BORDURE = new Color(220, 220, 220);
+    private static final Color COULEUR_TEXTE = new Color(80, 50, 120);
+    private static final Color COULEUR_EVENEMENT = new Color(180, 100, 200);
+
+    private static final Font POLICE_JOURS = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font POLICE_NUMERO = new Font("Segoe UI", Font.BOLD, 16);
+    private static final Font POLICE_EVENEMENT = new Font("Segoe UI", Font.BOLD, 11);
+
+    private final Actions actions;
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
+    private YearMonth mois = YearMonth.now();
+    private final Map<LocalDate, List<Evenement>> parJour = new HashMap<>();
+
+    // Disposition des cases (index 0 = 1er du mois), valable pour moisDispose et tailleDisposee
+    private Rectangle[] cases = new Rectangle[0];
+    private YearMonth moisDispose;
+    private Dimension tailleDisposee;
+    // Fond peint une fois par disposition (et par jour, pour la case d'aujourd'hui)
+    private BufferedImage fond;
+    private LocalDate fondDuJour;
+
+    public GrilleMois(Actions actions) {
+        this.actions = actions;
+        setOpaque(true);
+        setBackground(COULEUR_FOND);
+        ToolTipManager.sharedInstance().registerComponent(this);
+
+        addMouseListener(new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                if (e.isPopupTrigger() || SwingUtilities.isRightMouseButton(e)) {
+                    Evenement ev = evenementA(e.getPoint());
+                    if (ev != null) actions.menuEvenement(ev, e);
+                }
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e)) return;
+                LocalDate date = jourA(e.getPoint());
+                if (date == null || evenementA(e.getPoint()) != null) return;
+                if (estDebordement(date, e.getPoint())) {
+                    actions.debordementClique(date, parJour.getOrDefault(date, List.of()), e);
+                } else {
+                    actions.jourClique(date);
+                }
+            }
+        });
+    }
+
+    // ==================== DONNÉES ====================
+
+    public void afficherMois(YearMonth mois, Collection<Evenement> evenements) {
+        this.mois = mois;
+        parJour.clear();
+        for (Evenement ev : evenements) parJour.computeIfAbsent(ev.getDate(), k -> new ArrayList<>()).add(ev);
+        for (List<Evenement> jour : parJour.values()) jour.sort(Comparator.comparing(Evenement::getHeure));
+        repaint();
+    }
+
+    public YearMonth getMois() {
+        return mois;
+    }
+
+    /**
+     * Retire l'événement de son ancien jour, l'ajoute au nouveau s'il est dans le mois,
+     * et ne repeint que ces deux cases.
+     */
+    public void appliquerChangement(ChangementAgenda changement) {
+        LocalDate ancien = changement.getAncienneDate() != null ? changement.getAncienneDate().toLocalDate() : null;
+        LocalDate nouveau = changement.getNouvelleDate() != null ? changement.getNouvelleDate().toLocalDate() : null;
+        if (ancien != null && parJour.containsKey(ancien)) {
+            parJour.get(ancien).removeIf(ev -> ev.getId() == changement.getEvenementId());
+        }
+        if (nouveau != null && changement.getEvenement() != null && YearMonth.from(nouveau).equals(mois)) {
+            List<Evenement> jour = parJour.computeIfAbsent(nouveau, k -> new ArrayList<>());
+            jour.add(changement.getEvenement());
+            jour.sort(Comparator.comparing(Evenement::getHeure));
+        }
+        repaintJour(ancien);
+        if (nouveau != null && !nouveau.equals(ancien)) repaintJour(nouveau);
+    }
+
+    private void repaintJour(LocalDate date) {
+        Rectangle cellule = caseDe(date);
+        if (cellule != null) repaint(cellule);
+    }
+
+    // ==================== DISPOSITION ====================
+
+    private void disposer() {
+        Dimension taille = getSize();
+        if (mois.equals(moisDispose) && taille.equals(tailleDisposee)) return;
+
+        int decalage = mois.atDay(1).getDayOfWeek().getValue() - 1;
+        int nombreJours = mois.lengthOfMonth();
+        int semaines = (decalage + nombreJours + 6) / 7;
+        int largeur = Math.max((taille.width - 6 * ESPACE) / 7, 1);
+        int hauteur = Math.max((taille.height - HAUTEUR_EN_TETE - (semaines - 1) * ESPACE) / semaines, 1);
+
+        cases = new Rectangle[nombreJours];
+        for (int i = 0; i < nombreJours; i++) {
+            int position = decalage + i;
+            cases[i] = new Rectangle((position % 7) * (largeur + ESPACE),
+                    HAUTEUR_EN_TETE + (position / 7) * (hauteur + ESPACE), largeur, hauteur);
+        }
+        moisDispose = mois;
+        tailleDisposee = taille;
+        fond = null;
+    }
+
+    private Rectangle caseDe(LocalDate date) {
+        if (date == null || !YearMonth.from(date).equals(mois)) return null;
+        disposer();
+        return cases[date.getDayOfMonth() - 1];
+    }
+
+    /**
+     * Nombre de lignes d'événements qu'une case peut afficher
+     */
+    private int lignesParCase() {
+        disposer();
+        if (cases.length == 0) return 0;
+        return Math.max((cases[0].height - HAUTEUR_NUMERO) / HAUTEUR_EVENEMENT, 0);
+    }
+
+    public LocalDate jourA(Point p) {
+        disposer();
+        for (int i = 0; i < cases.length; i++) {
+            if (cases[i].contains(p)) return mois.atDay(i + 1);
+        }
+        return null;
+    }
+
+    /**
+     * Index de la ligne d'événement sous ce point dans la case, ou -1
+     */
+    private int ligneA(LocalDate date, Point p) {
+        Rectangle cellule = caseDe(date);
+        int ligne = (p.y - cellule.y - HAUTEUR_NUMERO) / HAUTEUR_EVENEMENT;
+        return p.y < cellule.y + HAUTEUR_NUMERO || ligne >= lignesParCase() ? -1 : ligne;
+    }
+
+    private boolean estDebordement(LocalDate date, Point p) {
+        int n = parJour.getOrDefault(date, List.of()).size();
+        int lignes = lignesParCase();
+        return n > lignes && lignes > 0 && ligneA(date, p) == lignes - 1;
+    }
+
+    public Evenement evenementA(Point p) {
+        LocalDate date = jourA(p);
+        List<Evenement> liste = date != null ? parJour.get(date) : null;
+        if (liste == null) return null;
+        int ligne = ligneA(date, p);
+        if (ligne < 0 || ligne >= liste.size() || estDebordement(date, p)) return null;
+        return liste.get(ligne);
+    }
+
+    // ==================== DESSIN ====================
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        disposer();
+        if (fond == null || !LocalDate.now().equals(fondDuJour)
+                || fond.getWidth() != getWidth() || fond.getHeight() != getHeight()) {
+            fond = peindreFond();
+        }
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+        g.drawImage(fond, 0, 0, null);
+
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setFont(POLICE_EVENEMENT);
+        FontMetrics fm = g2.getFontMetrics();
+        int lignes = lignesParCase();
+        for (int i = 0; i < cases.length; i++) {
+            if (!cases[i].intersects(clip)) continue;
+            List<Evenement> liste = parJour.get(mois.atDay(i + 1));
+            if (liste == null || liste.isEmpty() || lignes == 0) continue;
+
+            Rectangle cellule = cases[i];
+            Shape ancienClip = g2.getClip();
+            g2.clipRect(cellule.x + 4, cellule.y, cellule.width - 8, cellule.height);
+            // Si tout ne tient pas, la dernière ligne résume le reste
+            int visibles = liste.size() > lignes ? lignes - 1 : liste.size();
+            int y = cellule.y + HAUTEUR_NUMERO;
+            g2.setColor(COULEUR_EVENEMENT);
+            for (int k = 0; k < visibles; k++) {
+                g2.drawString("• " + liste.get(k).getTitre(), cellule.x + 4, y + fm.getAscent());
+                y += HAUTEUR_EVENEMENT;
+            }
+            if (visibles < liste.size()) {
+                g2.setColor(COULEUR_TEXTE);
+                g2.drawString("+" + (liste.size() - visibles) + " autres", cellule.x + 4, y + fm.getAscent());
+            }
+            g2.setClip(ancienClip);
+        }
+        g2.dispose();
+    }
+
+    private BufferedImage peindreFond() {
+        BufferedImage image = new BufferedImage(Math.max(getWidth(), 1), Math.max(getHeight(), 1),
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = image.createGraphics();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2.setColor(COULEUR_FOND);
+        g2.fillRect(0, 0, image.getWidth(), image.getHeight());
+
+        g2.setFont(POLICE_JOURS);
+        g2.setColor(COULEUR_TEXTE);
+        FontMetrics fm = g2.getFontMetrics();
+        int largeur = cases.length > 0 ? cases[0].width : 0;
+        for (int j = 0; j < 7; j++) {
+            int x = j * (largeur + ESPACE) + (largeur - fm.stringWidth(JOURS[j])) / 2;
+            g2.drawString(JOURS[j], x, (HAUTEUR_EN_TETE + fm.getAscent() - fm.getDescent()) / 2);
+        }
+
+        LocalDate aujourdhui = LocalDate.now();
+        g2.setFont(POLICE_NUMERO);
+        fm = g2.getFontMetrics();
+        for (int i = 0; i < cases.length; i++) {
+            LocalDate date = mois.atDay(i + 1);
+            Rectangle cellule = cases[i];
+            g2.setColor(couleurFond(date, aujourdhui));
+            g2.fillRect(cellule.x, cellule.y, cellule.width, cellule.height);
+            g2.setColor(COULEUR_BORDURE);
+            g2.drawRect(cellule.x, cellule.y, cellule.width - 1, cellule.height - 1);
+            String numero = String.valueOf(date.getDayOfMonth());
+            g2.setColor(COULEUR_TEXTE);
+            g2.drawString(numero, cellule.x + (cellule.width - fm.stringWidth(numero)) / 2, cellule.y + fm.getAscent() + 2);
+        }
+        g2.dispose();
+        fondDuJour = aujourdhui;
+        return image;
+    }
+
+    private static Color couleurFond(LocalDate date, LocalDate aujourdhui) {
+        if (date.equals(aujourdhui)) {
+            return new Color(220, 200, 240);
+        } else if (date.getDayOfWeek().getValue() == 5) {
+            return new Color(245, 240, 250);
+        } else if (date.getDayOfWeek().getValue() >= 6) {
+            return new Color(250, 245, 255);
+        }
+        return Color.WHITE;
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        Evenement ev = evenementA(e.getPoint());
+        if (ev != null) return ev.getTitre() + " - " + ev.getHeure().format(timeFormatter);
+        LocalDate date = jourA(e.getPoint());
+        if (date == null || !estDebordement(date, e.getPoint())) return null;
+        StringBuilder html = new StringBuilder("<html>");
+        for (Evenement autre : parJour.get(date)) {
+            html.append(autre.getHeure().format(timeFormatter)).append(" ").append(autre.getTitre()).append("<br>");
+        }
+        return html.append("</html>").toString();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(7 * 110, HAUTEUR_EN_TETE + 6 * 90);
+    }
+}
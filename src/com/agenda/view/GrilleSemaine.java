@@ -0,0 +1,517 @@
+package com.agenda.view;
+
+import com.agenda.controller.ChangementAgenda;
+import com.agenda.modele.Evenement;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.StringSelection;
+import java.awt.datatransfer.Transferable;
+import java.awt.dnd.DropTargetAdapter;
+import java.awt.dnd.DropTargetDropEvent;
+import java.awt.dnd.DropTargetEvent;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TooManyListenersException;
+import java.util.function.Predicate;
+
+/**
+ * Grille de la semaine dessinée d'un seul composant : créneaux, heures et événements
+ * sont peints directement, sans un JPanel par cellule.
+ *
+ * Seules les lignes visibles sont peintes ; les clics et dépôts sont retrouvés par
+ * coordonnées, et une modification ne repeint que le rectangle des créneaux concernés.
+ * La granularité (par exemple 15 minutes sur 24 h) ne change donc pas le nombre de composants.
+ */
+public class GrilleSemaine extends JComponent implements Scrollable {
+
+    /**
+     * Actions déclenchées par la souris, laissées au panneau qui contient la grille
+     */
+    public interface Actions {
+        void creneauClique(LocalDateTime creneau);
+        void menuEvenement(Evenement ev, MouseEvent e);
+        void evenementDepose(int evenementId, LocalDateTime creneau);
+    }
+
+    private static final int LARGEUR_HEURES = 60;
+    private static final int LARGEUR_JOUR_MIN = 90;
+    private static final int HAUTEUR_EN_TETE = 30;
+    // Au-delà, la dernière colonne d'un créneau affiche "+N"
+    private static final int MAX_COLONNES = 3;
+
+    private static final String[] JOURS = {"Lun", "Mar", "Mer", "Jeu", "Ven", "Sam", "Dim"};
+
+    private static final Color COULEUR_LIGNE = new Color(220, 220, 220);
+    private static final Color COULEUR_LIGNE_QUART = new Color(238, 238, 238);
+    private static final Color COULEUR_HEURES = new Color(230, 220, 240);
+    private static final Color COULEUR_TEXTE = new Color(80, 50, 120);
+    private static final Color COULEUR_SURVOL = new Color(200, 230, 255);
+    // Violet : événements de l'utilisateur connecté ; bleu acier : ceux des autres
+    private static final Color COULEUR_MES_EVENEMENTS = new Color(138, 43, 226);
+    private static final Color COULEUR_AUTRES_EVENEMENTS = new Color(70, 130, 180);
+
+    private static final Font POLICE_HEURES = new Font("Segoe UI", Font.BOLD, 12);
+    private static final Font POLICE_JOURS = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font POLICE_EVENEMENT = new Font("Segoe UI", Font.BOLD, 10);
+
+    private final int minutesParCreneau;
+    private final int premiereMinute;
+    private final int nombreLignes;
+    private final int hauteurLigne;
+    private final Predicate<Evenement> estMien;
+    private final Actions actions;
+    private final EnTete enTete = new EnTete();
+
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+
+    private LocalDate debutSemaine = LocalDate.now();
+    // Événements de la semaine rangés par début de créneau, et créneau de chaque événement
+    private final Map<LocalDateTime, List<Evenement>> parCreneau = new HashMap<>();
+    private final Map<Integer, LocalDateTime> creneauParId = new HashMap<>();
+
+    private LocalDateTime creneauSurvole;
+    private int evenementGlisse = -1;
+
+    /**
+     * @param minutesParCreneau durée d'une ligne (doit diviser 60)
+     * @param debut             heure de la première ligne
+     * @param fin               heure de fin de la dernière ligne (LocalTime.MAX pour minuit)
+     */
+    public GrilleSemaine(int minutesParCreneau, LocalTime debut, LocalTime fin, int hauteurLigne,
+                         Predicate<Evenement> estMien, Actions actions) {
+        if (minutesParCreneau <= 0 || 60 % minutesParCreneau != 0) {
+            throw new IllegalArgumentException("minutesParCreneau doit diviser 60: " + minutesParCreneau);
+        }
+        this.minutesParCreneau = minutesParCreneau;
+        this.premiereMinute = debut.getHour() * 60 + debut.getMinute();
+        int derniereMinute = fin.equals(LocalTime.MAX) ? 24 * 60 : fin.getHour() * 60 + fin.getMinute();
+        this.nombreLignes = (derniereMinute - premiereMinute) / minutesParCreneau;
+        this.hauteurLigne = hauteurLigne;
+        this.estMien = estMien;
+        this.actions = actions;
+
+        setOpaque(true);
+        setBackground(new Color(250, 245, 255));
+        ToolTipManager.sharedInstance().registerComponent(this);
+        installerSouris();
+        installerGlisserDeposer();
+        // Les colonnes de l'en-tête suivent la largeur de la grille
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                enTete.revalidate();
+                enTete.repaint();
+            }
+        });
+    }
+
+    /**
+     * En-tête des jours, à placer en en-tête de colonne du JScrollPane
+     */
+    public JComponent getEnTete() {
+        return enTete;
+    }
+
+    // ==================== DONNÉES ====================
+
+    public void afficherSemaine(LocalDate debut, Collection<Evenement> evenements) {
+        this.debutSemaine = debut;
+        parCreneau.clear();
+        creneauParId.clear();
+        for (Evenement ev : evenements) placer(ev);
+        repaint();
+        enTete.repaint();
+    }
+
+    /**
+     * Retire l'événement de son ancien créneau, le place dans le nouveau s'il est dans la
+     * semaine, et ne repeint que ces deux créneaux.
+     */
+    public void appliquerChangement(ChangementAgenda changement) {
+        LocalDateTime ancien = retirer(changement.getEvenementId());
+        LocalDateTime nouveau = changement.getEvenement() != null ? placer(changement.getEvenement()) : null;
+        repaintCreneau(ancien);
+        if (nouveau != null && !nouveau.equals(ancien)) repaintCreneau(nouveau);
+    }
+
+    public LocalDate getDebutSemaine() {
+        return debutSemaine;
+    }
+
+    private LocalDateTime placer(Evenement ev) {
+        LocalDateTime creneau = creneauDe(LocalDateTime.of(ev.getDate(), ev.getHeure()));
+        if (creneau == null) return null;
+        List<Evenement> liste = parCreneau.computeIfAbsent(creneau, k -> new ArrayList<>());
+        liste.add(ev);
+        liste.sort(Comparator.comparing(Evenement::getHeure));
+        creneauParId.put(ev.getId(), creneau);
+        return creneau;
+    }
+
+    private LocalDateTime retirer(int evenementId) {
+        LocalDateTime creneau = creneauParId.remove(evenementId);
+        if (creneau != null) {
+            List<Evenement> liste = parCreneau.get(creneau);
+            liste.removeIf(ev -> ev.getId() == evenementId);
+            if (liste.isEmpty()) parCreneau.remove(creneau);
+        }
+        return creneau;
+    }
+
+    // ==================== GÉOMÉTRIE ====================
+
+    /**
+     * Début du créneau contenant cet instant, ou null s'il est hors de la semaine ou des heures affichées
+     */
+    private LocalDateTime creneauDe(LocalDateTime instant) {
+        int jour = (int) (instant.toLocalDate().toEpochDay() - debutSemaine.toEpochDay());
+        int ligne = (instant.getHour() * 60 + instant.getMinute() - premiereMinute) / minutesParCreneau;
+        if (jour < 0 || jour >= 7 || ligne < 0 || ligne >= nombreLignes) return null;
+        return debutLigne(jour, ligne);
+    }
+
+    private LocalDateTime debutLigne(int jour, int ligne) {
+        int minute = premiereMinute + ligne * minutesParCreneau;
+        return debutSemaine.plusDays(jour).atTime(minute / 60, minute % 60);
+    }
+
+    private int largeurJour() {
+        return Math.max((getWidth() - LARGEUR_HEURES) / 7, 1);
+    }
+
+    private Rectangle rectangleCreneau(int jour, int ligne) {
+        int largeur = largeurJour();
+        return new Rectangle(LARGEUR_HEURES + jour * largeur, ligne * hauteurLigne, largeur, hauteurLigne);
+    }
+
+    private Rectangle rectangleCreneau(LocalDateTime creneau) {
+        int jour = (int) (creneau.toLocalDate().toEpochDay() - debutSemaine.toEpochDay());
+        int ligne = (creneau.getHour() * 60 + creneau.getMinute() - premiereMinute) / minutesParCreneau;
+        return rectangleCreneau(jour, ligne);
+    }
+
+    private void repaintCreneau(LocalDateTime creneau) {
+        if (creneau != null) repaint(rectangleCreneau(creneau));
+    }
+
+    /**
+     * Créneau sous ce point, ou null sur la colonne des heures
+     */
+    public LocalDateTime creneauA(Point p) {
+        if (p.x < LARGEUR_HEURES || p.y < 0) return null;
+        int jour = (p.x - LARGEUR_HEURES) / largeurJour();
+        int ligne = p.y / hauteurLigne;
+        if (jour >= 7 || ligne >= nombreLignes) return null;
+        return debutLigne(jour, ligne);
+    }
+
+    /**
+     * Événement dessiné sous ce point, ou null (case vide ou "+N")
+     */
+    public Evenement evenementA(Point p) {
+        LocalDateTime creneau = creneauA(p);
+        List<Evenement> liste = creneau != null ? parCreneau.get(creneau) : null;
+        if (liste == null) return null;
+        Rectangle cellule = rectangleCreneau(creneau);
+        int colonnes = Math.min(liste.size(), MAX_COLONNES);
+        int index = Math.min((p.x - cellule.x) * colonnes / cellule.width, colonnes - 1);
+        if (liste.size() > MAX_COLONNES && index == MAX_COLONNES - 1) return null;
+        return liste.get(index);
+    }
+
+    // ==================== DESSIN ====================
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        Rectangle clip = g2.getClipBounds();
+        if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+
+        g2.setColor(getBackground());
+        g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+        // Seules les lignes qui coupent la zone à repeindre sont parcourues
+        int premiere = Math.max(clip.y / hauteurLigne, 0);
+        int derniere = Math.min((clip.y + clip.height) / hauteurLigne, nombreLignes - 1);
+        int lignesParHeure = 60 / minutesParCreneau;
+
+        for (int ligne = premiere; ligne <= derniere; ligne++) {
+            int y = ligne * hauteurLigne;
+            if (clip.x < LARGEUR_HEURES) {
+                g2.setColor(COULEUR_HEURES);
+                g2.fillRect(0, y, LARGEUR_HEURES, hauteurLigne);
+                if (ligne % lignesParHeure == 0) {
+                    int minute = premiereMinute + ligne * minutesParCreneau;
+                    g2.setColor(COULEUR_TEXTE);
+                    g2.setFont(POLICE_HEURES);
+                    String texte = LocalTime.of(minute / 60 % 24, minute % 60).format(timeFormatter);
+                    FontMetrics fm = g2.getFontMetrics();
+                    g2.drawString(texte, (LARGEUR_HEURES - fm.stringWidth(texte)) / 2, y + fm.getAscent() + 2);
+                }
+            }
+            for (int jour = 0; jour < 7; jour++) {
+                Rectangle cellule = rectangleCreneau(jour, ligne);
+                if (!cellule.intersects(clip)) continue;
+                LocalDateTime creneau = debutLigne(jour, ligne);
+                peindreCreneau(g2, cellule, creneau, ligne % lignesParHeure == 0);
+            }
+        }
+        g2.dispose();
+    }
+
+    private void peindreCreneau(Graphics2D g2, Rectangle cellule, LocalDateTime creneau, boolean debutHeure) {
+        g2.setColor(creneau.equals(creneauSurvole) ? COULEUR_SURVOL : couleurFond(creneau.toLocalDate()));
+        g2.fillRect(cellule.x, cellule.y, cellule.width, cellule.height);
+        g2.setColor(COULEUR_LIGNE);
+        g2.drawLine(cellule.x, cellule.y, cellule.x, cellule.y + cellule.height);
+        g2.setColor(debutHeure ? COULEUR_LIGNE : COULEUR_LIGNE_QUART);
+        g2.drawLine(cellule.x, cellule.y, cellule.x + cellule.width, cellule.y);
+
+        List<Evenement> liste = parCreneau.get(creneau);
+        if (liste == null) return;
+
+        int colonnes = Math.min(liste.size(), MAX_COLONNES);
+        int largeur = cellule.width / colonnes;
+        g2.setFont(POLICE_EVENEMENT);
+        FontMetrics fm = g2.getFontMetrics();
+        for (int i = 0; i < colonnes; i++) {
+            Rectangle pastille = new Rectangle(cellule.x + i * largeur + 2, cellule.y + 2,
+                    largeur - 3, cellule.height - 3);
+            String texte;
+            if (liste.size() > MAX_COLONNES && i == MAX_COLONNES - 1) {
+                g2.setColor(COULEUR_TEXTE);
+                texte = "+" + (liste.size() - MAX_COLONNES + 1);
+            } else {
+                Evenement ev = liste.get(i);
+                boolean mien = estMien.test(ev);
+                g2.setColor(mien ? COULEUR_MES_EVENEMENTS : COULEUR_AUTRES_EVENEMENTS);
+                texte = (mien ? "📌 " : "📎 ") + ev.getTitre();
+            }
+            g2.fillRoundRect(pastille.x, pastille.y, pastille.width, pastille.height, 6, 6);
+            g2.setColor(Color.WHITE);
+            Shape ancienClip = g2.getClip();
+            g2.clipRect(pastille.x + 4, pastille.y, pastille.width - 6, pastille.height);
+            g2.drawString(texte, pastille.x + 4, pastille.y + (pastille.height + fm.getAscent() - fm.getDescent()) / 2);
+            g2.setClip(ancienClip);
+        }
+    }
+
+    private static Color couleurFond(LocalDate date) {
+        if (date.equals(LocalDate.now())) {
+            return new Color(220, 200, 240);
+        } else if (date.getDayOfWeek().getValue() == 5) {
+            return new Color(245, 240, 250);
+        } else if (date.getDayOfWeek().getValue() >= 6) {
+            return new Color(250, 245, 255);
+        } else {
+            return Color.WHITE;
+        }
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        Evenement ev = evenementA(e.getPoint());
+        if (ev != null) {
+            return "<html><b>" + ev.getTitre() + "</b><br>⏰ " + ev.getHeure().format(timeFormatter)
+                    + " · 👤 " + ev.getResponsable() + "</html>";
+        }
+        LocalDateTime creneau = creneauA(e.getPoint());
+        List<Evenement> liste = creneau != null ? parCreneau.get(creneau) : null;
+        if (liste == null) return null;
+        StringBuilder html = new StringBuilder("<html>");
+        for (Evenement autre : liste) {
+            html.append(autre.getHeure().format(timeFormatter)).append(" ").append(autre.getTitre()).append("<br>");
+        }
+        return html.append("</html>").toString();
+    }
+
+    // ==================== SOURIS ET GLISSER-DÉPOSER ====================
+
+    private void installerSouris() {
+        MouseAdapter souris = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                Evenement ev = evenementA(e.getPoint());
+                // Une occurrence de série se modifie par le dialogue (ce jour-là ou toute la série)
+                evenementGlisse = ev != null && !ev.estRecurrent() ? ev.getId() : -1;
+                if (ev != null && SwingUtilities.isRightMouseButton(e)) {
+                    actions.menuEvenement(ev, e);
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (evenementGlisse >= 0 && SwingUtilities.isLeftMouseButton(e)) {
+                    getTransferHandler().exportAsDrag(GrilleSemaine.this, e, TransferHandler.MOVE);
+                }
+            }
+
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (!SwingUtilities.isLeftMouseButton(e) || evenementA(e.getPoint()) != null) return;
+                LocalDateTime creneau = creneauA(e.getPoint());
+                if (creneau != null) actions.creneauClique(creneau);
+            }
+        };
+        addMouseListener(souris);
+        addMouseMotionListener(souris);
+    }
+
+    private void installerGlisserDeposer() {
+        setTransferHandler(new TransferHandler() {
+            @Override
+            public int getSourceActions(JComponent c) {
+                return MOVE;
+            }
+
+            @Override
+            protected Transferable createTransferable(JComponent c) {
+                return evenementGlisse >= 0 ? new StringSelection(String.valueOf(evenementGlisse)) : null;
+            }
+
+            @Override
+            public boolean canImport(TransferSupport support) {
+                if (!support.isDataFlavorSupported(DataFlavor.stringFlavor)) return false;
+                if (support.isDrop()) survoler(creneauA(support.getDropLocation().getDropPoint()));
+                return true;
+            }
+
+            @Override
+            public boolean importData(TransferSupport support) {
+                LocalDateTime creneau = support.isDrop() ? creneauA(support.getDropLocation().getDropPoint()) : null;
+                survoler(null);
+                if (creneau == null) return false;
+                try {
+                    String data = (String) support.getTransferable().getTransferData(DataFlavor.stringFlavor);
+                    int id = Integer.parseInt(data.trim());
+                    // Déposé dans son propre créneau : rien à déplacer
+                    if (creneau.equals(creneauParId.get(id))) return false;
+                    actions.evenementDepose(id, creneau);
+                    return true;
+                } catch (Exception e) {
+                    System.err.println("❌ Erreur drop: " + e.getMessage());
+                    return false;
+                }
+            }
+        });
+
+        // Effacer la surbrillance quand le glisser quitte la grille sans déposer
+        // (pas de cible de dépôt en mode headless)
+        if (getDropTarget() == null) return;
+        try {
+            getDropTarget().addDropTargetListener(new DropTargetAdapter() {
+                @Override
+                public void dragExit(DropTargetEvent dte) {
+                    survoler(null);
+                }
+
+                @Override
+                public void drop(DropTargetDropEvent dtde) {
+                }
+            });
+        } catch (TooManyListenersException e) {
+            System.err.println("⚠️ Surbrillance du dépôt indisponible: " + e.getMessage());
+        }
+    }
+
+    private void survoler(LocalDateTime creneau) {
+        if (creneau == null ? creneauSurvole == null : creneau.equals(creneauSurvole)) return;
+        LocalDateTime ancien = creneauSurvole;
+        creneauSurvole = creneau;
+        repaintCreneau(ancien);
+        repaintCreneau(creneau);
+    }
+
+    /**
+     * Fait défiler la grille pour que cette heure soit en haut de la zone visible
+     */
+    public void defilerVers(LocalTime heure) {
+        int ligne = Math.max((heure.getHour() * 60 + heure.getMinute() - premiereMinute) / minutesParCreneau, 0);
+        Rectangle visible = getVisibleRect();
+        scrollRectToVisible(new Rectangle(0, ligne * hauteurLigne, 1, Math.max(visible.height, hauteurLigne)));
+    }
+
+    // ==================== DIMENSIONS ====================
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(LARGEUR_HEURES + 7 * LARGEUR_JOUR_MIN, nombreLignes * hauteurLigne);
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(LARGEUR_HEURES + 7 * 120, Math.min(nombreLignes, 40) * hauteurLigne);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? hauteurLigne : largeurJour();
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? visibleRect.height - hauteurLigne : visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        Container parent = SwingUtilities.getUnwrappedParent(this);
+        return parent instanceof JViewport && parent.getWidth() > getPreferredSize().width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+
+    /**
+     * Jours de la semaine, alignés sur les colonnes de la grille
+     */
+    private class EnTete extends JComponent {
+        EnTete() {
+            setOpaque(true);
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(GrilleSemaine.this.getWidth(), HAUTEUR_EN_TETE);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(GrilleSemaine.this.getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            g2.setFont(POLICE_JOURS);
+            FontMetrics fm = g2.getFontMetrics();
+            int largeur = largeurJour();
+            for (int j = 0; j < 7; j++) {
+                LocalDate date = debutSemaine.plusDays(j);
+                int x = LARGEUR_HEURES + j * largeur;
+                g2.setColor(date.equals(LocalDate.now()) ? new Color(220, 200, 240) : COULEUR_HEURES);
+                g2.fillRect(x + 1, 0, largeur - 2, getHeight() - 2);
+                String texte = JOURS[j] + " " + date.getDayOfMonth();
+                g2.setColor(COULEUR_TEXTE);
+                g2.drawString(texte, x + (largeur - fm.stringWidth(texte)) / 2,
+                        (getHeight() + fm.getAscent() - fm.getDescent()) / 2);
+            }
+            g2.dispose();
+        }
+    }
+}
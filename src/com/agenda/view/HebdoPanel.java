@@ -1,13 +1,16 @@
 package com.agenda.view;
 
 import com.agenda.controller.AgendaController;
+import com.agenda.controller.ChangementAgenda;
 import com.agenda.controller.JsonManager;
+import com.agenda.controller.NotificationAgenda;
 import com.agenda.modele.Evenement;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -15,30 +18,77 @@ import java.util.List;
 public class HebdoPanel extends JPanel {
 
     private final AgendaController controller;
-    private final JPanel gridPanel;
+    private final GrilleSemaine grille;
     private final JLabel monthLabel;
     private final JLabel statusLabel;
     private LocalDate startWeek;
-    private final String[] jours = {"Lun", "Mar", "Mer", "Jeu", "Ven", "Sam", "Dim"};
-    private final LocalTime[] heures;
     private JFrame parentFrame;
+    // Confirmations et erreurs en toasts : pas de fenêtre modale par-dessus ceux du contrôleur
+    private final GestionnaireToasts toasts;
+    
+    // Partage : lecture de users.json puis écriture des notifications, hors de l'EDT
+    private final RequeteAsynchrone<Destinataires> chargementDestinataires = new RequeteAsynchrone<>("chargement des utilisateurs");
+    private final RequeteAsynchrone<Void> enregistrementPartage = new RequeteAsynchrone<>("enregistrement du partage");
+    // Une semaine hors de la fenêtre chargée est lue sur disque : hors de l'EDT aussi
+    private final RequeteAsynchrone<List<Evenement>> chargementSemaine = new RequeteAsynchrone<>("chargement de la semaine");
+    
+    /**
+     * Utilisateurs avec qui partager (tous sauf l'utilisateur courant), lus dans users.json
+     */
+    private static final class Destinataires {
+        final List<JsonManager.UserJson> utilisateurs;
+        final int currentUserId;
+        
+        Destinataires(List<JsonManager.UserJson> utilisateurs, int currentUserId) {
+            this.utilisateurs = utilisateurs;
+            this.currentUserId = currentUserId;
+        }
+    }
+    // Créneaux de 15 minutes sur 24 h, sans aucun composant par créneau
+    private static final int MINUTES_PAR_CRENEAU = 15;
+    private static final int HAUTEUR_CRENEAU = 22;
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
 
-    public HebdoPanel(AgendaController controller, JFrame parent) {
+    public HebdoPanel(AgendaController controller, JFrame parent, GestionnaireToasts toasts) {
         this.controller = controller;
         this.parentFrame = parent;
+        this.toasts = toasts;
+        chargementDestinataires.setIndicateur(enCours -> {
+            setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+            if (enCours) updateStatus("⏳ Chargement des utilisateurs...");
+        });
+        chargementSemaine.setIndicateur(enCours ->
+            setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR)));
+        enregistrementPartage.setIndicateur(enCours -> {
+            setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR));
+            if (enCours) updateStatus("⏳ Enregistrement du partage...");
+        });
         
         // Initialisation des variables final
         this.monthLabel = new JLabel("", SwingConstants.CENTER);
         this.statusLabel = new JLabel("💜 Medisyns - Prêt", SwingConstants.LEFT);
         
-        // Initialisation du tableau heures
-        this.heures = new LocalTime[10];
-        for (int i = 0; i < 10; i++) this.heures[i] = LocalTime.of(8 + i, 0);
-        
-        this.gridPanel = new JPanel();
+        this.grille = new GrilleSemaine(MINUTES_PAR_CRENEAU, LocalTime.MIDNIGHT, LocalTime.MAX, HAUTEUR_CRENEAU,
+                this::estMonEvenement, new GrilleSemaine.Actions() {
+            @Override
+            public void creneauClique(LocalDateTime creneau) {
+                EventDialog dialog = new EventDialog(parentFrame, controller, creneau.toLocalDate());
+                dialog.setVisible(true);
+                updateStatus("➕ Nouvel événement créé");
+            }
+
+            @Override
+            public void menuEvenement(Evenement ev, MouseEvent e) {
+                showEventContextMenu(ev, grille, e);
+            }
+
+            @Override
+            public void evenementDepose(int evenementId, LocalDateTime creneau) {
+                handleEventDrop(evenementId, creneau.toLocalDate(), creneau.toLocalTime());
+            }
+        });
         
         setLayout(new BorderLayout());
         setBackground(new Color(250, 245, 255));
@@ -50,7 +100,10 @@ public class HebdoPanel extends JPanel {
         startWeek = LocalDate.now();
         while (startWeek.getDayOfWeek() != DayOfWeek.MONDAY) startWeek = startWeek.minusDays(1);
 
+        controller.addChangementListener(this::appliquerChangement);
         refreshCalendar();
+        // Début de journée visible à l'ouverture, le reste des 24 h est accessible au défilement
+        SwingUtilities.invokeLater(() -> grille.defilerVers(LocalTime.of(8, 0)));
     }
 
     private void initializeUI() {
@@ -94,9 +147,8 @@ public class HebdoPanel extends JPanel {
     }
 
     private void setupCalendarGrid() {
-        gridPanel.setBackground(new Color(250, 245, 255));
-
-        JScrollPane scrollPane = new JScrollPane(gridPanel);
+        JScrollPane scrollPane = new JScrollPane(grille);
+        scrollPane.setColumnHeaderView(grille.getEnTete());
         scrollPane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
         scrollPane.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED);
         add(scrollPane, BorderLayout.CENTER);
@@ -119,135 +171,43 @@ public class HebdoPanel extends JPanel {
     }
 
     public void refreshCalendar() {
-        gridPanel.removeAll();
-        monthLabel.setText("📅 Semaine du " + startWeek.format(dateFormatter) + " au " + startWeek.plusDays(6).format(dateFormatter));
-        gridPanel.setLayout(new GridLayout(heures.length + 1, jours.length + 1, 2, 2));
-
-        gridPanel.add(new JLabel(""));
-
-        // En-têtes des jours
-        for (int j = 0; j < 7; j++) {
-            LocalDate date = startWeek.plusDays(j);
-            JLabel lbl = new JLabel(jours[j] + " " + date.getDayOfMonth(), SwingConstants.CENTER);
-            lbl.setFont(new Font("Segoe UI", Font.BOLD, 14));
-            lbl.setForeground(new Color(80, 50, 120));
-            lbl.setOpaque(true);
-            lbl.setBackground(new Color(240, 230, 250));
-            gridPanel.add(lbl);
-        }
-
-        // Heures et cellules
-        for (LocalTime h : heures) {
-            JLabel lbl = new JLabel(h.format(timeFormatter), SwingConstants.CENTER);
-            lbl.setFont(new Font("Segoe UI", Font.BOLD, 12));
-            lbl.setOpaque(true);
-            lbl.setBackground(new Color(230, 220, 240));
-            lbl.setForeground(new Color(80, 50, 120));
-            gridPanel.add(lbl);
-
-            for (int j = 0; j < 7; j++) {
-                LocalDate date = startWeek.plusDays(j);
-                JPanel cell = createCalendarCell(date, h);
-                gridPanel.add(cell);
-            }
-        }
-
-        gridPanel.revalidate();
-        gridPanel.repaint();
-        updateStatus("Calendrier actualisé - " + controller.getEvenements().size() + " événements");
-    }
-
-    private JPanel createCalendarCell(LocalDate date, LocalTime time) {
-        JPanel cell = new JPanel();
-        cell.setLayout(new BoxLayout(cell, BoxLayout.Y_AXIS));
-        cell.setBackground(getCellBackgroundColor(date));
-        cell.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
-
-        // CONFIGURATION DU DROP
-        final LocalDate finalDate = date;
-        final LocalTime finalTime = time;
-        
-        // Activer le drop sur la cellule
-        DragDropEvent.enableDrop(cell, new DragDropEvent.DropCallback() {
-            @Override
-            public void onDrop(String data) {
-                handleEventDrop(data, finalDate, finalTime);
-            }
-        });
-
-        // Clic sur cellule pour créer un événement
-        cell.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mouseClicked(MouseEvent e) {
-                if (SwingUtilities.isLeftMouseButton(e)) {
-                    EventDialog dialog = new EventDialog(parentFrame, controller, date);
-                    dialog.setVisible(true);
-                    refreshCalendar();
-                    updateStatus("➕ Nouvel événement créé");
-                }
-            }
-        });
-
-        // Ajouter les événements existants
-        addEventsToCell(cell, date, time);
-
-        return cell;
+        LocalDate semaine = startWeek;
+        monthLabel.setText("📅 Semaine du " + semaine.format(dateFormatter) + " au " + semaine.plusDays(6).format(dateFormatter));
+        chargementSemaine.lancer(() -> controller.getEvenementsPourSemaine(semaine), evenements -> {
+            grille.afficherSemaine(semaine, evenements);
+            updateStatus("Calendrier actualisé - " + controller.getNombreEvenements() + " événements");
+        }, e -> showRedAlert("Erreur de lecture", "Impossible de charger la semaine: " + e.getMessage()));
     }
 
-    private void addEventsToCell(JPanel cell, LocalDate date, LocalTime time) {
-        List<Evenement> events = controller.getEvenementsPourDateEtHeure(date, time);
-        
-        for (Evenement ev : events) {
-            JPanel eventPanel = createEventPanel(ev);
-            cell.add(eventPanel);
+    /**
+     * Ne repeint que l'ancien et le nouveau créneau de l'événement (une série ou un lot recharge la semaine)
+     */
+    public void appliquerChangement(ChangementAgenda changement) {
+        // Pendant un chargement, la grille n'affiche pas encore la semaine courante : le relancer
+        // (il lira le changement) plutôt que repeindre un résultat qui pourrait ne pas le contenir
+        if (changement.getType() == ChangementAgenda.Type.SERIE || chargementSemaine.estEnCours()) {
+            refreshCalendar();
+            return;
+        }
+        // Un lot qui touche la semaine la recharge une seule fois
+        if (changement.getType() == ChangementAgenda.Type.LOT) {
+            if (changement.concerne(startWeek, startWeek.plusDays(7))) refreshCalendar();
+            return;
+        }
+        if (changement.concerne(startWeek, startWeek.plusDays(7))) {
+            grille.appliquerChangement(changement);
         }
     }
 
-    private JPanel createEventPanel(Evenement event) {
-        JPanel eventPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 2, 2));
-        
-        // 🎨 COULEURS DIFFÉRENTES selon le créateur
-        // Couleur 1 (Violet) : événements créés par l'utilisateur connecté
-        // Couleur 2 (Bleu) : événements créés par d'autres utilisateurs
-        Color couleurMesEvenements = new Color(138, 43, 226);      // Violet - mes événements
-        Color couleurAutresEvenements = new Color(70, 130, 180);   // Bleu acier - autres événements
-        
+    // 🎨 Violet pour les événements de l'utilisateur connecté, bleu pour ceux des autres
+    private boolean estMonEvenement(Evenement event) {
         String currentUsername = controller.getUtilisateurCourant() != null ? 
                                  controller.getUtilisateurCourant().getUsername() : "";
         String eventCreateur = event.getCreateurUsername() != null ? event.getCreateurUsername() : "";
         
-        boolean estMonEvenement = currentUsername.equals(eventCreateur) || 
-                                  eventCreateur.isEmpty() || 
-                                  "System".equals(eventCreateur);
-        
-        Color bgColor = estMonEvenement ? couleurMesEvenements : couleurAutresEvenements;
-        String icon = estMonEvenement ? "📌" : "📎";
-        
-        eventPanel.setBackground(bgColor);
-        eventPanel.setBorder(BorderFactory.createEmptyBorder(2, 5, 2, 5));
-        eventPanel.setMaximumSize(new Dimension(Integer.MAX_VALUE, 25));
-
-        JLabel eventLabel = new JLabel(icon + " " + event.getTitre());
-        eventLabel.setForeground(Color.WHITE);
-        eventLabel.setFont(new Font("Segoe UI", Font.BOLD, 10));
-
-        eventPanel.add(eventLabel);
-
-        // CONFIGURATION DU DRAG
-        String eventData = event.getTitre() + "|" + event.getDate() + "|" + event.getHeure();
-        DragDropEvent.enableDrag(eventPanel, eventData);
-
-        // Menu contextuel
-        eventPanel.addMouseListener(new MouseAdapter() {
-            @Override
-            public void mousePressed(MouseEvent e) {
-                if (SwingUtilities.isRightMouseButton(e)) {
-                    showEventContextMenu(event, eventPanel, e);
-                }
-            }
-        });
-
-        return eventPanel;
+        return currentUsername.equals(eventCreateur) || 
+               eventCreateur.isEmpty() || 
+               "System".equals(eventCreateur);
     }
 
     // 🔥 AJOUT: Menu contextuel avec partage
@@ -264,16 +224,20 @@ public class HebdoPanel extends JPanel {
             EventDialog dialog = new EventDialog(parentFrame, controller, ev.getDate());
             dialog.setEvenement(ev);
             dialog.setVisible(true);
-            refreshCalendar();
         });
         deleteItem.addActionListener(ae -> {
+            if (ev.estOccurrence()) {
+                int portee = EventDialog.choisirPortee(parentFrame, ev, "Supprimer");
+                if (portee == EventDialog.PORTEE_OCCURRENCE) controller.supprimerEvenement(ev);
+                else if (portee == EventDialog.PORTEE_SERIE) controller.supprimerEvenement(ev.getId());
+                return;
+            }
             int confirm = JOptionPane.showConfirmDialog(parentFrame, 
                 "Supprimer '" + ev.getTitre() + "' ?", 
                 "Confirmation", 
                 JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
                 controller.supprimerEvenement(ev);
-                refreshCalendar();
             }
         });
         shareItem.addActionListener(ae -> partagerEvenement(ev)); // 🔥 AJOUT: Action partage
@@ -289,23 +253,31 @@ public class HebdoPanel extends JPanel {
 
     // 🔥 MÉTHODE DE PARTAGE - Affiche les utilisateurs depuis users.json
     private void partagerEvenement(Evenement ev) {
-        // Lire les utilisateurs depuis users.json
-        List<JsonManager.UserJson> utilisateurs = JsonManager.lireUtilisateurs();
+        String email = controller.getUtilisateurCourant() != null ? controller.getUtilisateurCourant().getEmail() : null;
         
+        // Lire les utilisateurs depuis users.json, en arrière-plan
+        chargementDestinataires.lancer(() -> {
+            int currentUserId = email != null ? getUserIdByEmail(email) : -1;
+            List<JsonManager.UserJson> autres = new java.util.ArrayList<>();
+            for (JsonManager.UserJson user : JsonManager.lireUtilisateurs()) {
+                // Ne pas afficher l'utilisateur courant dans la liste de partage
+                if (user.id != currentUserId) autres.add(user);
+            }
+            return new Destinataires(autres, currentUserId);
+        }, destinataires -> choisirDestinataires(ev, destinataires),
+            e -> showRedAlert("Erreur", "Impossible de lire les utilisateurs: " + e.getMessage()));
+    }
+    
+    private void choisirDestinataires(Evenement ev, Destinataires destinataires) {
         // Créer un modèle de liste avec les noms des utilisateurs
         DefaultListModel<String> listModel = new DefaultListModel<>();
         java.util.Map<String, Integer> nomVersId = new java.util.HashMap<>();
+        int currentUserId = destinataires.currentUserId;
         
-        int currentUserId = controller.getUtilisateurCourant() != null ? 
-                            getUserIdByEmail(controller.getUtilisateurCourant().getEmail()) : -1;
-        
-        for (JsonManager.UserJson user : utilisateurs) {
-            // Ne pas afficher l'utilisateur courant dans la liste de partage
-            if (user.id != currentUserId) {
-                String displayName = user.nom + " (" + user.role + ")";
-                listModel.addElement(displayName);
-                nomVersId.put(displayName, user.id);
-            }
+        for (JsonManager.UserJson user : destinataires.utilisateurs) {
+            String displayName = user.nom + " (" + user.role + ")";
+            listModel.addElement(displayName);
+            nomVersId.put(displayName, user.id);
         }
         
         if (listModel.isEmpty()) {
@@ -355,128 +327,72 @@ public class HebdoPanel extends JPanel {
                     Integer userId = nomVersId.get(selected);
                     if (userId != null) {
                         userIds.add(userId);
-                        
-                        // Créer une notification pour chaque utilisateur
-                        String createurNom = controller.getUtilisateurCourant() != null ? 
-                                            controller.getUtilisateurCourant().getNomComplet() : "Quelqu'un";
-                        String notifMessage = createurNom + " a partagé l'événement '" + ev.getTitre() + "' avec vous";
-                        JsonManager.ajouterNotification(userId, notifMessage);
-                        
                         if (participantNames.length() > 0) participantNames.append(", ");
                         participantNames.append(selected.split(" \\(")[0]); // Juste le nom
                     }
                 }
                 
-                // Sauvegarder le partage dans events.json (si event_id existe)
-                // Pour l'instant on met à jour la liste des participants
-                
-                String successHTML = String.format(
-                    "<html>" +
-                    "<div style='background: linear-gradient(135deg, #E6D7FF, #F0E8FF); padding: 20px; border-radius: 12px; border: 2px solid #B464C8; width: 380px;'>" +
-                    "<h3 style='margin: 0 0 15px 0; text-align: center; color: #6B46C1; font-size: 16px;'>✅ Partage Réussi</h3>" +
-                    "<div style='text-align: center; color: #4A5568; font-size: 13px;'>" +
-                    "<div style='background: #F8F5FF; padding: 10px; border-radius: 8px; margin: 10px 0; border: 1px solid #D6BCFA;'>" +
-                    "<b style='color: #6B46C1;'>%s</b>" +
-                    "</div>" +
-                    "<div style='color: #718096; margin: 8px 0;'>Partagé avec :</div>" +
-                    "<div style='background: #FFFFFF; padding: 12px; border-radius: 8px; border: 1px solid #E2E8F0; color: #2D3748; font-weight: 500;'>" +
-                    "%s" +
-                    "</div>" +
-                    "<div style='color: #38A169; margin-top: 10px; font-size: 12px;'>🔔 Notifications envoyées</div>" +
-                    "</div>" +
-                    "</div>" +
-                    "</html>",
-                    ev.getTitre(), participantNames.toString()
-                );
-
-                JLabel successLabel = new JLabel(successHTML);
-                successLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-                JOptionPane.showMessageDialog(
-                    parentFrame,
-                    successLabel,
-                    "💜 Medisyns - Partage",
-                    JOptionPane.INFORMATION_MESSAGE
-                );
+                // Une notification pour chaque utilisateur, écrites ensemble
+                String createurNom = controller.getUtilisateurCourant() != null ? 
+                                    controller.getUtilisateurCourant().getNomComplet() : "Quelqu'un";
+                String notifMessage = createurNom + " a partagé l'événement '" + ev.getTitre() + "' avec vous";
                 
-                updateStatus("🔗 Événement partagé: " + ev.getTitre() + " avec " + userIds.size() + " utilisateurs");
+                enregistrementPartage.lancer(() -> {
+                    JsonManager.ajouterNotifications(userIds, notifMessage);
+                    // Sauvegarder le partage dans events.json (event_id = identifiant de l'événement)
+                    JsonManager.enregistrerEvenement(JsonManager.versEventJson(ev, currentUserId));
+                    JsonManager.partagerEvenement(ev.getId(), userIds);
+                    return null;
+                }, v -> confirmerPartage(ev, userIds.size(), participantNames.toString()),
+                    e -> showRedAlert("Erreur", "Impossible d'enregistrer le partage: " + e.getMessage()));
             } else {
                 showRedAlert("Aucun utilisateur sélectionné", "Veuillez sélectionner au moins un utilisateur.");
             }
         }
     }
     
+    private void confirmerPartage(Evenement ev, int nombreUtilisateurs, String participantNames) {
+        toasts.afficher(NotificationAgenda.succes("Partage réussi",
+            ev.getTitre() + " partagé avec " + participantNames + " 🔔 Notifications envoyées"));
+        updateStatus("🔗 Événement partagé: " + ev.getTitre() + " avec " + nombreUtilisateurs + " utilisateurs");
+    }
+    
     // Helper pour trouver l'ID utilisateur par email
     private int getUserIdByEmail(String email) {
-        if (email == null) return -1;
-        List<JsonManager.UserJson> users = JsonManager.lireUtilisateurs();
-        for (JsonManager.UserJson user : users) {
-            if (user.email.equalsIgnoreCase(email)) {
-                return user.id;
-            }
-        }
-        return -1;
+        JsonManager.UserJson user = JsonManager.getUtilisateurParEmail(email);
+        return user != null ? user.id : -1;
     }
 
-    private void handleEventDrop(String eventData, LocalDate newDate, LocalTime newTime) {
+    private void handleEventDrop(int eventId, LocalDate newDate, LocalTime newTime) {
         try {
-            String[] parts = eventData.split("\\|");
-            if (parts.length >= 3) {
-                String titre = parts[0];
-                LocalDate oldDate = LocalDate.parse(parts[1]);
-                LocalTime oldTime = LocalTime.parse(parts[2]);
-
-                System.out.println("🔄 Tentative de déplacement: " + titre);
-                System.out.println("   De: " + oldDate + " " + oldTime);
+            Evenement eventToUpdate = controller.getEvenementParId(eventId);
+            
+            if (eventToUpdate != null) {
+                System.out.println("🔄 Tentative de déplacement: " + eventToUpdate.getTitre());
+                System.out.println("   De: " + eventToUpdate.getDate() + " " + eventToUpdate.getHeure());
                 System.out.println("   Vers: " + newDate + " " + newTime);
 
-                // Trouver l'événement
-                Evenement eventToUpdate = findEvent(titre, oldDate, oldTime);
+                // Créer une copie avec la nouvelle date/heure
+                Evenement nouvelEvent = new Evenement(
+                    eventToUpdate.getTitre(),
+                    eventToUpdate.getDescription(),
+                    newDate,
+                    newTime,
+                    eventToUpdate.getResponsable(),
+                    eventToUpdate.getParticipants()
+                );
+                nouvelEvent.setNotificationBeforeMinutes(eventToUpdate.getNotificationBeforeMinutes());
+                nouvelEvent.setDureeMinutes(eventToUpdate.getDureeMinutes());
+
+                // Mettre à jour
+                controller.mettreAJourEvenement(eventId, nouvelEvent);
                 
-                if (eventToUpdate != null) {
-                    // Créer une copie avec la nouvelle date/heure
-                    Evenement nouvelEvent = new Evenement(
-                        eventToUpdate.getTitre(),
-                        eventToUpdate.getDescription(),
-                        newDate,
-                        newTime,
-                        eventToUpdate.getResponsable(),
-                        eventToUpdate.getParticipants()
-                    );
-                    nouvelEvent.setNotificationBeforeMinutes(eventToUpdate.getNotificationBeforeMinutes());
-
-                    // Mettre à jour
-                    controller.mettreAJourEvenement(eventToUpdate, nouvelEvent);
-                    refreshCalendar();
-                    
-                    updateStatus("✅ Événement déplacé: " + titre);
-                    showSuccessMessage("Événement déplacé avec succès!");
-                }
+                // Le contrôleur confirme lui-même la modification (toast « Événement modifié »)
+                updateStatus("✅ Événement déplacé: " + nouvelEvent.getTitre());
             }
         } catch (Exception e) {
             System.err.println("❌ Erreur drop: " + e.getMessage());
-            showErrorAlert("Erreur lors du déplacement");
-        }
-    }
-
-    private Evenement findEvent(String titre, LocalDate date, LocalTime time) {
-        return controller.getEvenements().stream()
-                .filter(ev -> ev.getTitre().equals(titre) && 
-                         ev.getDate().equals(date) && 
-                         ev.getHeure().equals(time))
-                .findFirst()
-                .orElse(null);
-    }
-
-    private Color getCellBackgroundColor(LocalDate date) {
-        if (date.equals(LocalDate.now())) {
-            return new Color(220, 200, 240);
-        } else if (date.getDayOfWeek().getValue() == 5) {
-            return new Color(245, 240, 250);
-        } else if (date.getDayOfWeek().getValue() >= 6) {
-            return new Color(250, 245, 255);
-        } else {
-            return Color.WHITE;
+            showRedAlert("Erreur", "Erreur lors du déplacement: " + e.getMessage());
         }
     }
 
@@ -497,34 +413,7 @@ public class HebdoPanel extends JPanel {
         JOptionPane.showMessageDialog(this, details, "Détails - " + ev.getTitre(), JOptionPane.INFORMATION_MESSAGE);
     }
 
-    private void showSuccessMessage(String message) {
-        JOptionPane.showMessageDialog(parentFrame, message, "Succès", JOptionPane.INFORMATION_MESSAGE);
-    }
-
-    private void showErrorAlert(String message) {
-        JOptionPane.showMessageDialog(parentFrame, message, "Erreur", JOptionPane.ERROR_MESSAGE);
-    }
-
-    // 🚨 MÉTHODE POUR ALERTES EN ROUGE
     private void showRedAlert(String title, String message) {
-        String alertHTML = String.format(
-            "<html>" +
-            "<div style='background: linear-gradient(135deg, #FED7D7, #FEB2B2); padding: 20px; border-radius: 12px; border: 2px solid #FC8181; width: 320px;'>" +
-            "<h3 style='margin: 0 0 12px 0; text-align: center; color: #C53030; font-size: 16px;'>⚠️ %s</h3>" +
-            "<div style='text-align: center; color: #744210; font-size: 13px; background: #FFFFFF; padding: 12px; border-radius: 8px; border: 1px solid #FBD38D;'>%s</div>" +
-            "</div>" +
-            "</html>",
-            title, message
-        );
-
-        JLabel alertLabel = new JLabel(alertHTML);
-        alertLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
-
-        JOptionPane.showMessageDialog(
-            this,
-            alertLabel,
-            "🚨 Medisyns - Erreur",
-            JOptionPane.ERROR_MESSAGE
-        );
+        toasts.afficher(NotificationAgenda.alerte(title, message));
     }
-}
\ No newline at end of file
+}
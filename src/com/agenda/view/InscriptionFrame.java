@@ -22,6 +22,8 @@ public class InscriptionFrame extends JFrame {
     private JComboBox<String> roleCombo;
     private JLabel messageLabel;
     private JButton registerButton;
+    // Écriture de users.json hors de l'EDT
+    private final RequeteAsynchrone<Boolean> inscription = new RequeteAsynchrone<>("inscription");
     
     // Couleurs du theme
     private static final Color PRIMARY_COLOR = new Color(102, 51, 153);
@@ -283,9 +285,15 @@ public class InscriptionFrame extends JFrame {
         // Role pour JSON
         String roleJson = roleSelection.equals("Administrateur") ? "admin" : "user";
         
-        // Sauvegarder dans users.json
-        boolean success = JsonManager.ajouterUtilisateur(nom, email, password, roleJson);
-        
+        // Sauvegarder dans users.json, en arrière-plan
+        inscription.lancer(() -> JsonManager.ajouterUtilisateur(nom, email, password, roleJson), this::terminerInscription, e -> {
+            showError("Erreur d'enregistrement du compte");
+            registerButton.setEnabled(true);
+            registerButton.setText("S'inscrire");
+        });
+    }
+    
+    private void terminerInscription(boolean success) {
         if (success) {
             showSuccess("Compte cree avec succes !");
             
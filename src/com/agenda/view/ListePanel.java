@@ -4,19 +4,30 @@ import com.agenda.controller.AgendaController;
 import com.agenda.modele.Evenement;
 import com.agenda.modele.Utilisateur;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.border.TitledBorder;
 import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ListePanel extends JPanel {
 
     private final AgendaController controller;
-    private final DefaultTableModel tableModel;
+    private final ModeleEvenements tableModel;
     private final JTable eventTable;
     private final JTextField searchField;
+    // Étend la recherche aux événements archivés (consultation seule)
+    private final JCheckBox archivesCheck;
+    // Recherche pendant la saisie : le filtre part après une courte pause de frappe
+    private static final int DELAI_RECHERCHE_MS = 250;
+    private final Timer minuterieRecherche;
+    // Filtrage hors de l'EDT ; le résultat d'un filtrage remplacé par un plus récent est ignoré
+    private final RequeteAsynchrone<List<Evenement>> filtrage = new RequeteAsynchrone<>("filtrage");
+    // Résultats d'une recherche affichés au plus (les plus proches de maintenant)
+    private static final int MAX_RESULTATS = 2000;
+    private final TitledBorder bordureTableau;
 
     public ListePanel(AgendaController controller) {
         this.controller = controller;
@@ -46,17 +57,23 @@ public class ListePanel extends JPanel {
         searchButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
         searchButton.setFocusPainted(false);
 
+        archivesCheck = new JCheckBox("🗄️ Archives");
+        archivesCheck.setOpaque(false);
+        archivesCheck.setForeground(new Color(80, 50, 120));
+        archivesCheck.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        archivesCheck.setFocusPainted(false);
+        archivesCheck.setToolTipText("Chercher aussi dans les événements archivés");
+
+        JPanel actionsRecherche = new JPanel(new FlowLayout(FlowLayout.RIGHT, 8, 0));
+        actionsRecherche.setOpaque(false);
+        actionsRecherche.add(archivesCheck);
+        actionsRecherche.add(searchButton);
+
         searchPanel.add(searchLabel, BorderLayout.WEST);
         searchPanel.add(searchField, BorderLayout.CENTER);
-        searchPanel.add(searchButton, BorderLayout.EAST);
+        searchPanel.add(actionsRecherche, BorderLayout.EAST);
 
-        String[] colonnes = {"📝 Titre", "👤 Responsable", "👥 Participants", "⏰ Heure", "📅 Date", "📄 Description"};
-        tableModel = new DefaultTableModel(colonnes, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = new ModeleEvenements();
         
         eventTable = new JTable(tableModel);
         eventTable.setBackground(Color.WHITE);
@@ -72,20 +89,33 @@ public class ListePanel extends JPanel {
         eventTable.getTableHeader().setFont(new Font("Segoe UI", Font.BOLD, 14));
 
         JScrollPane scrollPane = new JScrollPane(eventTable);
-        scrollPane.setBorder(BorderFactory.createTitledBorder(
+        bordureTableau = BorderFactory.createTitledBorder(
                 BorderFactory.createLineBorder(new Color(180, 100, 200), 2),
                 "📋 Tous les Événements",
                 0, 0,
                 new Font("Segoe UI", Font.BOLD, 14),
                 new Color(80, 50, 120)
-        ));
+        );
+        scrollPane.setBorder(bordureTableau);
 
         add(searchPanel, BorderLayout.NORTH);
         add(scrollPane, BorderLayout.CENTER);
 
         searchButton.addActionListener(e -> appliquerFiltre());
+        archivesCheck.addActionListener(e -> filtrer(false));
         searchField.addActionListener(e -> appliquerFiltre());
 
+        minuterieRecherche = new Timer(DELAI_RECHERCHE_MS, e -> filtrer(false));
+        minuterieRecherche.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { minuterieRecherche.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { minuterieRecherche.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { }
+        });
+
         // 🔥 AJOUT: Raccourcis clavier améliorés
         setupKeyboardShortcuts();
 
@@ -102,6 +132,7 @@ public class ListePanel extends JPanel {
             }
         });
 
+        controller.addChangementListener(tableModel::appliquerChangement);
         refreshTable();
     }
 
@@ -162,7 +193,6 @@ public class ListePanel extends JPanel {
         if (window instanceof JFrame) {
             EventDialog dialog = new EventDialog((JFrame) window, controller, java.time.LocalDate.now());
             dialog.setVisible(true);
-            refreshTable();
         }
     }
 
@@ -221,71 +251,52 @@ public class ListePanel extends JPanel {
         menu.show(table, x, y);
     }
 
+    /**
+     * Recharge le tableau depuis le contrôleur, avec le filtre saisi
+     */
     public void refreshTable() {
-        tableModel.setRowCount(0);
-        DateTimeFormatter heureFmt = DateTimeFormatter.ofPattern("HH:mm");
-        DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        List<Evenement> events = controller.getEvenements();
-        
-        for (Evenement e : events) {
-            String participants = "Aucun";
-            if (e.getParticipants() != null && !e.getParticipants().isEmpty()) {
-                participants = String.join(", ", e.getParticipants());
-                if (participants.length() > 50) {
-                    participants = participants.substring(0, 47) + "...";
-                }
-            }
-            
-            tableModel.addRow(new Object[]{
-                    e.getTitre(),
-                    e.getResponsable(),
-                    participants,
-                    e.getHeure().format(heureFmt),
-                    e.getDate().format(dateFmt),
-                    e.getDescription()
-            });
-        }
+        filtrer(false);
     }
 
     private void appliquerFiltre() {
+        filtrer(true);
+    }
+
+    /**
+     * Lance le filtrage hors de l'EDT ; un filtrage encore en cours n'est pas interrompu
+     * (il peut lire une partition ou une archive sur disque), son résultat est ignoré.
+     * Si des modifications arrivent pendant le calcul, il est relancé sur les données à jour.
+     */
+    private void filtrer(boolean signalerAucunResultat) {
+        minuterieRecherche.stop();
+
         String texte = searchField.getText().toLowerCase().trim();
-        tableModel.setRowCount(0);
-
-        DateTimeFormatter heureFmt = DateTimeFormatter.ofPattern("HH:mm");
-        DateTimeFormatter dateFmt = DateTimeFormatter.ofPattern("dd/MM/yyyy");
-
-        List<Evenement> filtres = controller.getEvenements().stream()
-                .filter(ev ->
-                        ev.getTitre().toLowerCase().contains(texte) ||
-                        ev.getResponsable().toLowerCase().contains(texte) ||
-                        ev.getDate().toString().contains(texte) ||
-                        (ev.getParticipants() != null && 
-                         ev.getParticipants().toString().toLowerCase().contains(texte))
-                ).collect(Collectors.toList());
-        
-        for (Evenement e : filtres) {
-            String participants = "Aucun";
-            if (e.getParticipants() != null && !e.getParticipants().isEmpty()) {
-                participants = String.join(", ", e.getParticipants());
-                if (participants.length() > 50) {
-                    participants = participants.substring(0, 47) + "...";
-                }
+        boolean avecArchives = archivesCheck.isSelected();
+        long version = tableModel.getVersion();
+        filtrage.lancer(() -> {
+            if (texte.isEmpty()) return new ArrayList<>(controller.getEvenements());
+            List<Evenement> resultats = new ArrayList<>(controller.rechercherEvenements(texte, MAX_RESULTATS));
+            // Les archives, lues sur disque, complètent les résultats de l'agenda
+            if (avecArchives && resultats.size() < MAX_RESULTATS) {
+                resultats.addAll(controller.rechercherDansArchives(texte, MAX_RESULTATS - resultats.size()));
             }
-            
-            tableModel.addRow(new Object[]{
-                    e.getTitre(),
-                    e.getResponsable(),
-                    participants,
-                    e.getHeure().format(heureFmt),
-                    e.getDate().format(dateFmt),
-                    e.getDescription()
-            });
-        }
-        
-        if (filtres.isEmpty() && !texte.isEmpty()) {
-            showInfoMessage("🔍 Aucun résultat pour: " + texte);
-        }
+            return resultats;
+        }, filtres -> {
+            if (tableModel.getVersion() != version) {
+                filtrer(signalerAucunResultat);
+                return;
+            }
+            long archives = filtres.stream().filter(Evenement::estArchive).count();
+            tableModel.setLignes(filtres, texte);
+            bordureTableau.setTitle(texte.isEmpty() ? "📋 Tous les Événements"
+                    : "🔍 " + filtres.size() + " résultat(s) pour \"" + texte + "\""
+                      + (archives > 0 ? " dont " + archives + " archivé(s)" : "")
+                      + (filtres.size() == MAX_RESULTATS ? " (les plus proches)" : ""));
+            repaint();
+            if (signalerAucunResultat && filtres.isEmpty() && !texte.isEmpty()) {
+                showInfoMessage("🔍 Aucun résultat pour: " + texte);
+            }
+        });
     }
 
     // 🔥 AJOUT: Méthode pour partager un événement
@@ -301,17 +312,9 @@ public class ListePanel extends JPanel {
             showRedAlert("Sélection requise", "Veuillez sélectionner un événement à partager.");
             return;
         }
+        if (estLigneArchivee(row)) return;
 
-        String titre = tableModel.getValueAt(row, 0).toString();
-        String responsable = tableModel.getValueAt(row, 1).toString();
-        String dateStr = tableModel.getValueAt(row, 4).toString();
-
-        Evenement selectedEvent = controller.getEvenements().stream()
-                .filter(ev ->
-                        ev.getTitre().equals(titre) &&
-                        ev.getResponsable().equals(responsable) &&
-                        ev.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")).equals(dateStr)
-                ).findFirst().orElse(null);
+        Evenement selectedEvent = getEvenementLigne(row);
 
         if (selectedEvent == null) {
             showRedAlert("Événement introuvable", "L'événement sélectionné n'a pas été trouvé.");
@@ -470,29 +473,23 @@ public class ListePanel extends JPanel {
             showRedAlert("Sélection requise", "Veuillez sélectionner un événement à supprimer.");
             return;
         }
+        if (estLigneArchivee(row)) return;
 
-        String titre = tableModel.getValueAt(row, 0).toString();
-        String responsable = tableModel.getValueAt(row, 1).toString();
-        String date = tableModel.getValueAt(row, 4).toString();
-
-        Evenement toDelete = controller.getEvenements().stream()
-                .filter(ev ->
-                        ev.getTitre().equals(titre) &&
-                        ev.getResponsable().equals(responsable) &&
-                        ev.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")).equals(date)
-                ).findFirst().orElse(null);
-
+        Evenement toDelete = getEvenementLigne(row);
         if (toDelete == null) return;
+        String titre = toDelete.getTitre();
 
         int confirm = JOptionPane.showConfirmDialog(this,
-                "Voulez-vous vraiment supprimer l'événement \"" + titre + "\" ?",
+                toDelete.estRecurrent()
+                        ? "Voulez-vous vraiment supprimer la série \"" + titre + "\" ?\n🔁 "
+                          + toDelete.getRecurrence().getDescription() + " : toutes les occurrences seront supprimées."
+                        : "Voulez-vous vraiment supprimer l'événement \"" + titre + "\" ?",
                 "💜 Confirmation de suppression",
                 JOptionPane.YES_NO_OPTION,
                 JOptionPane.QUESTION_MESSAGE);
 
         if (confirm == JOptionPane.YES_OPTION) {
-            controller.supprimerEvenement(toDelete);
-            refreshTable();
+            controller.supprimerEvenement(toDelete.getId());
         }
     }
 
@@ -535,17 +532,9 @@ public class ListePanel extends JPanel {
             showRedAlert("Sélection requise", "Veuillez sélectionner un événement à modifier.");
             return;
         }
+        if (estLigneArchivee(row)) return;
 
-        String titre = tableModel.getValueAt(row, 0).toString();
-        String responsable = tableModel.getValueAt(row, 1).toString();
-        String dateStr = tableModel.getValueAt(row, 4).toString();
-
-        Evenement toEdit = controller.getEvenements().stream()
-                .filter(ev ->
-                        ev.getTitre().equals(titre) &&
-                        ev.getResponsable().equals(responsable) &&
-                        ev.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")).equals(dateStr)
-                ).findFirst().orElse(null);
+        Evenement toEdit = getEvenementLigne(row);
 
         if (toEdit == null) {
             showRedAlert("Événement introuvable", "L'événement sélectionné n'a pas été trouvé.");
@@ -555,7 +544,23 @@ public class ListePanel extends JPanel {
         EventDialog dialog = new EventDialog(parent, controller, toEdit.getDate());
         dialog.setEvenement(toEdit);
         dialog.setVisible(true);
+    }
 
-        refreshTable();
+    /**
+     * Un événement archivé ne se modifie pas : l'utilisateur en est prévenu
+     */
+    private boolean estLigneArchivee(int row) {
+        Evenement ev = tableModel.getEvenement(row);
+        if (ev == null || !ev.estArchive()) return false;
+        showInfoMessage("🗄️ \"" + ev.getTitre() + "\" est archivé : il peut seulement être consulté.");
+        return true;
+    }
+
+    /**
+     * Événement affiché à la ligne donnée, retrouvé par son identifiant
+     */
+    private Evenement getEvenementLigne(int row) {
+        Evenement ev = tableModel.getEvenement(row);
+        return ev != null ? controller.getEvenementParId(ev.getId()) : null;
     }
-}
\ No newline at end of file
+}
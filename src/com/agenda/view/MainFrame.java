@@ -1,6 +1,11 @@
 package com.agenda.view;
 
 import com.agenda.controller.AgendaController;
+import com.agenda.controller.ChangementAgenda;
+import com.agenda.controller.Conflit;
+import com.agenda.controller.NotificationAgenda;
+import com.agenda.controller.ResultatLot;
+import com.agenda.controller.Statistiques;
 import com.agenda.modele.Utilisateur;
 
 import javax.swing.*;
@@ -17,9 +22,14 @@ public class MainFrame extends JFrame {
     private MensuelPanel mensuelPanel;
     private ProfilPanel profilPanel;
     private NotificationsPanel notificationsPanel;
+    private GestionnaireToasts toasts;
     private JLabel headerUserInfo;
     private JLabel statusUserLabel;
     private static MainFrame instance;
+    // Statistiques, rapport et archivage parcourent des partitions sur disque : hors de l'EDT
+    private final RequeteAsynchrone<Statistiques> calculStatistiques = new RequeteAsynchrone<>("calcul des statistiques");
+    private final RequeteAsynchrone<java.util.List<Conflit>> rapportConflits = new RequeteAsynchrone<>("rapport des conflits");
+    private final RequeteAsynchrone<ResultatLot> archivage = new RequeteAsynchrone<>("archivage");
     private static AgendaController sharedController;
 
     /**
@@ -46,12 +56,20 @@ public class MainFrame extends JFrame {
         }
         
         initializeFrame();
+        for (RequeteAsynchrone<?> requete : java.util.List.of(calculStatistiques, rapportConflits, archivage)) {
+            requete.setIndicateur(enCours ->
+                setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR)));
+        }
         setupUI();
         setupGlobalShortcuts();
         setupWindowListener();
         
         // Enregistrer le listener de rafraîchissement global
         controller.addRefreshListener(this::onGlobalRefresh);
+        // Les onglets du calendrier et la liste appliquent eux-mêmes chaque modification
+        controller.addChangementListener(this::onChangement);
+        // Confirmations, alertes et rappels affichés sans bloquer la fenêtre
+        controller.addNotificationListener(toasts::afficher);
     }
     
     /**
@@ -72,6 +90,21 @@ public class MainFrame extends JFrame {
         });
     }
     
+    /**
+     * Appelé après chaque modification d'événement : seuls le compteur et l'onglet visible
+     * sont mis à jour, les autres le seront à leur sélection.
+     */
+    private void onChangement(ChangementAgenda changement) {
+        updateEventCount();
+        int onglet = tabbedPane.getSelectedIndex();
+        if (onglet == 3 && profilPanel != null) {
+            profilPanel.setUtilisateurCourant(controller.getUtilisateurCourant());
+        }
+        if (changement.getType() == ChangementAgenda.Type.PARTAGE) {
+            updateNotificationBadge();
+        }
+    }
+    
     /**
      * Met à jour les informations utilisateur affichées partout
      */
@@ -114,6 +147,8 @@ public class MainFrame extends JFrame {
         setLayout(new BorderLayout());
         getContentPane().setBackground(new Color(250, 245, 255));
         
+        // Avant les panneaux : la vue hebdomadaire y envoie ses confirmations
+        toasts = new GestionnaireToasts(getLayeredPane(), 32);
         add(createHeaderPanel(), BorderLayout.NORTH);
         setupMainPanels();
         add(createStatusBar(), BorderLayout.SOUTH);
@@ -265,11 +300,12 @@ public class MainFrame extends JFrame {
     }
 
     private void setupMainPanels() {
-        this.hebdoPanel = new HebdoPanel(controller, this);
+        this.hebdoPanel = new HebdoPanel(controller, this, toasts);
         this.listePanel = new ListePanel(controller);
         this.mensuelPanel = new MensuelPanel(controller, this);
         this.profilPanel = new ProfilPanel(controller);
         this.notificationsPanel = new NotificationsPanel(controller);
+        notificationsPanel.setNombreNonLuesListener(this::afficherBadgeNotifications);
         
         // Modern tabbed pane styling
         tabbedPane.setBackground(new Color(250, 245, 255));
@@ -352,7 +388,7 @@ public class MainFrame extends JFrame {
         statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         statusLabel.setForeground(new Color(80, 50, 120));
         
-        JLabel eventCountLabel = new JLabel("Événements: " + controller.getEvenements().size());
+        JLabel eventCountLabel = new JLabel("Événements: " + controller.getNombreEvenements());
         eventCountLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
         eventCountLabel.setForeground(new Color(80, 50, 120));
         
@@ -366,7 +402,22 @@ public class MainFrame extends JFrame {
         
         statusPanel.add(statusLabel, BorderLayout.WEST);
         statusPanel.add(statusUserLabel, BorderLayout.CENTER);
-        statusPanel.add(eventCountLabel, BorderLayout.EAST);
+        JButton historiqueButton = new JButton("🔔");
+        historiqueButton.setToolTipText("Historique des notifications (CTRL + H)");
+        historiqueButton.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        historiqueButton.setForeground(new Color(80, 50, 120));
+        historiqueButton.setBorder(BorderFactory.createEmptyBorder(0, 6, 0, 0));
+        historiqueButton.setContentAreaFilled(false);
+        historiqueButton.setFocusable(false);
+        historiqueButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        historiqueButton.addActionListener(e -> toasts.basculerHistorique());
+        
+        JPanel eastPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        eastPanel.setOpaque(false);
+        eastPanel.add(eventCountLabel);
+        eastPanel.add(historiqueButton);
+        
+        statusPanel.add(eastPanel, BorderLayout.EAST);
         
         return statusPanel;
     }
@@ -484,18 +535,24 @@ public class MainFrame extends JFrame {
         JMenuItem refreshItem = new JMenuItem("🔄 Actualiser");
         refreshItem.setAccelerator(KeyStroke.getKeyStroke("F5"));
         JMenuItem statsItem = new JMenuItem("📊 Statistiques");
+        JMenuItem conflitsItem = new JMenuItem("⚠️ Rapport des conflits");
+        JMenuItem archiverItem = new JMenuItem("🗄️ Archiver les anciens événements");
         JMenuItem exitItem = new JMenuItem("🚪 Quitter");
         exitItem.setAccelerator(KeyStroke.getKeyStroke("ctrl Q"));
         
         newEventItem.addActionListener(e -> createNewEvent());
         refreshItem.addActionListener(e -> refreshAllTabs());
         statsItem.addActionListener(e -> showStatistics());
+        conflitsItem.addActionListener(e -> showRapportConflits());
+        archiverItem.addActionListener(e -> archiverAnciensEvenements());
         exitItem.addActionListener(e -> shutdownAndExit());
         
         fileMenu.add(newEventItem);
         fileMenu.add(refreshItem);
         fileMenu.addSeparator();
         fileMenu.add(statsItem);
+        fileMenu.add(conflitsItem);
+        fileMenu.add(archiverItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
         
@@ -511,6 +568,8 @@ public class MainFrame extends JFrame {
         JMenuItem profileViewItem = new JMenuItem("👤 Mon Profil");
         profileViewItem.setAccelerator(KeyStroke.getKeyStroke("ctrl 4"));
         JMenuItem goToMonthItem = new JMenuItem("📅 Aller à un mois spécifique");
+        JMenuItem historiqueItem = new JMenuItem("🔔 Historique des notifications");
+        historiqueItem.setAccelerator(KeyStroke.getKeyStroke("ctrl H"));
         
         weekViewItem.addActionListener(e -> {
             tabbedPane.setSelectedIndex(0);
@@ -529,6 +588,7 @@ public class MainFrame extends JFrame {
             showQuickNotification("👤 Profil utilisateur activé");
         });
         goToMonthItem.addActionListener(e -> showMonthSelectorDialog());
+        historiqueItem.addActionListener(e -> toasts.basculerHistorique());
         
         viewMenu.add(weekViewItem);
         viewMenu.add(monthViewItem);
@@ -536,6 +596,7 @@ public class MainFrame extends JFrame {
         viewMenu.add(profileViewItem);
         viewMenu.addSeparator();
         viewMenu.add(goToMonthItem);
+        viewMenu.add(historiqueItem);
         
         JMenu helpMenu = new JMenu("❓ Aide");
         styleMenu(helpMenu);
@@ -597,8 +658,6 @@ public class MainFrame extends JFrame {
         
         EventDialog dialog = new EventDialog(this, controller, java.time.LocalDate.now());
         dialog.setVisible(true);
-        refreshAllTabs();
-        updateNotificationBadge();
         showQuickNotification("✅ Nouvel événement créé");
     }
 
@@ -609,9 +668,6 @@ public class MainFrame extends JFrame {
         if (profilPanel != null) {
             profilPanel.setUtilisateurCourant(controller.getUtilisateurCourant());
         }
-        if (notificationsPanel != null) {
-            notificationsPanel.refreshNotifications();
-        }
         updateEventCount();
         updateNotificationBadge();
     }
@@ -638,23 +694,27 @@ public class MainFrame extends JFrame {
             listePanel.refreshTable();
         } else if (selectedIndex == 3 && profilPanel != null) {
             profilPanel.setUtilisateurCourant(controller.getUtilisateurCourant());
-        } else if (selectedIndex == 4 && notificationsPanel != null) {
-            notificationsPanel.refreshNotifications();
+        } else if (selectedIndex == 4) {
             updateNotificationBadge();
         }
         updateEventCount();
     }
     
     /**
-     * Met à jour le badge de notifications dans l'onglet
+     * Recharge les notifications en arrière-plan ; le badge de l'onglet est mis à jour
+     * à la fin du chargement (afficherBadgeNotifications)
      */
     private void updateNotificationBadge() {
         if (notificationsPanel != null) {
-            int notifCount = notificationsPanel.getNombreNotificationsNonLues();
-            String notifTabTitle = notifCount > 0 ? "🔔 Notifications (" + notifCount + ")" : "🔔 Notifications";
-            tabbedPane.setTitleAt(4, notifTabTitle);
+            notificationsPanel.refreshNotifications();
         }
     }
+    
+    private void afficherBadgeNotifications(int notifCount) {
+        if (tabbedPane.getTabCount() <= 4) return;
+        String notifTabTitle = notifCount > 0 ? "🔔 Notifications (" + notifCount + ")" : "🔔 Notifications";
+        tabbedPane.setTitleAt(4, notifTabTitle);
+    }
 
     private void updateEventCount() {
         Component[] components = ((JPanel)getContentPane().getComponent(2)).getComponents();
@@ -662,7 +722,7 @@ public class MainFrame extends JFrame {
             if (comp instanceof JLabel) {
                 JLabel label = (JLabel) comp;
                 if (label.getText().contains("Événements:")) {
-                    label.setText("Événements: " + controller.getEvenements().size());
+                    label.setText("Événements: " + controller.getNombreEvenements());
                     break;
                 }
             }
@@ -676,7 +736,13 @@ public class MainFrame extends JFrame {
             return;
         }
         
-        String stats = controller.getStatistiques();
+        calculStatistiques.lancer(controller::getStatistiques, this::afficherStatistiques,
+            e -> toasts.afficher(NotificationAgenda.alerte("Statistiques",
+                "Impossible de calculer les statistiques: " + e.getMessage())));
+    }
+
+    private void afficherStatistiques(Statistiques statistiques) {
+        String stats = statistiques.formater();
         
         String statsHTML = "<html>" +
             "<div style='background: linear-gradient(135deg, #E6D7FF, #F0E8FF); padding: 20px; border-radius: 12px; border: 2px solid #B464C8; width: 350px;'>" +
@@ -694,8 +760,85 @@ public class MainFrame extends JFrame {
             "📊 Statistiques - Medisyns", JOptionPane.INFORMATION_MESSAGE);
     }
 
+    /**
+     * Conflits d'horaire des 30 prochains jours, par personne
+     */
+    private void showRapportConflits() {
+        java.time.LocalDateTime debut = java.time.LocalDate.now().atStartOfDay();
+        toasts.info("⏳ Recherche des conflits...");
+        rapportConflits.lancer(() -> controller.getRapportConflits(debut, debut.plusDays(30)), this::afficherRapportConflits,
+            e -> toasts.afficher(NotificationAgenda.alerte("Rapport des conflits",
+                "Impossible de lire l'agenda: " + e.getMessage())));
+    }
+
+    private void afficherRapportConflits(java.util.List<Conflit> conflits) {
+        java.time.format.DateTimeFormatter jourFmt = java.time.format.DateTimeFormatter.ofPattern("dd/MM");
+        java.time.format.DateTimeFormatter heureFmt = java.time.format.DateTimeFormatter.ofPattern("HH:mm");
+
+        StringBuilder html = new StringBuilder("<html>" +
+            "<div style='padding: 15px; width: 480px;'>" +
+            "<h3 style='margin: 0 0 15px 0; text-align: center; color: #6B46C1;'>⚠️ Conflits des 30 prochains jours</h3>");
+        if (conflits.isEmpty()) {
+            html.append("<p style='text-align: center; color: #4A5568;'>✅ Aucun conflit d'horaire.</p>");
+        } else {
+            html.append("<table style='width: 100%; font-size: 11px; color: #4A5568;'>");
+            // Au-delà, le dialogue deviendrait illisible : le nombre total est indiqué
+            int affiches = Math.min(conflits.size(), 50);
+            for (Conflit c : conflits.subList(0, affiches)) {
+                html.append("<tr><td><b>").append(c.getDebutChevauchement().format(jourFmt)).append(' ')
+                    .append(c.getDebutChevauchement().format(heureFmt)).append("–")
+                    .append(c.getFinChevauchement().format(heureFmt)).append("</b></td>")
+                    .append("<td>👤 ").append(echapper(c.getPersonne())).append("</td>")
+                    .append("<td>").append(echapper(c.getEvenement().getTitre())).append(" / ")
+                    .append(echapper(c.getAutre().getTitre())).append("</td></tr>");
+            }
+            html.append("</table>");
+            if (conflits.size() > affiches) {
+                html.append("<p style='color: #805078;'>… et ").append(conflits.size() - affiches).append(" autres conflits</p>");
+            }
+        }
+        html.append("</div></html>");
+
+        JOptionPane.showMessageDialog(this, new JLabel(html.toString()),
+            "⚠️ Rapport des conflits - Medisyns", JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    /**
+     * Sort de l'agenda les événements de plus d'un an ; ils restent consultables
+     * depuis la recherche (case « Archives ») et comptés dans les statistiques
+     */
+    private void archiverAnciensEvenements() {
+        Utilisateur user = controller.getUtilisateurCourant();
+        if (user != null && !user.peutSupprimerEvenements()) {
+            showPermissionDeniedMessage("archiver des événements");
+            return;
+        }
+        if (archivage.estEnCours()) {
+            toasts.info("⏳ Archivage déjà en cours...");
+            return;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this,
+            "<html>Archiver les événements de plus de " + AgendaController.HORIZON_ARCHIVE_MOIS + " mois ?<br>" +
+            "Ils ne seront plus affichés dans l'agenda, mais restent consultables<br>" +
+            "depuis la recherche de la vue Liste (case « 🗄️ Archives »).</html>",
+            "🗄️ Archivage - Medisyns", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (confirm != JOptionPane.YES_OPTION) return;
+        toasts.info("⏳ Archivage en cours...");
+        // Le contrôleur publie lui-même le résumé du lot (ou l'erreur d'archivage)
+        archivage.lancer(() -> controller.archiverEvenementsAnciens(AgendaController.HORIZON_ARCHIVE_MOIS), resultat -> {
+            if (resultat.getTraites() == 0 && resultat.getIgnores().isEmpty()) {
+                toasts.info("🗄️ Aucun événement à archiver");
+            }
+        });
+    }
+
+    private static String echapper(String texte) {
+        return texte == null ? "" : texte.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
     private void showQuickNotification(String message) {
         System.out.println("💡 " + message);
+        toasts.info(message);
     }
 
     private void showShortcutsDialog() {
@@ -721,6 +864,7 @@ public class MainFrame extends JFrame {
             "<tr><td><b>CTRL + 2</b></td><td>Vue Mensuelle</td></tr>" +
             "<tr><td><b>CTRL + 3</b></td><td>Vue Liste</td></tr>" +
             "<tr><td><b>CTRL + 4</b></td><td>Mon Profil</td></tr>" +
+            "<tr><td><b>CTRL + H</b></td><td>Historique des notifications</td></tr>" +
             "</table>" +
             "</div>" +
             "<div style='background: #F8F5FF; padding: 15px; border-radius: 8px; margin: 10px 0;'>" +
@@ -1,9 +1,11 @@
 package com.agenda.view;
 
 import com.agenda.controller.AgendaController;
+import com.agenda.controller.ChangementAgenda;
 import com.agenda.modele.Evenement;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseEvent;
 import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
@@ -12,10 +14,12 @@ import java.util.List;
 public class MensuelPanel extends JPanel {
 
     private final AgendaController controller;
-    private final JPanel gridPanel;
+    private final GrilleMois grille;
     private YearMonth currentMonth;
     private final JLabel monthLabel;
     private final JFrame parentFrame; // AJOUT: Référence au parent
+    // Un mois hors de la fenêtre chargée est lu sur disque : hors de l'EDT
+    private final RequeteAsynchrone<List<Evenement>> chargementMois = new RequeteAsynchrone<>("chargement du mois");
 
     private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
@@ -27,6 +31,8 @@ public class MensuelPanel extends JPanel {
         setBackground(new Color(250, 245, 255));
 
         currentMonth = YearMonth.now();
+        chargementMois.setIndicateur(enCours ->
+            setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR)));
         monthLabel = new JLabel("",SwingConstants.CENTER);
         monthLabel.setFont(new Font("Segoe UI",Font.BOLD,20));
         monthLabel.setForeground(new Color(80, 50, 120));
@@ -53,14 +59,39 @@ public class MensuelPanel extends JPanel {
         topBar.add(monthLabel, BorderLayout.CENTER);
         topBar.add(nextBtn, BorderLayout.EAST);
 
-        gridPanel = new JPanel(new GridLayout(0,7,2,2));
-        gridPanel.setBackground(new Color(250, 245, 255));
+        grille = new GrilleMois(new GrilleMois.Actions() {
+            @Override
+            public void jourClique(LocalDate date) {
+                EventDialog dialog = new EventDialog(parentFrame, controller, date);
+                dialog.setVisible(true);
+            }
+
+            @Override
+            public void menuEvenement(Evenement ev, MouseEvent e) {
+                JPopupMenu menu = new JPopupMenu();
+                remplirMenu(menu, ev);
+                menu.show(grille, e.getX(), e.getY());
+            }
+
+            @Override
+            public void debordementClique(LocalDate date, List<Evenement> evenements, MouseEvent e) {
+                // Tous les événements du jour, chacun avec son propre menu
+                JPopupMenu menu = new JPopupMenu();
+                for (Evenement ev : evenements) {
+                    JMenu sousMenu = new JMenu(ev.getHeure().format(timeFormatter) + " " + ev.getTitre());
+                    remplirMenu(sousMenu, ev);
+                    menu.add(sousMenu);
+                }
+                menu.show(grille, e.getX(), e.getY());
+            }
+        });
 
         add(topBar, BorderLayout.NORTH);
-        add(gridPanel, BorderLayout.CENTER);
+        add(grille, BorderLayout.CENTER);
 
         // AJOUT: Rafraîchissement automatique après chaque opération
         controller.addRefreshListener(() -> refreshCalendar());
+        controller.addChangementListener(this::appliquerChangement);
 
         refreshCalendar(); // MODIFICATION: Sans paramètre
     }
@@ -75,148 +106,95 @@ public class MensuelPanel extends JPanel {
 
     // MODIFICATION: Méthode sans paramètre pour rafraîchissement automatique
     public void refreshCalendar(){
-        gridPanel.removeAll();
-        monthLabel.setText("📅 " + currentMonth.getMonth() + " " + currentMonth.getYear());
+        YearMonth mois = currentMonth;
+        monthLabel.setText("📅 " + mois.getMonth() + " " + mois.getYear());
+        // Une seule requête pour tout le mois
+        chargementMois.lancer(() -> controller.getEvenementsPourMois(mois),
+            evenements -> grille.afficherMois(mois, evenements),
+            e -> JOptionPane.showMessageDialog(parentFrame, "Impossible de charger le mois: " + e.getMessage(),
+                "Erreur de lecture", JOptionPane.ERROR_MESSAGE));
+    }
 
-        String[] jours = {"Lun","Mar","Mer","Jeu","Ven","Sam","Dim"};
-        for(String j : jours){
-            JLabel lbl = new JLabel(j,SwingConstants.CENTER);
-            lbl.setForeground(new Color(80, 50, 120));
-            lbl.setFont(new Font("Segoe UI",Font.BOLD,14));
-            gridPanel.add(lbl);
+    /**
+     * Ne repeint que la case de l'ancien et du nouveau jour de l'événement (une série ou un lot recharge le mois)
+     */
+    public void appliquerChangement(ChangementAgenda changement) {
+        // Pendant un chargement, la grille n'affiche pas encore le mois courant : le relancer
+        if (changement.getType() == ChangementAgenda.Type.SERIE || chargementMois.estEnCours()) {
+            refreshCalendar();
+            return;
         }
+        LocalDate debut = currentMonth.atDay(1);
+        LocalDate fin = currentMonth.plusMonths(1).atDay(1);
+        if (!changement.concerne(debut, fin)) return;
+        if (changement.getType() == ChangementAgenda.Type.LOT) {
+            // Un lot qui touche le mois le recharge une seule fois
+            refreshCalendar();
+        } else {
+            grille.appliquerChangement(changement);
+        }
+    }
 
-        LocalDate firstDay = currentMonth.atDay(1);
-        int start = firstDay.getDayOfWeek().getValue();
-        int totalDays = currentMonth.lengthOfMonth();
-
-        for(int i=1;i<start;i++) gridPanel.add(new JLabel(""));
-
-        for(int day=1; day<=totalDays; day++){
-            LocalDate date = currentMonth.atDay(day);
-            JPanel dayPanel = new JPanel(new BorderLayout());
-            dayPanel.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
-            
-            Color bgColor = Color.WHITE;
-            Color textColor = new Color(80, 50, 120);
-            
-            if(date.getDayOfWeek().getValue() == 5) {
-                bgColor = new Color(245, 240, 250);
-            } else if(date.getDayOfWeek().getValue() >= 6) {
-                bgColor = new Color(250, 245, 255);
-            }
-            
-            if(date.equals(LocalDate.now())) {
-                bgColor = new Color(220, 200, 240);
-            }
-            
-            dayPanel.setBackground(bgColor);
-
-            JLabel dayLabel = new JLabel(String.valueOf(day), SwingConstants.CENTER);
-            dayLabel.setForeground(textColor);
-            dayLabel.setFont(new Font("Segoe UI", Font.BOLD, 16));
-            dayPanel.add(dayLabel, BorderLayout.NORTH);
-
-            List<Evenement> events = controller.getEvenementsPourDate(date);
-            if(!events.isEmpty()){
-                JPanel eventsPanel = new JPanel();
-                eventsPanel.setLayout(new BoxLayout(eventsPanel, BoxLayout.Y_AXIS));
-                eventsPanel.setBackground(bgColor);
-                
-                for(Evenement ev: events) {
-                    JLabel evLabel = new JLabel("• " + ev.getTitre());
-                    evLabel.setForeground(new Color(180, 100, 200));
-                    evLabel.setFont(new Font("Segoe UI", Font.BOLD, 11));
-                    evLabel.setToolTipText(ev.getTitre() + " - " + ev.getHeure().format(timeFormatter));
-                    
-                    // MENU CONTEXTUEL AVEC PARTAGE
-                    evLabel.addMouseListener(new java.awt.event.MouseAdapter() {
-                        public void mouseClicked(java.awt.event.MouseEvent e) {
-                            if (SwingUtilities.isRightMouseButton(e)) {
-                                JPopupMenu menu = new JPopupMenu();
-
-                                JMenuItem voirInfo = new JMenuItem("🔍 Voir informations");
-                                voirInfo.addActionListener(ae -> {
-                                    String participantsText = (ev.getParticipants() != null && !ev.getParticipants().isEmpty())
-                                            ? String.join(", ", ev.getParticipants())
-                                            : "Aucun";
-
-                                    String info = "<html>" +
-                                            "<b>Titre:</b> " + ev.getTitre() + "<br>" +
-                                            "<b>Description:</b> " + ev.getDescription() + "<br>" +
-                                            "<b>Responsable:</b> " + ev.getResponsable() + "<br>" +
-                                            "<b>Participants:</b> " + participantsText + "<br>" +
-                                            "<b>Date:</b> " + ev.getDate() + "<br>" +
-                                            "<b>Heure:</b> " + ev.getHeure() +
-                                            "</html>";
-
-                                    JOptionPane.showMessageDialog(evLabel, info,
-                                            "Détails - " + ev.getTitre(),
-                                            JOptionPane.INFORMATION_MESSAGE);
-                                });
-
-                                JMenuItem mod = new JMenuItem("✏️ Modifier");
-                                JMenuItem sup = new JMenuItem("🗑️ Supprimer");
-                                JMenuItem partager = new JMenuItem("🔗 Partager");
-
-                                mod.addActionListener(ae -> {
-                                    EventDialog dialog = new EventDialog(parentFrame, controller, ev.getDate());
-                                    dialog.setEvenement(ev);
-                                    dialog.setVisible(true);
-                                    // RAFRAÎCHISSEMENT AUTOMATIQUE APRÈS MODIFICATION
-                                    refreshCalendar();
-                                });
-
-                                sup.addActionListener(ae -> {
-                                    int confirm = JOptionPane.showConfirmDialog(parentFrame, 
-                                        "Voulez-vous supprimer l'événement \"" + ev.getTitre() + "\" ?", 
-                                        "Confirmation", 
-                                        JOptionPane.YES_NO_OPTION);
-                                    if (confirm == JOptionPane.YES_OPTION) {
-                                        controller.supprimerEvenement(ev);
-                                        // RAFRAÎCHISSEMENT AUTOMATIQUE APRÈS SUPPRESSION
-                                        refreshCalendar();
-                                    }
-                                });
+    /**
+     * Menu contextuel d'un événement (avec partage), dans un popup ou un sous-menu
+     */
+    private void remplirMenu(JComponent menu, Evenement ev) {
+        JMenuItem voirInfo = new JMenuItem("🔍 Voir informations");
+        voirInfo.addActionListener(ae -> {
+            String participantsText = (ev.getParticipants() != null && !ev.getParticipants().isEmpty())
+                    ? String.join(", ", ev.getParticipants())
+                    : "Aucun";
+
+            String info = "<html>" +
+                    "<b>Titre:</b> " + ev.getTitre() + "<br>" +
+                    "<b>Description:</b> " + ev.getDescription() + "<br>" +
+                    "<b>Responsable:</b> " + ev.getResponsable() + "<br>" +
+                    "<b>Participants:</b> " + participantsText + "<br>" +
+                    "<b>Date:</b> " + ev.getDate() + "<br>" +
+                    "<b>Heure:</b> " + ev.getHeure() +
+                    "</html>";
+
+            JOptionPane.showMessageDialog(parentFrame, info,
+                    "Détails - " + ev.getTitre(),
+                    JOptionPane.INFORMATION_MESSAGE);
+        });
 
-                                partager.addActionListener(ae -> {
-                                    partagerEvenement(ev, parentFrame);
-                                });
+        JMenuItem mod = new JMenuItem("✏️ Modifier");
+        JMenuItem sup = new JMenuItem("🗑️ Supprimer");
+        JMenuItem partager = new JMenuItem("🔗 Partager");
 
-                                menu.add(voirInfo);
-                                menu.addSeparator();
-                                menu.add(mod);
-                                menu.add(sup);
-                                menu.addSeparator();
-                                menu.add(partager);
+        mod.addActionListener(ae -> {
+            EventDialog dialog = new EventDialog(parentFrame, controller, ev.getDate());
+            dialog.setEvenement(ev);
+            dialog.setVisible(true);
+        });
 
-                                menu.show(evLabel, e.getX(), e.getY());
-                            }
-                        }
-                    });
-                    
-                    eventsPanel.add(evLabel);
-                }
-                dayPanel.add(eventsPanel, BorderLayout.CENTER);
+        sup.addActionListener(ae -> {
+            if (ev.estOccurrence()) {
+                int portee = EventDialog.choisirPortee(parentFrame, ev, "Supprimer");
+                if (portee == EventDialog.PORTEE_OCCURRENCE) controller.supprimerEvenement(ev);
+                else if (portee == EventDialog.PORTEE_SERIE) controller.supprimerEvenement(ev.getId());
+                return;
             }
+            int confirm = JOptionPane.showConfirmDialog(parentFrame, 
+                "Voulez-vous supprimer l'événement \"" + ev.getTitre() + "\" ?", 
+                "Confirmation", 
+                JOptionPane.YES_NO_OPTION);
+            if (confirm == JOptionPane.YES_OPTION) {
+                controller.supprimerEvenement(ev);
+            }
+        });
 
-            dayPanel.addMouseListener(new java.awt.event.MouseAdapter() {
-                @Override
-                public void mouseClicked(java.awt.event.MouseEvent e) {
-                    if (SwingUtilities.isLeftMouseButton(e)) {
-                        EventDialog dialog = new EventDialog(parentFrame, controller, date);
-                        dialog.setVisible(true);
-                        // RAFRAÎCHISSEMENT AUTOMATIQUE APRÈS CRÉATION
-                        refreshCalendar();
-                    }
-                }
-            });
-
-            gridPanel.add(dayPanel);
-        }
+        partager.addActionListener(ae -> {
+            partagerEvenement(ev, parentFrame);
+        });
 
-        revalidate();
-        repaint();
+        menu.add(voirInfo);
+        menu.add(new JPopupMenu.Separator());
+        menu.add(mod);
+        menu.add(sup);
+        menu.add(new JPopupMenu.Separator());
+        menu.add(partager);
     }
 
     // 🆕 MÉTHODE POUR PARTAGER
@@ -0,0 +1,157 @@
+package com.agenda.view;
+
+import com.agenda.controller.ChangementAgenda;
+import com.agenda.controller.IndexTexte;
+import com.agenda.modele.Evenement;
+
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Modèle du tableau des événements : une vue sur les événements qui passent le filtre,
+ * sans copie des valeurs affichées.
+ *
+ * Les cellules sont formatées à la demande, donc seulement pour les lignes visibles.
+ * Le résultat d'une recherche, calculée hors de l'EDT, est installé par {@link #setLignes}.
+ */
+public class ModeleEvenements extends AbstractTableModel {
+
+    private static final String[] COLONNES = {"📝 Titre", "👤 Responsable", "👥 Participants", "⏰ Heure", "📅 Date", "📄 Description"};
+    private static final DateTimeFormatter HEURE_FMT = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private List<Evenement> lignes = new ArrayList<>();
+    // Rang de chaque événement affiché, pour retrouver sans parcours la ligne d'un événement modifié
+    private final Map<Integer, Integer> ligneParId = new HashMap<>();
+    private String filtre = "";
+    // Incrémentée à chaque modification, pour détecter un filtrage calculé sur des données périmées
+    private long version;
+
+    @Override
+    public int getRowCount() {
+        return lignes.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLONNES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLONNES[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Evenement e = lignes.get(row);
+        switch (column) {
+            case 0: return (e.estArchive() ? "🗄️ " : "") + (e.estRecurrent() ? "🔁 " : "") + e.getTitre();
+            case 1: return e.getResponsable();
+            case 2: return participants(e);
+            case 3: return e.getHeure().format(HEURE_FMT);
+            case 4: return e.getDate().format(DATE_FMT);
+            default: return e.getDescription();
+        }
+    }
+
+    private static String participants(Evenement e) {
+        if (e.getParticipants() == null || e.getParticipants().isEmpty()) return "Aucun";
+        String texte = String.join(", ", e.getParticipants());
+        return texte.length() > 50 ? texte.substring(0, 47) + "..." : texte;
+    }
+
+    public Evenement getEvenement(int row) {
+        return row >= 0 && row < lignes.size() ? lignes.get(row) : null;
+    }
+
+    public String getFiltre() {
+        return filtre;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Remplace les lignes affichées par le résultat d'un filtrage
+     */
+    public void setLignes(List<Evenement> lignes, String filtre) {
+        this.lignes = lignes;
+        this.filtre = filtre;
+        version++;
+        ligneParId.clear();
+        indexerDepuis(0);
+        fireTableDataChanged();
+    }
+
+    private void indexerDepuis(int debut) {
+        for (int i = debut; i < lignes.size(); i++) {
+            ligneParId.put(lignes.get(i).getId(), i);
+        }
+    }
+
+    /**
+     * Met à jour la seule ligne de l'événement modifié (ajoutée, remplacée ou retirée selon le filtre)
+     */
+    public void appliquerChangement(ChangementAgenda changement) {
+        version++;
+        if (changement.getType() == ChangementAgenda.Type.LOT) {
+            appliquerLot(changement.getChangements());
+            return;
+        }
+        Integer ligne = ligneParId.get(changement.getEvenementId());
+        int row = ligne != null ? ligne : -1;
+        Evenement ev = changement.getEvenement();
+        boolean visible = ev != null && IndexTexte.correspond(ev, filtre);
+
+        if (row >= 0 && !visible) {
+            lignes.remove(row);
+            ligneParId.remove(changement.getEvenementId());
+            // Les lignes suivantes remontent d'un rang
+            indexerDepuis(row);
+            fireTableRowsDeleted(row, row);
+        } else if (row >= 0) {
+            lignes.set(row, ev);
+            fireTableRowsUpdated(row, row);
+        } else if (visible) {
+            lignes.add(ev);
+            ligneParId.put(ev.getId(), lignes.size() - 1);
+            fireTableRowsInserted(lignes.size() - 1, lignes.size() - 1);
+        }
+    }
+
+    /**
+     * Lot : les lignes sont reprises en un seul passage et la table prévenue une seule fois
+     */
+    private void appliquerLot(List<ChangementAgenda> changements) {
+        // Dernière version de chaque événement du lot (null s'il a été supprimé)
+        Map<Integer, Evenement> versions = new HashMap<>();
+        List<Integer> ordre = new ArrayList<>();
+        for (ChangementAgenda c : changements) {
+            if (!versions.containsKey(c.getEvenementId())) ordre.add(c.getEvenementId());
+            versions.put(c.getEvenementId(), c.getEvenement());
+        }
+        List<Evenement> resultat = new ArrayList<>(lignes.size());
+        for (Evenement ev : lignes) {
+            if (!versions.containsKey(ev.getId())) {
+                resultat.add(ev);
+                continue;
+            }
+            Evenement nouveau = versions.remove(ev.getId());
+            if (nouveau != null && IndexTexte.correspond(nouveau, filtre)) resultat.add(nouveau);
+        }
+        for (int id : ordre) {
+            Evenement nouveau = versions.get(id);
+            if (nouveau != null && IndexTexte.correspond(nouveau, filtre)) resultat.add(nouveau);
+        }
+        lignes = resultat;
+        ligneParId.clear();
+        indexerDepuis(0);
+        fireTableDataChanged();
+    }
+}
@@ -9,6 +9,7 @@ import javax.swing.border.EmptyBorder;
 import java.awt.*;
 import java.awt.event.*;
 import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Panel de notifications pour Medisyns
@@ -21,7 +22,27 @@ public class NotificationsPanel extends JPanel {
     private final JPanel notificationsListPanel;
     private final JLabel countLabel;
     private final JButton markAllReadButton;
+    private JButton refreshButton;
     private int currentUserId = -1;
+    private int nombreNonLues;
+    private IntConsumer nombreNonLuesListener;
+    
+    // Lectures et écritures de users.json / notifications.json, hors de l'EDT
+    private final RequeteAsynchrone<Chargement> chargement = new RequeteAsynchrone<>("chargement des notifications");
+    private final RequeteAsynchrone<Void> ecriture = new RequeteAsynchrone<>("mise à jour des notifications");
+    
+    /**
+     * Résultat d'un chargement : l'utilisateur retrouvé dans users.json et ses notifications
+     */
+    private static final class Chargement {
+        final int userId;
+        final List<NotificationJson> notifications;
+        
+        Chargement(int userId, List<NotificationJson> notifications) {
+            this.userId = userId;
+            this.notifications = notifications;
+        }
+    }
     
     public NotificationsPanel(AgendaController controller) {
         this.controller = controller;
@@ -61,6 +82,12 @@ public class NotificationsPanel extends JPanel {
         footerPanel.add(markAllReadButton, BorderLayout.EAST);
         add(footerPanel, BorderLayout.SOUTH);
         
+        chargement.setIndicateur(enCours -> {
+            refreshButton.setEnabled(!enCours);
+            if (enCours) countLabel.setText("⏳ Chargement des notifications...");
+        });
+        ecriture.setIndicateur(enCours -> markAllReadButton.setEnabled(!enCours && nombreNonLues > 0));
+        
         // Charger les notifications
         refreshNotifications();
     }
@@ -77,7 +104,7 @@ public class NotificationsPanel extends JPanel {
         titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 20));
         titleLabel.setForeground(new Color(80, 50, 120));
         
-        JButton refreshButton = new JButton("🔄 Rafraîchir");
+        refreshButton = new JButton("🔄 Rafraîchir");
         styleButton(refreshButton);
         refreshButton.addActionListener(e -> refreshNotifications());
         
@@ -109,19 +136,29 @@ public class NotificationsPanel extends JPanel {
     }
     
     /**
-     * Rafraîchit la liste des notifications
+     * Rafraîchit la liste des notifications : les fichiers sont lus en arrière-plan,
+     * la liste est reconstruite sur l'EDT (un rafraîchissement plus récent remplace celui en cours)
      */
     public void refreshNotifications() {
+        String email = controller.getUtilisateurCourant() != null ? controller.getUtilisateurCourant().getEmail() : null;
+        chargement.lancer(() -> {
+            // Trouver l'ID de l'utilisateur courant
+            JsonManager.UserJson user = email != null ? JsonManager.getUtilisateurParEmail(email) : null;
+            if (user == null) return new Chargement(-1, List.of());
+            return new Chargement(user.id, JsonManager.getNotificationsUtilisateur(user.id));
+        }, this::afficherNotifications);
+    }
+    
+    /**
+     * Appelé avec le nombre de notifications non lues après chaque chargement (badge de l'onglet)
+     */
+    public void setNombreNonLuesListener(IntConsumer listener) {
+        this.nombreNonLuesListener = listener;
+    }
+    
+    private void afficherNotifications(Chargement resultat) {
         notificationsListPanel.removeAll();
-        
-        // Trouver l'ID de l'utilisateur courant
-        if (controller.getUtilisateurCourant() != null) {
-            String email = controller.getUtilisateurCourant().getEmail();
-            JsonManager.UserJson user = JsonManager.getUtilisateurParEmail(email);
-            if (user != null) {
-                currentUserId = user.id;
-            }
-        }
+        if (resultat.userId > 0) currentUserId = resultat.userId;
         
         if (currentUserId <= 0) {
             JLabel noUserLabel = new JLabel("⚠️ Connectez-vous pour voir vos notifications");
@@ -130,21 +167,20 @@ public class NotificationsPanel extends JPanel {
             noUserLabel.setBorder(new EmptyBorder(20, 20, 20, 20));
             notificationsListPanel.add(noUserLabel);
             countLabel.setText("");
+            majNombreNonLues(0);
             revalidate();
             repaint();
             return;
         }
         
-        // Récupérer les notifications de l'utilisateur
-        List<NotificationJson> notifications = JsonManager.getNotificationsUtilisateur(currentUserId);
+        List<NotificationJson> notifications = resultat.notifications;
+        int nonLues = 0;
         
         if (notifications.isEmpty()) {
             JPanel emptyPanel = createEmptyNotificationPanel();
             notificationsListPanel.add(emptyPanel);
             countLabel.setText("Aucune notification");
         } else {
-            int nonLues = 0;
-            
             // Afficher les non lues en premier
             for (NotificationJson notif : notifications) {
                 if (!notif.lu) {
@@ -163,13 +199,19 @@ public class NotificationsPanel extends JPanel {
             }
             
             countLabel.setText(notifications.size() + " notification(s) - " + nonLues + " non lue(s)");
-            markAllReadButton.setEnabled(nonLues > 0);
         }
+        majNombreNonLues(nonLues);
         
         revalidate();
         repaint();
     }
     
+    private void majNombreNonLues(int nonLues) {
+        nombreNonLues = nonLues;
+        markAllReadButton.setEnabled(nonLues > 0 && !ecriture.estEnCours());
+        if (nombreNonLuesListener != null) nombreNonLuesListener.accept(nonLues);
+    }
+    
     private JPanel createEmptyNotificationPanel() {
         JPanel panel = new JPanel();
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
@@ -249,8 +291,11 @@ public class NotificationsPanel extends JPanel {
             markReadButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
             
             markReadButton.addActionListener(e -> {
-                JsonManager.marquerCommeLue(notif.notif_id);
-                refreshNotifications();
+                markReadButton.setEnabled(false);
+                ecriture.lancer(() -> {
+                    JsonManager.marquerCommeLue(notif.notif_id);
+                    return null;
+                }, v -> refreshNotifications());
             });
             
             card.add(markReadButton, BorderLayout.EAST);
@@ -261,27 +306,25 @@ public class NotificationsPanel extends JPanel {
     
     private void marquerToutesCommeLues() {
         if (currentUserId > 0) {
-            JsonManager.marquerToutesCommeLues(currentUserId);
-            refreshNotifications();
-            
-            JOptionPane.showMessageDialog(this, 
-                "✅ Toutes les notifications ont été marquées comme lues", 
-                "Notifications", 
-                JOptionPane.INFORMATION_MESSAGE);
+            int userId = currentUserId;
+            ecriture.lancer(() -> {
+                JsonManager.marquerToutesCommeLues(userId);
+                return null;
+            }, v -> {
+                refreshNotifications();
+                
+                JOptionPane.showMessageDialog(this, 
+                    "✅ Toutes les notifications ont été marquées comme lues", 
+                    "Notifications", 
+                    JOptionPane.INFORMATION_MESSAGE);
+            });
         }
     }
     
     /**
-     * Retourne le nombre de notifications non lues
+     * Nombre de notifications non lues au dernier chargement (sans relire les fichiers)
      */
     public int getNombreNotificationsNonLues() {
-        if (currentUserId <= 0 && controller.getUtilisateurCourant() != null) {
-            String email = controller.getUtilisateurCourant().getEmail();
-            JsonManager.UserJson user = JsonManager.getUtilisateurParEmail(email);
-            if (user != null) {
-                currentUserId = user.id;
-            }
-        }
-        return JsonManager.compterNotificationsNonLues(currentUserId);
+        return nombreNonLues;
     }
 }
@@ -9,7 +9,6 @@ import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ProfilPanel extends JPanel {
     
@@ -25,6 +24,8 @@ public class ProfilPanel extends JPanel {
     private final DefaultTableModel tableModel;
     private final JTable evenementsTable;
     private JPanel permissionsListPanel;
+    // Parcourt tout l'agenda (partitions sur disque comprises) : hors de l'EDT
+    private final RequeteAsynchrone<List<Evenement>> chargementEvenements = new RequeteAsynchrone<>("chargement des événements du profil");
     
     // Colors
     private static final Color PRIMARY_COLOR = new Color(102, 51, 153);
@@ -64,6 +65,8 @@ public class ProfilPanel extends JPanel {
         
         this.evenementsTable = new JTable(tableModel);
         configurerTable();
+        chargementEvenements.setIndicateur(enCours ->
+            setCursor(Cursor.getPredefinedCursor(enCours ? Cursor.WAIT_CURSOR : Cursor.DEFAULT_CURSOR)));
         
         // Build UI
         add(createHeaderCard(), BorderLayout.NORTH);
@@ -467,20 +470,13 @@ public class ProfilPanel extends JPanel {
     private void refreshEvenements() {
         if (utilisateurCourant == null) return;
         
+        String username = utilisateurCourant.getUsername();
+        chargementEvenements.lancer(() -> controller.getEvenementsParCreateur(username), this::afficherEvenements,
+            e -> showNotification("❌ Impossible de charger vos événements: " + e.getMessage()));
+    }
+    
+    private void afficherEvenements(List<Evenement> evenementsUtilisateur) {
         tableModel.setRowCount(0);
-        List<Evenement> evenementsUtilisateur = controller.getEvenements().stream()
-            .filter(ev -> {
-                try {
-                    java.lang.reflect.Field field = ev.getClass().getDeclaredField("createurUsername");
-                    field.setAccessible(true);
-                    String createur = (String) field.get(ev);
-                    return utilisateurCourant.getUsername().equals(createur);
-                } catch (Exception e) {
-                    return false;
-                }
-            })
-            .collect(Collectors.toList());
-        
         for (Evenement ev : evenementsUtilisateur) {
             String participants = "-";
             if (ev.getParticipants() != null && !ev.getParticipants().isEmpty()) {
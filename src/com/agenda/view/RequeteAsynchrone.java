@@ -0,0 +1,97 @@
+package com.agenda.view;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Accès aux fichiers de données hors de l'EDT, pour une vue.
+ *
+ * La lecture (ou l'écriture) tourne dans un {@link SwingWorker} ; son résultat, ou son erreur,
+ * est remis sur l'EDT. Chaque vue garde une requête par usage (« notifications », « connexion »...) :
+ * en lancer une nouvelle rend la précédente obsolète, son résultat est alors ignoré.
+ * La tâche obsolète n'est pas interrompue : une écriture de fichier JSON coupée en plein
+ * milieu le laisserait illisible.
+ *
+ * Toutes les méthodes s'appellent sur l'EDT.
+ */
+public class RequeteAsynchrone<T> {
+
+    private final String nom;
+    private SwingWorker<T, Void> enCours;
+    private long generation;
+    private Consumer<Boolean> indicateur;
+
+    public RequeteAsynchrone(String nom) {
+        this.nom = nom;
+    }
+
+    /**
+     * Appelé sur l'EDT avec true au lancement et false à la fin de la dernière requête
+     * (pour afficher « Chargement... », désactiver un bouton...)
+     */
+    public RequeteAsynchrone<T> setIndicateur(Consumer<Boolean> indicateur) {
+        this.indicateur = indicateur;
+        return this;
+    }
+
+    public void lancer(Callable<T> tache, Consumer<T> succes) {
+        lancer(tache, succes, e -> System.err.println("❌ Erreur " + nom + ": " + e.getMessage()));
+    }
+
+    /**
+     * Exécute {@code tache} en arrière-plan puis appelle {@code succes} ou {@code echec} sur l'EDT,
+     * sauf si une autre requête a été lancée ou si {@link #annuler()} a été appelé entre-temps
+     */
+    public void lancer(Callable<T> tache, Consumer<T> succes, Consumer<Exception> echec) {
+        // La génération change avant cancel() : sur l'EDT, done() de la requête annulée est appelé aussitôt
+        long numero = ++generation;
+        boolean dejaEnCours = enCours != null;
+        if (dejaEnCours) enCours.cancel(false);
+        if (indicateur != null && !dejaEnCours) indicateur.accept(true);
+
+        SwingWorker<T, Void> worker = new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return tache.call();
+            }
+
+            @Override
+            protected void done() {
+                if (numero != generation) return;
+                enCours = null;
+                if (indicateur != null) indicateur.accept(false);
+                if (isCancelled()) return;
+                try {
+                    succes.accept(get());
+                } catch (CancellationException e) {
+                    // Annulée entre-temps : rien à afficher
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    echec.accept(cause instanceof Exception ? (Exception) cause : new Exception(cause));
+                }
+            }
+        };
+        enCours = worker;
+        worker.execute();
+    }
+
+    /**
+     * Ignore le résultat de la requête en cours, s'il y en a une
+     */
+    public void annuler() {
+        if (enCours == null) return;
+        generation++;
+        enCours.cancel(false);
+        enCours = null;
+        if (indicateur != null) indicateur.accept(false);
+    }
+
+    public boolean estEnCours() {
+        return enCours != null;
+    }
+}
@@ -0,0 +1,191 @@
+package com.agenda.controller;
+
+import com.agenda.controller.AgendaController.EvenementPartage;
+import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
+import com.agenda.modele.Utilisateur;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class CodecBinaireTest {
+
+    @Rule
+    public TemporaryFolder dossier = new TemporaryFolder();
+
+    @Test
+    public void evenementsRelusAvecRecurrenceEtChampsNuls() throws IOException {
+        Evenement serie = new Evenement("Staff hebdomadaire", "Revue des dossiers",
+            LocalDate.of(2026, 3, 2), LocalTime.of(8, 30), "Dr. Ahmed",
+            new ArrayList<>(Arrays.asList("Dr. Ahmed", "Infirmière Léa")), "ahmed");
+        serie.setId(12);
+        serie.setNotificationBeforeMinutes(-15);
+        serie.setDureeMinutes(90);
+        Recurrence recurrence = new Recurrence(Recurrence.Frequence.HEBDOMADAIRE, 2);
+        recurrence.setJours(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+        recurrence.setJusquAu(LocalDate.of(2026, 12, 31));
+        recurrence.setNombre(20);
+        recurrence.ajouterException(LocalDate.of(2026, 4, 6));
+        serie.setRecurrence(recurrence);
+
+        Evenement vide = new Evenement("Sans détail", null, LocalDate.of(1969, 12, 31),
+            LocalTime.of(23, 59, 59), null, null, null);
+        vide.setId(13);
+
+        StringBuilder longue = new StringBuilder();
+        for (int i = 0; i < 100000; i++) longue.append('é');
+        Evenement compteRendu = new Evenement("Compte rendu", longue.toString(),
+            LocalDate.of(2026, 3, 5), LocalTime.of(14, 0), "Dr. Ahmed", new ArrayList<>(), "ahmed");
+        compteRendu.setId(14);
+
+        List<Evenement> evenements = Arrays.asList(serie, vide, compteRendu);
+        List<Evenement> relus = CodecBinaire.decoderEvenements(CodecBinaire.encoderEvenements(evenements));
+
+        assertEquals(evenements.size(), relus.size());
+        for (int i = 0; i < evenements.size(); i++) {
+            assertEvenementIdentique(evenements.get(i), relus.get(i));
+        }
+        Recurrence relue = relus.get(0).getRecurrence();
+        assertEquals(recurrence.getFrequence(), relue.getFrequence());
+        assertEquals(recurrence.getIntervalle(), relue.getIntervalle());
+        assertEquals(recurrence.getJours(), relue.getJours());
+        assertEquals(recurrence.getJusquAu(), relue.getJusquAu());
+        assertEquals(recurrence.getNombre(), relue.getNombre());
+        assertEquals(recurrence.getExceptions(), relue.getExceptions());
+        assertNull(relus.get(1).getRecurrence());
+    }
+
+    @Test
+    public void utilisateursRelus() throws IOException {
+        Utilisateur complet = new Utilisateur("ahmed", "Dr. Ahmed", "MEDECIN", "ahmed@medisyns.fr",
+            LocalDate.of(2025, 1, 15), new ArrayList<>(Arrays.asList("Cardiologie", "Urgences")),
+            "0600000000", "Cardiologie", "#3498db", 42, 7, LocalDate.of(2026, 10, 1));
+        Utilisateur minimal = new Utilisateur("lea", null, "INFIRMIERE", null,
+            null, null, null, null, null, 0, 0, null);
+
+        List<Utilisateur> relus = CodecBinaire.decoderUtilisateurs(
+            CodecBinaire.encoderUtilisateurs(Arrays.asList(complet, minimal)));
+
+        assertEquals(2, relus.size());
+        for (int i = 0; i < 2; i++) {
+            Utilisateur attendu = i == 0 ? complet : minimal;
+            Utilisateur relu = relus.get(i);
+            assertEquals(attendu.getUsername(), relu.getUsername());
+            assertEquals(attendu.getNomComplet(), relu.getNomComplet());
+            assertEquals(attendu.getRole(), relu.getRole());
+            assertEquals(attendu.getEmail(), relu.getEmail());
+            assertEquals(attendu.getDateInscription(), relu.getDateInscription());
+            assertEquals(attendu.getSpecialites(), relu.getSpecialites());
+            assertEquals(attendu.getTelephone(), relu.getTelephone());
+            assertEquals(attendu.getService(), relu.getService());
+            assertEquals(attendu.getAvatarColor(), relu.getAvatarColor());
+            assertEquals(attendu.getNombreEvenementsCrees(), relu.getNombreEvenementsCrees());
+            assertEquals(attendu.getNombreEvenementsPartages(), relu.getNombreEvenementsPartages());
+            assertEquals(attendu.getDernierAcces(), relu.getDernierAcces());
+        }
+    }
+
+    @Test
+    public void partagesRelus() throws IOException {
+        EvenementPartage partage = new EvenementPartage(12, "Staff hebdomadaire", LocalDate.of(2026, 3, 2),
+            LocalTime.of(8, 30), Arrays.asList("lea", "ahmed"), LocalDateTime.of(2026, 2, 27, 17, 45, 12));
+
+        List<EvenementPartage> relus = CodecBinaire.decoderPartages(CodecBinaire.encoderPartages(List.of(partage)));
+
+        assertEquals(1, relus.size());
+        EvenementPartage relu = relus.get(0);
+        assertEquals(partage.getEvenementId(), relu.getEvenementId());
+        assertEquals(partage.getEvenementTitre(), relu.getEvenementTitre());
+        assertEquals(partage.getEvenementDate(), relu.getEvenementDate());
+        assertEquals(partage.getEvenementHeure(), relu.getEvenementHeure());
+        assertEquals(partage.getUtilisateursPartages(), relu.getUtilisateursPartages());
+        assertEquals(partage.getDatePartage(), relu.getDatePartage());
+    }
+
+    @Test
+    public void lireFichierAuFormatBinaire() throws Exception {
+        Evenement e = evenement(5, "Visite");
+        Path fichier = dossier.newFile("medisyns_data.bin").toPath();
+        Files.write(fichier, CodecBinaire.encoderEvenements(List.of(e)));
+
+        List<Evenement> relus = CodecBinaire.lireFichier(fichier, CodecBinaire::decoderEvenements);
+
+        assertEquals(1, relus.size());
+        assertEvenementIdentique(e, relus.get(0));
+    }
+
+    @Test
+    public void lireFichierSerialiseParUneAncienneVersion() throws Exception {
+        // Sauvegarde d'avant le format binaire : ArrayList<Evenement> par ObjectOutputStream
+        ArrayList<Evenement> anciens = new ArrayList<>();
+        anciens.add(evenement(1, "Consultation"));
+        anciens.add(evenement(2, "Garde"));
+        Path fichier = dossier.newFile("medisyns_data.ser").toPath();
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(fichier))) {
+            oos.writeObject(anciens);
+        }
+        assertFalse(CodecBinaire.estFormatBinaire(Files.readAllBytes(fichier)));
+
+        List<Evenement> relus = CodecBinaire.lireFichier(fichier, CodecBinaire::decoderEvenements);
+
+        assertEquals(2, relus.size());
+        assertEvenementIdentique(anciens.get(0), relus.get(0));
+        assertEvenementIdentique(anciens.get(1), relus.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void typeDeContenuInattenduRefuse() throws IOException {
+        byte[] utilisateurs = CodecBinaire.encoderUtilisateurs(List.of(
+            new Utilisateur("lea", "Léa", "INFIRMIERE", "lea@medisyns.fr")));
+        CodecBinaire.decoderEvenements(utilisateurs);
+    }
+
+    @Test
+    public void contenuTronqueRefuse() {
+        byte[] complet = CodecBinaire.encoderEvenements(List.of(evenement(1, "Consultation"), evenement(2, "Garde")));
+        for (int longueur = 0; longueur < complet.length; longueur++) {
+            try {
+                CodecBinaire.decoderEvenements(Arrays.copyOf(complet, longueur));
+                fail("Contenu tronqué à " + longueur + " octets accepté");
+            } catch (IOException attendue) {
+                // Tronqué : refusé
+            }
+        }
+    }
+
+    private static Evenement evenement(int id, String titre) {
+        Evenement e = new Evenement(titre, "Description " + id, LocalDate.of(2026, 3, id),
+            LocalTime.of(9, 0), "Dr. Ahmed", new ArrayList<>(List.of("Dr. Ahmed")), "ahmed");
+        e.setId(id);
+        return e;
+    }
+
+    private static void assertEvenementIdentique(Evenement attendu, Evenement relu) {
+        assertEquals(attendu.getId(), relu.getId());
+        assertEquals(attendu.getTitre(), relu.getTitre());
+        assertEquals(attendu.getDescription(), relu.getDescription());
+        assertEquals(attendu.getDate(), relu.getDate());
+        assertEquals(attendu.getHeure(), relu.getHeure());
+        assertEquals(attendu.getResponsable(), relu.getResponsable());
+        assertEquals(attendu.getParticipants(), relu.getParticipants());
+        assertEquals(attendu.getCreateurUsername(), relu.getCreateurUsername());
+        assertEquals(attendu.getNotificationBeforeMinutes(), relu.getNotificationBeforeMinutes());
+        assertEquals(attendu.getDureeMinutes(), relu.getDureeMinutes());
+        assertEquals(attendu.estRecurrent(), relu.estRecurrent());
+    }
+}
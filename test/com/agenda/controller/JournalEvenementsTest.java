@@ -0,0 +1,130 @@
+package com.agenda.controller;
+
+import com.agenda.modele.Evenement;
+import com.agenda.modele.Recurrence;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class JournalEvenementsTest {
+
+    @Rule
+    public TemporaryFolder dossier = new TemporaryFolder();
+
+    @Test
+    public void chaineDePlusDe64KoRelue() throws IOException {
+        // 40 000 caractères accentués : 80 000 octets en UTF-8, au-delà de la limite de writeUTF
+        StringBuilder longue = new StringBuilder();
+        for (int i = 0; i < 40000; i++) longue.append('é');
+        Evenement e = evenement(7, "Compte rendu", longue.toString());
+        e.setParticipants(Arrays.asList("Dr. Ahmed", longue.toString()));
+
+        String fichier = dossier.getRoot() + File.separator + "journal";
+        JournalEvenements journal = new JournalEvenements(fichier);
+        journal.journaliserAjout(e);
+        journal.synchroniser();
+        journal.fermer();
+
+        List<Evenement> relus = rejouer(fichier);
+        assertEquals(1, relus.size());
+        Evenement relu = relus.get(0);
+        assertEquals(7, relu.getId());
+        assertEquals(longue.toString(), relu.getDescription());
+        assertEquals(e.getParticipants(), relu.getParticipants());
+    }
+
+    @Test
+    public void chainesNullesEtSuppressionRelues() throws IOException {
+        Evenement e = evenement(3, "Visite", null);
+        e.setParticipants(null);
+        e.setCreateurUsername(null);
+
+        String fichier = dossier.getRoot() + File.separator + "journal";
+        JournalEvenements journal = new JournalEvenements(fichier);
+        journal.journaliserMiseAJour(e);
+        journal.journaliserSuppression(3);
+        journal.synchroniser();
+        journal.fermer();
+
+        List<Integer> supprimes = new ArrayList<>();
+        List<Evenement> relus = new ArrayList<>();
+        int rejoues = new JournalEvenements(fichier).rejouer(new JournalEvenements.Rejeu() {
+            @Override
+            public void ecriture(Evenement ev) {
+                relus.add(ev);
+            }
+
+            @Override
+            public void suppression(int id) {
+                supprimes.add(id);
+            }
+        });
+        assertEquals(2, rejoues);
+        assertEquals("Visite", relus.get(0).getTitre());
+        assertNull(relus.get(0).getDescription());
+        assertNull(relus.get(0).getParticipants());
+        assertNull(relus.get(0).getCreateurUsername());
+        assertEquals(Arrays.asList(3), supprimes);
+    }
+
+    @Test
+    public void dureeEtRecurrenceRelues() throws IOException {
+        Evenement serie = evenement(21, "Staff", "Revue des dossiers");
+        serie.setDureeMinutes(90);
+        Recurrence recurrence = new Recurrence(Recurrence.Frequence.HEBDOMADAIRE, 2);
+        recurrence.setJours(EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY));
+        recurrence.setJusquAu(LocalDate.of(2025, 12, 31));
+        recurrence.ajouterException(LocalDate.of(2025, 6, 9));
+        serie.setRecurrence(recurrence);
+
+        String fichier = dossier.getRoot() + File.separator + "journal";
+        JournalEvenements journal = new JournalEvenements(fichier);
+        journal.journaliserMiseAJour(serie);
+        journal.synchroniser();
+        journal.fermer();
+
+        Evenement relu = rejouer(fichier).get(0);
+        assertEquals(90, relu.getDureeMinutes());
+        Recurrence relue = relu.getRecurrence();
+        assertEquals(Recurrence.Frequence.HEBDOMADAIRE, relue.getFrequence());
+        assertEquals(2, relue.getIntervalle());
+        assertEquals(recurrence.getJours(), relue.getJours());
+        assertEquals(recurrence.getJusquAu(), relue.getJusquAu());
+        assertEquals(recurrence.getExceptions(), relue.getExceptions());
+    }
+
+    private static Evenement evenement(int id, String titre, String description) {
+        Evenement e = new Evenement(titre, description, LocalDate.of(2025, 6, 2), LocalTime.of(9, 0),
+                                    "Dr. Ahmed", new ArrayList<>(Arrays.asList("Lina")), "medecin");
+        e.setId(id);
+        return e;
+    }
+
+    private static List<Evenement> rejouer(String fichier) throws IOException {
+        List<Evenement> relus = new ArrayList<>();
+        new JournalEvenements(fichier).rejouer(new JournalEvenements.Rejeu() {
+            @Override
+            public void ecriture(Evenement e) {
+                relus.add(e);
+            }
+
+            @Override
+            public void suppression(int id) {
+                fail("suppression inattendue: " + id);
+            }
+        });
+        return relus;
+    }
+}